@@ -0,0 +1,33 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.cache;
+
+import java.time.Duration;
+import lombok.NonNull;
+
+/**
+ * @param maxSize      the maximum number of entries; when the cache is full, expired entries and then the oldest entries are evicted
+ * @param ttl          how long a loaded value is used
+ * @param refreshAhead how long before a value expires a read reloads it in the background, while the current value is still returned; {@link Duration#ZERO}
+ *                     disables refreshing ahead
+ * @param negativeTtl  how long the absence of a value is remembered; {@link Duration#ZERO} disables negative caching
+ */
+public record CacheSettings(int maxSize, @NonNull Duration ttl, @NonNull Duration refreshAhead, @NonNull Duration negativeTtl) {
+
+  public CacheSettings {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl must be positive");
+    }
+    if (refreshAhead.isNegative() || refreshAhead.compareTo(ttl) >= 0) {
+      throw new IllegalArgumentException("refreshAhead must not be negative and must be shorter than ttl");
+    }
+    if (negativeTtl.isNegative()) {
+      throw new IllegalArgumentException("negativeTtl must not be negative");
+    }
+  }
+}
@@ -0,0 +1,24 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.cache;
+
+/**
+ * Counters of an {@link ExpiringCache} since it was created. A read of a remembered absent value counts as a hit.
+ *
+ * @param hits      reads answered from the cache
+ * @param misses    reads that had to load the value
+ * @param refreshes background reloads started because a value was about to expire
+ * @param evictions entries removed because the cache was full
+ */
+public record CacheStats(long hits, long misses, long refreshes, long evictions) {
+
+  /**
+   * @return the fraction of reads answered from the cache, or 1 when nothing was read yet
+   */
+  public double hitRate() {
+    var requests = hits + misses;
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+}
@@ -0,0 +1,315 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.cache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.extern.apachecommons.CommonsLog;
+
+/**
+ * Thread-safe, bounded cache of values that expire after a fixed time.
+ *
+ * <p>Values are loaded with the loader on a miss. A loader returns an empty result for keys without a value, which is remembered for the negative TTL of
+ * the {@link CacheSettings}. Exceptions of the loader are passed to the caller and never cached. Concurrent misses of the same key share a single load. A value
+ * that is read shortly before it expires is reloaded in the background, so frequently used keys never block on the loader.</p>
+ *
+ * <p>Values may carry their own expiry, such as an access token, which is then used instead of the TTL of the settings.</p>
+ *
+ * <p>Reads do not lock. Writes take a lock and keep the entries in the order in which they were stored, so a full cache evicts without scanning the cache.
+ * With the fixed TTL of the settings, that is the entry that expires first.</p>
+ */
+@CommonsLog
+public class ExpiringCache<K, V> {
+
+  private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  // Guarded by the write lock, in the order in which the entries were stored; unless values carry their own expiry, this is the order of expiry
+  private final LinkedHashMap<K, Entry<V>> values = new LinkedHashMap<>();
+  private final LinkedHashMap<K, Entry<V>> absences = new LinkedHashMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  // The loads in progress, so concurrent misses of the same key wait for the same load
+  private final Map<K, CompletableFuture<Optional<V>>> loads = new ConcurrentHashMap<>();
+  private final Function<K, Optional<V>> loader;
+  private final Function<? super V, Instant> expiry;
+  private final CacheSettings settings;
+  private final Executor refreshExecutor;
+  private final Clock clock;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public ExpiringCache(Function<K, Optional<V>> loader, CacheSettings settings) {
+    this(loader, settings, ForkJoinPool.commonPool(), Clock.systemUTC());
+  }
+
+  /**
+   * @param refreshExecutor runs the background reloads of values that are about to expire
+   */
+  public ExpiringCache(@NonNull Function<K, Optional<V>> loader, @NonNull CacheSettings settings, @NonNull Executor refreshExecutor, @NonNull Clock clock) {
+    this(loader, value -> null, settings, refreshExecutor, clock);
+  }
+
+  /**
+   * @param expiry returns when a value expires, or {@code null} to use the TTL of the settings; values that have already expired are not cached
+   */
+  public ExpiringCache(@NonNull Function<K, Optional<V>> loader, @NonNull Function<? super V, Instant> expiry, @NonNull CacheSettings settings,
+                       @NonNull Executor refreshExecutor, @NonNull Clock clock) {
+    this.loader = loader;
+    this.expiry = expiry;
+    this.settings = settings;
+    this.refreshExecutor = refreshExecutor;
+    this.clock = clock;
+  }
+
+  /**
+   * @return the cached value, or the value returned by the loader when there is no valid cached value
+   */
+  public Optional<V> get(@NonNull K key) {
+    var now = clock.millis();
+    var entry = entries.get(key);
+    if (entry != null && !entry.isExpired(now)) {
+      hits.increment();
+      if (entry.shouldRefresh(now)) {
+        refreshAsync(key, entry);
+      }
+      return entry.value();
+    }
+
+    return load(key);
+  }
+
+  /**
+   * @return the cached value, without loading it when there is no valid cached value
+   */
+  public Optional<V> getIfPresent(@NonNull K key) {
+    var entry = entries.get(key);
+    if (entry == null || entry.isExpired(clock.millis()) || entry.value().isEmpty()) {
+      misses.increment();
+      return Optional.empty();
+    }
+    hits.increment();
+    return entry.value();
+  }
+
+  /**
+   * Caches a value that was obtained without the loader.
+   */
+  public void put(@NonNull K key, @NonNull V value) {
+    store(key, Optional.of(value), clock.millis());
+  }
+
+  /**
+   * Removes the cached value of the key, for example because a key was rotated, so the next read loads it again.
+   */
+  public void invalidate(@NonNull K key) {
+    writeLock.lock();
+    try {
+      // A load in progress may return the value that is invalidated, so its result is not cached
+      loads.remove(key);
+      remove(key);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void invalidateAll() {
+    writeLock.lock();
+    try {
+      loads.clear();
+      entries.clear();
+      values.clear();
+      absences.clear();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public CacheStats stats() {
+    return new CacheStats(hits.sum(), misses.sum(), refreshes.sum(), evictions.sum());
+  }
+
+  private Optional<V> load(K key) {
+    var loading = new CompletableFuture<Optional<V>>();
+    var current = loads.putIfAbsent(key, loading);
+    if (current != null) {
+      hits.increment();
+      return await(current);
+    }
+
+    try {
+      // The value may have been stored by a load that finished after this read missed it
+      var entry = entries.get(key);
+      if (entry != null && !entry.isExpired(clock.millis())) {
+        hits.increment();
+        loading.complete(entry.value());
+        return entry.value();
+      }
+      misses.increment();
+      var value = loader.apply(key);
+      storeIfLoading(key, loading, value);
+      loading.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      // Concurrent misses waiting for this load fail with the same exception
+      loading.completeExceptionally(e);
+      throw e;
+    } finally {
+      loads.remove(key, loading);
+    }
+  }
+
+  /**
+   * Stores the loaded value, unless the key was invalidated while it was loaded.
+   */
+  private void storeIfLoading(K key, CompletableFuture<Optional<V>> loading, Optional<V> value) {
+    writeLock.lock();
+    try {
+      if (loads.get(key) == loading) {
+        store(key, value, clock.millis());
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void store(K key, Optional<V> value, long now) {
+    writeLock.lock();
+    try {
+      remove(key);
+      var expiresAt = expiresAt(value, now);
+      if (expiresAt <= now) {
+        return;
+      }
+      var refreshAt = value.isPresent() && !settings.refreshAhead().isZero() ? expiresAt - settings.refreshAhead().toMillis() : Long.MAX_VALUE;
+      var entry = new Entry<>(value, refreshAt, expiresAt);
+      entries.put(key, entry);
+      order(entry).put(key, entry);
+      while (entries.size() > settings.maxSize()) {
+        evictFirstExpiring(now);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private long expiresAt(Optional<V> value, long now) {
+    if (value.isEmpty()) {
+      return now + settings.negativeTtl().toMillis();
+    }
+    var valueExpiresAt = expiry.apply(value.get());
+    return valueExpiresAt != null ? valueExpiresAt.toEpochMilli() : now + settings.ttl().toMillis();
+  }
+
+  /**
+   * Stores the reloaded value, unless the entry that triggered the reload was replaced or invalidated in the meantime.
+   */
+  private void storeIfCurrent(K key, Entry<V> current, Optional<V> value) {
+    writeLock.lock();
+    try {
+      if (entries.get(key) == current) {
+        store(key, value, clock.millis());
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Called with the write lock held.
+   */
+  private void remove(K key) {
+    var entry = entries.remove(key);
+    if (entry != null) {
+      order(entry).remove(key);
+    }
+  }
+
+  /**
+   * Removes the value or absence that expires first; removing an entry that already expired does not count as an eviction. Called with the write lock held.
+   */
+  private void evictFirstExpiring(long now) {
+    var firstValue = values.firstEntry();
+    var firstAbsence = absences.firstEntry();
+    var first = firstAbsence == null || firstValue != null && firstValue.getValue().expiresAt() <= firstAbsence.getValue().expiresAt()
+        ? firstValue : firstAbsence;
+    remove(first.getKey());
+    if (!first.getValue().isExpired(now)) {
+      evictions.increment();
+    }
+  }
+
+  private static <V> Optional<V> await(CompletableFuture<Optional<V>> loading) {
+    try {
+      return loading.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private LinkedHashMap<K, Entry<V>> order(Entry<V> entry) {
+    return entry.value().isPresent() ? values : absences;
+  }
+
+  private void refreshAsync(K key, Entry<V> entry) {
+    if (!entry.refreshing().compareAndSet(false, true)) {
+      return;
+    }
+    refreshes.increment();
+    try {
+      refreshExecutor.execute(() -> refresh(key, entry));
+    } catch (RejectedExecutionException e) {
+      entry.refreshing().set(false);
+    }
+  }
+
+  private void refresh(K key, Entry<V> entry) {
+    try {
+      var value = loader.apply(key);
+      // Only replace the entry that triggered the refresh, so an invalidation in the meantime is not undone
+      storeIfCurrent(key, entry, value);
+    } catch (RuntimeException e) {
+      // The current value is used until it expires; the next read after that loads it again
+      log.warn("Failed to refresh cached value of " + key, e);
+      entry.refreshing().set(false);
+    }
+  }
+
+  private record Entry<V>(Optional<V> value, long refreshAt, long expiresAt, AtomicBoolean refreshing) {
+
+    Entry(Optional<V> value, long refreshAt, long expiresAt) {
+      this(value, refreshAt, expiresAt, new AtomicBoolean());
+    }
+
+    boolean isExpired(long now) {
+      return now >= expiresAt;
+    }
+
+    boolean shouldRefresh(long now) {
+      return now >= refreshAt;
+    }
+  }
+}
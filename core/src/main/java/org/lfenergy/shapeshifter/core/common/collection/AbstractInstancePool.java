@@ -4,18 +4,51 @@
 
 package org.lfenergy.shapeshifter.core.common.collection;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractInstancePool<T> implements InstancePool<T> {
 
+  public static final int UNBOUNDED = Integer.MAX_VALUE;
+
   private final ConcurrentLinkedQueue<T> instancePool = new ConcurrentLinkedQueue<>();
+  // The idle instances by identity, so a double release is detected without scanning the queue
+  private final Set<IdentityKey> idleInstances = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final int maxIdle;
+
+  protected AbstractInstancePool() {
+    this(UNBOUNDED);
+  }
+
+  /**
+   * @param maxIdle the maximum number of idle instances kept in the pool; instances released while the pool is full are discarded
+   */
+  protected AbstractInstancePool(int maxIdle) {
+    if (maxIdle < 0) {
+      throw new IllegalArgumentException("maxIdle must not be negative");
+    }
+    this.maxIdle = maxIdle;
+  }
 
   protected abstract T create();
 
+  /**
+   * Brings a released instance back to a clean state before it is offered to the next claimer. Instances for which this method throws are discarded.
+   */
+  protected void reset(T instance) {
+    // No state to reset by default
+  }
+
   @Override
-  @SuppressWarnings("squid:S2250") // Ignore sonar: size() is expensive for large ConcurrentLinkedQueue
   public int size() {
-    return instancePool.size();
+    return idleCount.get();
+  }
+
+  public int getMaxIdle() {
+    return maxIdle;
   }
 
   @Override
@@ -23,22 +56,59 @@ public abstract class AbstractInstancePool<T> implements InstancePool<T> {
     T instance = instancePool.poll();
     if (null == instance) {
       instance = create();
+    } else {
+      idleInstances.remove(new IdentityKey(instance));
+      idleCount.decrementAndGet();
     }
     return instance;
   }
 
+  /**
+   * Creates instances up front until the pool holds {@code count} idle instances or is full, so the first claimers do not pay the creation cost.
+   *
+   * @return the number of idle instances after pre-filling
+   */
+  public int prefill(int count) {
+    while (size() < Math.min(count, maxIdle)) {
+      T instance = create();
+      if (idleCount.incrementAndGet() > maxIdle) {
+        idleCount.decrementAndGet();
+        break;
+      }
+      idleInstances.add(new IdentityKey(instance));
+      instancePool.offer(instance);
+    }
+    return size();
+  }
+
   @Override
   public void release(final T instance) {
     if (null == instance) {
       return;
     }
     // Prevent instances being released twice
-    if (!alreadyContains(instance)) {
-      instancePool.offer(instance);
+    var key = new IdentityKey(instance);
+    if (!idleInstances.add(key)) {
+      return;
     }
+    if (!tryReset(instance)) {
+      idleInstances.remove(key);
+      return;
+    }
+    if (idleCount.incrementAndGet() > maxIdle) {
+      idleCount.decrementAndGet();
+      idleInstances.remove(key);
+      return;
+    }
+    instancePool.offer(instance);
   }
 
-  private boolean alreadyContains(final T instance) {
-    return instancePool.stream().anyMatch(x -> x == instance);
+  private boolean tryReset(final T instance) {
+    try {
+      reset(instance);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
   }
 }
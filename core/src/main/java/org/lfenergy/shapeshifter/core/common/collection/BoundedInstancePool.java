@@ -0,0 +1,299 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.collection;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * Instance pool with an upper bound on the number of instances, claimed and idle together, so a burst of claims cannot permanently grow the pool. When all
+ * instances are claimed, a claim waits up to the claim timeout for one to be released and then fails with status 503.
+ *
+ * <p>Every instance has a lease flag, so a release is checked in constant time: instances that are released twice, or that were not claimed from this pool,
+ * are ignored. Idle instances are claimed most recently used first; with a maximum idle time, the instances that were idle the longest are evicted on release
+ * and by {@link #evictIdle()}, down to the minimum number of idle instances.</p>
+ */
+public abstract class BoundedInstancePool<T> implements InstancePool<T> {
+
+  private final InstancePoolSettings settings;
+  private final Clock clock;
+  private final Semaphore permits;
+  private final ConcurrentLinkedDeque<Slot<T>> idleSlots = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicInteger instanceCount = new AtomicInteger();
+  private final ConcurrentHashMap<IdentityKey, Slot<T>> slots = new ConcurrentHashMap<>();
+  private final LongAdder creates = new LongAdder();
+  private final LongAdder waits = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  // Wakes claims that hold a permit but find the pool full while another thread is still creating or discarding an instance
+  private final ReentrantLock slotLock = new ReentrantLock();
+  private final Condition slotAvailable = slotLock.newCondition();
+  private final AtomicInteger slotWaiters = new AtomicInteger();
+
+  protected BoundedInstancePool(InstancePoolSettings settings) {
+    this(settings, Clock.systemUTC());
+  }
+
+  protected BoundedInstancePool(@NonNull InstancePoolSettings settings, @NonNull Clock clock) {
+    this.settings = settings;
+    this.clock = clock;
+    // A fair semaphore hands released instances to the claims that waited the longest
+    this.permits = new Semaphore(settings.maxSize(), true);
+  }
+
+  protected abstract T create();
+
+  /**
+   * Brings a released instance back to a clean state before it is offered to the next claimer. Instances for which this method throws are discarded.
+   */
+  protected void reset(T instance) {
+    // No state to reset by default
+  }
+
+  /**
+   * Releases the resources of an instance that is discarded or evicted.
+   */
+  protected void destroy(T instance) {
+    // Nothing to release by default
+  }
+
+  /**
+   * @return the number of idle instances
+   */
+  @Override
+  public int size() {
+    return idleCount.get();
+  }
+
+  public InstancePoolSettings getSettings() {
+    return settings;
+  }
+
+  public InstancePoolStats stats() {
+    return new InstancePoolStats(instanceCount.get(), idleCount.get(), creates.sum(), waits.sum(), rejections.sum());
+  }
+
+  /**
+   * @throws UftpConnectorException with status 503 if no instance becomes available within the claim timeout
+   */
+  @Override
+  public T claim() {
+    acquirePermit();
+    try {
+      var slot = claimSlot();
+      slot.leased.set(true);
+      return slot.instance;
+    } catch (RuntimeException cause) {
+      permits.release();
+      throw cause;
+    }
+  }
+
+  @Override
+  public void release(final T instance) {
+    if (null == instance) {
+      return;
+    }
+    var slot = slots.get(new IdentityKey(instance));
+    // Instances that are released twice, or were not claimed from this pool, would break the bound
+    if (slot == null || !slot.leased.compareAndSet(true, false)) {
+      return;
+    }
+    try {
+      if (tryReset(instance)) {
+        slot.idleSince = clock.millis();
+        idleCount.incrementAndGet();
+        idleSlots.offerFirst(slot);
+        signalSlotAvailable();
+      } else {
+        discard(slot);
+      }
+    } finally {
+      permits.release();
+    }
+    evictIdle();
+  }
+
+  /**
+   * Creates instances up front until the pool holds {@code count} idle instances or is full, so the first claimers do not pay the creation cost.
+   *
+   * @return the number of idle instances after pre-filling
+   */
+  public int prefill(int count) {
+    while (size() < Math.min(count, settings.maxSize()) && reserveInstance()) {
+      var slot = createSlot();
+      slot.idleSince = clock.millis();
+      idleCount.incrementAndGet();
+      idleSlots.offerFirst(slot);
+      signalSlotAvailable();
+    }
+    return size();
+  }
+
+  /**
+   * Evicts the instances that were idle for longer than the maximum idle time, keeping the minimum number of idle instances.
+   *
+   * @return the number of evicted instances
+   */
+  public int evictIdle() {
+    if (settings.maxIdleTime().isZero()) {
+      return 0;
+    }
+    var idleSinceLimit = clock.millis() - settings.maxIdleTime().toMillis();
+    var evicted = 0;
+    while (idleCount.get() > settings.minIdle()) {
+      // The deque is ordered by release time, so the instance that was idle the longest is at the end
+      var oldest = idleSlots.peekLast();
+      if (oldest == null || oldest.idleSince > idleSinceLimit) {
+        break;
+      }
+      if (idleSlots.removeLastOccurrence(oldest)) {
+        idleCount.decrementAndGet();
+        discard(oldest);
+        evicted++;
+      }
+    }
+    return evicted;
+  }
+
+  private void acquirePermit() {
+    try {
+      if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+        return;
+      }
+      if (!settings.claimTimeout().isZero()) {
+        waits.increment();
+        if (permits.tryAcquire(settings.claimTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+          return;
+        }
+      }
+    } catch (InterruptedException cause) {
+      Thread.currentThread().interrupt();
+      rejections.increment();
+      throw new UftpConnectorException("Interrupted while waiting for a pooled instance", HttpStatusCode.SERVICE_UNAVAILABLE, cause);
+    }
+    rejections.increment();
+    throw new UftpConnectorException(String.format("No pooled instance available within %d ms; all %d instances are claimed",
+                                                   settings.claimTimeout().toMillis(), settings.maxSize()), HttpStatusCode.SERVICE_UNAVAILABLE);
+  }
+
+  private Slot<T> claimSlot() {
+    while (true) {
+      var slot = idleSlots.pollFirst();
+      if (slot != null) {
+        idleCount.decrementAndGet();
+        return slot;
+      }
+      if (reserveInstance()) {
+        return createSlot();
+      }
+      awaitSlot();
+    }
+  }
+
+  /**
+   * Waits until an instance becomes idle or can be created. This claim holds a permit, so the pool is only full because another thread is still creating an
+   * instance for pre-filling, or is discarding one; either way an instance or a free place is on its way.
+   */
+  private void awaitSlot() {
+    slotWaiters.incrementAndGet();
+    slotLock.lock();
+    try {
+      while (idleSlots.isEmpty() && instanceCount.get() >= settings.maxSize()) {
+        slotAvailable.await();
+      }
+    } catch (InterruptedException cause) {
+      Thread.currentThread().interrupt();
+      rejections.increment();
+      throw new UftpConnectorException("Interrupted while waiting for a pooled instance", HttpStatusCode.SERVICE_UNAVAILABLE, cause);
+    } finally {
+      slotLock.unlock();
+      slotWaiters.decrementAndGet();
+    }
+  }
+
+  private void signalSlotAvailable() {
+    // Waiters register before they check the pool, so a waiter that is not seen here sees the idle instance or free place instead
+    if (slotWaiters.get() == 0) {
+      return;
+    }
+    slotLock.lock();
+    try {
+      slotAvailable.signalAll();
+    } finally {
+      slotLock.unlock();
+    }
+  }
+
+  private boolean reserveInstance() {
+    var count = instanceCount.get();
+    while (count < settings.maxSize()) {
+      if (instanceCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+      count = instanceCount.get();
+    }
+    return false;
+  }
+
+  /**
+   * Creates an instance for which {@link #reserveInstance()} succeeded.
+   */
+  private Slot<T> createSlot() {
+    Slot<T> slot;
+    try {
+      slot = new Slot<>(create());
+    } catch (RuntimeException cause) {
+      instanceCount.decrementAndGet();
+      signalSlotAvailable();
+      throw cause;
+    }
+    creates.increment();
+    slots.put(new IdentityKey(slot.instance), slot);
+    return slot;
+  }
+
+  private void discard(Slot<T> slot) {
+    slots.remove(new IdentityKey(slot.instance));
+    instanceCount.decrementAndGet();
+    signalSlotAvailable();
+    try {
+      destroy(slot.instance);
+    } catch (RuntimeException e) {
+      // The instance is dropped either way
+    }
+  }
+
+  private boolean tryReset(final T instance) {
+    try {
+      reset(instance);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static final class Slot<T> {
+
+    private final T instance;
+    private final AtomicBoolean leased = new AtomicBoolean();
+    private volatile long idleSince;
+
+    private Slot(T instance) {
+      this.instance = instance;
+    }
+  }
+}
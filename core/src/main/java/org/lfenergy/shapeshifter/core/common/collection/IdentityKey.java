@@ -0,0 +1,21 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.collection;
+
+/**
+ * Map key that compares the wrapped instance by identity, so pooled instances with their own {@code equals} are still told apart.
+ */
+record IdentityKey(Object instance) {
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof IdentityKey other && instance == other.instance;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(instance);
+  }
+}
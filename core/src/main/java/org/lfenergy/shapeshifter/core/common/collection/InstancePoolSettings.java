@@ -0,0 +1,32 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.collection;
+
+import java.time.Duration;
+import lombok.NonNull;
+
+/**
+ * @param minIdle      the number of idle instances that idle eviction keeps
+ * @param maxSize      the maximum number of instances, claimed and idle together
+ * @param maxIdleTime  how long an instance may be idle before it is evicted; {@link Duration#ZERO} disables idle eviction
+ * @param claimTimeout how long a claim waits for an instance when all instances are claimed; {@link Duration#ZERO} fails the claim immediately
+ */
+public record InstancePoolSettings(int minIdle, int maxSize, @NonNull Duration maxIdleTime, @NonNull Duration claimTimeout) {
+
+  public InstancePoolSettings {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    if (minIdle < 0 || minIdle > maxSize) {
+      throw new IllegalArgumentException("minIdle must not be negative and must not exceed maxSize");
+    }
+    if (maxIdleTime.isNegative()) {
+      throw new IllegalArgumentException("maxIdleTime must not be negative");
+    }
+    if (claimTimeout.isNegative()) {
+      throw new IllegalArgumentException("claimTimeout must not be negative");
+    }
+  }
+}
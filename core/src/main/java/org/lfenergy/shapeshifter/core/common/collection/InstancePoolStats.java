@@ -0,0 +1,18 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.collection;
+
+/**
+ * State and counters of a {@link BoundedInstancePool}. The counters are totals since the pool was created.
+ *
+ * @param size       the number of instances, claimed and idle together
+ * @param idle       the number of idle instances
+ * @param creates    instances created
+ * @param waits      claims that had to wait because all instances were claimed
+ * @param rejections claims that failed because no instance became available in time
+ */
+public record InstancePoolStats(int size, int idle, long creates, long waits, long rejections) {
+
+}
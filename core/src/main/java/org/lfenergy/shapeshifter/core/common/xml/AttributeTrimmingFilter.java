@@ -12,18 +12,37 @@ import org.xml.sax.helpers.XMLFilterImpl;
  * the XML parsing process. Specifically, it overrides the {@code startElement} method to
  * ensure that all attribute values are stripped of leading and trailing whitespace.
  * </p>
+ * <p>
+ * Attributes are only copied for elements that actually have a value with surrounding whitespace;
+ * all other elements are passed on unchanged.
+ * </p>
  */
 class AttributeTrimmingFilter extends XMLFilterImpl {
 
+    // Reused for every element, SAX only guarantees attributes to be valid during the startElement call
+    private final AttributesImpl trimmedAttributes = new AttributesImpl();
+
     @Override
     public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
-        var trimmedAttributes = new AttributesImpl(attributes);
+        super.startElement(uri, localName, qName, trim(attributes));
+    }
 
-        for (var i = 0; i < trimmedAttributes.getLength(); i++) {
-            var value = trimmedAttributes.getValue(i);
-            trimmedAttributes.setValue(i, value != null ? value.trim() : null);
+    private Attributes trim(Attributes attributes) {
+        for (var i = 0; i < attributes.getLength(); i++) {
+            if (needsTrimming(attributes.getValue(i))) {
+                trimmedAttributes.setAttributes(attributes);
+                for (var j = i; j < trimmedAttributes.getLength(); j++) {
+                    var value = trimmedAttributes.getValue(j);
+                    trimmedAttributes.setValue(j, value != null ? value.trim() : null);
+                }
+                return trimmedAttributes;
+            }
         }
+        return attributes;
+    }
 
-        super.startElement(uri, localName, qName, trimmedAttributes);
+    private static boolean needsTrimming(String value) {
+        // Same definition of whitespace as String#trim()
+        return value != null && !value.isEmpty() && (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ');
     }
 }
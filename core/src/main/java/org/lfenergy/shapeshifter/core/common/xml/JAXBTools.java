@@ -10,17 +10,51 @@ import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.util.JAXBResult;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import org.lfenergy.shapeshifter.api.ObjectFactory;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 
+/**
+ * Provides JAXB contexts and pooled (un)marshallers. All classes of the generated UFTP model, including the {@link org.lfenergy.shapeshifter.api.SignedMessage}
+ * envelope, share a single context built from its {@link ObjectFactory}; other classes get a context of their own.
+ */
 public class JAXBTools {
 
+  /**
+   * Default maximum number of idle (un)marshallers that are kept per type.
+   */
+  public static final int DEFAULT_MAX_POOLED_INSTANCES = 32;
+
   private static final Map<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<>();
 
+  // Keyed by context, so all types of the shared UFTP model context share one pool
+  private final Map<JAXBContext, MarshallerPool> marshallerPools = new ConcurrentHashMap<>();
+  private final Map<JAXBContext, UnmarshallerPool> unmarshallerPools = new ConcurrentHashMap<>();
+  private final int maxPooledInstances;
+
+  public JAXBTools() {
+    this(DEFAULT_MAX_POOLED_INSTANCES);
+  }
+
+  /**
+   * @param maxPooledInstances the maximum number of idle marshallers and unmarshallers that are kept per type; 0 disables pooling
+   */
+  public JAXBTools(int maxPooledInstances) {
+    if (maxPooledInstances < 0) {
+      throw new IllegalArgumentException("maxPooledInstances must not be negative");
+    }
+    this.maxPooledInstances = maxPooledInstances;
+  }
+
   public JAXBContext getJAXBContext(final Class<?> type) {
       if (type == null) {
           throw new UftpConnectorException("Type to (de)serialize must be specified");
       }
-      return JAXB_CONTEXTS.computeIfAbsent(type, key -> createJAXBContext(type));
+      var contextType = isUftpModelType(type) ? ObjectFactory.class : type;
+      return JAXB_CONTEXTS.computeIfAbsent(contextType, JAXBTools::createJAXBContext);
+  }
+
+  private static boolean isUftpModelType(Class<?> type) {
+    return ObjectFactory.class.getPackageName().equals(type.getPackageName());
   }
 
   private static JAXBContext createJAXBContext(Class<?> type) {
@@ -47,6 +81,60 @@ public class JAXBTools {
     }
   }
 
+  /**
+   * Claims a pooled marshaller for the given type. Return it with {@link #releaseMarshaller(Class, Marshaller)} once done; do not release marshallers that failed.
+   */
+  public Marshaller claimMarshaller(final Class<?> type) {
+    try {
+      return marshallerPool(type).claim();
+    } catch (final Exception cause) {
+      throw new UftpConnectorException("Failed to create JAXB Marshaller for class: " + type, cause);
+    }
+  }
+
+  public void releaseMarshaller(final Class<?> type, final Marshaller marshaller) {
+    if (type != null) {
+      marshallerPool(type).release(marshaller);
+    }
+  }
+
+  /**
+   * Claims a pooled unmarshaller for the given type. Return it with {@link #releaseUnmarshaller(Class, Unmarshaller)} once done; do not release unmarshallers that failed.
+   */
+  public Unmarshaller claimUnmarshaller(final Class<?> type) {
+    try {
+      return unmarshallerPool(type).claim();
+    } catch (final Exception cause) {
+      throw new UftpConnectorException("Failed to create JAXB unmarshaller for class: " + type, cause);
+    }
+  }
+
+  public void releaseUnmarshaller(final Class<?> type, final Unmarshaller unmarshaller) {
+    if (type != null) {
+      unmarshallerPool(type).release(unmarshaller);
+    }
+  }
+
+  /**
+   * Creates the JAXB context for the given type and pre-fills its marshaller and unmarshaller pools with up to {@code count} instances each.
+   */
+  public void prefill(final Class<?> type, int count) {
+    marshallerPool(type).prefill(count);
+    unmarshallerPool(type).prefill(count);
+  }
+
+  public int getMaxPooledInstances() {
+    return maxPooledInstances;
+  }
+
+  private MarshallerPool marshallerPool(final Class<?> type) {
+    return marshallerPools.computeIfAbsent(getJAXBContext(type), context -> new MarshallerPool(context, maxPooledInstances));
+  }
+
+  private UnmarshallerPool unmarshallerPool(final Class<?> type) {
+    return unmarshallerPools.computeIfAbsent(getJAXBContext(type), context -> new UnmarshallerPool(context, maxPooledInstances));
+  }
+
   public JAXBResult newJAXBResult(final Class<?> type) {
     try {
       return new JAXBResult(getJAXBContext(type));
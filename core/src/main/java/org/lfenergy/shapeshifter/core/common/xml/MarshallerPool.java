@@ -0,0 +1,44 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.xml;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import org.lfenergy.shapeshifter.core.common.collection.AbstractInstancePool;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * Pool of {@link Marshaller} instances for a single {@link JAXBContext}. A marshaller is not thread-safe, so it must only be used by the thread that claimed it.
+ */
+class MarshallerPool extends AbstractInstancePool<Marshaller> {
+
+  private final JAXBContext context;
+
+  MarshallerPool(JAXBContext context, int maxIdle) {
+    super(maxIdle);
+    this.context = context;
+  }
+
+  @Override
+  protected Marshaller create() {
+    try {
+      return context.createMarshaller();
+    } catch (final JAXBException cause) {
+      throw new UftpConnectorException("Failed to create JAXB Marshaller for context: " + context, cause);
+    }
+  }
+
+  @Override
+  protected void reset(Marshaller marshaller) {
+    try {
+      marshaller.setSchema(null);
+      marshaller.setListener(null);
+      marshaller.setEventHandler(null);
+    } catch (final JAXBException cause) {
+      throw new UftpConnectorException("Failed to reset JAXB Marshaller", cause);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.xml;
+
+import java.io.IOException;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * An XML filter that validates the events of its parent parser against a schema before passing them on.
+ * <p>
+ * It sits directly on top of the parser, below the {@link AttributeTrimmingFilter}, so the document is validated as it was received, exactly like a separate
+ * validation pass over the raw XML does. Without a schema, events are passed on unchanged.
+ * </p>
+ */
+class SchemaValidatingFilter extends XMLFilterImpl {
+
+  private Schema schema;
+  // Kept for the next parse with the same schema; a validator handler can validate one document after another
+  private Schema validatorSchema;
+  private ValidatorHandler validatorHandler;
+
+  /**
+   * @param schema the schema to validate the next documents against, or {@code null} to skip validation
+   */
+  void setSchema(Schema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  public void parse(InputSource input) throws SAXException, IOException {
+    if (schema == null) {
+      super.parse(input);
+      return;
+    }
+    var handler = validatorHandler();
+    // The validator reports errors by throwing them; valid events are passed on to the handler above this filter
+    handler.setContentHandler(getContentHandler());
+    var parent = getParent();
+    parent.setEntityResolver(this);
+    parent.setDTDHandler(this);
+    parent.setErrorHandler(this);
+    parent.setContentHandler(handler);
+    try {
+      parent.parse(input);
+    } finally {
+      handler.setContentHandler(null);
+    }
+  }
+
+  private ValidatorHandler validatorHandler() {
+    if (validatorSchema != schema) {
+      validatorHandler = schema.newValidatorHandler();
+      validatorSchema = schema;
+    }
+    return validatorHandler;
+  }
+}
@@ -0,0 +1,44 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.xml;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import org.lfenergy.shapeshifter.core.common.collection.AbstractInstancePool;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * Pool of {@link Unmarshaller} instances for a single {@link JAXBContext}. An unmarshaller is not thread-safe, so it must only be used by the thread that claimed it.
+ */
+class UnmarshallerPool extends AbstractInstancePool<Unmarshaller> {
+
+  private final JAXBContext context;
+
+  UnmarshallerPool(JAXBContext context, int maxIdle) {
+    super(maxIdle);
+    this.context = context;
+  }
+
+  @Override
+  protected Unmarshaller create() {
+    try {
+      return context.createUnmarshaller();
+    } catch (final JAXBException cause) {
+      throw new UftpConnectorException("Failed to create JAXB unmarshaller for context: " + context, cause);
+    }
+  }
+
+  @Override
+  protected void reset(Unmarshaller unmarshaller) {
+    try {
+      unmarshaller.setSchema(null);
+      unmarshaller.setListener(null);
+      unmarshaller.setEventHandler(null);
+    } catch (final JAXBException cause) {
+      throw new UftpConnectorException("Failed to reset JAXB unmarshaller", cause);
+    }
+  }
+}
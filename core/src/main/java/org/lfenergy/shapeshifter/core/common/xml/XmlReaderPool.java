@@ -0,0 +1,69 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.xml;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.validation.Schema;
+import org.lfenergy.shapeshifter.core.common.collection.AbstractInstancePool;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLFilter;
+import org.xml.sax.XMLReader;
+
+/**
+ * Pool of {@link XMLReader} chains: a parser from the given (secured) factory with a {@link SchemaValidatingFilter} and an {@link AttributeTrimmingFilter} on
+ * top. Creating a SAX parser is
+ * expensive, while a reader can parse another document once the previous parse has finished. A reader is not thread-safe, so it must only be used by the thread
+ * that claimed it.
+ */
+class XmlReaderPool extends AbstractInstancePool<XMLReader> {
+
+  private final SAXParserFactory saxParserFactory;
+
+  XmlReaderPool(SAXParserFactory saxParserFactory, int maxIdle) {
+    super(maxIdle);
+    this.saxParserFactory = saxParserFactory;
+  }
+
+  @Override
+  protected XMLReader create() {
+    try {
+      var schemaValidatingFilter = new SchemaValidatingFilter();
+      schemaValidatingFilter.setParent(saxParserFactory.newSAXParser().getXMLReader());
+      var attributeTrimmingFilter = new AttributeTrimmingFilter();
+      attributeTrimmingFilter.setParent(schemaValidatingFilter);
+      return attributeTrimmingFilter;
+    } catch (ParserConfigurationException | SAXException cause) {
+      throw new UftpConnectorException("Failed to create XML reader", cause);
+    }
+  }
+
+  /**
+   * Claims a reader that validates the documents it parses against the schema before attribute values are trimmed.
+   *
+   * @param schema the schema to validate against, or {@code null} to skip validation
+   */
+  XMLReader claim(Schema schema) {
+    var xmlReader = claim();
+    schemaValidatingFilter(xmlReader).setSchema(schema);
+    return xmlReader;
+  }
+
+  @Override
+  protected void reset(XMLReader xmlReader) {
+    schemaValidatingFilter(xmlReader).setSchema(null);
+    // The parser resets its own state on every parse; only the handlers of the previous user are released here. The security features set by the factory are
+    // left untouched.
+    xmlReader.setContentHandler(null);
+    xmlReader.setErrorHandler(null);
+    xmlReader.setDTDHandler(null);
+    xmlReader.setEntityResolver(null);
+  }
+
+  private static SchemaValidatingFilter schemaValidatingFilter(XMLReader xmlReader) {
+    return (SchemaValidatingFilter) ((XMLFilter) xmlReader).getParent();
+  }
+}
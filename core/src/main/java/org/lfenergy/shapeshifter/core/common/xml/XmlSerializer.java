@@ -5,51 +5,137 @@
 package org.lfenergy.shapeshifter.core.common.xml;
 
 import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 
+/**
+ * Converts JAXB objects from and to XML. Marshallers and unmarshallers are pooled per JAXB context by {@link JAXBTools} and the SAX readers used for parsing are
+ * pooled as well, so a single instance can be shared by all threads.
+ */
 public class XmlSerializer {
 
-  private final JAXBTools jaxbTools = new JAXBTools();
-
   private static final SAXParserFactory SAX_PARSER_FACTORY = saxParserFactory();
 
+  private final JAXBTools jaxbTools;
+  private final XmlReaderPool xmlReaderPool;
+
+  public XmlSerializer() {
+    this(new JAXBTools());
+  }
+
+  /**
+   * @param jaxbTools provides the JAXB contexts and (un)marshaller pools; its maximum number of pooled instances also applies to the pooled XML readers
+   */
+  public XmlSerializer(JAXBTools jaxbTools) {
+    this.jaxbTools = jaxbTools;
+    this.xmlReaderPool = new XmlReaderPool(SAX_PARSER_FACTORY, jaxbTools.getMaxPooledInstances());
+  }
+
   public <T> String toXml(final T object) {
+    final StringWriter xmlWriter = new StringWriter();
+    marshal(object, marshaller -> marshaller.marshal(object, xmlWriter));
+    return xmlWriter.toString();
+  }
+
+  /**
+   * Serializes the object to UTF-8 encoded XML, without an intermediate {@link String}.
+   */
+  public <T> byte[] toXmlBytes(final T object) {
+    final ByteArrayOutputStream xmlStream = new ByteArrayOutputStream();
+    marshal(object, marshaller -> marshaller.marshal(object, xmlStream));
+    return xmlStream.toByteArray();
+  }
+
+  public <T> T fromXml(String xmlString, Class<T> typeToUnmarshal) {
+    return fromXml(xmlString, typeToUnmarshal, null);
+  }
+
+  /**
+   * Unmarshals the XML while validating it against the given schema, so validation and binding happen in a single parse.
+   *
+   * @param schema the schema to validate against, or {@code null} to skip validation
+   */
+  public <T> T fromXml(String xmlString, Class<T> typeToUnmarshal, Schema schema) {
+    return unmarshal(new InputSource(new StringReader(xmlString)), typeToUnmarshal, schema);
+  }
+
+  public <T> T fromXml(byte[] xml, Class<T> typeToUnmarshal) {
+    return fromXml(xml, typeToUnmarshal, null);
+  }
+
+  /**
+   * @param xml the XML document; the encoding is taken from the XML declaration and defaults to UTF-8
+   * @param schema the schema to validate against, or {@code null} to skip validation
+   */
+  public <T> T fromXml(byte[] xml, Class<T> typeToUnmarshal, Schema schema) {
+    return fromXml(new ByteArrayInputStream(xml), typeToUnmarshal, schema);
+  }
+
+  public <T> T fromXml(InputStream xml, Class<T> typeToUnmarshal) {
+    return fromXml(xml, typeToUnmarshal, null);
+  }
+
+  /**
+   * @param xml the XML document; the encoding is taken from the XML declaration and defaults to UTF-8. The stream is not closed.
+   * @param schema the schema to validate against, or {@code null} to skip validation
+   */
+  public <T> T fromXml(InputStream xml, Class<T> typeToUnmarshal, Schema schema) {
+    return unmarshal(new InputSource(xml), typeToUnmarshal, schema);
+  }
+
+  /**
+   * Builds the JAXB context for the given type and pre-fills its (un)marshaller pools, so the first (de)serialization of that type is not slowed down.
+   */
+  public void prefill(Class<?> type, int count) {
+    jaxbTools.prefill(type, count);
+  }
+
+  private <T> void marshal(final T object, MarshalAction action) {
     try {
-      final StringWriter xmlWriter = new StringWriter();
-      jaxbTools.createMarshaller(object.getClass()).marshal(object, xmlWriter);
-      return xmlWriter.toString();
+      final Class<?> type = object.getClass();
+      var marshaller = jaxbTools.claimMarshaller(type);
+      action.marshal(marshaller);
+      jaxbTools.releaseMarshaller(type, marshaller);
     } catch (final Exception cause) {
       throw new UftpConnectorException("Failed to serialize " + object.getClass().getSimpleName() + " instance to XML.", cause);
     }
   }
 
-  public <T> T fromXml(String xmlString, Class<T> typeToUnmarshal) {
+  private <T> T unmarshal(InputSource inputSource, Class<T> typeToUnmarshal, Schema schema) {
     try {
-      var xmlSource = new SAXSource(xmlReader(),
-              new InputSource(new StringReader(xmlString)));
-      var unmarshaller = jaxbTools.createUnmarshaller(typeToUnmarshal);
-      return typeToUnmarshal.cast(unmarshaller.unmarshal(xmlSource));
-    } catch (JAXBException | ParserConfigurationException | SAXException cause) {
+      // The schema is not set on the unmarshaller, as it would validate the events after the attribute values are trimmed
+      var xmlReader = xmlReaderPool.claim(schema);
+      var unmarshaller = jaxbTools.claimUnmarshaller(typeToUnmarshal);
+      var result = unmarshaller.unmarshal(new SAXSource(xmlReader, inputSource));
+      jaxbTools.releaseUnmarshaller(typeToUnmarshal, unmarshaller);
+      xmlReaderPool.release(xmlReader);
+      // The shared UFTP model context accepts every message type, so the root element is not necessarily the requested type
+      if (!typeToUnmarshal.isInstance(result)) {
+        throw new UftpConnectorException("Failed to unmarshal XML to " + typeToUnmarshal.getSimpleName() + " instance. Unexpected root element type: "
+                                         + result.getClass().getSimpleName());
+      }
+      return typeToUnmarshal.cast(result);
+    } catch (JAXBException cause) {
       throw new UftpConnectorException("Failed to unmarshal XML to " + typeToUnmarshal.getSimpleName() + " instance.", cause);
     }
   }
 
-  private static XMLReader xmlReader() throws ParserConfigurationException, SAXException {
-    var parser = SAX_PARSER_FACTORY.newSAXParser();
-
-    var attributeTrimmingFilter = new AttributeTrimmingFilter();
-    attributeTrimmingFilter.setParent(parser.getXMLReader());
+  @FunctionalInterface
+  private interface MarshalAction {
 
-    return attributeTrimmingFilter;
+    void marshal(Marshaller marshaller) throws JAXBException;
   }
 
   /**
@@ -61,6 +147,8 @@ public class XmlSerializer {
   private static SAXParserFactory saxParserFactory() {
     try {
       var saxParserFactory = SAXParserFactory.newInstance();
+      // Schema validation of the parsed events requires local names and namespace URIs
+      saxParserFactory.setNamespaceAware(true);
       saxParserFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
       saxParserFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
       saxParserFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
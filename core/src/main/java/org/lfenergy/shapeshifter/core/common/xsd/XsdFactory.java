@@ -9,16 +9,30 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 import lombok.RequiredArgsConstructor;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.xml.sax.SAXException;
 
 @RequiredArgsConstructor
 public class XsdFactory {
 
   private final XsdSchemaFactoryPool factoryPool;
 
-  public XsdSchemaPool newXsdSchemaPool(final URL url) {
-    return new XsdSchemaPool(url, factoryPool);
+  /**
+   * Compiles the XSD (and the XSDs it includes) into a {@link Schema}. Schemas are immutable and thread-safe, so each XSD only needs to be compiled once.
+   */
+  public Schema newSchema(final URL xsd) {
+    SchemaFactory factory = null;
+    try {
+      factory = factoryPool.claim();
+      return factory.newSchema(xsd);
+    } catch (final SAXException cause) {
+      throw new UftpConnectorException("Creating new schema instance failed for XSD: " + xsd, cause);
+    } finally {
+      factoryPool.release(factory);
+    }
   }
 
   public String contentToString(File file) {
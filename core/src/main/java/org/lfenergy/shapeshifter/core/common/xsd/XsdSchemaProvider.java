@@ -7,52 +7,88 @@ package org.lfenergy.shapeshifter.core.common.xsd;
 import java.net.URL;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import javax.xml.XMLConstants;
 import javax.xml.validation.Schema;
 import javax.xml.validation.Validator;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
-import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
-import org.xml.sax.SAXNotRecognizedException;
-import org.xml.sax.SAXNotSupportedException;
 
-@RequiredArgsConstructor
+/**
+ * Compiles each XSD exactly once and hands out pooled validators for it. The compiled {@link Schema} is immutable and shared by all threads; {@link Validator}
+ * instances are claimed per validation and reset when they are released.
+ */
 public class XsdSchemaProvider {
 
+  public static final int DEFAULT_MAX_POOLED_VALIDATORS = 32;
+
   // Not using java.net.URL as key is deliberate since URL#equals() is known for its dependency on DNS resolution
-  private static final Map<String, XsdSchemaPool> CACHE = new ConcurrentHashMap<>();
+  private final Map<String, XsdValidatorPool> cache = new ConcurrentHashMap<>();
 
   private final XsdFactory xsdFactory;
+  private final int maxPooledValidators;
 
-  public Validator getValidator(@NonNull final URL xsd) {
-    Schema schema = null;
-    try {
-      schema = claim(xsd);
-
-      try {
-        var validator = schema.newValidator();
-
-        // Disable access to external entities in XML parsing to prevent XXE attacks
-        // See: https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html#validator
-        validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-        validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-
-        return validator;
-      } catch (SAXNotRecognizedException | SAXNotSupportedException e) {
-        throw new UftpConnectorException("Could not create XML validator", e);
-      }
-    } finally {
-      release(xsd, schema);
+  public XsdSchemaProvider(XsdFactory xsdFactory) {
+    this(xsdFactory, DEFAULT_MAX_POOLED_VALIDATORS);
+  }
+
+  /**
+   * @param maxPooledValidators the maximum number of idle validators kept per XSD, 0 disables pooling
+   */
+  public XsdSchemaProvider(XsdFactory xsdFactory, int maxPooledValidators) {
+    this.xsdFactory = xsdFactory;
+    this.maxPooledValidators = maxPooledValidators;
+  }
+
+  /**
+   * Compiles the given XSDs now instead of on first use, for example during application startup.
+   */
+  public void precompile(@NonNull final URL... xsds) {
+    for (var xsd : xsds) {
+      validatorPool(xsd);
     }
   }
 
-  private Schema claim(final URL xsd) {
-    return CACHE.computeIfAbsent(xsd.toString(), key -> xsdFactory.newXsdSchemaPool(xsd))
-                .claim();
+  /**
+   * Compiles the given XSD if needed and creates validators up front until {@code count} idle validators are pooled for it.
+   *
+   * @return the number of idle validators pooled for the XSD
+   */
+  public int prefillValidators(@NonNull final URL xsd, int count) {
+    return validatorPool(xsd).prefill(count);
+  }
+
+  /**
+   * Returns the compiled schema for the given XSD. Schemas are immutable and thread-safe, so the result can be shared, for example by attaching it to an
+   * Unmarshaller.
+   */
+  public Schema getSchema(@NonNull final URL xsd) {
+    return validatorPool(xsd).getSchema();
+  }
+
+  /**
+   * Creates a new, unpooled validator. Prefer {@link #claimValidator(URL)} and {@link #releaseValidator(URL, Validator)} for repeated validations.
+   */
+  public Validator getValidator(@NonNull final URL xsd) {
+    var validator = getSchema(xsd).newValidator();
+    XsdValidatorPool.secure(validator);
+    return validator;
+  }
+
+  public Validator claimValidator(@NonNull final URL xsd) {
+    return validatorPool(xsd).claim();
+  }
+
+  /**
+   * Returns a validator claimed with {@link #claimValidator(URL)} to the pool, also when the validation failed.
+   */
+  public void releaseValidator(@NonNull final URL xsd, Validator validator) {
+    if (validator == null) {
+      return;
+    }
+    validatorPool(xsd).release(validator);
   }
 
-  private void release(final URL xsd, Schema schema) {
-    CACHE.get(xsd.toString()).release(schema);
+  private XsdValidatorPool validatorPool(final URL xsd) {
+    // computeIfAbsent blocks concurrent callers for the same XSD, so it is compiled only once
+    return cache.computeIfAbsent(xsd.toString(), key -> new XsdValidatorPool(xsdFactory.newSchema(xsd), maxPooledValidators));
   }
 }
@@ -4,11 +4,14 @@
 
 package org.lfenergy.shapeshifter.core.common.xsd;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URL;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
 import javax.xml.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
@@ -20,13 +23,34 @@ public class XsdValidator {
 
   private final XsdSchemaProvider schemaProvider;
 
+  public Schema getSchema(URL xsd) {
+    return schemaProvider.getSchema(xsd);
+  }
+
   public void validate(final String xml, URL xsd) {
-    final Source xmlSource = new StreamSource(new StringReader(xml));
+    validate(new StreamSource(new StringReader(xml)), xsd);
+  }
+
+  public void validate(final byte[] xml, URL xsd) {
+    validate(new ByteArrayInputStream(xml), xsd);
+  }
+
+  /**
+   * @param xml the XML document; the encoding is taken from the XML declaration and defaults to UTF-8. The stream is not closed.
+   */
+  public void validate(final InputStream xml, URL xsd) {
+    validate(new StreamSource(xml), xsd);
+  }
+
+  private void validate(final Source xmlSource, URL xsd) {
+    Validator validator = null;
     try {
-      final Validator validator = schemaProvider.getValidator(xsd);
+      validator = schemaProvider.claimValidator(xsd);
       validator.validate(xmlSource);
     } catch (SAXException | IOException cause) {
       throw new UftpConnectorException("XSD validation failed: " + cause.getMessage(), HttpStatusCode.BAD_REQUEST, cause);
+    } finally {
+      schemaProvider.releaseValidator(xsd, validator);
     }
   }
 }
@@ -0,0 +1,57 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.xsd;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+import org.lfenergy.shapeshifter.core.common.collection.AbstractInstancePool;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+
+/**
+ * Pools the {@link Validator} instances of a single compiled {@link Schema}. Validators are not thread-safe, but can be reused after a reset.
+ */
+class XsdValidatorPool extends AbstractInstancePool<Validator> {
+
+  private final Schema schema;
+
+  XsdValidatorPool(Schema schema, int maxIdle) {
+    super(maxIdle);
+    this.schema = schema;
+  }
+
+  Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  protected Validator create() {
+    var validator = schema.newValidator();
+    secure(validator);
+    return validator;
+  }
+
+  @Override
+  protected void reset(Validator validator) {
+    // Validator#reset() is deliberately not used: the JDK implementation loses its security property manager on reset, which makes the next validation fail.
+    // Per-document state is reset by every validate() call, so only the configurable callbacks and the XXE protection are restored here.
+    validator.setErrorHandler(null);
+    validator.setResourceResolver(null);
+    secure(validator);
+  }
+
+  static void secure(Validator validator) {
+    try {
+      // Disable access to external entities in XML parsing to prevent XXE attacks
+      // See: https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html#validator
+      validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    } catch (SAXNotRecognizedException | SAXNotSupportedException e) {
+      throw new UftpConnectorException("Could not create XML validator", e);
+    }
+  }
+}
@@ -4,21 +4,37 @@
 
 package org.lfenergy.shapeshifter.core.model;
 
+import java.nio.charset.StandardCharsets;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
 
 public final class IncomingUftpMessage<T extends PayloadMessageType> extends UftpMessage<T> {
 
-    private final String signedMessageXml;
-    private final String payloadMessageXml;
+    // Either the String or the byte[] representation is provided at creation, the other one is derived on first access
+    private String signedMessageXml;
+    private String payloadMessageXml;
+    private byte[] signedMessageXmlBytes;
+    private byte[] payloadMessageXmlBytes;
+    private UftpMessageFingerprint fingerprint;
 
-    private IncomingUftpMessage(UftpParticipant sender, T payloadMessage, String signedMessageXml, String payloadMessageXml) {
+    private IncomingUftpMessage(UftpParticipant sender, T payloadMessage, String signedMessageXml, String payloadMessageXml,
+                                byte[] signedMessageXmlBytes, byte[] payloadMessageXmlBytes) {
         super(sender, payloadMessage);
         this.signedMessageXml = signedMessageXml;
         this.payloadMessageXml = payloadMessageXml;
+        this.signedMessageXmlBytes = signedMessageXmlBytes;
+        this.payloadMessageXmlBytes = payloadMessageXmlBytes;
     }
 
     public static <T extends PayloadMessageType> IncomingUftpMessage<T> create(UftpParticipant sender, T payloadMessage, String signedMessageXml, String payloadMessageXml) {
-        return new IncomingUftpMessage<>(sender, payloadMessage, signedMessageXml, payloadMessageXml);
+        return new IncomingUftpMessage<>(sender, payloadMessage, signedMessageXml, payloadMessageXml, null, null);
+    }
+
+    /**
+     * Creates an incoming message from the UTF-8 encoded XML as received. The XML is only decoded to a {@link String} when {@link #signedMessageXml()} or
+     * {@link #payloadMessageXml()} is called.
+     */
+    public static <T extends PayloadMessageType> IncomingUftpMessage<T> createFromBytes(UftpParticipant sender, T payloadMessage, byte[] signedMessageXml, byte[] payloadMessageXml) {
+        return new IncomingUftpMessage<>(sender, payloadMessage, null, null, signedMessageXml, payloadMessageXml);
     }
 
     @Override
@@ -27,10 +43,46 @@ public final class IncomingUftpMessage<T extends PayloadMessageType> extends Uft
     }
 
     public String signedMessageXml() {
+        if (signedMessageXml == null && signedMessageXmlBytes != null) {
+            signedMessageXml = new String(signedMessageXmlBytes, StandardCharsets.UTF_8);
+        }
         return signedMessageXml;
     }
 
     public String payloadMessageXml() {
+        if (payloadMessageXml == null && payloadMessageXmlBytes != null) {
+            payloadMessageXml = new String(payloadMessageXmlBytes, StandardCharsets.UTF_8);
+        }
         return payloadMessageXml;
     }
+
+    /**
+     * @return the signed message XML as UTF-8 encoded bytes; the returned array must not be modified
+     */
+    public byte[] signedMessageXmlBytes() {
+        if (signedMessageXmlBytes == null && signedMessageXml != null) {
+            signedMessageXmlBytes = signedMessageXml.getBytes(StandardCharsets.UTF_8);
+        }
+        return signedMessageXmlBytes;
+    }
+
+    /**
+     * @return the payload message XML as UTF-8 encoded bytes; the returned array must not be modified
+     */
+    public byte[] payloadMessageXmlBytes() {
+        if (payloadMessageXmlBytes == null && payloadMessageXml != null) {
+            payloadMessageXmlBytes = payloadMessageXml.getBytes(StandardCharsets.UTF_8);
+        }
+        return payloadMessageXmlBytes;
+    }
+
+    /**
+     * @return the SHA-256 fingerprint of the payload XML, computed on first access; {@code null} when the message has no payload XML
+     */
+    public UftpMessageFingerprint fingerprint() {
+        if (fingerprint == null && payloadMessageXmlBytes() != null) {
+            fingerprint = UftpMessageFingerprint.of(payloadMessageXmlBytes());
+        }
+        return fingerprint;
+    }
 }
@@ -4,6 +4,19 @@
 
 package org.lfenergy.shapeshifter.core.model;
 
-public record SigningDetails(UftpParticipant sender, String senderPrivateKey, UftpParticipant recipient) {
+import org.lfenergy.shapeshifter.core.service.crypto.UftpSigningKey;
 
+/**
+ * @param senderPrivateKey the base64 encoded private key of the sender, decoded for every message; not used when a signing key is given
+ * @param senderSigningKey the decoded private key of the sender, see {@link org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService#createSigningKey}
+ */
+public record SigningDetails(UftpParticipant sender, String senderPrivateKey, UftpParticipant recipient, UftpSigningKey senderSigningKey) {
+
+  public SigningDetails(UftpParticipant sender, String senderPrivateKey, UftpParticipant recipient) {
+    this(sender, senderPrivateKey, recipient, null);
+  }
+
+  public SigningDetails(UftpParticipant sender, UftpSigningKey senderSigningKey, UftpParticipant recipient) {
+    this(sender, null, recipient, senderSigningKey);
+  }
 }
@@ -0,0 +1,65 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.model;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import lombok.NonNull;
+
+/**
+ * SHA-256 digest of the payload XML of a message, as received. Two messages with the same fingerprint have exactly the same payload; messages with the same
+ * content may still have a different fingerprint when they were serialized differently.
+ *
+ * <p>Stores can keep the fingerprint of every received message, for example as the hex string returned by {@link #toHex()}, to make duplicate detection a
+ * hash comparison. See {@link org.lfenergy.shapeshifter.core.service.validation.UftpMessageSupport#findDuplicateMessageFingerprint}.</p>
+ */
+public final class UftpMessageFingerprint {
+
+  private static final String ALGORITHM = "SHA-256";
+  private static final HexFormat HEX_FORMAT = HexFormat.of();
+
+  private final byte[] digest;
+
+  private UftpMessageFingerprint(byte[] digest) {
+    this.digest = digest;
+  }
+
+  public static UftpMessageFingerprint of(@NonNull byte[] payloadXml) {
+    try {
+      return new UftpMessageFingerprint(MessageDigest.getInstance(ALGORITHM).digest(payloadXml));
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(ALGORITHM + " is not supported", e);
+    }
+  }
+
+  public static UftpMessageFingerprint fromHex(@NonNull String hex) {
+    return new UftpMessageFingerprint(HEX_FORMAT.parseHex(hex));
+  }
+
+  public String toHex() {
+    return HEX_FORMAT.formatHex(digest);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof UftpMessageFingerprint other && MessageDigest.isEqual(digest, other.digest);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(digest);
+  }
+
+  @Override
+  public String toString() {
+    return "UftpMessageFingerprint[" + toHex() + "]";
+  }
+}
@@ -0,0 +1,18 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service;
+
+import java.time.Instant;
+import lombok.NonNull;
+
+/**
+ * The value of the 'Authorization' header for a participant, see {@link ParticipantAuthorizationProvider#getAuthorization}.
+ *
+ * @param value     the complete header value, for example {@code Bearer <token>}
+ * @param expiresAt when the token in the header expires, or {@code null} when that is not known
+ */
+public record AuthorizationHeader(@NonNull String value, Instant expiresAt) {
+
+}
@@ -0,0 +1,87 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.common.cache.ExpiringCache;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+
+/**
+ * Caches the Authorization headers of another {@link ParticipantAuthorizationProvider} per participant, so sending a message does not fetch a token every
+ * time.
+ *
+ * <p>A header is used until the token expires, as returned by {@link ParticipantAuthorizationProvider#getAuthorization}, or for the TTL of the
+ * {@link CacheSettings} when the expiry is not known. A header that is used shortly before it expires is fetched again in the background, so sending only
+ * waits for a token when there is none yet. Concurrent requests for the header of the same participant share a single fetch. When a recipient rejects a
+ * header with '401 Unauthorized', the header is discarded and fetched again on the next request. The negative TTL of the settings is not used; failures to
+ * fetch a header are passed to the caller and never cached.</p>
+ */
+public class CachingParticipantAuthorizationProvider implements ParticipantAuthorizationProvider {
+
+  public static final CacheSettings DEFAULT_SETTINGS = new CacheSettings(1_000, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ZERO);
+
+  private final ParticipantAuthorizationProvider delegate;
+  private final ExpiringCache<UftpParticipant, AuthorizationHeader> cache;
+
+  public CachingParticipantAuthorizationProvider(ParticipantAuthorizationProvider delegate) {
+    this(delegate, DEFAULT_SETTINGS);
+  }
+
+  public CachingParticipantAuthorizationProvider(ParticipantAuthorizationProvider delegate, CacheSettings settings) {
+    this(delegate, settings, ForkJoinPool.commonPool(), Clock.systemUTC());
+  }
+
+  /**
+   * @param refreshExecutor runs the background fetches of headers that are about to expire
+   */
+  public CachingParticipantAuthorizationProvider(@NonNull ParticipantAuthorizationProvider delegate, @NonNull CacheSettings settings,
+                                                 @NonNull Executor refreshExecutor, @NonNull Clock clock) {
+    this.delegate = delegate;
+    this.cache = new ExpiringCache<>(participant -> Optional.of(delegate.getAuthorization(participant)), AuthorizationHeader::expiresAt, settings,
+                                     refreshExecutor, clock);
+  }
+
+  @Override
+  public String getAuthorizationHeader(UftpParticipant participant) {
+    return getAuthorization(participant).value();
+  }
+
+  @Override
+  public AuthorizationHeader getAuthorization(@NonNull UftpParticipant participant) {
+    // The loader never returns an empty result
+    return cache.get(participant).orElseThrow();
+  }
+
+  /**
+   * Discards the cached header of the participant, and lets the decorated provider discard its header too.
+   *
+   * @return always {@code true}, as the next request fetches the header again
+   */
+  @Override
+  public boolean invalidateAuthorizationHeader(@NonNull UftpParticipant participant) {
+    cache.invalidate(participant);
+    delegate.invalidateAuthorizationHeader(participant);
+    return true;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
@@ -15,4 +15,24 @@ public interface ParticipantAuthorizationProvider {
      */
     String getAuthorizationHeader(UftpParticipant participant);
 
+    /**
+     * Method that returns the Authorization header value for the given participant together with the moment it expires. Implementations that know when
+     * their tokens expire should override this method, so a {@link CachingParticipantAuthorizationProvider} can refresh the token before it expires.
+     *
+     * @param participant The participant for whom the Authorization header is requested
+     */
+    default AuthorizationHeader getAuthorization(UftpParticipant participant) {
+        return new AuthorizationHeader(getAuthorizationHeader(participant), null);
+    }
+
+    /**
+     * Method that is called when the recipient rejected a message with '401 Unauthorized', so a cached header value of the participant is discarded.
+     *
+     * @param participant The participant that rejected the Authorization header
+     * @return whether a new header value may be returned on the next call; only then the message is sent again
+     */
+    default boolean invalidateAuthorizationHeader(UftpParticipant participant) {
+        return false;
+    }
+
 }
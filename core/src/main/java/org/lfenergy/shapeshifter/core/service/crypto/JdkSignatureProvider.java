@@ -0,0 +1,87 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.EdECPoint;
+import java.security.spec.EdECPrivateKeySpec;
+import java.security.spec.EdECPublicKeySpec;
+import java.security.spec.NamedParameterSpec;
+import java.util.Arrays;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * Signs and verifies with the Ed25519 {@link Signature} of the JDK, without loading libsodium. Signed messages are byte-for-byte the same as those of
+ * {@link LazySodiumSignatureProvider}, because Ed25519 signatures are deterministic.
+ *
+ * <p>The Ed25519 implementation of the JDK is considerably slower than libsodium, so this provider is meant for platforms where libsodium cannot be loaded.</p>
+ */
+public class JdkSignatureProvider implements UftpSignatureProvider {
+
+  private static final String ALGORITHM = "Ed25519";
+  private static final int SEED_BYTES = 32;
+
+  @Override
+  public byte[] sign(byte[] message, byte[] secretKey) {
+    try {
+      var signature = Signature.getInstance(ALGORITHM);
+      signature.initSign(privateKey(secretKey));
+      signature.update(message);
+
+      var signedMessage = new byte[SIGNATURE_BYTES + message.length];
+      signature.sign(signedMessage, 0, SIGNATURE_BYTES);
+      System.arraycopy(message, 0, signedMessage, SIGNATURE_BYTES, message.length);
+      return signedMessage;
+    } catch (GeneralSecurityException cause) {
+      throw new UftpConnectorException("JDK could not sign the message.", cause);
+    }
+  }
+
+  @Override
+  public byte[] open(byte[] signedMessage, byte[] publicKey) {
+    if (signedMessage.length < SIGNATURE_BYTES) {
+      return null;
+    }
+
+    try {
+      var signature = Signature.getInstance(ALGORITHM);
+      signature.initVerify(publicKey(publicKey));
+      signature.update(signedMessage, SIGNATURE_BYTES, signedMessage.length - SIGNATURE_BYTES);
+      if (!signature.verify(signedMessage, 0, SIGNATURE_BYTES)) {
+        return null;
+      }
+      return Arrays.copyOfRange(signedMessage, SIGNATURE_BYTES, signedMessage.length);
+    } catch (GeneralSecurityException cause) {
+      // Like libsodium, a public key that is not a valid curve point never verifies a signature
+      return null;
+    }
+  }
+
+  private static PrivateKey privateKey(byte[] secretKey) throws GeneralSecurityException {
+    // A libsodium secret key is the seed followed by the public key; the JDK derives the public key from the seed
+    var seed = Arrays.copyOf(secretKey, SEED_BYTES);
+    return KeyFactory.getInstance(ALGORITHM).generatePrivate(new EdECPrivateKeySpec(NamedParameterSpec.ED25519, seed));
+  }
+
+  private static PublicKey publicKey(byte[] publicKey) throws GeneralSecurityException {
+    // RFC 8032: the little-endian y-coordinate, with the least significant bit of x in the most significant bit of the last byte
+    var littleEndian = publicKey.clone();
+    var xOdd = (littleEndian[littleEndian.length - 1] & 0x80) != 0;
+    littleEndian[littleEndian.length - 1] &= 0x7F;
+
+    var bigEndian = new byte[littleEndian.length];
+    for (int i = 0; i < littleEndian.length; i++) {
+      bigEndian[i] = littleEndian[littleEndian.length - 1 - i];
+    }
+
+    var point = new EdECPoint(xOdd, new BigInteger(1, bigEndian));
+    return KeyFactory.getInstance(ALGORITHM).generatePublic(new EdECPublicKeySpec(NamedParameterSpec.ED25519, point));
+  }
+}
@@ -13,14 +13,31 @@ import com.goterl.resourceloader.ResourceLoaderException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import lombok.extern.apachecommons.CommonsLog;
-import org.lfenergy.shapeshifter.core.common.collection.AbstractInstancePool;
+import org.lfenergy.shapeshifter.core.common.collection.BoundedInstancePool;
+import org.lfenergy.shapeshifter.core.common.collection.InstancePoolSettings;
 
+/**
+ * Pool of libsodium instances. Signing and verifying only claim an instance for the duration of one operation, so the pool is bounded at a small multiple of
+ * the number of processors and idle instances are evicted after a while.
+ */
 @CommonsLog
-public class LazySodiumBase64Pool extends AbstractInstancePool<LazySodiumJava> {
+public class LazySodiumBase64Pool extends BoundedInstancePool<LazySodiumJava> {
+
+  public static final InstancePoolSettings DEFAULT_SETTINGS = new InstancePoolSettings(1, Math.max(8, 2 * Runtime.getRuntime().availableProcessors()),
+                                                                                       Duration.ofMinutes(10), Duration.ofSeconds(30));
 
   private static String extractedBundledSodiumAbsolutePath;
 
+  public LazySodiumBase64Pool() {
+    this(DEFAULT_SETTINGS);
+  }
+
+  public LazySodiumBase64Pool(InstancePoolSettings settings) {
+    super(settings);
+  }
+
   @Override
   protected synchronized LazySodiumJava create() {
     return new LazySodiumJava(loadSodiumJava(), new Base64MessageEncoder());
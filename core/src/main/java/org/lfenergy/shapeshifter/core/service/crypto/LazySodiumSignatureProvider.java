@@ -0,0 +1,88 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import com.goterl.lazysodium.LazySodiumJava;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * Signs and verifies with the native {@code crypto_sign} and {@code crypto_sign_open} of libsodium.
+ */
+@RequiredArgsConstructor
+public class LazySodiumSignatureProvider implements UftpSignatureProvider {
+
+  private final LazySodiumBase64Pool lazySodiumInstancePool;
+
+  @Override
+  public byte[] sign(byte[] message, byte[] secretKey) {
+    LazySodiumJava lazySodium = null;
+    try {
+      lazySodium = lazySodiumInstancePool.claim();
+      return sign(lazySodium, message, secretKey);
+    } finally {
+      lazySodiumInstancePool.release(lazySodium);
+    }
+  }
+
+  @Override
+  public byte[] open(byte[] signedMessage, byte[] publicKey) {
+    if (signedMessage.length < SIGNATURE_BYTES) {
+      return null;
+    }
+
+    LazySodiumJava lazySodium = null;
+    try {
+      lazySodium = lazySodiumInstancePool.claim();
+      return open(lazySodium, signedMessage, publicKey);
+    } finally {
+      lazySodiumInstancePool.release(lazySodium);
+    }
+  }
+
+  /**
+   * Claims one libsodium instance for all calls made during the action, instead of one per call.
+   */
+  @Override
+  public <R> R withWorker(Function<UftpSignatureProvider, R> action) {
+    LazySodiumJava lazySodium = null;
+    try {
+      lazySodium = lazySodiumInstancePool.claim();
+      return action.apply(new Worker(lazySodium));
+    } finally {
+      lazySodiumInstancePool.release(lazySodium);
+    }
+  }
+
+  private static byte[] sign(LazySodiumJava lazySodium, byte[] message, byte[] secretKey) {
+    var signedMessage = new byte[SIGNATURE_BYTES + message.length];
+    if (!lazySodium.cryptoSign(signedMessage, message, message.length, secretKey)) {
+      throw new UftpConnectorException("libsodium could not sign the message.");
+    }
+    return signedMessage;
+  }
+
+  private static byte[] open(LazySodiumJava lazySodium, byte[] signedMessage, byte[] publicKey) {
+    if (signedMessage.length < SIGNATURE_BYTES) {
+      return null;
+    }
+    var message = new byte[signedMessage.length - SIGNATURE_BYTES];
+    return lazySodium.cryptoSignOpen(message, signedMessage, signedMessage.length, publicKey) ? message : null;
+  }
+
+  private record Worker(LazySodiumJava lazySodium) implements UftpSignatureProvider {
+
+    @Override
+    public byte[] sign(byte[] message, byte[] secretKey) {
+      return LazySodiumSignatureProvider.sign(lazySodium, message, secretKey);
+    }
+
+    @Override
+    public byte[] open(byte[] signedMessage, byte[] publicKey) {
+      return LazySodiumSignatureProvider.open(lazySodium, signedMessage, publicKey);
+    }
+  }
+}
@@ -4,65 +4,349 @@
 
 package org.lfenergy.shapeshifter.core.service.crypto;
 
-import com.goterl.lazysodium.LazySodiumJava;
-import java.util.Base64;
-import lombok.RequiredArgsConstructor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.NonNull;
 import org.lfenergy.shapeshifter.api.SignedMessage;
 import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
 
-@RequiredArgsConstructor
 public class UftpCryptoService {
 
+  public static final int DEFAULT_VERIFICATION_BATCH_SIZE = 1_000;
+
   private final ParticipantResolutionService participantService;
   private final LazySodiumFactory factory;
-  private final LazySodiumBase64Pool lazySodiumInstancePool;
+  private final UftpSignatureProvider signatureProvider;
+  private final UftpVerificationKeyCache verificationKeyCache;
+
+  /**
+   * Signs and verifies with libsodium.
+   */
+  public UftpCryptoService(ParticipantResolutionService participantService, LazySodiumFactory factory, LazySodiumBase64Pool lazySodiumInstancePool) {
+    this(participantService, factory, new LazySodiumSignatureProvider(lazySodiumInstancePool));
+  }
+
+  public UftpCryptoService(ParticipantResolutionService participantService, LazySodiumFactory factory, UftpSignatureProvider signatureProvider) {
+    this(participantService, factory, signatureProvider, null);
+  }
+
+  /**
+   * @param verificationKeyCache caches the public keys of senders, {@code null} to resolve the public key for every message
+   */
+  public UftpCryptoService(ParticipantResolutionService participantService, LazySodiumFactory factory, UftpSignatureProvider signatureProvider,
+                           UftpVerificationKeyCache verificationKeyCache) {
+    this.participantService = participantService;
+    this.factory = factory;
+    this.signatureProvider = signatureProvider;
+    this.verificationKeyCache = verificationKeyCache;
+  }
+
+  /**
+   * Decodes the base64 encoded private key of a sender once, so it can be used to sign any number of messages.
+   *
+   * @throws UftpConnectorException if the key is not a valid private key
+   */
+  public UftpSigningKey createSigningKey(String privateKey) {
+    try {
+      return new UftpSigningKey(keyBytes(factory, privateKey, UftpSignatureProvider.SECRET_KEY_BYTES, "private"));
+    } catch (IllegalArgumentException cause) {
+      // Thrown for a key that is not valid base64
+      throw new UftpConnectorException("Invalid private key.", cause);
+    }
+  }
 
+  /**
+   * Signs the payload XML, encoded as UTF-8.
+   */
   public SignedMessage signMessage(String payloadXml, UftpParticipant sender, String privateKey) {
-    LazySodiumJava lazySodium = null;
+    return signMessage(payloadXml.getBytes(StandardCharsets.UTF_8), sender, privateKey);
+  }
+
+  /**
+   * Signs the UTF-8 encoded payload XML. The payload is passed to the signature provider as is; only the private key is decoded from base64.
+   */
+  public SignedMessage signMessage(byte[] payloadXml, UftpParticipant sender, String privateKey) {
     try {
-      lazySodium = lazySodiumInstancePool.claim();
-      String base64Body = lazySodium.cryptoSign(payloadXml, privateKey);
+      return sign(payloadXml, sender, keyBytes(factory, privateKey, UftpSignatureProvider.SECRET_KEY_BYTES, "private"));
+    } catch (Exception cause) {
+      throw new UftpConnectorException("Failed to sign message.", cause);
+    }
+  }
 
-      SignedMessage signedMessage = new SignedMessage();
-      signedMessage.setSenderDomain(sender.domain());
-      signedMessage.setSenderRole(sender.role());
-      signedMessage.setBody(Base64.getDecoder().decode(base64Body));
+  /**
+   * Signs the payload XML, encoded as UTF-8, with a signing key that was decoded before.
+   */
+  public SignedMessage signMessage(String payloadXml, UftpParticipant sender, UftpSigningKey signingKey) {
+    return signMessage(payloadXml.getBytes(StandardCharsets.UTF_8), sender, signingKey);
+  }
 
-      return signedMessage;
+  /**
+   * Signs the UTF-8 encoded payload XML with a signing key that was decoded before, so nothing but the signature is computed.
+   */
+  public SignedMessage signMessage(byte[] payloadXml, UftpParticipant sender, UftpSigningKey signingKey) {
+    try {
+      return sign(payloadXml, sender, signingKey.secretKey());
     } catch (Exception cause) {
       throw new UftpConnectorException("Failed to sign message.", cause);
-    } finally {
-      lazySodiumInstancePool.release(lazySodium);
     }
   }
 
+  /**
+   * Runs the action with a signer that signs like {@link #signMessage(byte[], UftpParticipant, UftpSigningKey)}, for example to sign a run of messages of a
+   * batch. The signature provider keeps its resources, such as a libsodium instance, for all messages the signer signs. The signer must only be used by the
+   * calling thread, and only until the action returns.
+   *
+   * @throws UftpConnectorException if the resources of the signature provider cannot be claimed, for example when no libsodium instance is available
+   */
+  public <R> R withSigner(@NonNull Function<UftpMessageSigner, R> action) {
+    return signatureProvider.withWorker(worker -> action.apply((payloadXml, sender, signingKey) -> {
+      try {
+        return sign(worker, payloadXml, sender, signingKey.secretKey());
+      } catch (Exception cause) {
+        throw new UftpConnectorException("Failed to sign message.", cause);
+      }
+    }));
+  }
+
+  private SignedMessage sign(byte[] payloadXml, UftpParticipant sender, byte[] secretKey) {
+    return sign(signatureProvider, payloadXml, sender, secretKey);
+  }
+
+  private static SignedMessage sign(UftpSignatureProvider provider, byte[] payloadXml, UftpParticipant sender, byte[] secretKey) {
+    SignedMessage signedMessage = new SignedMessage();
+    signedMessage.setSenderDomain(sender.domain());
+    signedMessage.setSenderRole(sender.role());
+    signedMessage.setBody(provider.sign(payloadXml, secretKey));
+
+    return signedMessage;
+  }
+
   public String verifySignedMessage(SignedMessage signedMessage) {
+    return new String(verifySignedMessageAsBytes(signedMessage), StandardCharsets.UTF_8);
+  }
+
+  public String verifySignedMessage(SignedMessage signedMessage, String publicKey) {
+    return new String(verifySignedMessageAsBytes(signedMessage, publicKey), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Verifies the signed message and returns the payload XML as UTF-8 encoded bytes.
+   */
+  public byte[] verifySignedMessageAsBytes(SignedMessage signedMessage) {
     try {
-      String publicKey = participantService.getPublicKey(signedMessage.getSenderRole(), signedMessage.getSenderDomain());
-      return verifySignedMessage(signedMessage, publicKey);
+      return open(signatureProvider, signedMessage, publicKey(new UftpParticipant(signedMessage)));
     } catch (Exception cause) {
-      throw new UftpConnectorException("Failed to verify message.", HttpStatusCode.UNAUTHORIZED, cause);
+      throw verificationFailed(cause);
     }
   }
 
-  public String verifySignedMessage(SignedMessage signedMessage, String publicKey) {
-    LazySodiumJava lazySodium = null;
+  /**
+   * Verifies the signed message with the given public key and returns the payload XML as UTF-8 encoded bytes. The body of the signed message is passed to
+   * the signature provider as is; only the public key is decoded from base64.
+   */
+  public byte[] verifySignedMessageAsBytes(SignedMessage signedMessage, String publicKey) {
+    return open(signatureProvider, signedMessage, keyBytes(factory, publicKey, UftpSignatureProvider.PUBLIC_KEY_BYTES, "public"));
+  }
+
+  /**
+   * Verifies the signed message with the given decoded public key, as returned by {@link #getPublicKey(UftpParticipant)}, and returns the payload XML as
+   * UTF-8 encoded bytes.
+   */
+  public byte[] verifySignedMessageAsBytes(SignedMessage signedMessage, byte[] publicKey) {
+    try {
+      return open(signatureProvider, signedMessage, publicKey);
+    } catch (Exception cause) {
+      throw verificationFailed(cause);
+    }
+  }
+
+  /**
+   * @return the decoded public key that messages of the sender are currently verified with
+   * @throws UftpConnectorException with status 401 when the public key of the sender cannot be resolved
+   */
+  public byte[] getPublicKey(UftpParticipant sender) {
     try {
-      String base64Body = Base64.getEncoder().encodeToString(signedMessage.getBody());
-      lazySodium = lazySodiumInstancePool.claim();
+      return publicKey(sender);
+    } catch (Exception cause) {
+      throw verificationFailed(cause);
+    }
+  }
+
+  /**
+   * Verifies a batch of signed messages on the common fork-join pool, see {@link #verifySignedMessages(Collection, Executor, int)}.
+   */
+  public List<UftpVerificationResult> verifySignedMessages(Collection<SignedMessage> signedMessages) {
+    return verifySignedMessages(signedMessages, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+  }
 
-      var unsealed = lazySodium.cryptoSignOpen(base64Body, factory.keyFromBase64String(publicKey));
+  /**
+   * Verifies a batch of signed messages, for example when replaying a backlog. The public key of every sender is resolved once for the whole batch, after
+   * which the messages are split over at most {@code parallelism} workers on the executor. Each worker keeps its own signature provider resources, such as a
+   * libsodium instance, for all of its messages.
+   *
+   * <p>A message that cannot be verified does not fail the batch: every message gets a result, in the order of the given messages.</p>
+   */
+  public List<UftpVerificationResult> verifySignedMessages(@NonNull Collection<SignedMessage> signedMessages, @NonNull Executor executor, int parallelism) {
+    requirePositive(parallelism, "parallelism");
+    return verifyBatch(new ArrayList<>(signedMessages), new HashMap<>(), executor, parallelism);
+  }
+
+  /**
+   * Verifies a stream of signed messages on the common fork-join pool, see {@link #verifySignedMessages(Stream, Executor, int, int)}.
+   */
+  public Stream<UftpVerificationResult> verifySignedMessages(Stream<SignedMessage> signedMessages) {
+    return verifySignedMessages(signedMessages, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), DEFAULT_VERIFICATION_BATCH_SIZE);
+  }
 
-      if (unsealed == null) {
-        throw new UftpConnectorException("Failed to verify message. Message is not validly signed for given public key.");
+  /**
+   * Verifies a stream of signed messages, such as recorded traffic, without holding all of them in memory. The messages are read and verified in batches of
+   * {@code batchSize} as the results are consumed, like {@link #verifySignedMessages(Collection, Executor, int)} does. The public key of every sender is
+   * resolved once for the whole stream.
+   */
+  public Stream<UftpVerificationResult> verifySignedMessages(@NonNull Stream<SignedMessage> signedMessages, @NonNull Executor executor, int parallelism,
+                                                             int batchSize) {
+    requirePositive(parallelism, "parallelism");
+    requirePositive(batchSize, "batchSize");
+    var iterator = signedMessages.iterator();
+    var senderKeys = new HashMap<UftpParticipant, SenderKey>();
+    var batches = new AbstractSpliterator<List<UftpVerificationResult>>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+      @Override
+      public boolean tryAdvance(Consumer<? super List<UftpVerificationResult>> action) {
+        if (!iterator.hasNext()) {
+          return false;
+        }
+        var batch = new ArrayList<SignedMessage>(batchSize);
+        while (batch.size() < batchSize && iterator.hasNext()) {
+          batch.add(iterator.next());
+        }
+        action.accept(verifyBatch(batch, senderKeys, executor, parallelism));
+        return true;
       }
+    };
+    return StreamSupport.stream(batches, false).flatMap(List::stream).onClose(signedMessages::close);
+  }
+
+  private List<UftpVerificationResult> verifyBatch(List<SignedMessage> signedMessages, Map<UftpParticipant, SenderKey> senderKeys, Executor executor,
+                                                   int parallelism) {
+    var size = signedMessages.size();
+    if (size == 0) {
+      return List.of();
+    }
+    var keys = new SenderKey[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = senderKeys.computeIfAbsent(new UftpParticipant(signedMessages.get(i)), this::resolveSenderKey);
+    }
+
+    var results = new UftpVerificationResult[size];
+    var workers = Math.min(parallelism, size);
+    if (workers == 1) {
+      verifyRange(signedMessages, keys, results, 0, size);
+    } else {
+      var chunkSize = (size + workers - 1) / workers;
+      var tasks = new ArrayList<CompletableFuture<Void>>(workers);
+      for (int from = 0; from < size; from += chunkSize) {
+        var start = from;
+        var end = Math.min(from + chunkSize, size);
+        tasks.add(CompletableFuture.runAsync(() -> verifyRange(signedMessages, keys, results, start, end), executor));
+      }
+      CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
+    return List.of(results);
+  }
+
+  private void verifyRange(List<SignedMessage> signedMessages, SenderKey[] keys, UftpVerificationResult[] results, int from, int to) {
+    try {
+      signatureProvider.withWorker(worker -> {
+        for (int i = from; i < to; i++) {
+          results[i] = verify(worker, signedMessages.get(i), keys[i]);
+        }
+        return null;
+      });
+    } catch (RuntimeException cause) {
+      // The worker could not be set up, for example because no libsodium instance could be claimed
+      for (int i = from; i < to; i++) {
+        if (results[i] == null) {
+          results[i] = UftpVerificationResult.failed(signedMessages.get(i), verificationFailed(cause));
+        }
+      }
+    }
+  }
+
+  private static UftpVerificationResult verify(UftpSignatureProvider provider, SignedMessage signedMessage, SenderKey key) {
+    if (key.failure() != null) {
+      return UftpVerificationResult.failed(signedMessage, verificationFailed(key.failure()));
+    }
+    try {
+      return UftpVerificationResult.verified(signedMessage, open(provider, signedMessage, key.publicKey()));
+    } catch (RuntimeException cause) {
+      return UftpVerificationResult.failed(signedMessage, verificationFailed(cause));
+    }
+  }
 
-      return unsealed;
-    } finally {
-      lazySodiumInstancePool.release(lazySodium);
+  private SenderKey resolveSenderKey(UftpParticipant sender) {
+    try {
+      return new SenderKey(publicKey(sender), null);
+    } catch (RuntimeException cause) {
+      return new SenderKey(null, cause);
     }
   }
+
+  private byte[] publicKey(UftpParticipant sender) {
+    if (verificationKeyCache != null) {
+      return verificationKeyCache.getPublicKey(sender);
+    }
+    String publicKey = participantService.getPublicKey(sender.role(), sender.domain());
+    return keyBytes(factory, publicKey, UftpSignatureProvider.PUBLIC_KEY_BYTES, "public");
+  }
+
+  private static byte[] open(UftpSignatureProvider provider, SignedMessage signedMessage, byte[] publicKey) {
+    var body = signedMessage.getBody();
+    var unsealed = body == null ? null : provider.open(body, publicKey);
+    if (unsealed == null) {
+      throw new UftpConnectorException("Failed to verify message. Message is not validly signed for given public key.");
+    }
+    return unsealed;
+  }
+
+  private static UftpConnectorException verificationFailed(Exception cause) {
+    return new UftpConnectorException("Failed to verify message.", HttpStatusCode.UNAUTHORIZED, cause);
+  }
+
+  private static void requirePositive(int value, String name) {
+    if (value < 1) {
+      throw new IllegalArgumentException(name + " must be positive");
+    }
+  }
+
+  static byte[] keyBytes(LazySodiumFactory factory, String base64Key, int expectedLength, String keyType) {
+    var key = factory.keyFromBase64String(base64Key).getAsBytes();
+    // libsodium reads the key without checking its length, so this is checked for every signature provider
+    if (key.length != expectedLength) {
+      throw new UftpConnectorException(String.format("Invalid %s key length: expected %d bytes, got %d.", keyType, expectedLength, key.length));
+    }
+    return key;
+  }
+
+  /**
+   * The public key of a sender, or why it could not be resolved.
+   */
+  private record SenderKey(byte[] publicKey, RuntimeException failure) {
+
+  }
 }
@@ -0,0 +1,23 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+
+/**
+ * Signs messages with the resources of a signature provider that are kept for a run of messages, see {@link UftpCryptoService#withSigner}.
+ */
+@FunctionalInterface
+public interface UftpMessageSigner {
+
+  /**
+   * Signs the UTF-8 encoded payload XML with a signing key that was decoded before.
+   *
+   * @throws UftpConnectorException if signing fails
+   */
+  SignedMessage sign(byte[] payloadXml, UftpParticipant sender, UftpSigningKey signingKey);
+}
@@ -0,0 +1,47 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import java.util.function.Function;
+
+/**
+ * Creates and opens Ed25519 signed messages in the combined format of libsodium's {@code crypto_sign}: the 64 byte signature followed by the message.
+ *
+ * <p>Keys are passed in the libsodium format as well: a public key is the 32 byte encoded curve point, a secret key is the 32 byte seed followed by the public
+ * key. {@link UftpCryptoService} checks the key lengths before calling a provider. Implementations must be thread-safe.</p>
+ */
+public interface UftpSignatureProvider {
+
+  /**
+   * Length of an Ed25519 signature.
+   */
+  int SIGNATURE_BYTES = 64;
+  /**
+   * Length of an Ed25519 public key.
+   */
+  int PUBLIC_KEY_BYTES = 32;
+  /**
+   * Length of an Ed25519 secret key in the libsodium format.
+   */
+  int SECRET_KEY_BYTES = 64;
+
+  /**
+   * @return the signature followed by the message
+   */
+  byte[] sign(byte[] message, byte[] secretKey);
+
+  /**
+   * @return the message without the signature, or {@code null} when the signature is not valid for the given public key
+   */
+  byte[] open(byte[] signedMessage, byte[] publicKey);
+
+  /**
+   * Runs the action with a provider that may hold on to resources, such as a native instance, for all calls made during the action. The provider passed to
+   * the action must only be used by the calling thread, and only until the action returns. By default, the action gets this provider.
+   */
+  default <R> R withWorker(Function<UftpSignatureProvider, R> action) {
+    return action.apply(this);
+  }
+}
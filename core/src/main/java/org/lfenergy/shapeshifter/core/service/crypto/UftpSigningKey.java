@@ -0,0 +1,29 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+/**
+ * Decoded private key of a sender, created with {@link UftpCryptoService#createSigningKey(String)}. The key is decoded and checked once, so a handle that is
+ * kept per sender domain can sign any number of messages without decoding the key again.
+ *
+ * <p>The handle is opaque and immutable: the key bytes are only read by {@link UftpCryptoService}, and {@link #toString()} does not reveal them.</p>
+ */
+public final class UftpSigningKey {
+
+  private final byte[] secretKey;
+
+  UftpSigningKey(byte[] secretKey) {
+    this.secretKey = secretKey;
+  }
+
+  byte[] secretKey() {
+    return secretKey;
+  }
+
+  @Override
+  public String toString() {
+    return "UftpSigningKey[***]";
+  }
+}
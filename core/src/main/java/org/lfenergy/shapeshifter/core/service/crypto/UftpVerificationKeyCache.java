@@ -0,0 +1,64 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.common.cache.ExpiringCache;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
+
+/**
+ * Caches the decoded public keys of senders, so verifying a message does not resolve and decode the public key of the sender every time.
+ *
+ * <p>Unknown senders are remembered for the (short) negative TTL. When the key of a participant is rotated, call {@link #invalidate(UftpParticipant)}, or the
+ * previous key is used until it expires or is refreshed.</p>
+ */
+public class UftpVerificationKeyCache {
+
+  public static final CacheSettings DEFAULT_SETTINGS = new CacheSettings(10_000, Duration.ofMinutes(15), Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+  private final ExpiringCache<UftpParticipant, byte[]> cache;
+
+  public UftpVerificationKeyCache(ParticipantResolutionService participantService, LazySodiumFactory factory) {
+    this(participantService, factory, DEFAULT_SETTINGS);
+  }
+
+  public UftpVerificationKeyCache(ParticipantResolutionService participantService, LazySodiumFactory factory, CacheSettings settings) {
+    this(new ExpiringCache<>(sender -> load(participantService, factory, sender), settings));
+  }
+
+  UftpVerificationKeyCache(ExpiringCache<UftpParticipant, byte[]> cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * @return the decoded public key of the sender
+   * @throws UftpConnectorException when the sender is unknown or has no valid public key
+   */
+  public byte[] getPublicKey(UftpParticipant sender) {
+    return cache.get(sender).orElseThrow(() -> new UftpConnectorException("No public key found for " + sender.domain() + " in " + sender.role()));
+  }
+
+  public void invalidate(UftpParticipant sender) {
+    cache.invalidate(sender);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private static Optional<byte[]> load(ParticipantResolutionService participantService, LazySodiumFactory factory, UftpParticipant sender) {
+    return participantService.findPublicKey(sender.role(), sender.domain())
+                             .map(publicKey -> UftpCryptoService.keyBytes(factory, publicKey, UftpSignatureProvider.PUBLIC_KEY_BYTES, "public"));
+  }
+}
@@ -0,0 +1,38 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import java.nio.charset.StandardCharsets;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * Outcome of verifying one message of a batch, see {@link UftpCryptoService#verifySignedMessages}.
+ *
+ * @param signedMessage the verified message
+ * @param payloadXml    the UTF-8 encoded payload XML, or {@code null} when the message could not be verified
+ * @param failure       why the message could not be verified, or {@code null} when it was verified
+ */
+public record UftpVerificationResult(SignedMessage signedMessage, byte[] payloadXml, UftpConnectorException failure) {
+
+  static UftpVerificationResult verified(SignedMessage signedMessage, byte[] payloadXml) {
+    return new UftpVerificationResult(signedMessage, payloadXml, null);
+  }
+
+  static UftpVerificationResult failed(SignedMessage signedMessage, UftpConnectorException failure) {
+    return new UftpVerificationResult(signedMessage, null, failure);
+  }
+
+  public boolean isVerified() {
+    return failure == null;
+  }
+
+  /**
+   * @return the payload XML, or {@code null} when the message could not be verified
+   */
+  public String payloadXmlAsString() {
+    return payloadXml == null ? null : new String(payloadXml, StandardCharsets.UTF_8);
+  }
+}
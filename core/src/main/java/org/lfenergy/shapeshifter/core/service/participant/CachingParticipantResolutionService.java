@@ -0,0 +1,58 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.participant;
+
+import java.time.Duration;
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.api.model.UftpParticipantInformation;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.common.cache.ExpiringCache;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.UftpParticipantService;
+
+/**
+ * Caches the participant information of the {@link UftpParticipantService}, so sending a message (endpoint lookup) and receiving one (public key lookup)
+ * do not call the application every time.
+ *
+ * <p>Information that is used shortly before it expires is reloaded in the background. Unknown participants are remembered for the (short) negative TTL,
+ * so a flood of messages from unknown senders does not reach the application. When the information of a participant changes, call
+ * {@link #invalidate(UftpParticipant)}, or the previous information is used until it expires or is refreshed.</p>
+ */
+public class CachingParticipantResolutionService extends ParticipantResolutionService {
+
+  public static final CacheSettings DEFAULT_SETTINGS = new CacheSettings(10_000, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+  private final ExpiringCache<UftpParticipant, UftpParticipantInformation> cache;
+
+  public CachingParticipantResolutionService(UftpParticipantService uftpParticipantService) {
+    this(uftpParticipantService, DEFAULT_SETTINGS);
+  }
+
+  public CachingParticipantResolutionService(@NonNull UftpParticipantService uftpParticipantService, @NonNull CacheSettings settings) {
+    this(new ExpiringCache<>(participant -> uftpParticipantService.getParticipantInformation(participant.role(), participant.domain()), settings));
+  }
+
+  CachingParticipantResolutionService(ExpiringCache<UftpParticipant, UftpParticipantInformation> cache) {
+    super((role, domain) -> cache.get(new UftpParticipant(domain, role)));
+    this.cache = cache;
+  }
+
+  public void invalidate(@NonNull UftpParticipant participant) {
+    cache.invalidate(participant);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
@@ -4,6 +4,7 @@
 
 package org.lfenergy.shapeshifter.core.service.participant;
 
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.lfenergy.shapeshifter.api.USEFRoleType;
 import org.lfenergy.shapeshifter.api.model.UftpParticipantInformation;
@@ -24,10 +25,24 @@ public class ParticipantResolutionService {
     return getDomain(senderRole, senderDomain).publicKey();
   }
 
+  /**
+   * @return the public key of the participant, or an empty result when the participant is unknown
+   */
+  public Optional<String> findPublicKey(USEFRoleType senderRole, String senderDomain) {
+    return uftpParticipantService.getParticipantInformation(senderRole, senderDomain).map(UftpParticipantInformation::publicKey);
+  }
+
   public UftpParticipantInformation getParticipantInformation(UftpParticipant recipient) {
     return getDomain(recipient.role(), recipient.domain());
   }
 
+  /**
+   * @return the information of the participant, or an empty result when the participant is unknown
+   */
+  public Optional<UftpParticipantInformation> findParticipantInformation(UftpParticipant recipient) {
+    return uftpParticipantService.getParticipantInformation(recipient.role(), recipient.domain());
+  }
+
   private UftpParticipantInformation getDomain(USEFRoleType role, String domain) {
     return uftpParticipantService.getParticipantInformation(role, domain).orElseThrow(
         () -> new UftpConnectorException("No participant found for " + domain + " in " + role));
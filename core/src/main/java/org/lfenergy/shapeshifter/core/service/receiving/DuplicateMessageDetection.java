@@ -8,6 +8,7 @@ package org.lfenergy.shapeshifter.core.service.receiving;
 import lombok.RequiredArgsConstructor;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
 import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
+import org.lfenergy.shapeshifter.core.model.IncomingUftpMessage;
 import org.lfenergy.shapeshifter.core.service.validation.UftpMessageSupport;
 
 @RequiredArgsConstructor
@@ -22,6 +23,24 @@ public class DuplicateMessageDetection {
   private final UftpMessageSupport support;
   private final XmlSerializer serializer;
 
+  /**
+   * Compares the fingerprint of the received message with the fingerprint of the previously received message, when the {@link UftpMessageSupport} provides
+   * it. Only when no fingerprint is available, or when the fingerprints differ, the messages themselves are compared, so payloads that were serialized
+   * differently are still recognized as duplicates.
+   */
+  public DuplicateMessageResult isDuplicate(IncomingUftpMessage<? extends PayloadMessageType> newMessage) {
+    var fingerprint = newMessage.fingerprint();
+    if (fingerprint != null) {
+      var payloadMessage = newMessage.payloadMessage();
+      var previousFingerprint = support.findDuplicateMessageFingerprint(payloadMessage.getMessageID(), payloadMessage.getSenderDomain(),
+                                                                        payloadMessage.getRecipientDomain());
+      if (previousFingerprint.isPresent() && previousFingerprint.get().equals(fingerprint)) {
+        return DuplicateMessageResult.DUPLICATE_MESSAGE;
+      }
+    }
+    return isDuplicate(newMessage.payloadMessage());
+  }
+
   public DuplicateMessageResult isDuplicate(PayloadMessageType newMessage) {
     var previousMessage = support.findDuplicateMessage(newMessage.getMessageID(), newMessage.getSenderDomain(), newMessage.getRecipientDomain());
     if (previousMessage.isEmpty()) {
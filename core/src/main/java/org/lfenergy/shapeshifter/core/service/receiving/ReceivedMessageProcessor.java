@@ -8,7 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
 import org.lfenergy.shapeshifter.core.model.IncomingUftpMessage;
-import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.UftpErrorProcessor;
 import org.lfenergy.shapeshifter.core.service.handler.UftpPayloadHandler;
 import org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageDetection.DuplicateMessageResult;
@@ -29,7 +28,7 @@ public class ReceivedMessageProcessor {
     var sender = message.sender();
     log.debug(String.format("Processing of received %s message from %s", request.getClass().getSimpleName(), sender));
 
-    if (isDuplicateMessage(sender, request)) {
+    if (isDuplicateMessage(message)) {
       throw new DuplicateMessageException(
           "Received " + request.getClass().getSimpleName() + " with MessageID '" + request.getMessageID() + "' from " + sender + " is a duplicate and has already been received.");
     }
@@ -37,8 +36,10 @@ public class ReceivedMessageProcessor {
     payloadHandler.notifyNewIncomingMessage(message);
   }
 
-  private boolean isDuplicateMessage(UftpParticipant sender, PayloadMessageType payloadMessage) {
-    var duplicate = duplicateDetection.isDuplicate(payloadMessage) != DuplicateMessageResult.NEW_MESSAGE;
+  private boolean isDuplicateMessage(IncomingUftpMessage<? extends PayloadMessageType> message) {
+    var payloadMessage = message.payloadMessage();
+    var sender = message.sender();
+    var duplicate = duplicateDetection.isDuplicate(message) != DuplicateMessageResult.NEW_MESSAGE;
     if (duplicate) {
       log.info(String.format("Received message %s (%s) from %s is a duplicate and has already been processed. It will not be submitted to the application.",
                              payloadMessage.getClass(), payloadMessage.getMessageID(), sender));
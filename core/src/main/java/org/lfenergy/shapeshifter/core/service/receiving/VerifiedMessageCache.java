@@ -0,0 +1,87 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.receiving;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.common.cache.ExpiringCache;
+import org.lfenergy.shapeshifter.core.model.UftpMessageFingerprint;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+
+/**
+ * Remembers the payload XML of received messages whose signature was verified, so a byte-identical redelivery of the same signed body by the same sender does
+ * not have to be verified again. The redelivery is still parsed and passed to the {@link ReceivedMessageProcessor}, which detects it as a duplicate when the
+ * first delivery was processed.
+ *
+ * <p>Messages are keyed by the sender and the SHA-256 digest of the signed body, so a body that is replayed under another sender is verified as usual. Every
+ * entry records the public key it was verified with, and is only found with that same key: once the public key of the sender is replaced or revoked, its
+ * messages are verified again.</p>
+ */
+public class VerifiedMessageCache {
+
+  public static final CacheSettings DEFAULT_SETTINGS = new CacheSettings(1_000, Duration.ofMinutes(10), Duration.ZERO, Duration.ZERO);
+
+  private final ExpiringCache<Key, VerifiedMessage> cache;
+
+  public VerifiedMessageCache() {
+    this(DEFAULT_SETTINGS);
+  }
+
+  public VerifiedMessageCache(CacheSettings settings) {
+    // Values are only put, never loaded
+    this(new ExpiringCache<>(key -> Optional.empty(), settings));
+  }
+
+  VerifiedMessageCache(ExpiringCache<Key, VerifiedMessage> cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * @param publicKey the decoded public key the sender's messages are currently verified with
+   * @return a copy of the verified payload XML, when the same signed body was received from the same sender before and verified with the same public key
+   */
+  public Optional<byte[]> find(@NonNull SignedMessage signedMessage, @NonNull byte[] publicKey) {
+    return cache.getIfPresent(Key.of(signedMessage))
+                .filter(verified -> Arrays.equals(verified.publicKey(), publicKey))
+                .map(verified -> verified.payloadXml().clone());
+  }
+
+  /**
+   * Remembers the payload XML of a message whose signature was verified with the given public key.
+   */
+  public void put(@NonNull SignedMessage signedMessage, @NonNull byte[] publicKey, @NonNull byte[] payloadXml) {
+    cache.put(Key.of(signedMessage), new VerifiedMessage(publicKey.clone(), payloadXml.clone()));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * @return the counters of the cache; the hit rate is the fraction of received messages that were redeliveries of a verified message
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  record Key(UftpParticipant sender, UftpMessageFingerprint bodyFingerprint) {
+
+    static Key of(SignedMessage signedMessage) {
+      return new Key(new UftpParticipant(signedMessage), UftpMessageFingerprint.of(signedMessage.getBody()));
+    }
+  }
+
+  record VerifiedMessage(byte[] publicKey, byte[] payloadXml) {
+  }
+}
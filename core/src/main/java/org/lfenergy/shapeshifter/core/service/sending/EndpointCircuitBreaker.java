@@ -0,0 +1,128 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+
+/**
+ * Keeps track of the health of endpoints, so a {@link UftpSendMessageService} fails fast instead of sending to an endpoint that is down.
+ *
+ * <p>An endpoint is opened after a number of consecutive failures; while it is open, requests to it are not sent. When the open duration has passed, one
+ * request is let through as a probe: when it succeeds the endpoint is closed again, when it fails the endpoint is opened again. Only failures that are
+ * retried count, see {@link RetryPolicy#isRetryable}; a response that rejects the message shows the endpoint is up and closes it. A probe whose outcome is
+ * not reported, for example because it was interrupted before a response was received, is followed by the next probe after another open duration.</p>
+ */
+public class EndpointCircuitBreaker {
+
+  private final int failureThreshold;
+  private final Duration openDuration;
+  private final Clock clock;
+  private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+  public EndpointCircuitBreaker(int failureThreshold, Duration openDuration) {
+    this(failureThreshold, openDuration, Clock.systemUTC());
+  }
+
+  /**
+   * @param failureThreshold the number of consecutive failures that opens an endpoint
+   * @param openDuration     how long an endpoint stays open before a probe is let through
+   */
+  public EndpointCircuitBreaker(int failureThreshold, @NonNull Duration openDuration, @NonNull Clock clock) {
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("failureThreshold must be positive");
+    }
+    if (openDuration.isNegative() || openDuration.isZero()) {
+      throw new IllegalArgumentException("openDuration must be positive");
+    }
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration;
+    this.clock = clock;
+  }
+
+  /**
+   * @return whether a request may be sent to the endpoint; when the endpoint is open and a probe is due, the caller sends the probe
+   */
+  public boolean allowRequest(@NonNull String endpoint) {
+    var circuit = circuits.get(endpoint);
+    return circuit == null || circuit.allowRequest(clock.millis());
+  }
+
+  public void onSuccess(@NonNull String endpoint) {
+    var circuit = circuits.get(endpoint);
+    if (circuit != null) {
+      circuit.close();
+    }
+  }
+
+  public void onFailure(@NonNull String endpoint) {
+    circuits.computeIfAbsent(endpoint, e -> new Circuit()).onFailure(clock.millis());
+  }
+
+  public State getState(@NonNull String endpoint) {
+    var circuit = circuits.get(endpoint);
+    return circuit == null ? State.CLOSED : circuit.state(clock.millis());
+  }
+
+  public enum State {
+    /**
+     * Requests are sent.
+     */
+    CLOSED,
+    /**
+     * Requests are not sent.
+     */
+    OPEN,
+    /**
+     * A probe is being sent; other requests are not sent.
+     */
+    HALF_OPEN
+  }
+
+  private final class Circuit {
+
+    private int failures;
+    // 0 when the circuit is closed
+    private long openUntil;
+    private boolean probing;
+
+    synchronized boolean allowRequest(long now) {
+      if (openUntil == 0) {
+        return true;
+      }
+      if (now < openUntil) {
+        return false;
+      }
+      // Let one probe through; should its outcome never be reported, the next probe is due after another open duration
+      probing = true;
+      openUntil = now + openDuration.toMillis();
+      return true;
+    }
+
+    synchronized void close() {
+      failures = 0;
+      openUntil = 0;
+      probing = false;
+    }
+
+    synchronized void onFailure(long now) {
+      failures++;
+      probing = false;
+      if (failures >= failureThreshold) {
+        openUntil = now + openDuration.toMillis();
+      }
+    }
+
+    synchronized State state(long now) {
+      if (openUntil == 0) {
+        return State.CLOSED;
+      }
+      return probing && now < openUntil ? State.HALF_OPEN : State.OPEN;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.time.Duration;
+import lombok.NonNull;
+
+/**
+ * @param maxQueueSize   the maximum number of messages per recipient that wait for a free slot, in flight messages not included
+ * @param maxInFlight    the maximum number of messages per recipient that are being sent at the same time
+ * @param overflowPolicy what happens to a message that is submitted while the queue of its recipient is full
+ * @param blockTimeout   how long a submitter waits for room in the queue with {@link OverflowPolicy#BLOCK}, before the message is rejected
+ */
+public record OutboundDispatcherSettings(int maxQueueSize, int maxInFlight, @NonNull OverflowPolicy overflowPolicy, @NonNull Duration blockTimeout) {
+
+  public static final OutboundDispatcherSettings DEFAULT = new OutboundDispatcherSettings(1_000, 4, OverflowPolicy.FAIL, Duration.ZERO);
+
+  public OutboundDispatcherSettings {
+    if (maxQueueSize < 0) {
+      throw new IllegalArgumentException("maxQueueSize must not be negative");
+    }
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be positive");
+    }
+    if (blockTimeout.isNegative()) {
+      throw new IllegalArgumentException("blockTimeout must not be negative");
+    }
+  }
+
+  public enum OverflowPolicy {
+    /**
+     * The submit method throws a {@link UftpSendException}.
+     */
+    REJECT,
+    /**
+     * The submitter waits until there is room in the queue, at most the block timeout, and is then rejected like {@link #REJECT}.
+     */
+    BLOCK,
+    /**
+     * The returned future completes exceptionally with a {@link UftpSendException}; the submitter is never blocked and never gets an exception.
+     */
+    FAIL
+  }
+}
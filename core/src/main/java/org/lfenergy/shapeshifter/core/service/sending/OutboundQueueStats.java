@@ -0,0 +1,26 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.time.Duration;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+
+/**
+ * State and counters of the outbound queue of one recipient of a {@link UftpOutboundDispatcher}. The counters are totals since the first message to the
+ * recipient was submitted.
+ *
+ * @param recipient        the recipient of the queued messages
+ * @param queued           the number of messages waiting for a free slot
+ * @param inFlight         the number of messages being sent
+ * @param sent             messages that were sent
+ * @param failed           messages that could not be sent
+ * @param rejected         messages that were not accepted because the queue was full
+ * @param averageQueueTime the average time a started message waited in the queue
+ * @param averageSendTime  the average time it took to send a finished message, redirects included
+ */
+public record OutboundQueueStats(UftpParticipant recipient, int queued, int inFlight, long sent, long failed, long rejected, Duration averageQueueTime,
+                                 Duration averageSendTime) {
+
+}
@@ -0,0 +1,18 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+
+/**
+ * A message in a {@link UftpOutbox} that was not delivered yet.
+ *
+ * @param sequence  the number of the message in the outbox, in the order in which the messages were added
+ * @param recipient the recipient of the message
+ * @param signedXml the signed message, as it is sent
+ */
+public record OutboxEntry(long sequence, UftpParticipant recipient, byte[] signedXml) {
+
+}
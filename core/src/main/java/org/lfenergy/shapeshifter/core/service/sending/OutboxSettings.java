@@ -0,0 +1,25 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+/**
+ * @param segmentSize the size in bytes of a segment file of a {@link UftpOutbox}; a message that does not fit in a segment of this size gets a segment of
+ *                    its own
+ * @param fsync       whether a message is forced to disk before it is sent; concurrent messages share a single force. Without it, a message that was
+ *                    written shortly before the operating system crashed may be lost, but not when only the application crashes.
+ */
+public record OutboxSettings(int segmentSize, boolean fsync) {
+
+  public static final OutboxSettings DEFAULT = new OutboxSettings(16 * 1024 * 1024, true);
+
+  // Enough for the record header and a small message
+  private static final int MIN_SEGMENT_SIZE = 4 * 1024;
+
+  public OutboxSettings {
+    if (segmentSize < MIN_SEGMENT_SIZE) {
+      throw new IllegalArgumentException("segmentSize must be at least " + MIN_SEGMENT_SIZE + " bytes");
+    }
+  }
+}
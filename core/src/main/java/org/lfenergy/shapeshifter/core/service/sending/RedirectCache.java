@@ -0,0 +1,120 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.ExpiringCache;
+
+/**
+ * Remembers where the endpoint of a recipient redirected a message to, so a {@link UftpSendMessageService} sends the next message to that location
+ * directly instead of sending the signed message twice.
+ *
+ * <p>The target of a permanent redirect ({@code 308}) is remembered for the permanent TTL, the target of a temporary redirect ({@code 307}) for the
+ * temporary TTL; a temporary TTL of zero does not remember temporary redirects at all. When sending to a remembered target fails, the target is forgotten
+ * and the message is sent to the endpoint again.</p>
+ */
+public class RedirectCache {
+
+  public static final int DEFAULT_MAX_SIZE = 1_000;
+  public static final Duration DEFAULT_PERMANENT_TTL = Duration.ofHours(1);
+  public static final Duration DEFAULT_TEMPORARY_TTL = Duration.ZERO;
+
+  private final ExpiringCache<String, String> permanentTargets;
+  private final ExpiringCache<String, String> temporaryTargets;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public RedirectCache() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_PERMANENT_TTL, DEFAULT_TEMPORARY_TTL);
+  }
+
+  public RedirectCache(int maxSize, Duration permanentTtl, Duration temporaryTtl) {
+    this(maxSize, permanentTtl, temporaryTtl, Clock.systemUTC());
+  }
+
+  /**
+   * @param maxSize      the maximum number of remembered permanent redirects, and of remembered temporary redirects
+   * @param permanentTtl how long the target of a permanent redirect is remembered
+   * @param temporaryTtl how long the target of a temporary redirect is remembered; {@link Duration#ZERO} does not remember temporary redirects
+   */
+  public RedirectCache(int maxSize, @NonNull Duration permanentTtl, @NonNull Duration temporaryTtl, @NonNull Clock clock) {
+    if (temporaryTtl.isNegative()) {
+      throw new IllegalArgumentException("temporaryTtl must not be negative");
+    }
+    this.permanentTargets = newCache(maxSize, permanentTtl, clock);
+    this.temporaryTargets = temporaryTtl.isZero() ? null : newCache(maxSize, temporaryTtl, clock);
+  }
+
+  /**
+   * @return the remembered target of the endpoint, or empty when the message is to be sent to the endpoint
+   */
+  public Optional<String> find(@NonNull String endpoint) {
+    var target = lookup(endpoint);
+    (target.isPresent() ? hits : misses).increment();
+    return target;
+  }
+
+  /**
+   * Remembers the location a message to the endpoint was delivered to after following redirects.
+   *
+   * @param permanent whether all followed redirects were permanent
+   */
+  public void remember(@NonNull String endpoint, @NonNull String target, boolean permanent) {
+    if (permanent) {
+      permanentTargets.put(endpoint, target);
+    } else if (temporaryTargets != null) {
+      temporaryTargets.put(endpoint, target);
+    }
+  }
+
+  /**
+   * Forgets the target of the endpoint, so the next message is sent to the endpoint again.
+   */
+  public void invalidate(@NonNull String endpoint) {
+    if (lookup(endpoint).isPresent()) {
+      invalidations.increment();
+    }
+    permanentTargets.invalidate(endpoint);
+    if (temporaryTargets != null) {
+      temporaryTargets.invalidate(endpoint);
+    }
+  }
+
+  public void invalidateAll() {
+    permanentTargets.invalidateAll();
+    if (temporaryTargets != null) {
+      temporaryTargets.invalidateAll();
+    }
+  }
+
+  public int size() {
+    return permanentTargets.size() + (temporaryTargets != null ? temporaryTargets.size() : 0);
+  }
+
+  public RedirectCacheStats stats() {
+    return new RedirectCacheStats(hits.sum(), misses.sum(), invalidations.sum());
+  }
+
+  private Optional<String> lookup(String endpoint) {
+    var target = permanentTargets.getIfPresent(endpoint);
+    if (target.isEmpty() && temporaryTargets != null) {
+      target = temporaryTargets.getIfPresent(endpoint);
+    }
+    return target;
+  }
+
+  private static ExpiringCache<String, String> newCache(int maxSize, Duration ttl, Clock clock) {
+    // Targets are only ever put, never loaded
+    return new ExpiringCache<>(endpoint -> Optional.empty(), new CacheSettings(maxSize, ttl, Duration.ZERO, Duration.ZERO), ForkJoinPool.commonPool(), clock);
+  }
+}
@@ -0,0 +1,23 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+/**
+ * Counters of a {@link RedirectCache} since it was created.
+ *
+ * @param hits          messages sent to a remembered target directly
+ * @param misses        messages sent to the endpoint because no target was remembered
+ * @param invalidations remembered targets that were forgotten because sending to them failed
+ */
+public record RedirectCacheStats(long hits, long misses, long invalidations) {
+
+  /**
+   * @return the fraction of messages sent to a remembered target, or 1 when nothing was sent yet
+   */
+  public double hitRate() {
+    var requests = hits + misses;
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+}
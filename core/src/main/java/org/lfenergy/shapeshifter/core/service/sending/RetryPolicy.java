@@ -0,0 +1,81 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.io.IOException;
+import java.time.Duration;
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * How often and how fast a {@link UftpSendMessageService} retries a message that could not be delivered. A retry sends the same signed XML again; the
+ * message is not serialized or signed again.
+ *
+ * <p>Only failures that may succeed later are retried: server errors (5xx), {@code 429 Too Many Requests} and I/O errors such as a refused connection.
+ * Client errors, for example a rejected message, and invalid endpoints are never retried.</p>
+ *
+ * @param maxAttempts    the maximum number of attempts, the first attempt included; 1 disables retrying
+ * @param initialBackoff the wait before the first retry
+ * @param maxBackoff     the maximum wait before a retry
+ * @param multiplier     the factor by which the wait grows with every retry
+ * @param jitter         the fraction of the wait that is randomized, between 0 (no jitter) and 1 (a random wait up to the full wait), so senders that
+ *                       failed at the same time do not retry at the same time
+ */
+public record RetryPolicy(int maxAttempts, @NonNull Duration initialBackoff, @NonNull Duration maxBackoff, double multiplier, double jitter) {
+
+  public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO, 1.0, 0.0);
+
+  public RetryPolicy {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be positive");
+    }
+    if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+      throw new IllegalArgumentException("initialBackoff must not be negative and must not exceed maxBackoff");
+    }
+    if (multiplier < 1.0) {
+      throw new IllegalArgumentException("multiplier must be at least 1");
+    }
+    if (jitter < 0.0 || jitter > 1.0) {
+      throw new IllegalArgumentException("jitter must be between 0 and 1");
+    }
+  }
+
+  /**
+   * @return a policy that doubles the wait with every retry, with half of the wait randomized
+   */
+  public static RetryPolicy exponential(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+    return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, 2.0, 0.5);
+  }
+
+  /**
+   * @param retry  the number of the retry, 1 for the first retry
+   * @param random a random number between 0 (inclusive) and 1 (exclusive)
+   * @return how long to wait before the retry
+   */
+  public Duration backoff(int retry, double random) {
+    var backoff = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() * Math.pow(multiplier, retry - 1.0));
+    return Duration.ofNanos((long) (backoff * (1.0 - jitter * random)));
+  }
+
+  /**
+   * @return whether another attempt may be made after the given attempt failed with the exception
+   */
+  public boolean shouldRetry(UftpConnectorException failure, int attempt) {
+    return attempt < maxAttempts && isRetryable(failure);
+  }
+
+  /**
+   * @return whether a delivery that failed with the exception may succeed when it is tried again
+   */
+  public static boolean isRetryable(@NonNull UftpConnectorException failure) {
+    if (failure.getCause() instanceof IOException) {
+      return true;
+    }
+    var httpStatusCode = failure.getHttpStatusCode();
+    return (failure instanceof UftpServerErrorException && httpStatusCode.isServerError())
+        || (failure instanceof UftpClientErrorException && HttpStatusCode.TOO_MANY_REQUESTS.equals(httpStatusCode));
+  }
+}
@@ -0,0 +1,20 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+/**
+ * Exception thrown when an UFTP message cannot be sent because the endpoint of the recipient is unknown or invalid.
+ */
+@SuppressWarnings("java:S110") // More than 5 parents useful and intended in this case
+public final class UftpEndpointException extends UftpSendException {
+
+  public UftpEndpointException(String message) {
+    super(message);
+  }
+
+  public UftpEndpointException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,250 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.model.SigningDetails;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.sending.OutboundDispatcherSettings.OverflowPolicy;
+
+/**
+ * Sends messages with the asynchronous API of a {@link UftpSendMessageService}, with a bounded queue and a limit on the number of messages in flight per
+ * recipient. A slow or unavailable recipient only fills up its own queue, so messages to other recipients are not delayed.
+ *
+ * <p>Messages to the same recipient are started in the order in which they were submitted. A message is serialized and signed when it is started, on the
+ * thread that submits it or on the thread that completes the previous message to the recipient. What happens when the queue of a recipient is full is
+ * decided by the {@link OverflowPolicy} of the {@link OutboundDispatcherSettings}.</p>
+ */
+public class UftpOutboundDispatcher {
+
+  private static final String MSG_QUEUE_FULL = "Could not send UFTP message; the outbound queue of {0} is full ({1} messages)";
+  private static final String MSG_INTERRUPTED = "Interrupted while waiting for room in the outbound queue of {0}";
+
+  private final UftpSendMessageService sendMessageService;
+  private final OutboundDispatcherSettings settings;
+  private final Map<UftpParticipant, RecipientQueue> queues = new ConcurrentHashMap<>();
+
+  public UftpOutboundDispatcher(UftpSendMessageService sendMessageService) {
+    this(sendMessageService, OutboundDispatcherSettings.DEFAULT);
+  }
+
+  public UftpOutboundDispatcher(@NonNull UftpSendMessageService sendMessageService, @NonNull OutboundDispatcherSettings settings) {
+    this.sendMessageService = sendMessageService;
+    this.settings = settings;
+  }
+
+  /**
+   * Queues a message to be sent without validation, see {@link UftpSendMessageService#attemptToSendMessageAsync}
+   *
+   * @return a future that completes when the message was sent, or completes exceptionally with the reason it was not sent
+   * @throws UftpSendException when the queue of the recipient is full and the overflow policy is {@link OverflowPolicy#REJECT} or
+   *                           {@link OverflowPolicy#BLOCK}
+   */
+  public CompletableFuture<Void> attemptToSendMessage(@NonNull PayloadMessageType payloadMessage, @NonNull SigningDetails details) {
+    return submit(details.recipient(), () -> sendMessageService.attemptToSendMessageAsync(payloadMessage, details));
+  }
+
+  /**
+   * Queues a message to be sent with validation, see {@link UftpSendMessageService#attemptToValidateAndSendMessageAsync}
+   *
+   * @return a future that completes when the message was sent, or completes exceptionally with the reason it was not sent
+   * @throws UftpSendException when the queue of the recipient is full and the overflow policy is {@link OverflowPolicy#REJECT} or
+   *                           {@link OverflowPolicy#BLOCK}
+   */
+  public CompletableFuture<Void> attemptToValidateAndSendMessage(@NonNull PayloadMessageType payloadMessage, @NonNull SigningDetails details) {
+    return submit(details.recipient(), () -> sendMessageService.attemptToValidateAndSendMessageAsync(payloadMessage, details));
+  }
+
+  public OutboundDispatcherSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * @return the state of the queue of the recipient; all zeroes when nothing was submitted to the recipient yet
+   */
+  public OutboundQueueStats stats(@NonNull UftpParticipant recipient) {
+    var queue = queues.get(recipient);
+    return queue != null ? queue.stats() : new OutboundQueueStats(recipient, 0, 0, 0, 0, 0, Duration.ZERO, Duration.ZERO);
+  }
+
+  /**
+   * @return the state of the queues of all recipients that messages were submitted to, the deepest queue first
+   */
+  public List<OutboundQueueStats> stats() {
+    return queues.values().stream()
+                 .map(RecipientQueue::stats)
+                 .sorted(Comparator.comparingInt(OutboundQueueStats::queued).reversed())
+                 .toList();
+  }
+
+  private CompletableFuture<Void> submit(UftpParticipant recipient, Supplier<CompletableFuture<Void>> send) {
+    var queue = queues.computeIfAbsent(recipient, RecipientQueue::new);
+    var message = new QueuedMessage(send, new CompletableFuture<>(), System.nanoTime());
+    if (!queue.offer(message)) {
+      queue.rejected.increment();
+      var failure = new UftpSendException(MessageFormat.format(MSG_QUEUE_FULL, recipient, settings.maxQueueSize()), HttpStatusCode.SERVICE_UNAVAILABLE);
+      if (settings.overflowPolicy() == OverflowPolicy.FAIL) {
+        return CompletableFuture.failedFuture(failure);
+      }
+      throw failure;
+    }
+    drain(queue);
+    return message.result();
+  }
+
+  /**
+   * Starts queued messages while the recipient has free slots. Only one thread drains a queue at a time; a thread that finds the queue being drained leaves
+   * the work to that thread, so a message that completes while it is being started does not start the next one recursively.
+   */
+  private void drain(RecipientQueue queue) {
+    if (queue.draining.getAndIncrement() != 0) {
+      return;
+    }
+    var missed = 1;
+    do {
+      QueuedMessage next;
+      while ((next = queue.pollStartable()) != null) {
+        start(queue, next);
+      }
+      missed = queue.draining.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void start(RecipientQueue queue, QueuedMessage message) {
+    var startedAt = System.nanoTime();
+    queue.started.increment();
+    queue.queueNanos.add(startedAt - message.submittedAt());
+
+    CompletableFuture<Void> sending;
+    try {
+      sending = message.send().get();
+    } catch (RuntimeException e) {
+      sending = CompletableFuture.failedFuture(e);
+    }
+    sending.whenComplete((ignored, failure) -> {
+      queue.sendNanos.add(System.nanoTime() - startedAt);
+      (failure == null ? queue.sent : queue.failed).increment();
+      queue.release();
+      drain(queue);
+      if (failure == null) {
+        message.result().complete(null);
+      } else {
+        message.result().completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+      }
+    });
+  }
+
+  private record QueuedMessage(Supplier<CompletableFuture<Void>> send, CompletableFuture<Void> result, long submittedAt) {
+
+  }
+
+  private final class RecipientQueue {
+
+    private final UftpParticipant recipient;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Queue<QueuedMessage> pending = new ArrayDeque<>();
+    private int inFlight;
+    private final AtomicInteger draining = new AtomicInteger();
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+
+    private RecipientQueue(UftpParticipant recipient) {
+      this.recipient = recipient;
+    }
+
+    /**
+     * @return whether the message was queued; with {@link OverflowPolicy#BLOCK} waits for room first
+     */
+    boolean offer(QueuedMessage message) {
+      lock.lock();
+      try {
+        var remaining = settings.overflowPolicy() == OverflowPolicy.BLOCK ? settings.blockTimeout().toNanos() : 0;
+        while (isFull()) {
+          if (remaining <= 0) {
+            return false;
+          }
+          remaining = notFull.awaitNanos(remaining);
+        }
+        pending.add(message);
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new UftpSendException(MessageFormat.format(MSG_INTERRUPTED, recipient), HttpStatusCode.SERVICE_UNAVAILABLE, e);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    QueuedMessage pollStartable() {
+      lock.lock();
+      try {
+        if (inFlight >= settings.maxInFlight() || pending.isEmpty()) {
+          return null;
+        }
+        inFlight++;
+        return pending.poll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void release() {
+      lock.lock();
+      try {
+        inFlight--;
+        notFull.signal();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    OutboundQueueStats stats() {
+      int queued;
+      int sending;
+      lock.lock();
+      try {
+        queued = pending.size();
+        sending = inFlight;
+      } finally {
+        lock.unlock();
+      }
+      var finished = sent.sum() + failed.sum();
+      return new OutboundQueueStats(recipient, queued, sending, sent.sum(), failed.sum(), rejected.sum(),
+                                    average(queueNanos.sum(), started.sum()), average(sendNanos.sum(), finished));
+    }
+
+    private boolean isFull() {
+      // Messages only wait in the queue while all slots are taken, so the recipient can hold the in-flight messages plus a full queue
+      return inFlight + pending.size() >= settings.maxInFlight() + settings.maxQueueSize();
+    }
+
+    private static Duration average(long totalNanos, long count) {
+      return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos / count);
+    }
+  }
+}
@@ -0,0 +1,448 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.NonNull;
+import lombok.extern.apachecommons.CommonsLog;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+
+/**
+ * Durable log of signed messages that are being sent, so messages that were not delivered when the application stopped or crashed can be sent again when
+ * it starts, see {@link UftpSendMessageService#replayOutbox()}.
+ *
+ * <p>The log is a directory of memory-mapped segment files on the local filesystem. A message is appended before it is sent and marked when it was
+ * delivered, or when it was rejected and sending it again would not help. A segment file is deleted as soon as all of its messages are marked and a newer
+ * segment is being written.</p>
+ *
+ * <p>With {@link OutboxSettings#fsync()}, {@link #append} returns once the message is forced to disk. Messages that are appended at the same time share a
+ * single force: one thread forces the segment for all messages written so far, while the others wait for it. Marks are not forced separately; a mark that
+ * is lost in a crash only causes the message to be sent again. Delivery is at least once: a replayed message may already have been received, which the
+ * recipient detects by its message ID.</p>
+ */
+@CommonsLog
+public class UftpOutbox implements AutoCloseable {
+
+  private static final String SEGMENT_PREFIX = "outbox-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  // Record layout: length of the payload (0 ends the segment), CRC of sequence and payload, sequence, status, payload
+  private static final int LENGTH_OFFSET = 0;
+  private static final int CRC_OFFSET = 4;
+  private static final int SEQUENCE_OFFSET = 8;
+  private static final int STATUS_OFFSET = 16;
+  private static final int HEADER_BYTES = 17;
+
+  private static final byte PENDING = 0;
+  private static final byte DELIVERED = 1;
+  private static final byte FAILED = 2;
+
+  private final Path directory;
+  private final OutboxSettings settings;
+  private final Map<Long, Location> pending = new ConcurrentHashMap<>();
+  // The pending messages that are being sent, by the thread that appended them or by a replay
+  private final Set<Long> claimed = ConcurrentHashMap.newKeySet();
+  private final Set<Segment> segments = ConcurrentHashMap.newKeySet();
+
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private volatile Segment active;
+  private long nextSequence = 1;
+  private long writtenSequence;
+  private volatile long durableSequence;
+  private boolean closed;
+
+  public UftpOutbox(Path directory) {
+    this(directory, OutboxSettings.DEFAULT);
+  }
+
+  /**
+   * Opens the outbox in the directory, creating the directory when it does not exist, and recovers the messages that were not delivered yet.
+   *
+   * @throws IllegalStateException when the directory or its segment files cannot be read
+   */
+  public UftpOutbox(@NonNull Path directory, @NonNull OutboxSettings settings) {
+    this.directory = directory;
+    this.settings = settings;
+    try {
+      Files.createDirectories(directory);
+      recover();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not open the outbox in " + directory, e);
+    }
+  }
+
+  /**
+   * Adds a message that is about to be sent. The message is claimed by the caller before it can be seen by others, so it is not replayed while the caller
+   * sends it; the caller marks or {@link #release releases} it.
+   *
+   * @return the sequence of the message, to mark it with
+   * @throws UftpSendException when the message could not be written
+   */
+  public long append(@NonNull UftpParticipant recipient, @NonNull byte[] signedXml) {
+    var payload = encode(recipient, signedXml);
+    long sequence;
+    appendLock.lock();
+    try {
+      if (closed) {
+        throw new UftpSendException("Could not write UFTP message to the outbox; the outbox is closed");
+      }
+      var recordBytes = HEADER_BYTES + payload.length;
+      if (active == null || active.position + recordBytes > active.capacity) {
+        roll(recordBytes);
+      }
+      sequence = nextSequence++;
+      var offset = active.position;
+      write(active.buffer, offset, sequence, payload);
+      active.position += recordBytes;
+      active.pending.incrementAndGet();
+      claimed.add(sequence);
+      pending.put(sequence, new Location(active, offset));
+      writtenSequence = sequence;
+    } catch (IOException e) {
+      throw new UftpSendException("Could not write UFTP message to the outbox: " + e.getMessage(), e);
+    } finally {
+      appendLock.unlock();
+    }
+    if (settings.fsync()) {
+      try {
+        sync(sequence);
+      } catch (RuntimeException e) {
+        // The caller will not send the message, so it is left to a replay
+        release(sequence);
+        throw e;
+      }
+    }
+    return sequence;
+  }
+
+  /**
+   * Marks a message as delivered, so it is not sent again.
+   */
+  public void markDelivered(long sequence) {
+    finish(sequence, DELIVERED);
+  }
+
+  /**
+   * Marks a message that was rejected, so it is not sent again.
+   */
+  public void markFailed(long sequence) {
+    finish(sequence, FAILED);
+  }
+
+  /**
+   * @return the messages that were not marked yet, in the order in which they were appended
+   */
+  public List<OutboxEntry> pendingEntries() {
+    return pending.entrySet().stream()
+                  .sorted(Map.Entry.comparingByKey())
+                  .map(entry -> read(entry.getKey(), entry.getValue()))
+                  .toList();
+  }
+
+  /**
+   * Claims a pending message to send it, so it is sent by one caller at a time; the caller marks or {@link #release releases} it.
+   *
+   * @return {@code false} when the message is being sent by another caller, or was marked already
+   */
+  public boolean claim(long sequence) {
+    if (!claimed.add(sequence)) {
+      return false;
+    }
+    // The message may have been marked after it was listed; marks remove the message from pending before they release it
+    if (!pending.containsKey(sequence)) {
+      claimed.remove(sequence);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Releases a claimed message that stays pending, so it can be claimed again.
+   */
+  public void release(long sequence) {
+    claimed.remove(sequence);
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * @return the number of segment files in the directory
+   */
+  public int segmentCount() {
+    return segments.size();
+  }
+
+  public OutboxSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Forces all segments to disk and closes them; a segment without pending messages is deleted.
+   */
+  @Override
+  public void close() {
+    appendLock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (var segment : List.copyOf(segments)) {
+        if (segment.pending.get() == 0) {
+          delete(segment);
+        } else {
+          segment.buffer.force();
+          closeQuietly(segment);
+        }
+      }
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private void recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> list = Files.list(directory)) {
+      files = list.filter(path -> isSegment(path.getFileName().toString())).sorted(Comparator.comparing(Path::getFileName)).toList();
+    }
+    var lastSequence = 0L;
+    for (var file : files) {
+      var segment = Segment.open(file);
+      segments.add(segment);
+      lastSequence = Math.max(lastSequence, scan(segment));
+      if (segment.pending.get() == 0) {
+        delete(segment);
+      }
+    }
+    nextSequence = lastSequence + 1;
+    writtenSequence = lastSequence;
+    durableSequence = lastSequence;
+    if (!pending.isEmpty()) {
+      log.info("Recovered " + pending.size() + " undelivered UFTP messages from the outbox in " + directory);
+    }
+  }
+
+  /**
+   * Reads the records of a segment up to the first record that is missing or incomplete, for example because it was being written during a crash.
+   *
+   * @return the highest sequence in the segment
+   */
+  private long scan(Segment segment) {
+    var buffer = segment.buffer;
+    var lastSequence = 0L;
+    var offset = 0;
+    while (offset + HEADER_BYTES <= segment.capacity) {
+      var length = buffer.getInt(offset + LENGTH_OFFSET);
+      if (length <= 0 || length > segment.capacity - offset - HEADER_BYTES) {
+        break;
+      }
+      var sequence = buffer.getLong(offset + SEQUENCE_OFFSET);
+      var payload = new byte[length];
+      buffer.get(offset + HEADER_BYTES, payload);
+      if (buffer.getInt(offset + CRC_OFFSET) != crc(sequence, payload)) {
+        log.warn("Ignoring incomplete record at offset " + offset + " of outbox segment " + segment.path);
+        break;
+      }
+      if (buffer.get(offset + STATUS_OFFSET) == PENDING) {
+        pending.put(sequence, new Location(segment, offset));
+        segment.pending.incrementAndGet();
+      }
+      lastSequence = Math.max(lastSequence, sequence);
+      offset += HEADER_BYTES + length;
+    }
+    segment.position = offset;
+    return lastSequence;
+  }
+
+  /**
+   * Starts a new segment; the previous segment is forced, and deleted when all of its messages are marked already. Called with the append lock held.
+   */
+  private void roll(int recordBytes) throws IOException {
+    var previous = active;
+    if (previous != null && settings.fsync()) {
+      previous.buffer.force();
+    }
+    var path = directory.resolve(SEGMENT_PREFIX + String.format("%020d", nextSequence) + SEGMENT_SUFFIX);
+    var segment = Segment.create(path, Math.max(settings.segmentSize(), recordBytes));
+    segments.add(segment);
+    active = segment;
+    if (previous != null) {
+      compact(previous);
+    }
+  }
+
+  /**
+   * Forces the active segment to disk, unless another thread already did so after the message was written.
+   */
+  private void sync(long sequence) {
+    if (durableSequence >= sequence) {
+      return;
+    }
+    syncLock.lock();
+    try {
+      if (durableSequence >= sequence) {
+        return;
+      }
+      long target;
+      Segment segment;
+      appendLock.lock();
+      try {
+        target = writtenSequence;
+        segment = active;
+      } finally {
+        appendLock.unlock();
+      }
+      // Messages in earlier segments were forced when the segment was rolled
+      segment.buffer.force();
+      durableSequence = target;
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void finish(long sequence, byte status) {
+    var location = pending.remove(sequence);
+    claimed.remove(sequence);
+    if (location == null) {
+      return;
+    }
+    location.segment().buffer.put(location.offset() + STATUS_OFFSET, status);
+    if (location.segment().pending.decrementAndGet() == 0) {
+      compact(location.segment());
+    }
+  }
+
+  private void compact(Segment segment) {
+    if (segment != active && segment.pending.get() == 0) {
+      delete(segment);
+    }
+  }
+
+  private void delete(Segment segment) {
+    if (!segment.deleted.compareAndSet(false, true)) {
+      return;
+    }
+    segments.remove(segment);
+    closeQuietly(segment);
+    try {
+      Files.deleteIfExists(segment.path);
+    } catch (IOException e) {
+      log.warn("Could not delete outbox segment " + segment.path, e);
+    }
+  }
+
+  private static void closeQuietly(Segment segment) {
+    try {
+      segment.channel.close();
+    } catch (IOException e) {
+      log.warn("Could not close outbox segment " + segment.path, e);
+    }
+  }
+
+  private static boolean isSegment(String fileName) {
+    return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+  }
+
+  private static void write(MappedByteBuffer buffer, int offset, long sequence, byte[] payload) {
+    buffer.putLong(offset + SEQUENCE_OFFSET, sequence);
+    buffer.put(offset + STATUS_OFFSET, PENDING);
+    buffer.put(offset + HEADER_BYTES, payload);
+    buffer.putInt(offset + CRC_OFFSET, crc(sequence, payload));
+    // The length is written last, so a reader never sees a length before the record it describes
+    buffer.putInt(offset + LENGTH_OFFSET, payload.length);
+  }
+
+  private static OutboxEntry read(long sequence, Location location) {
+    var buffer = location.segment().buffer;
+    var length = buffer.getInt(location.offset() + LENGTH_OFFSET);
+    var payload = new byte[length];
+    buffer.get(location.offset() + HEADER_BYTES, payload);
+    return decode(sequence, payload);
+  }
+
+  private static int crc(long sequence, byte[] payload) {
+    var crc = new CRC32();
+    crc.update(ByteBuffer.allocate(Long.BYTES).putLong(sequence).flip());
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  private static byte[] encode(UftpParticipant recipient, byte[] signedXml) {
+    var domain = recipient.domain().getBytes(StandardCharsets.UTF_8);
+    var role = recipient.role().name().getBytes(StandardCharsets.UTF_8);
+    return ByteBuffer.allocate(Short.BYTES + domain.length + Short.BYTES + role.length + signedXml.length)
+                     .putShort((short) domain.length).put(domain)
+                     .putShort((short) role.length).put(role)
+                     .put(signedXml)
+                     .array();
+  }
+
+  private static OutboxEntry decode(long sequence, byte[] payload) {
+    var buffer = ByteBuffer.wrap(payload);
+    var domain = new byte[buffer.getShort()];
+    buffer.get(domain);
+    var role = new byte[buffer.getShort()];
+    buffer.get(role);
+    var signedXml = new byte[buffer.remaining()];
+    buffer.get(signedXml);
+    var recipient = new UftpParticipant(new String(domain, StandardCharsets.UTF_8), USEFRoleType.valueOf(new String(role, StandardCharsets.UTF_8)));
+    return new OutboxEntry(sequence, recipient, signedXml);
+  }
+
+  private record Location(Segment segment, int offset) {
+
+  }
+
+  private static final class Segment {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    // Only used by the active segment, with the append lock held
+    private int position;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean deleted = new AtomicBoolean();
+
+    private Segment(Path path, FileChannel channel, int capacity) throws IOException {
+      this.path = path;
+      this.channel = channel;
+      this.capacity = capacity;
+      this.buffer = channel.map(MapMode.READ_WRITE, 0, capacity);
+    }
+
+    static Segment create(Path path, int capacity) throws IOException {
+      // Mapping the new file extends it to the capacity, filled with zeroes
+      return new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE), capacity);
+    }
+
+    static Segment open(Path path) throws IOException {
+      var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      return new Segment(path, channel, (int) channel.size());
+    }
+  }
+}
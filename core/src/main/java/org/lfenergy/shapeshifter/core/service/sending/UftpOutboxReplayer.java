@@ -0,0 +1,84 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.extern.apachecommons.CommonsLog;
+
+/**
+ * Replays the outbox of a {@link UftpSendMessageService} periodically, so messages that stayed pending after a temporary failure, such as an open circuit
+ * or an unavailable recipient, are sent again while the application keeps running, and not only when it restarts.
+ *
+ * <p>Replays run one after the other on a single daemon thread, the interval apart. Messages that are still being sent when a replay runs are skipped by
+ * {@link UftpSendMessageService#replayOutbox()}.</p>
+ */
+@CommonsLog
+public class UftpOutboxReplayer implements AutoCloseable {
+
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+  private final UftpSendMessageService sendMessageService;
+  private final Duration interval;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    var thread = new Thread(runnable, "shapeshifter-outbox-replay");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public UftpOutboxReplayer(UftpSendMessageService sendMessageService) {
+    this(sendMessageService, DEFAULT_INTERVAL);
+  }
+
+  public UftpOutboxReplayer(@NonNull UftpSendMessageService sendMessageService, @NonNull Duration interval) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+    this.sendMessageService = sendMessageService;
+    this.interval = interval;
+  }
+
+  /**
+   * Starts replaying: the first replay runs right away, the next ones the interval after the previous one finished.
+   */
+  public void start() {
+    scheduler.scheduleWithFixedDelay(this::replay, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public Duration getInterval() {
+    return interval;
+  }
+
+  /**
+   * Stops replaying; a replay that is running is interrupted and waited for, and its remaining messages stay pending.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    try {
+      if (!scheduler.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("The UFTP outbox replay did not stop within " + CLOSE_TIMEOUT.toSeconds() + " seconds");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void replay() {
+    try {
+      var delivered = sendMessageService.replayOutbox();
+      if (delivered > 0) {
+        log.info("Delivered " + delivered + " UFTP messages from the outbox");
+      }
+    } catch (RuntimeException e) {
+      // A failing replay must not cancel the next ones
+      log.warn("Could not replay the UFTP outbox: " + e.getMessage(), e);
+    }
+  }
+}
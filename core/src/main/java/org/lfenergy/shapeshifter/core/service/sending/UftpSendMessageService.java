@@ -11,10 +11,14 @@ import org.lfenergy.shapeshifter.api.PayloadMessageResponseType;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
 import org.lfenergy.shapeshifter.api.model.UftpParticipantInformation;
 import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.model.SigningDetails;
 import org.lfenergy.shapeshifter.core.model.UftpMessage;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.ParticipantAuthorizationProvider;
 import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpMessageSigner;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpSigningKey;
 import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
 import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
 import org.lfenergy.shapeshifter.core.service.validation.UftpValidationService;
@@ -25,9 +29,19 @@ import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Sends UFTP messages to recipients
@@ -46,16 +60,30 @@ public class UftpSendMessageService {
             HttpStatusCode.TEMPORARY_REDIRECT,
             HttpStatusCode.PERMANENT_REDIRECT
     );
+    // Responses of a remembered redirect target that does not take messages for the endpoint anymore, as opposed to rejections of the message itself
+    private static final Set<HttpStatusCode> STALE_TARGET_STATUS_CODES = Set.of(
+            HttpStatusCode.valueOf(404),
+            HttpStatusCode.valueOf(405),
+            HttpStatusCode.valueOf(410),
+            HttpStatusCode.valueOf(421)
+    );
     private static final String REDIRECT_LOCATION_HEADER_NAME = "Location";
+    private static final String AUTHORIZATION_HEADER_NAME = "Authorization";
+    // The number of requests of a batch that are sent at the same time
+    private static final int MAX_BATCH_REQUESTS_IN_FLIGHT = 64;
 
     private static final String MSG_VALIDATION_FAILED = "Could not send UFTP message; the outgoing {0} message was not valid: {1}";
     private static final String MSG_INVALID_ENDPOINT = "Could not send UFTP message; invalid endpoint: {0}";
+    private static final String MSG_UNKNOWN_RECIPIENT = "No participant found for {0} in {1}";
     private static final String MSG_CLIENT_ERROR = "Client error {0} received while sending UFTP message to {1}: {2}";
     private static final String MSG_SERVER_ERROR = "Server error {0} received while sending UFTP message to {1}: {2}";
     private static final String MSG_UNEXPECTED_RESPONSE_STATUS = "Unexpected response status {0} received while sending UFTP message to {1}: {2}";
     private static final String MSG_UNEXPECTED_IO_ERROR = "Unexpected I/O exception while sending UFTP message to {0}: {1}: {2}";
     private static final String MSG_INTERRUPTED = "Interrupted while sending UFTP message to {0}: {1}";
     private static final String MSG_TOO_MANY_REDIRECTS = "Too many redirects while sending UFTP message to {0}";
+    private static final String MSG_UNEXPECTED_ERROR = "Unexpected exception while sending UFTP message: {0}: {1}";
+    private static final String MSG_CIRCUIT_OPEN = "Could not send UFTP message; the circuit breaker for {0} is open";
+    private static final String MSG_REPLAY_FAILED = "Could not send UFTP message {0} from the outbox to {1}: {2}";
     private static final String MSG_MISSING_REDIRECT_LOCATION = "Redirect received without " + REDIRECT_LOCATION_HEADER_NAME + " header while sending UFTP message to {0}";
 
     private final UftpSerializer serializer;
@@ -66,6 +94,10 @@ public class UftpSendMessageService {
     private final HttpClient httpClient;
 
     private final List<RequestInterceptor> requestInterceptors = new ArrayList<>();
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private EndpointCircuitBreaker circuitBreaker;
+    private RedirectCache redirectCache;
+    private UftpOutbox outbox;
 
 
     /**
@@ -111,17 +143,75 @@ public class UftpSendMessageService {
      * @throws UftpSendException if validation fails, or if sending fails
      */
     public void attemptToValidateAndSendMessage(@NonNull PayloadMessageType payloadMessage, @NonNull SigningDetails details) throws UftpSendException {
-        // We will validate outgoing messages, but we will not validate outgoing response messages.
-        if (!(payloadMessage instanceof PayloadMessageResponseType)) {
-            var uftpMessage = UftpMessage.createOutgoing(details.sender(), payloadMessage);
-            var validationResult = uftpValidationService.validate(uftpMessage);
-            if (!validationResult.valid()) {
-                throw new UftpSendException(MessageFormat.format(MSG_VALIDATION_FAILED, payloadMessage.getClass().getSimpleName(), validationResult.rejectionReason()));
-            }
-        }
+        validate(payloadMessage, details);
         doSend(payloadMessage, details);
     }
 
+    /**
+     * Attempts to send a message, without validation, without blocking while the request is in flight. The message is serialized and signed on the calling
+     * thread; the request and any redirects are sent asynchronously by the {@link HttpClient}.
+     *
+     * @return a future that completes when the message was sent, or completes exceptionally with the {@link UftpSendException} (or other
+     * {@link UftpConnectorException}) that {@link #attemptToSendMessage} would throw
+     */
+    public CompletableFuture<Void> attemptToSendMessageAsync(@NonNull PayloadMessageType payloadMessage, @NonNull SigningDetails details) {
+        return doSendAsync(payloadMessage, details);
+    }
+
+    /**
+     * Attempts to send a message, with validation, without blocking while the request is in flight
+     *
+     * @return a future that completes when the message was sent, or completes exceptionally with the {@link UftpSendException} (or other
+     * {@link UftpConnectorException}) that {@link #attemptToValidateAndSendMessage} would throw
+     * @see #attemptToSendMessageAsync(PayloadMessageType, SigningDetails)
+     */
+    public CompletableFuture<Void> attemptToValidateAndSendMessageAsync(@NonNull PayloadMessageType payloadMessage, @NonNull SigningDetails details) {
+        try {
+            validate(payloadMessage, details);
+        } catch (UftpConnectorException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return doSendAsync(payloadMessage, details);
+    }
+
+    /**
+     * Attempts to send a batch of messages, without validation, preparing them on the common fork-join pool
+     *
+     * @see #attemptToSendMessages(Collection, Executor, int)
+     */
+    public List<UftpSendResult> attemptToSendMessages(@NonNull Collection<UftpSendRequest> requests) {
+        return attemptToSendMessages(requests, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Attempts to send a batch of messages, without validation. The messages are serialized, signed and wrapped in their envelope by at most
+     * {@code parallelism} tasks on the executor. Every private key is decoded once for the whole batch, and the envelope is written without JAXB and XSD
+     * validation, see {@link UftpSerializer#toXmlBytesStreaming}. The prepared messages are then sent asynchronously, in the given order, with a bounded
+     * number of requests in flight.
+     *
+     * <p>A message that cannot be sent does not fail the batch: every message gets a result, in the order of the given messages.</p>
+     */
+    public List<UftpSendResult> attemptToSendMessages(@NonNull Collection<UftpSendRequest> requests, @NonNull Executor executor, int parallelism) {
+        return sendBatch(requests, false, executor, parallelism);
+    }
+
+    /**
+     * Attempts to send a batch of messages, with validation, preparing them on the common fork-join pool
+     *
+     * @see #attemptToValidateAndSendMessages(Collection, Executor, int)
+     */
+    public List<UftpSendResult> attemptToValidateAndSendMessages(@NonNull Collection<UftpSendRequest> requests) {
+        return attemptToValidateAndSendMessages(requests, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Attempts to send a batch of messages, with validation. Like {@link #attemptToSendMessages(Collection, Executor, int)}, but every message is validated
+     * like {@link #attemptToValidateAndSendMessage} does, as part of preparing it.
+     */
+    public List<UftpSendResult> attemptToValidateAndSendMessages(@NonNull Collection<UftpSendRequest> requests, @NonNull Executor executor, int parallelism) {
+        return sendBatch(requests, true, executor, parallelism);
+    }
+
     /**
      * Registers a request interceptor that can modify each outgoing {@link HttpRequest.Builder}
      * before the request is built and sent.
@@ -132,69 +222,595 @@ public class UftpSendMessageService {
         requestInterceptors.add(interceptor);
     }
 
+    /**
+     * Sets how messages that could not be delivered are retried; by default they are not retried. Retries apply to single messages, asynchronous messages and
+     * batches alike.
+     */
+    public void setRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Sets the circuit breaker that stops sending to endpoints that are down, or {@code null} (the default) to always send. A message to an open endpoint
+     * fails with a {@link UftpSendException} with status {@link HttpStatusCode#SERVICE_UNAVAILABLE}, without a request being sent.
+     */
+    public void setCircuitBreaker(EndpointCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Sets the cache that remembers where endpoints redirected messages to, or {@code null} (the default) to send every message to the endpoint of the
+     * recipient and follow its redirects.
+     */
+    public void setRedirectCache(RedirectCache redirectCache) {
+        this.redirectCache = redirectCache;
+    }
+
+    /**
+     * Sets the outbox that signed messages are written to before they are sent, or {@code null} (the default) to send messages without writing them first.
+     * A message stays in the outbox until it is delivered, or until the recipient rejects it with a client error other than '429 Too Many Requests' or its
+     * endpoint turns out to be unknown or invalid; call {@link #replayOutbox()}, or let a {@link UftpOutboxReplayer} call it, to send the messages that are
+     * still pending again.
+     */
+    public void setOutbox(UftpOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    /**
+     * Sends the messages in the outbox that were not delivered yet, for example because the application stopped while sending them, in the order in which
+     * they were written. A message that cannot be sent now stays in the outbox when the failure may be temporary. Messages that are being sent at the
+     * moment, by the call that wrote them or by another replay, are skipped. The replay stops when its thread is interrupted; the messages it did not send
+     * yet stay pending.
+     *
+     * @return the number of messages that were delivered
+     */
+    public int replayOutbox() {
+        if (outbox == null) {
+            return 0;
+        }
+        var delivered = 0;
+        for (var entry : outbox.pendingEntries()) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            if (!outbox.claim(entry.sequence())) {
+                continue;
+            }
+            try {
+                deliverNow(entry.signedXml(), entry.recipient());
+                delivered++;
+                finish(entry.sequence(), null);
+            } catch (RuntimeException e) {
+                log.warn(MessageFormat.format(MSG_REPLAY_FAILED, entry.sequence(), entry.recipient(), e.getMessage()));
+                finish(entry.sequence(), e);
+            }
+        }
+        return delivered;
+    }
+
+    private void validate(PayloadMessageType payloadMessage, SigningDetails details) {
+        // We will validate outgoing messages, but we will not validate outgoing response messages.
+        if (!(payloadMessage instanceof PayloadMessageResponseType)) {
+            var uftpMessage = UftpMessage.createOutgoing(details.sender(), payloadMessage);
+            var validationResult = uftpValidationService.validate(uftpMessage);
+            if (!validationResult.valid()) {
+                throw new UftpSendException(MessageFormat.format(MSG_VALIDATION_FAILED, payloadMessage.getClass().getSimpleName(), validationResult.rejectionReason()));
+            }
+        }
+    }
+
     private void doSend(PayloadMessageType payloadMessage, SigningDetails details) {
-        String signedXml = getSignedXml(payloadMessage, details);
-        UftpParticipantInformation participantInformation = participantService.getParticipantInformation(details.recipient());
-        String url = participantInformation.endpoint();
-        Map<String, String> additionalHeaders = new HashMap<>();
-        if (participantInformation.requiresAuthorization()) {
-            additionalHeaders.put("Authorization", participantAuthorizationProvider.getAuthorizationHeader(details.recipient()));
+        byte[] signedXml = getSignedXml(payloadMessage, details);
+        deliver(signedXml, details.recipient());
+    }
+
+    private CompletableFuture<Void> doSendAsync(PayloadMessageType payloadMessage, SigningDetails details) {
+        try {
+            return deliverAsync(getSignedXml(payloadMessage, details), details.recipient());
+        } catch (UftpConnectorException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        send(signedXml, url, additionalHeaders, MAX_FOLLOW_REDIRECTS);
     }
 
-    private String getSignedXml(PayloadMessageType payloadMessage, SigningDetails details) {
-        var payloadXml = serializer.toXml(payloadMessage);
-        var signedMessage = cryptoService.signMessage(payloadXml, details.sender(), details.senderPrivateKey());
-        return serializer.toXml(signedMessage);
+    private void deliver(byte[] signedXml, UftpParticipant recipient) {
+        if (outbox == null) {
+            deliverNow(signedXml, recipient);
+            return;
+        }
+        var sequence = outbox.append(recipient, signedXml);
+        try {
+            deliverNow(signedXml, recipient);
+        } catch (RuntimeException e) {
+            finish(sequence, e);
+            throw e;
+        }
+        finish(sequence, null);
     }
 
-    private void send(String signedXml, String url, Map<String, String> additionalHeaders, int maxFollowRedirects) {
+    private CompletableFuture<Void> deliverAsync(byte[] signedXml, UftpParticipant recipient) {
+        if (outbox == null) {
+            return deliverNowAsync(signedXml, recipient);
+        }
+        var sequence = outbox.append(recipient, signedXml);
+        CompletableFuture<Void> delivery;
         try {
-            log.debug(String.format("Sending message to: %s", url));
-
-            var requestBuilder = HttpRequest.newBuilder()
-                    .uri(new URI(url))
-                    .POST(BodyPublishers.ofString(signedXml))
-                    .setHeader("Content-Type", "text/xml");
-            for (var header : additionalHeaders.entrySet()) {
-                requestBuilder.setHeader(header.getKey(), header.getValue());
+            delivery = deliverNowAsync(signedXml, recipient);
+        } catch (RuntimeException e) {
+            delivery = CompletableFuture.failedFuture(e);
+        }
+        return delivery.whenComplete((ignored, failure) -> finish(sequence, failure));
+    }
+
+    /**
+     * Marks a message in the outbox as delivered, or as failed when sending it again would fail the same way. Any other failure, such as an open circuit,
+     * an interrupted send or a failing participant lookup, leaves the message pending for the next replay.
+     */
+    private void finish(long sequence, Throwable failure) {
+        if (failure == null) {
+            outbox.markDelivered(sequence);
+        } else if (isRejected(unwrap(failure))) {
+            outbox.markFailed(sequence);
+        } else {
+            outbox.release(sequence);
+        }
+    }
+
+    private static boolean isRejected(Throwable failure) {
+        return failure instanceof UftpEndpointException
+                || failure instanceof UftpClientErrorException e && !HttpStatusCode.TOO_MANY_REQUESTS.equals(e.getHttpStatusCode());
+    }
+
+    private void deliverNow(byte[] signedXml, UftpParticipant recipient) {
+        var destination = destination(recipient);
+        var url = destination.url();
+        for (int attempt = 1; ; attempt++) {
+            checkCircuit(url);
+            try {
+                attemptAuthorized(signedXml, destination);
+                recordOutcome(url, null);
+                return;
+            } catch (UftpConnectorException e) {
+                recordOutcome(url, e);
+                if (!retryPolicy.shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                sleep(backoff(attempt), url);
             }
+        }
+    }
 
-            requestInterceptors.forEach(interceptor -> interceptor.accept(requestBuilder));
+    private CompletableFuture<Void> deliverNowAsync(byte[] signedXml, UftpParticipant recipient) {
+        return deliverAsync(signedXml, destination(recipient), 1);
+    }
 
-            var request = requestBuilder.build();
+    private CompletableFuture<Void> deliverAsync(byte[] signedXml, Destination destination, int attempt) {
+        var url = destination.url();
+        try {
+            checkCircuit(url);
+        } catch (UftpConnectorException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return attemptAuthorizedAsync(signedXml, destination)
+                .handle((ignored, failure) -> {
+                    if (failure == null) {
+                        recordOutcome(url, null);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    var cause = unwrap(failure);
+                    if (!(cause instanceof UftpConnectorException e)) {
+                        return CompletableFuture.<Void>failedFuture(cause);
+                    }
+                    recordOutcome(url, e);
+                    if (!retryPolicy.shouldRetry(e, attempt)) {
+                        return CompletableFuture.<Void>failedFuture(e);
+                    }
+                    // The retry is scheduled, so no thread waits for it
+                    var delayed = CompletableFuture.delayedExecutor(backoff(attempt).toNanos(), TimeUnit.NANOSECONDS);
+                    return CompletableFuture.runAsync(() -> { }, delayed).thenCompose(next -> deliverAsync(signedXml, destination, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends the message, and sends it once more with a new Authorization header when the recipient rejects the header.
+     */
+    private void attemptAuthorized(byte[] signedXml, Destination destination) {
+        try {
+            attempt(signedXml, destination);
+        } catch (UftpClientErrorException e) {
+            if (!reauthorize(e, destination)) {
+                throw e;
+            }
+            attempt(signedXml, destination(destination.recipient()));
+        }
+    }
 
-            var response = httpClient.send(request, BodyHandlers.ofString());
+    private CompletableFuture<Void> attemptAuthorizedAsync(byte[] signedXml, Destination destination) {
+        return attemptAsync(signedXml, destination)
+                .handle((ignored, failure) -> {
+                    if (failure == null) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    var cause = unwrap(failure);
+                    if (cause instanceof UftpClientErrorException e && reauthorize(e, destination)) {
+                        return attemptAsync(signedXml, destination(destination.recipient()));
+                    }
+                    return CompletableFuture.<Void>failedFuture(cause);
+                })
+                .thenCompose(Function.identity());
+    }
 
-            var httpStatusCode = HttpStatusCode.valueOf(response.statusCode());
+    /**
+     * @return whether the message was rejected because of its Authorization header, and the provider may return a new header
+     */
+    private boolean reauthorize(UftpClientErrorException e, Destination destination) {
+        return HttpStatusCode.UNAUTHORIZED.equals(e.getHttpStatusCode())
+                && destination.headers().containsKey(AUTHORIZATION_HEADER_NAME)
+                && participantAuthorizationProvider.invalidateAuthorizationHeader(destination.recipient());
+    }
 
-            if (!httpStatusCode.isSuccess()) {
-                // According to the specification: redirects (responses with status code 3xx) should be honored in order to support load balancing
-                if (httpStatusCode.isRedirect() && FOLLOW_REDIRECT_STATUS_CODES.contains(httpStatusCode)) {
-                    if (maxFollowRedirects <= 0) {
-                        throw new UftpSendException(MessageFormat.format(MSG_TOO_MANY_REDIRECTS, url));
+    /**
+     * Sends the message once, to the remembered redirect target of the endpoint if there is one. When the target cannot be reached or does not take messages
+     * for the endpoint anymore, it is forgotten and the message is sent to the endpoint instead.
+     */
+    private void attempt(byte[] signedXml, Destination destination) {
+        var endpoint = destination.url();
+        var target = redirectCache != null ? redirectCache.find(endpoint) : Optional.<String>empty();
+        if (target.isPresent()) {
+            try {
+                remember(endpoint, send(signedXml, target.get(), destination.headers(), MAX_FOLLOW_REDIRECTS));
+                return;
+            } catch (UftpConnectorException e) {
+                if (!isStaleTarget(e)) {
+                    throw e;
+                }
+                redirectCache.invalidate(endpoint);
+            }
+        }
+        remember(endpoint, send(signedXml, endpoint, destination.headers(), MAX_FOLLOW_REDIRECTS));
+    }
+
+    private CompletableFuture<Void> attemptAsync(byte[] signedXml, Destination destination) {
+        var endpoint = destination.url();
+        var target = redirectCache != null ? redirectCache.find(endpoint) : Optional.<String>empty();
+        if (target.isEmpty()) {
+            return sendAsync(signedXml, endpoint, destination.headers(), MAX_FOLLOW_REDIRECTS).thenAccept(redirect -> remember(endpoint, redirect));
+        }
+        return sendAsync(signedXml, target.get(), destination.headers(), MAX_FOLLOW_REDIRECTS)
+                .thenAccept(redirect -> remember(endpoint, redirect))
+                .handle((ignored, failure) -> {
+                    if (failure == null) {
+                        return CompletableFuture.<Void>completedFuture(null);
                     }
+                    var cause = unwrap(failure);
+                    if (!(cause instanceof UftpConnectorException e) || !isStaleTarget(e)) {
+                        return CompletableFuture.<Void>failedFuture(cause);
+                    }
+                    redirectCache.invalidate(endpoint);
+                    return sendAsync(signedXml, endpoint, destination.headers(), MAX_FOLLOW_REDIRECTS).thenAccept(redirect -> remember(endpoint, redirect));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * A remembered target is stale when it cannot be reached, has an invalid URL, or answers that it does not handle the message; a rejection of the message
+     * itself, such as '400 Bad Request', would be the same at the endpoint.
+     */
+    private static boolean isStaleTarget(UftpConnectorException failure) {
+        return RetryPolicy.isRetryable(failure)
+                || failure instanceof UftpEndpointException
+                || failure instanceof UftpClientErrorException && STALE_TARGET_STATUS_CODES.contains(failure.getHttpStatusCode());
+    }
+
+    private void remember(String endpoint, Optional<Redirect> redirect) {
+        if (redirectCache != null && redirect.isPresent()) {
+            redirectCache.remember(endpoint, redirect.get().location(), redirect.get().permanent());
+        }
+    }
 
-                    var redirectUrl = response.headers().firstValue(REDIRECT_LOCATION_HEADER_NAME)
-                            .orElseThrow(() -> new UftpServerErrorException(MessageFormat.format(MSG_MISSING_REDIRECT_LOCATION, url), httpStatusCode));
+    private void checkCircuit(String url) {
+        if (circuitBreaker != null && !circuitBreaker.allowRequest(url)) {
+            throw new UftpSendException(MessageFormat.format(MSG_CIRCUIT_OPEN, url), HttpStatusCode.SERVICE_UNAVAILABLE);
+        }
+    }
 
-                    send(signedXml, redirectUrl, additionalHeaders, maxFollowRedirects - 1);
-                } else if (httpStatusCode.isClientError()) {
-                    throw new UftpClientErrorException(MessageFormat.format(MSG_CLIENT_ERROR, response.statusCode(), url, response.body()), httpStatusCode);
-                } else if (httpStatusCode.isServerError()) {
-                    throw new UftpServerErrorException(MessageFormat.format(MSG_SERVER_ERROR, response.statusCode(), url, response.body()), httpStatusCode);
-                } else {
-                    throw new UftpSendException(MessageFormat.format(MSG_UNEXPECTED_RESPONSE_STATUS, response.statusCode(), url, response.body()), httpStatusCode);
+    /**
+     * Failures that are retried count against the endpoint, and a response that delivers or rejects the message shows the endpoint is up. Failures without
+     * such a response, such as an interrupted send or a redirect that cannot be followed, are not counted either way.
+     */
+    private void recordOutcome(String url, UftpConnectorException failure) {
+        if (circuitBreaker == null) {
+            return;
+        }
+        if (failure == null) {
+            circuitBreaker.onSuccess(url);
+        } else if (RetryPolicy.isRetryable(failure)) {
+            circuitBreaker.onFailure(url);
+        } else if (failure instanceof UftpClientErrorException) {
+            circuitBreaker.onSuccess(url);
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        return retryPolicy.backoff(attempt, ThreadLocalRandom.current().nextDouble());
+    }
+
+    private static void sleep(Duration backoff, String url) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UftpSendException(MessageFormat.format(MSG_INTERRUPTED, url, e.getMessage()), e);
+        }
+    }
+
+    private Destination destination(UftpParticipant recipient) {
+        UftpParticipantInformation participantInformation = participantService.findParticipantInformation(recipient).orElseThrow(
+                () -> new UftpEndpointException(MessageFormat.format(MSG_UNKNOWN_RECIPIENT, recipient.domain(), recipient.role())));
+        Map<String, String> additionalHeaders = new HashMap<>();
+        if (participantInformation.requiresAuthorization()) {
+            additionalHeaders.put(AUTHORIZATION_HEADER_NAME, participantAuthorizationProvider.getAuthorizationHeader(recipient));
+        }
+        return new Destination(recipient, participantInformation.endpoint(), additionalHeaders);
+    }
+
+    private List<UftpSendResult> sendBatch(Collection<UftpSendRequest> requests, boolean validate, Executor executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        var batch = List.copyOf(requests);
+        var prepared = prepareBatch(batch, validate, executor, parallelism);
+
+        var results = new UftpSendResult[batch.size()];
+        var inFlight = new Semaphore(MAX_BATCH_REQUESTS_IN_FLIGHT);
+        var deliveries = new ArrayList<CompletableFuture<Void>>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            var request = batch.get(i);
+            if (prepared[i].failure() != null) {
+                results[i] = UftpSendResult.failed(request, prepared[i].failure());
+                continue;
+            }
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<Void> delivery;
+            try {
+                delivery = deliverAsync(prepared[i].signedXml(), request.details().recipient());
+            } catch (RuntimeException e) {
+                delivery = CompletableFuture.failedFuture(e);
+            }
+            var index = i;
+            deliveries.add(delivery.handle((ignored, failure) -> {
+                inFlight.release();
+                results[index] = failure == null ? UftpSendResult.sent(request) : UftpSendResult.failed(request, sendFailure(failure));
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).join();
+        return List.of(results);
+    }
+
+    private PreparedMessage[] prepareBatch(List<UftpSendRequest> batch, boolean validate, Executor executor, int parallelism) {
+        var size = batch.size();
+        var prepared = new PreparedMessage[size];
+        // Decoding the private keys is done up front, so every distinct key is decoded once
+        var signingKeys = new HashMap<String, UftpSigningKey>();
+        var keys = new UftpSigningKey[size];
+        for (int i = 0; i < size; i++) {
+            try {
+                keys[i] = signingKey(batch.get(i).details(), signingKeys);
+            } catch (UftpConnectorException e) {
+                prepared[i] = new PreparedMessage(null, e);
+            }
+        }
+
+        var workers = Math.min(parallelism, size);
+        if (workers <= 1) {
+            prepareRange(batch, validate, keys, prepared, 0, size);
+            return prepared;
+        }
+        var chunkSize = (size + workers - 1) / workers;
+        var tasks = new ArrayList<CompletableFuture<Void>>(workers);
+        for (int from = 0; from < size; from += chunkSize) {
+            var start = from;
+            var end = Math.min(from + chunkSize, size);
+            tasks.add(CompletableFuture.runAsync(() -> prepareRange(batch, validate, keys, prepared, start, end), executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        return prepared;
+    }
+
+    /**
+     * Prepares a range of the batch on one thread, signing all of its messages with the same signature provider resources, such as a libsodium instance.
+     */
+    private void prepareRange(List<UftpSendRequest> batch, boolean validate, UftpSigningKey[] keys, PreparedMessage[] prepared, int from, int to) {
+        try {
+            cryptoService.withSigner(signer -> {
+                for (int i = from; i < to; i++) {
+                    if (prepared[i] == null) {
+                        prepared[i] = prepare(batch.get(i), keys[i], validate, signer);
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // The signer could not be set up, for example because no libsodium instance could be claimed
+            for (int i = from; i < to; i++) {
+                if (prepared[i] == null) {
+                    prepared[i] = new PreparedMessage(null, sendFailure(e));
                 }
             }
+        }
+    }
+
+    private PreparedMessage prepare(UftpSendRequest request, UftpSigningKey signingKey, boolean validate, UftpMessageSigner signer) {
+        try {
+            if (validate) {
+                validate(request.payloadMessage(), request.details());
+            }
+            var payloadXml = serializer.toXmlBytes(request.payloadMessage());
+            var signedMessage = signer.sign(payloadXml, request.details().sender(), signingKey);
+            return new PreparedMessage(serializer.toXmlBytesStreaming(signedMessage), null);
+        } catch (RuntimeException e) {
+            return new PreparedMessage(null, sendFailure(e));
+        }
+    }
+
+    private UftpSigningKey signingKey(SigningDetails details, Map<String, UftpSigningKey> signingKeys) {
+        if (details.senderSigningKey() != null) {
+            return details.senderSigningKey();
+        }
+        var signingKey = signingKeys.get(details.senderPrivateKey());
+        if (signingKey == null) {
+            signingKey = cryptoService.createSigningKey(details.senderPrivateKey());
+            signingKeys.put(details.senderPrivateKey(), signingKey);
+        }
+        return signingKey;
+    }
+
+    private byte[] getSignedXml(PayloadMessageType payloadMessage, SigningDetails details) {
+        // The message stays UTF-8 encoded bytes from serialization until it is written to the request body
+        var payloadXml = serializer.toXmlBytes(payloadMessage);
+        var signedMessage = details.senderSigningKey() != null
+                ? cryptoService.signMessage(payloadXml, details.sender(), details.senderSigningKey())
+                : cryptoService.signMessage(payloadXml, details.sender(), details.senderPrivateKey());
+        return serializer.toXmlBytes(signedMessage);
+    }
+
+    /**
+     * @return the redirect that was followed to deliver the message, or empty when the message was delivered to the given URL
+     */
+    private Optional<Redirect> send(byte[] signedXml, String url, Map<String, String> additionalHeaders, int maxFollowRedirects) {
+        try {
+            var response = httpClient.send(request(signedXml, url, additionalHeaders), BodyHandlers.ofString());
+
+            var redirect = redirect(response, url, maxFollowRedirects);
+            if (redirect.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(redirect.get().followedBy(send(signedXml, redirect.get().location(), additionalHeaders, maxFollowRedirects - 1)));
         } catch (URISyntaxException | IllegalArgumentException e) {
-            throw new UftpSendException(MessageFormat.format(MSG_INVALID_ENDPOINT, e.getMessage()), e);
+            throw invalidEndpoint(e);
         } catch (IOException e) {
-            throw new UftpSendException(MessageFormat.format(MSG_UNEXPECTED_IO_ERROR, url, e.getClass().getSimpleName(), e.getMessage()), e);
+            throw ioFailure(url, e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new UftpSendException(MessageFormat.format(MSG_INTERRUPTED, url, e.getMessage()), e);
         }
     }
+
+    private CompletableFuture<Optional<Redirect>> sendAsync(byte[] signedXml, String url, Map<String, String> additionalHeaders, int maxFollowRedirects) {
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = httpClient.sendAsync(request(signedXml, url, additionalHeaders), BodyHandlers.ofString());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(invalidEndpoint(e));
+        }
+        return response
+                .handle((result, failure) -> {
+                    if (failure != null) {
+                        throw asyncFailure(url, failure);
+                    }
+                    return redirect(result, url, maxFollowRedirects);
+                })
+                .thenCompose(redirect -> redirect.isPresent()
+                        ? sendAsync(signedXml, redirect.get().location(), additionalHeaders, maxFollowRedirects - 1)
+                                .thenApply(next -> Optional.of(redirect.get().followedBy(next)))
+                        : CompletableFuture.completedFuture(Optional.<Redirect>empty()));
+    }
+
+    private HttpRequest request(byte[] signedXml, String url, Map<String, String> additionalHeaders) throws URISyntaxException {
+        log.debug(String.format("Sending message to: %s", url));
+
+        var requestBuilder = HttpRequest.newBuilder()
+                .uri(new URI(url))
+                .POST(BodyPublishers.ofByteArray(signedXml))
+                .setHeader("Content-Type", "text/xml");
+        for (var header : additionalHeaders.entrySet()) {
+            requestBuilder.setHeader(header.getKey(), header.getValue());
+        }
+
+        requestInterceptors.forEach(interceptor -> interceptor.accept(requestBuilder));
+
+        return requestBuilder.build();
+    }
+
+    /**
+     * @return the redirect to follow when the response is a redirect that is followed, or empty when the message was sent
+     * @throws UftpSendException when the response is an error or a redirect that is not followed
+     */
+    private static Optional<Redirect> redirect(HttpResponse<String> response, String url, int maxFollowRedirects) {
+        var httpStatusCode = HttpStatusCode.valueOf(response.statusCode());
+
+        if (httpStatusCode.isSuccess()) {
+            return Optional.empty();
+        }
+        // According to the specification: redirects (responses with status code 3xx) should be honored in order to support load balancing
+        if (httpStatusCode.isRedirect() && FOLLOW_REDIRECT_STATUS_CODES.contains(httpStatusCode)) {
+            if (maxFollowRedirects <= 0) {
+                throw new UftpSendException(MessageFormat.format(MSG_TOO_MANY_REDIRECTS, url));
+            }
+
+            var location = response.headers().firstValue(REDIRECT_LOCATION_HEADER_NAME)
+                    .orElseThrow(() -> new UftpServerErrorException(MessageFormat.format(MSG_MISSING_REDIRECT_LOCATION, url), httpStatusCode));
+            return Optional.of(new Redirect(location, HttpStatusCode.PERMANENT_REDIRECT.equals(httpStatusCode)));
+        } else if (httpStatusCode.isClientError()) {
+            throw new UftpClientErrorException(MessageFormat.format(MSG_CLIENT_ERROR, response.statusCode(), url, response.body()), httpStatusCode);
+        } else if (httpStatusCode.isServerError()) {
+            throw new UftpServerErrorException(MessageFormat.format(MSG_SERVER_ERROR, response.statusCode(), url, response.body()), httpStatusCode);
+        } else {
+            throw new UftpSendException(MessageFormat.format(MSG_UNEXPECTED_RESPONSE_STATUS, response.statusCode(), url, response.body()), httpStatusCode);
+        }
+    }
+
+    private static UftpSendException invalidEndpoint(Exception e) {
+        return new UftpEndpointException(MessageFormat.format(MSG_INVALID_ENDPOINT, e.getMessage()), e);
+    }
+
+    private static UftpSendException ioFailure(String url, IOException e) {
+        return new UftpSendException(MessageFormat.format(MSG_UNEXPECTED_IO_ERROR, url, e.getClass().getSimpleName(), e.getMessage()), e);
+    }
+
+    /**
+     * Maps a failure of {@link HttpClient#sendAsync} the same way as the exceptions of {@link HttpClient#send} are mapped.
+     */
+    private static RuntimeException asyncFailure(String url, Throwable failure) {
+        var cause = unwrap(failure);
+        if (cause instanceof IOException e) {
+            return ioFailure(url, e);
+        }
+        if (cause instanceof IllegalArgumentException e) {
+            return invalidEndpoint(e);
+        }
+        return cause instanceof RuntimeException e ? e : new CompletionException(cause);
+    }
+
+    private static UftpConnectorException sendFailure(Throwable failure) {
+        var cause = unwrap(failure);
+        if (cause instanceof UftpConnectorException e) {
+            return e;
+        }
+        return new UftpSendException(MessageFormat.format(MSG_UNEXPECTED_ERROR, cause.getClass().getSimpleName(), cause.getMessage()), cause);
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private record Destination(UftpParticipant recipient, String url, Map<String, String> headers) {
+    }
+
+    /**
+     * A followed redirect; when more redirects were followed, the location the message was delivered to, and whether all of them were permanent.
+     */
+    private record Redirect(String location, boolean permanent) {
+
+        Redirect followedBy(Optional<Redirect> next) {
+            return next.map(redirect -> new Redirect(redirect.location(), permanent && redirect.permanent())).orElse(this);
+        }
+    }
+
+    /**
+     * The signed XML of a message of a batch, or why it could not be prepared.
+     */
+    private record PreparedMessage(byte[] signedXml, UftpConnectorException failure) {
+    }
 }
@@ -0,0 +1,16 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import lombok.NonNull;
+import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.core.model.SigningDetails;
+
+/**
+ * A message to send as part of a batch, see {@link UftpSendMessageService#attemptToSendMessages}.
+ */
+public record UftpSendRequest(@NonNull PayloadMessageType payloadMessage, @NonNull SigningDetails details) {
+
+}
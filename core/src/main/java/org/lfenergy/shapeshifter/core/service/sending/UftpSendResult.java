@@ -0,0 +1,29 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+/**
+ * Outcome of sending one message of a batch.
+ *
+ * @param request the message that was sent
+ * @param failure why the message was not sent, or {@code null} when it was sent; a {@link UftpSendException} when validation or the request failed, another
+ *                {@link UftpConnectorException} when the message could not be serialized or signed
+ */
+public record UftpSendResult(UftpSendRequest request, UftpConnectorException failure) {
+
+  static UftpSendResult sent(UftpSendRequest request) {
+    return new UftpSendResult(request, null);
+  }
+
+  static UftpSendResult failed(UftpSendRequest request, UftpConnectorException failure) {
+    return new UftpSendResult(request, failure);
+  }
+
+  public boolean isSent() {
+    return failure == null;
+  }
+}
@@ -0,0 +1,198 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.Base64;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+
+/**
+ * Reads the {@link SignedMessage} envelope with a single StAX pass, without XSD validation and JAXB.
+ *
+ * <p>The envelope is a single empty element with three attributes, so the constraints of {@code SignedMessageType} in the UFTP common XSD are checked
+ * directly: the root element must be an unqualified {@code SignedMessage} without content, {@code SenderDomain} must match the {@code InternetDomainType}
+ * pattern, {@code SenderRole} must be a {@link USEFRoleType} and {@code Body} must be base64 encoded. No other attributes are accepted. Like the regular
+ * parser, documents with a DOCTYPE are rejected. Violations are reported as "XSD validation failed" with status 400, like {@link UftpSerializer} does.</p>
+ */
+public class SignedMessageReader {
+
+  static final String SIGNED_MESSAGE = "SignedMessage";
+  static final String SENDER_DOMAIN = "SenderDomain";
+  static final String SENDER_ROLE = "SenderRole";
+  static final String BODY = "Body";
+
+  // InternetDomainType in UFTP-common.xsd
+  static final Pattern INTERNET_DOMAIN = Pattern.compile("([a-z0-9]+(-[a-z0-9]+)*\\.)+[a-z]{2,}");
+
+  private static final XMLInputFactory XML_INPUT_FACTORY = xmlInputFactory();
+
+  public SignedMessage read(byte[] signedXml) {
+    try {
+      return read(XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(signedXml)));
+    } catch (XMLStreamException cause) {
+      throw invalid(cause.getMessage(), cause);
+    }
+  }
+
+  public SignedMessage read(String signedXml) {
+    try {
+      return read(XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(signedXml)));
+    } catch (XMLStreamException cause) {
+      throw invalid(cause.getMessage(), cause);
+    }
+  }
+
+  private static SignedMessage read(XMLStreamReader reader) throws XMLStreamException {
+    try {
+      moveToRootElement(reader);
+      var signedMessage = readAttributes(reader);
+      readEmptyContent(reader);
+      // Reading up to the end of the document makes sure the complete document is well-formed
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.DTD) {
+          throw invalid("DOCTYPE is not allowed", null);
+        }
+      }
+      return signedMessage;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static void moveToRootElement(XMLStreamReader reader) throws XMLStreamException {
+    while (reader.hasNext()) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT -> {
+          if (!SIGNED_MESSAGE.equals(reader.getLocalName()) || !isUnqualified(reader.getNamespaceURI())) {
+            throw invalid(String.format("Unexpected root element '%s', expected '%s'.", reader.getName(), SIGNED_MESSAGE), null);
+          }
+          return;
+        }
+        case XMLStreamConstants.DTD -> throw invalid("DOCTYPE is not allowed", null);
+        default -> {
+          // Comments, processing instructions and whitespace are allowed in the prolog
+        }
+      }
+    }
+    throw invalid("Document has no root element.", null);
+  }
+
+  private static SignedMessage readAttributes(XMLStreamReader reader) {
+    String senderDomain = null;
+    String senderRole = null;
+    String body = null;
+
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      var name = reader.getAttributeLocalName(i);
+      if (!isUnqualified(reader.getAttributeNamespace(i))) {
+        throw notAllowed(reader.getAttributeName(i).toString());
+      }
+      switch (name) {
+        case SENDER_DOMAIN -> senderDomain = reader.getAttributeValue(i);
+        case SENDER_ROLE -> senderRole = reader.getAttributeValue(i);
+        case BODY -> body = reader.getAttributeValue(i);
+        default -> throw notAllowed(name);
+      }
+    }
+
+    var signedMessage = new SignedMessage();
+    signedMessage.setSenderDomain(senderDomain(senderDomain));
+    signedMessage.setSenderRole(senderRole(senderRole));
+    signedMessage.setBody(body(body));
+    return signedMessage;
+  }
+
+  private static void readEmptyContent(XMLStreamReader reader) throws XMLStreamException {
+    while (reader.hasNext()) {
+      switch (reader.next()) {
+        case XMLStreamConstants.END_ELEMENT -> {
+          return;
+        }
+        case XMLStreamConstants.COMMENT, XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+          // Allowed in an element with empty content
+        }
+        default -> throw invalid(String.format("Element '%s' must have no character or element children.", SIGNED_MESSAGE), null);
+      }
+    }
+  }
+
+  private static String senderDomain(String value) {
+    required(SENDER_DOMAIN, value);
+    if (!INTERNET_DOMAIN.matcher(value).matches()) {
+      throw invalidValue(SENDER_DOMAIN, value, null);
+    }
+    return value;
+  }
+
+  private static USEFRoleType senderRole(String value) {
+    required(SENDER_ROLE, value);
+    try {
+      return USEFRoleType.fromValue(value);
+    } catch (IllegalArgumentException cause) {
+      throw invalidValue(SENDER_ROLE, value, cause);
+    }
+  }
+
+  private static byte[] body(String value) {
+    required(BODY, value);
+    // xs:base64Binary collapses whitespace; only strip it when present, so the common case decodes the attribute value directly
+    var base64 = containsWhitespace(value) ? value.replaceAll("\\s", "") : value;
+    if (base64.length() % 4 != 0) {
+      throw invalidValue(BODY, "(base64)", null);
+    }
+    try {
+      return Base64.getDecoder().decode(base64);
+    } catch (IllegalArgumentException cause) {
+      throw invalidValue(BODY, "(base64)", cause);
+    }
+  }
+
+  static void required(String attribute, Object value) {
+    if (value == null) {
+      throw invalid(String.format("Attribute '%s' must appear on element '%s'.", attribute, SIGNED_MESSAGE), null);
+    }
+  }
+
+  private static boolean containsWhitespace(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (Character.isWhitespace(value.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isUnqualified(String namespaceUri) {
+    return namespaceUri == null || namespaceUri.isEmpty();
+  }
+
+  private static UftpSerializerException notAllowed(String attribute) {
+    return invalid(String.format("Attribute '%s' is not allowed to appear in element '%s'.", attribute, SIGNED_MESSAGE), null);
+  }
+
+  static UftpSerializerException invalidValue(String attribute, String value, Throwable cause) {
+    return invalid(String.format("Value '%s' of attribute '%s' on element '%s' is not valid.", value, attribute, SIGNED_MESSAGE), cause);
+  }
+
+  private static UftpSerializerException invalid(String message, Throwable cause) {
+    return new UftpSerializerException("XSD validation failed: " + message, cause, HttpStatusCode.BAD_REQUEST);
+  }
+
+  private static XMLInputFactory xmlInputFactory() {
+    // DTDs are rejected and external entities are never resolved, see the OWASP XXE prevention cheat sheet
+    var factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+}
@@ -0,0 +1,67 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.serialization;
+
+import static org.lfenergy.shapeshifter.core.service.serialization.SignedMessageReader.BODY;
+import static org.lfenergy.shapeshifter.core.service.serialization.SignedMessageReader.INTERNET_DOMAIN;
+import static org.lfenergy.shapeshifter.core.service.serialization.SignedMessageReader.SENDER_DOMAIN;
+import static org.lfenergy.shapeshifter.core.service.serialization.SignedMessageReader.SENDER_ROLE;
+import static org.lfenergy.shapeshifter.core.service.serialization.SignedMessageReader.invalidValue;
+import static org.lfenergy.shapeshifter.core.service.serialization.SignedMessageReader.required;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+
+/**
+ * Writes the {@link SignedMessage} envelope directly, without JAXB and XSD validation. The counterpart of {@link SignedMessageReader}.
+ *
+ * <p>The attributes are checked against the constraints of {@code SignedMessageType} in the UFTP common XSD before writing. A valid sender domain, role and
+ * base64 encoded body only consist of characters that need no escaping, so the output is the same as that of {@link UftpSerializer#toXmlBytes(SignedMessage)}.
+ * Violations are reported as "XSD validation failed" with status 400, like {@link UftpSerializer} does.</p>
+ */
+public class SignedMessageWriter {
+
+  private static final byte[] START = ascii("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><SignedMessage " + SENDER_DOMAIN + "=\"");
+  private static final byte[] SENDER_ROLE_START = ascii("\" " + SENDER_ROLE + "=\"");
+  private static final byte[] BODY_START = ascii("\" " + BODY + "=\"");
+  private static final byte[] END = ascii("\"/>");
+
+  /**
+   * @return the signed message as UTF-8 encoded XML
+   */
+  public byte[] write(SignedMessage signedMessage) {
+    var senderDomain = signedMessage.getSenderDomain();
+    required(SENDER_DOMAIN, senderDomain);
+    if (!INTERNET_DOMAIN.matcher(senderDomain).matches()) {
+      throw invalidValue(SENDER_DOMAIN, senderDomain, null);
+    }
+    required(SENDER_ROLE, signedMessage.getSenderRole());
+    required(BODY, signedMessage.getBody());
+
+    var domain = ascii(senderDomain);
+    var role = ascii(signedMessage.getSenderRole().value());
+    var body = Base64.getEncoder().encode(signedMessage.getBody());
+
+    var signedXml = new byte[START.length + domain.length + SENDER_ROLE_START.length + role.length + BODY_START.length + body.length + END.length];
+    var position = append(signedXml, 0, START);
+    position = append(signedXml, position, domain);
+    position = append(signedXml, position, SENDER_ROLE_START);
+    position = append(signedXml, position, role);
+    position = append(signedXml, position, BODY_START);
+    position = append(signedXml, position, body);
+    append(signedXml, position, END);
+    return signedXml;
+  }
+
+  private static int append(byte[] target, int position, byte[] source) {
+    System.arraycopy(source, 0, target, position, source.length);
+    return position + source.length;
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+}
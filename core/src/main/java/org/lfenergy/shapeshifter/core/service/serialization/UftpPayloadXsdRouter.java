@@ -0,0 +1,123 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.serialization;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.api.xsdinfo.UftpXsds;
+
+/**
+ * Selects the smallest UFTP XSD that declares the root element of a payload message, so the validator does not have to load the aggregate {@link UftpXsds#ALL}
+ * grammar for every message. Unknown root elements and unreadable documents are routed to {@link UftpXsds#ALL}, which then reports the actual error.
+ */
+public class UftpPayloadXsdRouter {
+
+  private static final Map<String, UftpXsds> XSD_BY_ROOT_ELEMENT = Map.ofEntries(
+      Map.entry("TestMessage", UftpXsds.COMMON),
+      Map.entry("TestMessageResponse", UftpXsds.COMMON),
+
+      Map.entry("AGRPortfolioUpdate", UftpXsds.AGR_CRO),
+      Map.entry("AGRPortfolioUpdateResponse", UftpXsds.AGR_CRO),
+      Map.entry("AGRPortfolioQuery", UftpXsds.AGR_CRO),
+      Map.entry("AGRPortfolioQueryResponse", UftpXsds.AGR_CRO),
+
+      Map.entry("DSOPortfolioUpdate", UftpXsds.CRO_DSO),
+      Map.entry("DSOPortfolioUpdateResponse", UftpXsds.CRO_DSO),
+      Map.entry("DSOPortfolioQuery", UftpXsds.CRO_DSO),
+      Map.entry("DSOPortfolioQueryResponse", UftpXsds.CRO_DSO),
+
+      Map.entry("D-Prognosis", UftpXsds.AGR_DSO),
+      Map.entry("D-PrognosisResponse", UftpXsds.AGR_DSO),
+      Map.entry("FlexReservationUpdate", UftpXsds.AGR_DSO),
+      Map.entry("FlexReservationUpdateResponse", UftpXsds.AGR_DSO),
+      Map.entry("FlexRequest", UftpXsds.AGR_DSO),
+      Map.entry("FlexRequestResponse", UftpXsds.AGR_DSO),
+      Map.entry("FlexOffer", UftpXsds.AGR_DSO),
+      Map.entry("FlexOfferResponse", UftpXsds.AGR_DSO),
+      Map.entry("FlexOfferRevocation", UftpXsds.AGR_DSO),
+      Map.entry("FlexOfferRevocationResponse", UftpXsds.AGR_DSO),
+      Map.entry("FlexOrder", UftpXsds.AGR_DSO),
+      Map.entry("FlexOrderResponse", UftpXsds.AGR_DSO),
+      Map.entry("FlexSettlement", UftpXsds.AGR_DSO),
+      Map.entry("FlexSettlementResponse", UftpXsds.AGR_DSO),
+
+      Map.entry("Metering", UftpXsds.METERING),
+      Map.entry("MeteringResponse", UftpXsds.METERING)
+  );
+
+  private static final XMLInputFactory XML_INPUT_FACTORY = xmlInputFactory();
+
+  public UftpXsds route(String payloadXml) {
+    try {
+      return route(XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(payloadXml)));
+    } catch (XMLStreamException e) {
+      return UftpXsds.ALL;
+    }
+  }
+
+  public UftpXsds route(byte[] payloadXml) {
+    try {
+      return route(XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(payloadXml)));
+    } catch (XMLStreamException e) {
+      return UftpXsds.ALL;
+    }
+  }
+
+  /**
+   * Routes an outgoing message by the root element name of its JAXB type, without serializing it.
+   */
+  public UftpXsds route(PayloadMessageType payloadMessage) {
+    var rootElement = payloadMessage.getClass().getAnnotation(XmlRootElement.class);
+    return rootElement == null ? UftpXsds.ALL : forRootElement(rootElement.name());
+  }
+
+  public static UftpXsds forRootElement(String localName) {
+    return XSD_BY_ROOT_ELEMENT.getOrDefault(localName, UftpXsds.ALL);
+  }
+
+  static Set<String> routedRootElements() {
+    return XSD_BY_ROOT_ELEMENT.keySet();
+  }
+
+  private static UftpXsds route(XMLStreamReader reader) {
+    try {
+      // Only the prolog and the start of the root element are read
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+          return forRootElement(reader.getLocalName());
+        }
+      }
+      return UftpXsds.ALL;
+    } catch (XMLStreamException e) {
+      return UftpXsds.ALL;
+    } finally {
+      close(reader);
+    }
+  }
+
+  private static void close(XMLStreamReader reader) {
+    try {
+      reader.close();
+    } catch (XMLStreamException e) {
+      // Nothing to release for in-memory input
+    }
+  }
+
+  private static XMLInputFactory xmlInputFactory() {
+    // DTDs and external entities are never needed to find the root element name
+    var factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+}
@@ -4,38 +4,104 @@
 
 package org.lfenergy.shapeshifter.core.service.serialization;
 
-import lombok.RequiredArgsConstructor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.xml.validation.Schema;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
 import org.lfenergy.shapeshifter.api.SignedMessage;
 import org.lfenergy.shapeshifter.api.xsdinfo.UftpXsds;
 import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
 import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
 import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
+import org.xml.sax.SAXException;
 
-@RequiredArgsConstructor
+/**
+ * (De)serializes UFTP messages and validates them against the UFTP XSDs.
+ *
+ * <p>By default incoming XML is validated first and parsed afterwards. With single-pass validation enabled the schema is attached to the unmarshaller
+ * instead, so every incoming message is parsed only once. Both modes report validation failures as "XSD validation failed" with status 400.</p>
+ *
+ * <p>With schema routing enabled payload messages are validated against the smallest XSD that declares their root element, see
+ * {@link UftpPayloadXsdRouter}.</p>
+ */
 public class UftpSerializer {
 
+  private static final String SIGNED_MESSAGE = "SignedMessage";
+  private static final String PAYLOAD_MESSAGE = "Payload message";
+
   private final XmlSerializer serializer;
   private final XsdValidator xsdValidator;
+  private final boolean singlePassValidation;
+  private final UftpPayloadXsdRouter payloadXsdRouter;
+  private final SignedMessageReader signedMessageReader = new SignedMessageReader();
+  private final SignedMessageWriter signedMessageWriter = new SignedMessageWriter();
+
+  public UftpSerializer(XmlSerializer serializer, XsdValidator xsdValidator) {
+    this(serializer, xsdValidator, false);
+  }
+
+  public UftpSerializer(XmlSerializer serializer, XsdValidator xsdValidator, boolean singlePassValidation) {
+    this(serializer, xsdValidator, singlePassValidation, false);
+  }
+
+  /**
+   * @param schemaRouting validate payload messages against the smallest XSD that declares their root element instead of against {@link UftpXsds#ALL}
+   */
+  public UftpSerializer(XmlSerializer serializer, XsdValidator xsdValidator, boolean singlePassValidation, boolean schemaRouting) {
+    this.serializer = serializer;
+    this.xsdValidator = xsdValidator;
+    this.singlePassValidation = singlePassValidation;
+    this.payloadXsdRouter = schemaRouting ? new UftpPayloadXsdRouter() : null;
+  }
 
   public SignedMessage fromSignedXml(String signedXml) {
+    if (singlePassValidation) {
+      return deserializeValidated(SIGNED_MESSAGE, schema -> serializer.fromXml(signedXml, SignedMessage.class, schema), UftpXsds.COMMON);
+    }
+
     validate(signedXml, UftpXsds.COMMON);
+    return deserialize(SIGNED_MESSAGE, () -> serializer.fromXml(signedXml, SignedMessage.class));
+  }
 
-    try {
-      return serializer.fromXml(signedXml, SignedMessage.class);
-    } catch (Exception cause) {
-      throw new UftpSerializerException("SignedMessage XML deserialization failed: " + cause.getMessage(), cause, HttpStatusCode.BAD_REQUEST);
+  /**
+   * Deserializes a UTF-8 encoded (or otherwise declared) signed message, without decoding it to a {@link String} first.
+   */
+  public SignedMessage fromSignedXml(byte[] signedXml) {
+    if (singlePassValidation) {
+      return deserializeValidated(SIGNED_MESSAGE, schema -> serializer.fromXml(signedXml, SignedMessage.class, schema), UftpXsds.COMMON);
     }
+
+    xsdValidator.validate(signedXml, UftpXsds.COMMON.getUrl());
+    return deserialize(SIGNED_MESSAGE, () -> serializer.fromXml(signedXml, SignedMessage.class));
+  }
+
+  /**
+   * Reads a signed message with {@link SignedMessageReader}, which checks the envelope constraints of the UFTP XSD while reading instead of using XSD
+   * validation and JAXB. Failures are reported as "XSD validation failed" with status 400, like {@link #fromSignedXml(byte[])} does.
+   */
+  public SignedMessage fromSignedXmlStreaming(byte[] signedXml) {
+    return signedMessageReader.read(signedXml);
   }
 
   public PayloadMessageType fromPayloadXml(String payloadXml) {
-    validate(payloadXml, UftpXsds.ALL);
+    if (singlePassValidation) {
+      return deserializeValidated(PAYLOAD_MESSAGE, schema -> serializer.fromXml(payloadXml, PayloadMessageType.class, schema), payloadXsd(payloadXml));
+    }
 
-    try {
-      return serializer.fromXml(payloadXml, PayloadMessageType.class);
-    } catch (Exception cause) {
-      throw new UftpSerializerException("Payload message XML deserialization failed: " + cause.getMessage(), cause, HttpStatusCode.BAD_REQUEST);
+    validate(payloadXml, payloadXsd(payloadXml));
+    return deserialize(PAYLOAD_MESSAGE, () -> serializer.fromXml(payloadXml, PayloadMessageType.class));
+  }
+
+  /**
+   * Deserializes a UTF-8 encoded (or otherwise declared) payload message, without decoding it to a {@link String} first.
+   */
+  public PayloadMessageType fromPayloadXml(byte[] payloadXml) {
+    if (singlePassValidation) {
+      return deserializeValidated(PAYLOAD_MESSAGE, schema -> serializer.fromXml(payloadXml, PayloadMessageType.class, schema), payloadXsd(payloadXml));
     }
+
+    xsdValidator.validate(payloadXml, payloadXsd(payloadXml).getUrl());
+    return deserialize(PAYLOAD_MESSAGE, () -> serializer.fromXml(payloadXml, PayloadMessageType.class));
   }
 
   public String toXml(SignedMessage signedMessage) {
@@ -46,12 +112,78 @@ public class UftpSerializer {
 
   public <T extends PayloadMessageType> String toXml(T payloadMessage) {
     String payloadXml = serializer.toXml(payloadMessage);
-    validate(payloadXml, UftpXsds.ALL);
+    validate(payloadXml, payloadXsd(payloadMessage));
     return payloadXml;
   }
 
+  /**
+   * Serializes and validates the signed message as UTF-8 encoded XML.
+   */
+  public byte[] toXmlBytes(SignedMessage signedMessage) {
+    byte[] signedXml = serializer.toXmlBytes(signedMessage);
+    xsdValidator.validate(signedXml, UftpXsds.COMMON.getUrl());
+    return signedXml;
+  }
+
+  /**
+   * Writes a signed message with {@link SignedMessageWriter}, which checks the envelope constraints of the UFTP XSD before writing instead of using JAXB and
+   * XSD validation. The result is the same as that of {@link #toXmlBytes(SignedMessage)}.
+   */
+  public byte[] toXmlBytesStreaming(SignedMessage signedMessage) {
+    return signedMessageWriter.write(signedMessage);
+  }
+
+  /**
+   * Serializes and validates the payload message as UTF-8 encoded XML.
+   */
+  public <T extends PayloadMessageType> byte[] toXmlBytes(T payloadMessage) {
+    byte[] payloadXml = serializer.toXmlBytes(payloadMessage);
+    xsdValidator.validate(payloadXml, payloadXsd(payloadMessage).getUrl());
+    return payloadXml;
+  }
+
+  private UftpXsds payloadXsd(String payloadXml) {
+    return payloadXsdRouter == null ? UftpXsds.ALL : payloadXsdRouter.route(payloadXml);
+  }
+
+  private UftpXsds payloadXsd(byte[] payloadXml) {
+    return payloadXsdRouter == null ? UftpXsds.ALL : payloadXsdRouter.route(payloadXml);
+  }
+
+  private UftpXsds payloadXsd(PayloadMessageType payloadMessage) {
+    return payloadXsdRouter == null ? UftpXsds.ALL : payloadXsdRouter.route(payloadMessage);
+  }
+
   private void validate(String xml, UftpXsds xsd) {
     xsdValidator.validate(xml, xsd.getUrl());
   }
 
+  private static <T> T deserialize(String description, Supplier<T> deserialization) {
+    try {
+      return deserialization.get();
+    } catch (Exception cause) {
+      throw new UftpSerializerException(description + " XML deserialization failed: " + cause.getMessage(), cause, HttpStatusCode.BAD_REQUEST);
+    }
+  }
+
+  private <T> T deserializeValidated(String description, Function<Schema, T> deserialization, UftpXsds xsd) {
+    try {
+      return deserialization.apply(xsdValidator.getSchema(xsd.getUrl()));
+    } catch (Exception cause) {
+      var saxException = findSaxException(cause);
+      if (saxException != null) {
+        // Parse and schema errors surface as SAX exceptions, report them the same way as XsdValidator does
+        throw new UftpSerializerException("XSD validation failed: " + saxException.getMessage(), saxException, HttpStatusCode.BAD_REQUEST);
+      }
+      throw new UftpSerializerException(description + " XML deserialization failed: " + cause.getMessage(), cause, HttpStatusCode.BAD_REQUEST);
+    }
+  }
+
+  private static SAXException findSaxException(Throwable cause) {
+    var current = cause;
+    while (current != null && !(current instanceof SAXException)) {
+      current = current.getCause() == current ? null : current.getCause();
+    }
+    return (SAXException) current;
+  }
 }
@@ -2,6 +2,7 @@ package org.lfenergy.shapeshifter.core.service.validation;
 
 import org.lfenergy.shapeshifter.api.FlexOfferRevocation;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.core.model.UftpMessageFingerprint;
 import org.lfenergy.shapeshifter.core.model.UftpMessageReference;
 
 import java.util.Optional;
@@ -38,6 +39,22 @@ public interface UftpMessageSupport {
      */
     Optional<PayloadMessageType> findDuplicateMessage(String messageID, String senderDomain, String recipientDomain);
 
+    /**
+     * Finds the fingerprint of an existing received message by messageID (if any) and sender domain and recipient domain. The fingerprint of a received
+     * message is available from {@link org.lfenergy.shapeshifter.core.model.IncomingUftpMessage#fingerprint()}.
+     * <br/> <br/>
+     * Stores that keep these fingerprints can implement this method, so most duplicates are detected by comparing hashes instead of message content. The
+     * default implementation returns an empty result, in which case the message found by {@link #findDuplicateMessage} is compared instead.
+     *
+     * @param messageID       The message ID.
+     * @param senderDomain    The sender domain.
+     * @param recipientDomain The recipient domain.
+     * @return The fingerprint of the message that was received previously.
+     */
+    default Optional<UftpMessageFingerprint> findDuplicateMessageFingerprint(String messageID, String senderDomain, String recipientDomain) {
+        return Optional.empty();
+    }
+
     /**
      * Gets a previously sent or received message by reference (usually for validation), for example
      *
@@ -9,6 +9,7 @@ import static org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageD
 
 import lombok.RequiredArgsConstructor;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.core.model.IncomingUftpMessage;
 import org.lfenergy.shapeshifter.core.model.UftpMessage;
 import org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageDetection;
 import org.lfenergy.shapeshifter.core.service.validation.UftpValidator;
@@ -32,7 +33,9 @@ public class DuplicateIdentifierValidator implements UftpValidator<PayloadMessag
 
   @Override
   public boolean isValid(UftpMessage<PayloadMessageType> uftpMessage) {
-    var result = duplicateDetection.isDuplicate(uftpMessage.payloadMessage());
+    var result = uftpMessage instanceof IncomingUftpMessage<PayloadMessageType> incomingMessage
+        ? duplicateDetection.isDuplicate(incomingMessage)
+        : duplicateDetection.isDuplicate(uftpMessage.payloadMessage());
     return NEW_MESSAGE == result || DUPLICATE_MESSAGE == result;
   }
 
@@ -0,0 +1,36 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outcome of {@link UftpWarmUpService#warmUp()}.
+ *
+ * @param duration the wall-clock time of the whole warm-up; the phases run in parallel, so this is less than the sum of their durations
+ * @param phases   the outcome of every phase, in a fixed order
+ */
+public record UftpWarmUpReport(Duration duration, List<Phase> phases) {
+
+  public boolean succeeded() {
+    return phases.stream().allMatch(Phase::succeeded);
+  }
+
+  public Optional<Phase> phase(String name) {
+    return phases.stream().filter(phase -> phase.name().equals(name)).findFirst();
+  }
+
+  /**
+   * @param failure the exception that ended the phase, or {@code null} when it succeeded
+   */
+  public record Phase(String name, Duration duration, Throwable failure) {
+
+    public boolean succeeded() {
+      return failure == null;
+    }
+  }
+}
@@ -0,0 +1,188 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.warmup;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+import java.lang.reflect.Method;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.EdECPrivateKey;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.apachecommons.CommonsLog;
+import org.lfenergy.shapeshifter.api.ObjectFactory;
+import org.lfenergy.shapeshifter.api.TestMessage;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.api.xsdinfo.UftpXsds;
+import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumBase64Pool;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpSignatureProvider;
+import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
+import org.lfenergy.shapeshifter.core.service.warmup.UftpWarmUpReport.Phase;
+
+/**
+ * Initializes the expensive, lazily created parts of the library up front, so the first messages after startup are not slowed down. The phases run in
+ * parallel and each of them is timed; a failing phase is reported and logged, but never fails the warm-up as a whole.
+ *
+ * <p>The round trip signs and verifies a message with the configured {@link UftpCryptoService}, using a key pair generated by the JDK, so it does not load
+ * libsodium unless the crypto service uses it. Without a libsodium pool, the libsodium phase is skipped.</p>
+ */
+@CommonsLog
+public class UftpWarmUpService {
+
+  public static final int DEFAULT_POOL_SIZE = 4;
+
+  static final String JAXB_PHASE = "jaxb";
+  static final String XSD_PHASE = "xsd";
+  static final String SODIUM_PHASE = "sodium";
+  static final String ROUND_TRIP_PHASE = "round-trip";
+
+  private static final String WARM_UP_DOMAIN = "warm-up.shapeshifter.invalid";
+  private static final String UFTP_VERSION = "3.0.0";
+  private static final String KEY_ALGORITHM = "Ed25519";
+
+  private final XmlSerializer xmlSerializer;
+  private final XsdSchemaProvider xsdSchemaProvider;
+  private final LazySodiumBase64Pool lazySodiumInstancePool;
+  private final UftpSerializer uftpSerializer;
+  private final UftpCryptoService cryptoService;
+  private final int poolSize;
+  private final Executor executor;
+
+  public UftpWarmUpService(XmlSerializer xmlSerializer, XsdSchemaProvider xsdSchemaProvider, LazySodiumBase64Pool lazySodiumInstancePool,
+                           UftpSerializer uftpSerializer, UftpCryptoService cryptoService) {
+    this(xmlSerializer, xsdSchemaProvider, lazySodiumInstancePool, uftpSerializer, cryptoService, DEFAULT_POOL_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param lazySodiumInstancePool the pool of the libsodium signature provider, or {@code null} when messages are not signed with libsodium
+   * @param poolSize the number of idle libsodium instances and validators per XSD to create up front
+   * @param executor runs the warm-up phases
+   */
+  public UftpWarmUpService(XmlSerializer xmlSerializer, XsdSchemaProvider xsdSchemaProvider, LazySodiumBase64Pool lazySodiumInstancePool,
+                           UftpSerializer uftpSerializer, UftpCryptoService cryptoService, int poolSize, Executor executor) {
+    if (poolSize < 0) {
+      throw new IllegalArgumentException("poolSize must not be negative");
+    }
+    this.xmlSerializer = xmlSerializer;
+    this.xsdSchemaProvider = xsdSchemaProvider;
+    this.lazySodiumInstancePool = lazySodiumInstancePool;
+    this.uftpSerializer = uftpSerializer;
+    this.cryptoService = cryptoService;
+    this.poolSize = poolSize;
+    this.executor = executor;
+  }
+
+  /**
+   * Runs all warm-up phases in parallel and waits for them to finish.
+   */
+  public UftpWarmUpReport warmUp() {
+    log.info("Warming up Shapeshifter");
+    var start = System.nanoTime();
+
+    var phases = new ArrayList<CompletableFuture<Phase>>();
+    phases.add(runAsync(JAXB_PHASE, this::warmUpJaxb));
+    phases.add(runAsync(XSD_PHASE, this::warmUpXsd));
+    if (lazySodiumInstancePool != null) {
+      phases.add(runAsync(SODIUM_PHASE, this::warmUpSodium));
+    }
+    phases.add(runAsync(ROUND_TRIP_PHASE, this::warmUpRoundTrip));
+
+    var report = new UftpWarmUpReport(Duration.ofNanos(System.nanoTime() - start), phases.stream().map(CompletableFuture::join).toList());
+    log.info(String.format("Shapeshifter warm-up finished in %d ms", report.duration().toMillis()));
+    return report;
+  }
+
+  private void warmUpJaxb() {
+    // The generated model shares one JAXB context, so this builds it once; the pools grow with the actual load
+    messageTypes().forEach(type -> xmlSerializer.prefill(type, 1));
+  }
+
+  private void warmUpXsd() {
+    for (var xsd : UftpXsds.values()) {
+      xsdSchemaProvider.prefillValidators(xsd.getUrl(), poolSize);
+    }
+  }
+
+  private void warmUpSodium() {
+    // Creating the first instance loads libsodium, which may involve extracting the bundled library to a temporary file
+    lazySodiumInstancePool.prefill(Math.max(poolSize, 1));
+  }
+
+  private void warmUpRoundTrip() throws Exception {
+    var keyPair = KeyPairGenerator.getInstance(KEY_ALGORITHM).generateKeyPair();
+    // The raw public key is the end of its X.509 encoding; a secret key in the libsodium format is the seed followed by the public key
+    var encodedPublicKey = keyPair.getPublic().getEncoded();
+    var rawPublicKey = Arrays.copyOfRange(encodedPublicKey, encodedPublicKey.length - UftpSignatureProvider.PUBLIC_KEY_BYTES, encodedPublicKey.length);
+    var seed = ((EdECPrivateKey) keyPair.getPrivate()).getBytes().orElseThrow();
+    var secretKey = Arrays.copyOf(seed, UftpSignatureProvider.SECRET_KEY_BYTES);
+    System.arraycopy(rawPublicKey, 0, secretKey, seed.length, rawPublicKey.length);
+    var publicKey = Base64.getEncoder().encodeToString(rawPublicKey);
+    var privateKey = Base64.getEncoder().encodeToString(secretKey);
+
+    var testMessage = createTestMessage();
+    var signedMessage = cryptoService.signMessage(uftpSerializer.toXmlBytes(testMessage), new UftpParticipant(WARM_UP_DOMAIN, USEFRoleType.DSO), privateKey);
+    var receivedSignedMessage = uftpSerializer.fromSignedXml(uftpSerializer.toXmlBytes(signedMessage));
+    var receivedPayload = uftpSerializer.fromPayloadXml(cryptoService.verifySignedMessageAsBytes(receivedSignedMessage, publicKey));
+
+    if (!testMessage.getMessageID().equals(receivedPayload.getMessageID())) {
+      throw new IllegalStateException("Synthetic round trip returned a different message: " + receivedPayload.getMessageID());
+    }
+  }
+
+  private CompletableFuture<Phase> runAsync(String name, WarmUpAction action) {
+    return CompletableFuture.supplyAsync(() -> run(name, action), executor);
+  }
+
+  private static Phase run(String name, WarmUpAction action) {
+    var start = System.nanoTime();
+    try {
+      action.run();
+      var phase = new Phase(name, Duration.ofNanos(System.nanoTime() - start), null);
+      log.info(String.format("Warm-up phase '%s' finished in %d ms", name, phase.duration().toMillis()));
+      return phase;
+    } catch (Exception cause) {
+      var phase = new Phase(name, Duration.ofNanos(System.nanoTime() - start), cause);
+      log.warn(String.format("Warm-up phase '%s' failed after %d ms", name, phase.duration().toMillis()), cause);
+      return phase;
+    }
+  }
+
+  static List<Class<?>> messageTypes() {
+    // Every root element of the generated model, including the SignedMessage envelope
+    return Arrays.stream(ObjectFactory.class.getMethods())
+                 .map(Method::getReturnType)
+                 .filter(type -> type.isAnnotationPresent(XmlRootElement.class))
+                 .distinct()
+                 .toList();
+  }
+
+  private static TestMessage createTestMessage() {
+    var testMessage = new TestMessage();
+    testMessage.setVersion(UFTP_VERSION);
+    testMessage.setSenderDomain(WARM_UP_DOMAIN);
+    testMessage.setRecipientDomain(WARM_UP_DOMAIN);
+    testMessage.setTimeStamp(OffsetDateTime.now());
+    testMessage.setMessageID(UUID.randomUUID().toString());
+    testMessage.setConversationID(UUID.randomUUID().toString());
+    return testMessage;
+  }
+
+  @FunctionalInterface
+  private interface WarmUpAction {
+
+    void run() throws Exception;
+  }
+}
@@ -0,0 +1,425 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+  private static final CacheSettings SETTINGS = new CacheSettings(3, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+  private final MutableClock clock = new MutableClock();
+  private final Map<String, String> source = new HashMap<>();
+  private final List<String> loads = new ArrayList<>();
+  private final List<Runnable> refreshTasks = new ArrayList<>();
+  private final Executor refreshExecutor = refreshTasks::add;
+
+  private ExpiringCache<String, String> testSubject;
+
+  @BeforeEach
+  void setUp() {
+    source.put("a", "A");
+    source.put("b", "B");
+    source.put("c", "C");
+    source.put("d", "D");
+    testSubject = new ExpiringCache<>(this::load, SETTINGS, refreshExecutor, clock);
+  }
+
+  @Test
+  void get_loadsOnce() {
+    assertThat(testSubject.get("a")).contains("A");
+    assertThat(testSubject.get("a")).contains("A");
+
+    assertThat(loads).containsExactly("a");
+    assertThat(testSubject.stats()).isEqualTo(new CacheStats(1, 1, 0, 0));
+  }
+
+  @Test
+  void get_reloadsAfterTtl() {
+    testSubject.get("a");
+    source.put("a", "A2");
+
+    clock.advance(Duration.ofMinutes(10));
+
+    assertThat(testSubject.get("a")).contains("A2");
+    assertThat(loads).containsExactly("a", "a");
+  }
+
+  @Test
+  void get_refreshesAhead() {
+    testSubject.get("a");
+    source.put("a", "A2");
+    clock.advance(Duration.ofMinutes(9));
+
+    // The current value is returned while the refresh is pending, and only one refresh is started
+    assertThat(testSubject.get("a")).contains("A");
+    assertThat(testSubject.get("a")).contains("A");
+    assertThat(refreshTasks).hasSize(1);
+
+    refreshTasks.get(0).run();
+
+    assertThat(testSubject.get("a")).contains("A2");
+    assertThat(testSubject.stats()).isEqualTo(new CacheStats(3, 1, 1, 0));
+  }
+
+  @Test
+  void get_refreshFindsNoValue_remembersAbsence() {
+    testSubject.get("a");
+    clock.advance(Duration.ofMinutes(9));
+    testSubject.get("a");
+    source.remove("a");
+
+    refreshTasks.get(0).run();
+
+    assertThat(testSubject.get("a")).isEmpty();
+  }
+
+  @Test
+  void get_refreshLoaderThrows_keepsCurrentValueAndRetries() {
+    var cache = new ExpiringCache<String, String>(key -> {
+      loads.add(key);
+      if (loads.size() > 1) {
+        throw new IllegalStateException("unavailable");
+      }
+      return Optional.of("A");
+    }, SETTINGS, refreshExecutor, clock);
+    cache.get("a");
+    clock.advance(Duration.ofMinutes(9));
+    cache.get("a");
+
+    refreshTasks.get(0).run();
+
+    assertThat(cache.get("a")).contains("A");
+    assertThat(refreshTasks).hasSize(2);
+  }
+
+  @Test
+  void get_refreshRejected_retriesOnNextRead() {
+    var rejecting = new ExpiringCache<>(this::load, SETTINGS, task -> {
+      throw new RejectedExecutionException();
+    }, clock);
+    rejecting.get("a");
+    clock.advance(Duration.ofMinutes(9));
+
+    assertThat(rejecting.get("a")).contains("A");
+    assertThat(rejecting.get("a")).contains("A");
+    assertThat(rejecting.stats().refreshes()).isEqualTo(2);
+  }
+
+  @Test
+  void get_refreshAfterInvalidate_doesNotRestoreValue() {
+    testSubject.get("a");
+    clock.advance(Duration.ofMinutes(9));
+    testSubject.get("a");
+    testSubject.invalidate("a");
+
+    refreshTasks.get(0).run();
+
+    assertThat(testSubject.size()).isZero();
+  }
+
+  @Test
+  void get_negativeCaching() {
+    assertThat(testSubject.get("x")).isEmpty();
+    assertThat(testSubject.get("x")).isEmpty();
+    assertThat(loads).containsExactly("x");
+
+    source.put("x", "X");
+    clock.advance(Duration.ofSeconds(30));
+
+    assertThat(testSubject.get("x")).contains("X");
+    assertThat(loads).containsExactly("x", "x");
+  }
+
+  @Test
+  void get_negativeCachingDisabled() {
+    var cache = new ExpiringCache<>(this::load, new CacheSettings(3, Duration.ofMinutes(10), Duration.ZERO, Duration.ZERO), refreshExecutor, clock);
+
+    cache.get("x");
+    cache.get("x");
+
+    assertThat(loads).containsExactly("x", "x");
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void get_loaderThrows_notCached() {
+    var cache = new ExpiringCache<String, String>(key -> {
+      loads.add(key);
+      throw new IllegalStateException("unavailable");
+    }, SETTINGS, refreshExecutor, clock);
+
+    assertThatThrownBy(() -> cache.get("a")).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> cache.get("a")).isInstanceOf(IllegalStateException.class);
+    assertThat(loads).containsExactly("a", "a");
+  }
+
+  @Test
+  void get_evictsWhenFull() {
+    testSubject.get("a");
+    clock.advance(Duration.ofSeconds(1));
+    testSubject.get("b");
+    testSubject.get("c");
+    testSubject.get("d");
+
+    assertThat(testSubject.size()).isEqualTo(3);
+    assertThat(testSubject.getIfPresent("a")).isEmpty();
+    assertThat(testSubject.getIfPresent("d")).contains("D");
+    assertThat(testSubject.stats().evictions()).isEqualTo(1);
+  }
+
+  @Test
+  void get_evictsExpiredEntriesFirst() {
+    testSubject.get("x");
+    clock.advance(Duration.ofSeconds(30));
+    testSubject.get("a");
+    testSubject.get("b");
+    testSubject.get("c");
+
+    assertThat(testSubject.size()).isEqualTo(3);
+    assertThat(testSubject.stats().evictions()).isZero();
+  }
+
+  @Test
+  void put_wellPastMaxSize_keepsMostRecentEntries() {
+    var cache = new ExpiringCache<Integer, String>(key -> Optional.empty(), new CacheSettings(100, Duration.ofMinutes(10), Duration.ZERO, Duration.ZERO),
+                                                   refreshExecutor, clock);
+
+    for (var i = 0; i < 100_000; i++) {
+      cache.put(i, "value-" + i);
+      if (i % 1_000 == 0) {
+        clock.advance(Duration.ofMillis(1));
+      }
+    }
+
+    assertThat(cache.size()).isEqualTo(100);
+    assertThat(cache.getIfPresent(99_900)).contains("value-99900");
+    assertThat(cache.getIfPresent(99_999)).contains("value-99999");
+    assertThat(cache.getIfPresent(99_899)).isEmpty();
+    assertThat(cache.stats().evictions()).isEqualTo(99_900);
+  }
+
+  @Test
+  void put_replacedValue_expiresWithItsNewTtl() {
+    testSubject.put("a", "A");
+    clock.advance(Duration.ofSeconds(1));
+    testSubject.put("b", "B");
+    testSubject.put("c", "C");
+    testSubject.put("a", "A2");
+
+    testSubject.put("d", "D");
+
+    assertThat(testSubject.getIfPresent("a")).contains("A2");
+    assertThat(testSubject.getIfPresent("b")).isEmpty();
+    assertThat(testSubject.size()).isEqualTo(3);
+  }
+
+  @Test
+  void get_evictsAbsenceBeforeLaterExpiringValue() {
+    testSubject.get("a");
+    testSubject.get("x");
+    testSubject.get("b");
+
+    testSubject.get("c");
+
+    // The absence of x expires after 30 seconds, long before the value of a
+    assertThat(testSubject.getIfPresent("a")).contains("A");
+    assertThat(testSubject.size()).isEqualTo(3);
+    assertThat(loads).containsExactly("a", "x", "b", "c");
+    testSubject.get("x");
+    assertThat(loads).containsExactly("a", "x", "b", "c", "x");
+  }
+
+  @Test
+  void get_concurrentMisses_shareOneLoad() throws Exception {
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var loadCount = new AtomicInteger();
+    var cache = new ExpiringCache<String, String>(key -> {
+      loadCount.incrementAndGet();
+      loading.countDown();
+      awaitUninterruptibly(release);
+      return Optional.of("A");
+    }, SETTINGS, refreshExecutor, clock);
+
+    var first = CompletableFuture.supplyAsync(() -> cache.get("a"));
+    loading.await();
+    var second = CompletableFuture.supplyAsync(() -> cache.get("a"));
+    Thread.sleep(50);
+    release.countDown();
+
+    assertThat(first.get(10, TimeUnit.SECONDS)).contains("A");
+    assertThat(second.get(10, TimeUnit.SECONDS)).contains("A");
+    assertThat(loadCount.get()).isOne();
+    assertThat(cache.stats()).isEqualTo(new CacheStats(1, 1, 0, 0));
+  }
+
+  @Test
+  void get_concurrentMissWhileLoaderThrows_failsToo() throws Exception {
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var cache = new ExpiringCache<String, String>(key -> {
+      loading.countDown();
+      awaitUninterruptibly(release);
+      throw new IllegalStateException("load failed");
+    }, SETTINGS, refreshExecutor, clock);
+
+    var first = CompletableFuture.supplyAsync(() -> cache.get("a"));
+    loading.await();
+    var second = CompletableFuture.supplyAsync(() -> cache.get("a"));
+    Thread.sleep(50);
+    release.countDown();
+
+    assertThatThrownBy(() -> first.get(10, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void get_invalidatedWhileLoading_loadedValueNotCached() {
+    var cacheRef = new AtomicReference<ExpiringCache<String, String>>();
+    var cache = new ExpiringCache<String, String>(key -> {
+      loads.add(key);
+      // The value is invalidated, for example because it was rotated, while the previous value is being loaded
+      if (loads.size() == 1) {
+        cacheRef.get().invalidate(key);
+      }
+      return Optional.of("A" + loads.size());
+    }, SETTINGS, refreshExecutor, clock);
+    cacheRef.set(cache);
+
+    assertThat(cache.get("a")).contains("A1");
+    assertThat(cache.get("a")).contains("A2");
+    assertThat(loads).containsExactly("a", "a");
+  }
+
+  @Test
+  void get_valueWithOwnExpiry() {
+    var expiresAt = clock.instant().plus(Duration.ofMinutes(3));
+    var cache = new ExpiringCache<String, String>(this::load, value -> value.equals("A") ? expiresAt : null, SETTINGS, refreshExecutor, clock);
+
+    cache.get("a");
+    cache.get("b");
+
+    // Refreshed ahead of its own expiry instead of the TTL of the settings
+    clock.advance(Duration.ofMinutes(2));
+    cache.get("a");
+    assertThat(refreshTasks).hasSize(1);
+
+    clock.advance(Duration.ofMinutes(1));
+    assertThat(cache.getIfPresent("a")).isEmpty();
+    assertThat(cache.getIfPresent("b")).contains("B");
+  }
+
+  @Test
+  void get_valueAlreadyExpired_notCached() {
+    var cache = new ExpiringCache<String, String>(this::load, value -> clock.instant(), SETTINGS, refreshExecutor, clock);
+
+    assertThat(cache.get("a")).contains("A");
+    assertThat(cache.get("a")).contains("A");
+
+    assertThat(loads).containsExactly("a", "a");
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void getIfPresent_doesNotLoad() {
+    assertThat(testSubject.getIfPresent("a")).isEmpty();
+    assertThat(loads).isEmpty();
+
+    testSubject.put("a", "P");
+
+    assertThat(testSubject.getIfPresent("a")).contains("P");
+    assertThat(testSubject.stats()).isEqualTo(new CacheStats(1, 1, 0, 0));
+  }
+
+  @Test
+  void invalidate() {
+    testSubject.get("a");
+    testSubject.get("b");
+
+    testSubject.invalidate("a");
+
+    assertThat(testSubject.getIfPresent("a")).isEmpty();
+    assertThat(testSubject.getIfPresent("b")).contains("B");
+
+    testSubject.invalidateAll();
+
+    assertThat(testSubject.size()).isZero();
+  }
+
+  @Test
+  void settings_invalid() {
+    var tenMinutes = Duration.ofMinutes(10);
+    assertThatThrownBy(() -> new CacheSettings(0, tenMinutes, Duration.ZERO, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CacheSettings(1, Duration.ZERO, Duration.ZERO, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CacheSettings(1, tenMinutes, tenMinutes, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CacheSettings(1, tenMinutes, Duration.ZERO, Duration.ofSeconds(-1))).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void stats_hitRate() {
+    assertThat(new CacheStats(0, 0, 0, 0).hitRate()).isEqualTo(1.0);
+    assertThat(new CacheStats(3, 1, 0, 0).hitRate()).isEqualTo(0.75);
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Optional<String> load(String key) {
+    loads.add(key);
+    return Optional.ofNullable(source.get(key));
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2023-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
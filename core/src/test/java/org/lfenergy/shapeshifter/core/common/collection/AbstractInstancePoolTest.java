@@ -6,6 +6,8 @@ package org.lfenergy.shapeshifter.core.common.collection;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class AbstractInstancePoolTest {
@@ -73,4 +75,97 @@ class AbstractInstancePoolTest {
     testSubject.release(null);
     assertThat(testSubject.size()).isEqualTo(4);
   }
-}
\ No newline at end of file
+
+  @Test
+  void release_whenPoolIsFull_instanceIsDiscarded() {
+    final MyBoundedInstancePool testSubject = new MyBoundedInstancePool(1);
+
+    final String f1 = testSubject.claim();
+    final String f2 = testSubject.claim();
+    testSubject.release(f1);
+    testSubject.release(f2);
+
+    assertThat(testSubject.size()).isEqualTo(1);
+    assertThat(testSubject.claim()).isSameAs(f1);
+    assertThat(testSubject.claim()).isEqualTo("Instance3");
+  }
+
+  @Test
+  void release_twice_isIgnored() {
+    final MyBoundedInstancePool testSubject = new MyBoundedInstancePool(2);
+
+    final String f1 = testSubject.claim();
+    testSubject.release(f1);
+    testSubject.release(f1);
+
+    assertThat(testSubject.size()).isEqualTo(1);
+    assertThat(testSubject.resetInstances).containsExactly(f1);
+    assertThat(testSubject.claim()).isSameAs(f1);
+    testSubject.release(f1);
+    assertThat(testSubject.size()).isEqualTo(1);
+  }
+
+  @Test
+  void release_resetsInstance() {
+    final MyBoundedInstancePool testSubject = new MyBoundedInstancePool(2);
+
+    final String f1 = testSubject.claim();
+    testSubject.release(f1);
+
+    assertThat(testSubject.resetInstances).containsExactly(f1);
+  }
+
+  @Test
+  void release_whenResetFails_instanceIsDiscarded() {
+    final MyBoundedInstancePool testSubject = new MyBoundedInstancePool(2);
+    testSubject.failReset = true;
+
+    testSubject.release(testSubject.claim());
+
+    assertThat(testSubject.size()).isZero();
+  }
+
+  @Test
+  void prefill_createsIdleInstances() {
+    final MyBoundedInstancePool testSubject = new MyBoundedInstancePool(4);
+
+    assertThat(testSubject.prefill(2)).isEqualTo(2);
+    assertThat(testSubject.prefill(2)).isEqualTo(2);
+
+    assertThat(testSubject.claim()).isEqualTo("Instance1");
+    assertThat(testSubject.claim()).isEqualTo("Instance2");
+    assertThat(testSubject.claim()).isEqualTo("Instance3");
+  }
+
+  @Test
+  void prefill_doesNotExceedMaxIdle() {
+    final MyBoundedInstancePool testSubject = new MyBoundedInstancePool(2);
+
+    assertThat(testSubject.prefill(5)).isEqualTo(2);
+    assertThat(testSubject.size()).isEqualTo(2);
+  }
+
+  class MyBoundedInstancePool extends AbstractInstancePool<String> {
+
+    private final List<String> resetInstances = new ArrayList<>();
+    private boolean failReset;
+    private int counter = 0;
+
+    MyBoundedInstancePool(int maxIdle) {
+      super(maxIdle);
+    }
+
+    @Override
+    protected String create() {
+      return "Instance" + (++counter);
+    }
+
+    @Override
+    protected void reset(String instance) {
+      if (failReset) {
+        throw new IllegalStateException("reset failed");
+      }
+      resetInstances.add(instance);
+    }
+  }
+}
@@ -0,0 +1,341 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+
+class BoundedInstancePoolTest {
+
+  private static final InstancePoolSettings SETTINGS = new InstancePoolSettings(1, 2, Duration.ofMinutes(5), Duration.ZERO);
+
+  private final MutableClock clock = new MutableClock();
+
+  @Test
+  void claim_createsAndReusesInstances() {
+    var testSubject = new MyBoundedInstancePool(SETTINGS);
+
+    var f1 = testSubject.claim();
+    var f2 = testSubject.claim();
+    testSubject.release(f1);
+    testSubject.release(f2);
+
+    assertThat(f1).isEqualTo("Instance1");
+    assertThat(f2).isEqualTo("Instance2");
+    assertThat(testSubject.size()).isEqualTo(2);
+    // Most recently released first
+    assertThat(testSubject.claim()).isSameAs(f2);
+    assertThat(testSubject.claim()).isSameAs(f1);
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(2, 0, 2, 0, 0));
+  }
+
+  @Test
+  void release_twice_isIgnored() {
+    var testSubject = new MyBoundedInstancePool(SETTINGS);
+
+    var f1 = testSubject.claim();
+    testSubject.release(f1);
+    testSubject.release(f1);
+
+    assertThat(testSubject.size()).isEqualTo(1);
+    assertThat(testSubject.resetInstances).containsExactly(f1);
+    assertThat(testSubject.claim()).isSameAs(f1);
+    assertThat(testSubject.claim()).isEqualTo("Instance2");
+  }
+
+  @Test
+  void release_unknownInstance_isIgnored() {
+    var testSubject = new MyBoundedInstancePool(SETTINGS);
+
+    var f1 = testSubject.claim();
+    // Release is instance compare based. Not equals compare based.
+    testSubject.release(new String(f1));
+    testSubject.release(null);
+
+    assertThat(testSubject.size()).isZero();
+    assertThat(testSubject.stats().size()).isEqualTo(1);
+  }
+
+  @Test
+  void claim_whenExhausted_failsImmediately() {
+    var testSubject = new MyBoundedInstancePool(SETTINGS);
+    testSubject.claim();
+    testSubject.claim();
+
+    assertThatThrownBy(testSubject::claim)
+        .isInstanceOfSatisfying(UftpConnectorException.class, e -> assertThat(e.getHttpStatusCode()).isEqualTo(HttpStatusCode.SERVICE_UNAVAILABLE))
+        .hasMessage("No pooled instance available within 0 ms; all 2 instances are claimed");
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(2, 0, 2, 0, 1));
+  }
+
+  @Test
+  void claim_whenExhausted_failsAfterTimeout() {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 1, Duration.ZERO, Duration.ofMillis(20)));
+    testSubject.claim();
+
+    assertThatThrownBy(testSubject::claim)
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("No pooled instance available within 20 ms; all 1 instances are claimed");
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(1, 0, 1, 1, 1));
+  }
+
+  @Test
+  void claim_whenExhausted_waitsForRelease() throws Exception {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 1, Duration.ZERO, Duration.ofSeconds(10)));
+    var f1 = testSubject.claim();
+    var waiting = new CountDownLatch(1);
+
+    var claimed = CompletableFuture.supplyAsync(() -> {
+      waiting.countDown();
+      return testSubject.claim();
+    });
+    waiting.await();
+    while (testSubject.stats().waits() == 0) {
+      Thread.onSpinWait();
+    }
+    testSubject.release(f1);
+
+    assertThat(claimed.get(10, TimeUnit.SECONDS)).isSameAs(f1);
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(1, 0, 1, 1, 0));
+  }
+
+  @Test
+  void claim_whilePrefillCreates_waitsWithoutSpinning() throws Exception {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 1, Duration.ZERO, Duration.ofSeconds(10)));
+    testSubject.createStarted = new CountDownLatch(1);
+    testSubject.createAllowed = new CountDownLatch(1);
+    var prefill = CompletableFuture.supplyAsync(() -> testSubject.prefill(1));
+    testSubject.createStarted.await();
+
+    // The claim gets a permit, but the only instance is still being created for pre-filling
+    var claimed = new CompletableFuture<String>();
+    var claimer = new Thread(() -> claimed.complete(testSubject.claim()));
+    claimer.start();
+    while (claimer.getState() != Thread.State.WAITING) {
+      assertThat(claimer.getState()).isNotEqualTo(Thread.State.TERMINATED);
+      Thread.sleep(1);
+    }
+    testSubject.createAllowed.countDown();
+
+    // The claimer may take the pre-filled instance before pre-filling counts the idle instances
+    assertThat(prefill.get(10, TimeUnit.SECONDS)).isBetween(0, 1);
+    assertThat(claimed.get(10, TimeUnit.SECONDS)).isEqualTo("Instance1");
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(1, 0, 1, 0, 0));
+  }
+
+  @Test
+  void release_whenResetFails_instanceIsDiscarded() {
+    var testSubject = new MyBoundedInstancePool(SETTINGS);
+    testSubject.failReset = true;
+
+    var f1 = testSubject.claim();
+    testSubject.release(f1);
+
+    assertThat(testSubject.size()).isZero();
+    assertThat(testSubject.destroyedInstances).containsExactly(f1);
+    assertThat(testSubject.claim()).isEqualTo("Instance2");
+    assertThat(testSubject.claim()).isEqualTo("Instance3");
+  }
+
+  @Test
+  void claim_whenCreateFails_permitIsReturned() {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 1, Duration.ZERO, Duration.ZERO));
+    testSubject.failCreate = true;
+
+    assertThatThrownBy(testSubject::claim).isInstanceOf(IllegalStateException.class);
+
+    testSubject.failCreate = false;
+    assertThat(testSubject.claim()).isEqualTo("Instance1");
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(1, 0, 1, 0, 0));
+  }
+
+  @Test
+  void prefill_doesNotExceedMaxSize() {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 3, Duration.ZERO, Duration.ZERO));
+    var f1 = testSubject.claim();
+
+    assertThat(testSubject.prefill(5)).isEqualTo(2);
+    assertThat(testSubject.prefill(5)).isEqualTo(2);
+
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(3, 2, 3, 0, 0));
+    testSubject.claim();
+    testSubject.claim();
+    assertThatThrownBy(testSubject::claim).isInstanceOf(UftpConnectorException.class);
+    testSubject.release(f1);
+    assertThat(testSubject.claim()).isSameAs(f1);
+  }
+
+  @Test
+  void evictIdle_evictsLongestIdleDownToMinIdle() {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(1, 3, Duration.ofMinutes(5), Duration.ZERO));
+    var f1 = testSubject.claim();
+    var f2 = testSubject.claim();
+    var f3 = testSubject.claim();
+    testSubject.release(f1);
+    clock.advance(Duration.ofMinutes(1));
+    testSubject.release(f2);
+    clock.advance(Duration.ofMinutes(1));
+    testSubject.release(f3);
+
+    // Idle for 5.5, 4.5 and 3.5 minutes
+    clock.advance(Duration.ofSeconds(210));
+    assertThat(testSubject.evictIdle()).isEqualTo(1);
+    assertThat(testSubject.destroyedInstances).containsExactly(f1);
+
+    clock.advance(Duration.ofMinutes(10));
+    assertThat(testSubject.evictIdle()).isEqualTo(1);
+    assertThat(testSubject.destroyedInstances).containsExactly(f1, f2);
+    assertThat(testSubject.stats()).isEqualTo(new InstancePoolStats(1, 1, 3, 0, 0));
+    assertThat(testSubject.claim()).isSameAs(f3);
+  }
+
+  @Test
+  void release_evictsIdleInstances() {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 2, Duration.ofMinutes(5), Duration.ZERO));
+    var f1 = testSubject.claim();
+    var f2 = testSubject.claim();
+    testSubject.release(f1);
+
+    clock.advance(Duration.ofMinutes(5));
+    testSubject.release(f2);
+
+    assertThat(testSubject.destroyedInstances).containsExactly(f1);
+    assertThat(testSubject.size()).isEqualTo(1);
+  }
+
+  @Test
+  void evictIdle_disabled() {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 2, Duration.ZERO, Duration.ZERO));
+    testSubject.release(testSubject.claim());
+
+    clock.advance(Duration.ofDays(1));
+
+    assertThat(testSubject.evictIdle()).isZero();
+    assertThat(testSubject.size()).isEqualTo(1);
+  }
+
+  @Test
+  void claim_concurrently_neverExceedsMaxSize() {
+    var testSubject = new MyBoundedInstancePool(new InstancePoolSettings(0, 4, Duration.ZERO, Duration.ofSeconds(30)));
+    var claimed = new AtomicInteger();
+    var maxClaimed = new AtomicInteger();
+
+    var tasks = new ArrayList<CompletableFuture<Void>>();
+    for (int i = 0; i < 16; i++) {
+      tasks.add(CompletableFuture.runAsync(() -> {
+        for (int j = 0; j < 1_000; j++) {
+          var instance = testSubject.claim();
+          maxClaimed.accumulateAndGet(claimed.incrementAndGet(), Math::max);
+          claimed.decrementAndGet();
+          testSubject.release(instance);
+        }
+      }));
+    }
+    tasks.forEach(CompletableFuture::join);
+
+    assertThat(maxClaimed.get()).isLessThanOrEqualTo(4);
+    assertThat(testSubject.stats().size()).isLessThanOrEqualTo(4);
+    assertThat(testSubject.stats().creates()).isLessThanOrEqualTo(4);
+    assertThat(testSubject.size()).isEqualTo(testSubject.stats().size());
+  }
+
+  @Test
+  void settings_invalid() {
+    assertThatThrownBy(() -> new InstancePoolSettings(0, 0, Duration.ZERO, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new InstancePoolSettings(3, 2, Duration.ZERO, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new InstancePoolSettings(-1, 2, Duration.ZERO, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new InstancePoolSettings(0, 2, Duration.ofSeconds(-1), Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new InstancePoolSettings(0, 2, Duration.ZERO, Duration.ofSeconds(-1))).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  class MyBoundedInstancePool extends BoundedInstancePool<String> {
+
+    private final List<String> resetInstances = new ArrayList<>();
+    private final List<String> destroyedInstances = new ArrayList<>();
+    private final AtomicInteger counter = new AtomicInteger();
+    private volatile boolean failReset;
+    private volatile boolean failCreate;
+    private volatile CountDownLatch createStarted;
+    private volatile CountDownLatch createAllowed;
+
+    MyBoundedInstancePool(InstancePoolSettings settings) {
+      super(settings, clock);
+    }
+
+    @Override
+    protected String create() {
+      if (failCreate) {
+        throw new IllegalStateException("create failed");
+      }
+      if (createStarted != null) {
+        createStarted.countDown();
+        awaitUninterruptibly(createAllowed);
+      }
+      return "Instance" + counter.incrementAndGet();
+    }
+
+    @Override
+    protected void reset(String instance) {
+      if (failReset) {
+        throw new IllegalStateException("reset failed");
+      }
+      synchronized (resetInstances) {
+        resetInstances.add(instance);
+      }
+    }
+
+    @Override
+    protected void destroy(String instance) {
+      destroyedInstances.add(instance);
+    }
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2023-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
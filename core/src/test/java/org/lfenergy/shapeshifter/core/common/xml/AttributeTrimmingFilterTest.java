@@ -0,0 +1,73 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+class AttributeTrimmingFilterTest {
+
+  private final AttributeTrimmingFilter testSubject = new AttributeTrimmingFilter();
+  private final List<Attributes> received = new ArrayList<>();
+  private final List<String> receivedValues = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    testSubject.setContentHandler(new DefaultHandler() {
+      @Override
+      public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        received.add(attributes);
+        for (var i = 0; i < attributes.getLength(); i++) {
+          receivedValues.add(attributes.getValue(i));
+        }
+      }
+    });
+  }
+
+  @Test
+  void startElement_nothingToTrim_attributesArePassedOn() throws Exception {
+    var attributes = attributes("abc", "", "a b");
+
+    testSubject.startElement("", "E", "E", attributes);
+
+    assertThat(received).containsExactly(attributes);
+    assertThat(receivedValues).containsExactly("abc", "", "a b");
+  }
+
+  @Test
+  void startElement_surroundingWhitespace_isTrimmed() throws Exception {
+    var attributes = attributes("abc", " def", "ghi\t", "\n");
+
+    testSubject.startElement("", "E", "E", attributes);
+
+    assertThat(received.get(0)).isNotSameAs(attributes);
+    assertThat(receivedValues).containsExactly("abc", "def", "ghi", "");
+    assertThat(attributes.getValue(1)).isEqualTo(" def");
+  }
+
+  @Test
+  void startElement_trimmedAttributesDoNotLeakIntoNextElement() throws Exception {
+    testSubject.startElement("", "E", "E", attributes(" a ", "b "));
+    testSubject.startElement("", "E", "E", attributes(" c"));
+
+    assertThat(receivedValues).containsExactly("a", "b", "c");
+    assertThat(received.get(1).getLength()).isEqualTo(1);
+  }
+
+  private static AttributesImpl attributes(String... values) {
+    var attributes = new AttributesImpl();
+    for (var i = 0; i < values.length; i++) {
+      attributes.addAttribute("", "A" + i, "A" + i, "CDATA", values[i]);
+    }
+    return attributes;
+  }
+}
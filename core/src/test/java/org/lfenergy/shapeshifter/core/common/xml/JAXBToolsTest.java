@@ -15,6 +15,10 @@ import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.util.JAXBResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.api.FlexRequest;
+import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.api.TestMessage;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.model.SigningDetails;
 import org.lfenergy.shapeshifter.core.model.UftpParticipant;
@@ -41,6 +45,16 @@ class JAXBToolsTest {
     assertThat(ctx3).isSameAs(ctx2);
   }
 
+  @Test
+  void getContext_uftpModelTypesShareOneContext() {
+    final JAXBContext signedMessageContext = jaxbTools.getJAXBContext(SignedMessage.class);
+
+    assertThat(jaxbTools.getJAXBContext(FlexRequest.class)).isSameAs(signedMessageContext);
+    assertThat(jaxbTools.getJAXBContext(TestMessage.class)).isSameAs(signedMessageContext);
+    assertThat(jaxbTools.getJAXBContext(PayloadMessageType.class)).isSameAs(signedMessageContext);
+    assertThat(jaxbTools.getJAXBContext(UftpParticipant.class)).isNotSameAs(signedMessageContext);
+  }
+
   @Test
   void getContextThrowsOnNull() {
     UftpConnectorException actual = assertThrows(UftpConnectorException.class, () -> jaxbTools.getJAXBContext(null));
@@ -110,4 +124,79 @@ class JAXBToolsTest {
 
     assertExceptionCauseNotNull(actual, "Failed to create JAXB Result for class: null");
   }
-}
\ No newline at end of file
+
+  @Test
+  void claimReleaseMarshaller_instanceIsReused() {
+    final Marshaller m1 = jaxbTools.claimMarshaller(UftpParticipant.class);
+    jaxbTools.releaseMarshaller(UftpParticipant.class, m1);
+    final Marshaller m2 = jaxbTools.claimMarshaller(UftpParticipant.class);
+    final Marshaller m3 = jaxbTools.claimMarshaller(UftpParticipant.class);
+
+    assertThat(m2).isSameAs(m1);
+    assertThat(m3).isNotSameAs(m1);
+  }
+
+  @Test
+  void claimReleaseUnmarshaller_instanceIsReused() {
+    final Unmarshaller u1 = jaxbTools.claimUnmarshaller(UftpParticipant.class);
+    jaxbTools.releaseUnmarshaller(UftpParticipant.class, u1);
+    final Unmarshaller u2 = jaxbTools.claimUnmarshaller(UftpParticipant.class);
+    final Unmarshaller u3 = jaxbTools.claimUnmarshaller(SigningDetails.class);
+
+    assertThat(u2).isSameAs(u1);
+    assertThat(u3).isNotSameAs(u1);
+  }
+
+  @Test
+  void claimReleaseMarshaller_uftpModelTypesSharePool() {
+    final Marshaller m1 = jaxbTools.claimMarshaller(FlexRequest.class);
+    jaxbTools.releaseMarshaller(FlexRequest.class, m1);
+
+    assertThat(jaxbTools.claimMarshaller(TestMessage.class)).isSameAs(m1);
+  }
+
+  @Test
+  void claimMarshaller_poolingDisabled_instanceIsNotReused() {
+    var testSubject = new JAXBTools(0);
+
+    final Marshaller m1 = testSubject.claimMarshaller(UftpParticipant.class);
+    testSubject.releaseMarshaller(UftpParticipant.class, m1);
+
+    assertThat(testSubject.claimMarshaller(UftpParticipant.class)).isNotSameAs(m1);
+  }
+
+  @Test
+  void prefill_instancesAreClaimedFromPool() {
+    var testSubject = new JAXBTools(2);
+
+    testSubject.prefill(UftpParticipant.class, 1);
+    final Marshaller m1 = testSubject.claimMarshaller(UftpParticipant.class);
+    final Unmarshaller u1 = testSubject.claimUnmarshaller(UftpParticipant.class);
+    testSubject.releaseMarshaller(UftpParticipant.class, m1);
+    testSubject.releaseUnmarshaller(UftpParticipant.class, u1);
+
+    assertThat(testSubject.claimMarshaller(UftpParticipant.class)).isSameAs(m1);
+    assertThat(testSubject.claimUnmarshaller(UftpParticipant.class)).isSameAs(u1);
+  }
+
+  @Test
+  void prefillThrowsOnNull() {
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () -> jaxbTools.prefill(null, 1));
+
+    assertThat(actual).hasMessage("Type to (de)serialize must be specified");
+  }
+
+  @Test
+  void claimMarshallerThrows() {
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () -> jaxbTools.claimMarshaller(null));
+
+    assertExceptionCauseNotNull(actual, "Failed to create JAXB Marshaller for class: null");
+  }
+
+  @Test
+  void claimUnmarshallerThrows() {
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () -> jaxbTools.claimUnmarshaller(null));
+
+    assertExceptionCauseNotNull(actual, "Failed to create JAXB unmarshaller for class: null");
+  }
+}
@@ -0,0 +1,70 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.common.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import javax.xml.parsers.SAXParserFactory;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+class XmlReaderPoolTest {
+
+  private final XmlReaderPool testSubject = new XmlReaderPool(saxParserFactory(), 2);
+
+  @Test
+  void create_attributeTrimmingFilterOnTopOfParser() {
+    var xmlReader = testSubject.claim();
+
+    assertThat(xmlReader).isInstanceOf(AttributeTrimmingFilter.class);
+    assertThat(((AttributeTrimmingFilter) xmlReader).getParent()).isInstanceOf(SchemaValidatingFilter.class);
+    assertThat(((SchemaValidatingFilter) ((AttributeTrimmingFilter) xmlReader).getParent()).getParent()).isNotNull();
+  }
+
+  @Test
+  void release_readerIsResetAndReused() throws Exception {
+    var xmlReader = testSubject.claim();
+    var handler = new DefaultHandler();
+    xmlReader.setContentHandler(handler);
+    xmlReader.setErrorHandler(handler);
+    xmlReader.parse(new InputSource(new StringReader("<A/>")));
+
+    testSubject.release(xmlReader);
+    var reused = testSubject.claim();
+
+    assertThat(reused).isSameAs(xmlReader);
+    assertThat(reused.getContentHandler()).isNull();
+    assertThat(reused.getErrorHandler()).isNull();
+    assertThat(reused.getDTDHandler()).isNull();
+    assertThat(reused.getEntityResolver()).isNull();
+  }
+
+  @Test
+  void reusedReader_keepsSecurityFeatures() throws Exception {
+    var xmlReader = testSubject.claim();
+    xmlReader.parse(new InputSource(new StringReader("<A/>")));
+    testSubject.release(xmlReader);
+
+    var reused = testSubject.claim();
+
+    assertThat(reused.getFeature("http://apache.org/xml/features/disallow-doctype-decl")).isTrue();
+    assertThatThrownBy(() -> reused.parse(new InputSource(new StringReader("<!DOCTYPE A []><A/>"))))
+        .isInstanceOf(SAXParseException.class);
+  }
+
+  private static SAXParserFactory saxParserFactory() {
+    try {
+      var saxParserFactory = SAXParserFactory.newInstance();
+      saxParserFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      return saxParserFactory;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
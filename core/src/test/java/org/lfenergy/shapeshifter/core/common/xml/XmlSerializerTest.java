@@ -6,15 +6,24 @@ package org.lfenergy.shapeshifter.core.common.xml;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.lfenergy.shapeshifter.core.common.xml.TestFileHelper.readXml;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.validation.Schema;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.lfenergy.shapeshifter.api.FlexRequest;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
 import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.api.xsdinfo.UftpXsds;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdFactory;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaFactoryPool;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
 import org.xml.sax.SAXParseException;
 
 class XmlSerializerTest {
@@ -25,6 +34,10 @@ class XmlSerializerTest {
   private static final String XXE_ATTACK_SSRF = "xml/xxe/FlexRequestResponse_with_XXE_Attack_SSRF.xml";
   private static final String XML_PROLOG = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
 
+  private static final String FLEX_REQUEST = "xml/FlexRequest.xml";
+  private static final XsdSchemaProvider SCHEMA_PROVIDER = new XsdSchemaProvider(new XsdFactory(new XsdSchemaFactoryPool()));
+  private static final Schema UFTP_SCHEMA = SCHEMA_PROVIDER.getSchema(UftpXsds.ALL.getUrl());
+
   private final XmlSerializer xmlSerializer = new XmlSerializer();
 
   @Test
@@ -55,6 +68,18 @@ class XmlSerializerTest {
     assertThat(flexRequest.getContractID()).isEqualTo("abc");
   }
 
+  @Test
+  void fromXml_reusedReader() {
+    assertThat(xmlSerializer.fromXml("<FlexRequest ContractID=\" abc\"/>", FlexRequest.class).getContractID()).isEqualTo("abc");
+    assertThatThrownBy(() -> xmlSerializer.fromXml(readXml(XXE_ATTACK), PayloadMessageType.class))
+        .isInstanceOf(UftpConnectorException.class);
+
+    assertThat(xmlSerializer.fromXml("<FlexRequest ContractID=\"def\"/>", FlexRequest.class).getContractID()).isEqualTo("def");
+    assertThatThrownBy(() -> xmlSerializer.fromXml(readXml(XXE_ATTACK_SSRF), PayloadMessageType.class))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasRootCauseInstanceOf(SAXParseException.class);
+  }
+
   @Test
   void fromXml_PayloadMessage_with_prolog() {
     var flexRequest = xmlSerializer.fromXml(XML_PROLOG + FLEX_REQUEST_XML, FlexRequest.class);
@@ -62,6 +87,34 @@ class XmlSerializerTest {
     assertThat(flexRequest).isNotNull();
   }
 
+  @Test
+  void fromXml_bytes_multiByteCharacters() {
+    var xml = "<FlexRequest ContractID=\"caf\u00e9 \u20ac\"/>".getBytes(StandardCharsets.UTF_8);
+
+    var flexRequest = xmlSerializer.fromXml(xml, FlexRequest.class);
+
+    assertThat(flexRequest.getContractID()).isEqualTo("caf\u00e9 \u20ac");
+  }
+
+  @Test
+  void fromXml_inputStream() {
+    var xml = new ByteArrayInputStream(FLEX_REQUEST_XML.getBytes(StandardCharsets.UTF_8));
+
+    var flexRequest = xmlSerializer.fromXml(xml, FlexRequest.class);
+
+    assertThat(flexRequest).isNotNull();
+  }
+
+  @Test
+  void toXmlBytes_PayloadMessage() {
+    var flexRequest = new FlexRequest();
+    flexRequest.setContractID("caf\u00e9");
+
+    var xml = xmlSerializer.toXmlBytes(flexRequest);
+
+    assertThat(new String(xml, StandardCharsets.UTF_8)).isEqualTo(XML_PROLOG + "<FlexRequest Revision=\"0\" ContractID=\"caf\u00e9\"/>");
+  }
+
   @Test
   void toXml_SignedMessage() {
     var xml = xmlSerializer.toXml(new SignedMessage());
@@ -76,6 +129,65 @@ class XmlSerializerTest {
     assertThat(xml).isEqualTo(XML_PROLOG + "<FlexRequest Revision=\"0\"/>");
   }
 
+  @Test
+  void fromXml_PayloadMessageType_resolvesConcreteType() {
+    assertThat(xmlSerializer.fromXml(FLEX_REQUEST_XML, PayloadMessageType.class)).isInstanceOf(FlexRequest.class);
+  }
+
+  @Test
+  void fromXml_unexpectedRootElement() {
+    assertThatThrownBy(() -> xmlSerializer.fromXml(SIGNED_MESSAGE_XML, FlexRequest.class))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("Failed to unmarshal XML to FlexRequest instance. Unexpected root element type: SignedMessage");
+  }
+
+  @Test
+  void fromXml_withSchema_valid() {
+    var xml = readXml(FLEX_REQUEST).replace("<FlexRequest", "<FlexRequest Version=\"3.0.0\"");
+
+    var flexRequest = xmlSerializer.fromXml(xml, FlexRequest.class, UFTP_SCHEMA);
+
+    assertThat(flexRequest.getVersion()).isEqualTo("3.0.0");
+  }
+
+  @Test
+  void fromXml_withSchema_invalid() {
+    assertThatThrownBy(() -> xmlSerializer.fromXml(FLEX_REQUEST_XML, FlexRequest.class, UFTP_SCHEMA))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasRootCauseInstanceOf(SAXParseException.class)
+        .hasRootCauseMessage("cvc-complex-type.4: Attribute 'Revision' must appear on element 'FlexRequest'.");
+  }
+
+  @Test
+  void fromXml_withSchema_paddedAttributeRejectedLikeSeparateValidation() {
+    var xml = readXml(FLEX_REQUEST).replace("<FlexRequest", "<FlexRequest Version=\"3.0.0\"")
+                                   .replace("MessageID=\"d3ae4836-55b1-4084-b54e-34107b22648c\"", "MessageID=\" d3ae4836-55b1-4084-b54e-34107b22648c \"");
+    var separateValidation = assertThrows(UftpConnectorException.class, () -> new XsdValidator(SCHEMA_PROVIDER).validate(xml, UftpXsds.ALL.getUrl()));
+
+    // The attribute is validated as received, before it is trimmed for binding
+    assertThatThrownBy(() -> xmlSerializer.fromXml(xml, FlexRequest.class, UFTP_SCHEMA))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasRootCauseInstanceOf(SAXParseException.class)
+        .hasRootCauseMessage(separateValidation.getCause().getMessage());
+    assertThat(separateValidation.getCause().getMessage()).startsWith("cvc-pattern-valid");
+  }
+
+  @Test
+  void fromXml_withSchema_thenWithout_readerDoesNotValidate() {
+    assertThatThrownBy(() -> xmlSerializer.fromXml(FLEX_REQUEST_XML, FlexRequest.class, UFTP_SCHEMA))
+        .isInstanceOf(UftpConnectorException.class);
+
+    assertThat(xmlSerializer.fromXml("<FlexRequest ContractID=\" abc \"/>", FlexRequest.class).getContractID()).isEqualTo("abc");
+  }
+
+  @Test
+  void fromXml_schemaIsNotRetainedByPooledUnmarshaller() {
+    assertThatThrownBy(() -> xmlSerializer.fromXml(FLEX_REQUEST_XML, FlexRequest.class, UFTP_SCHEMA))
+        .isInstanceOf(UftpConnectorException.class);
+
+    assertThat(xmlSerializer.fromXml(FLEX_REQUEST_XML, FlexRequest.class)).isNotNull();
+  }
+
   @ParameterizedTest
   @ValueSource(strings = {
       XXE_ATTACK,
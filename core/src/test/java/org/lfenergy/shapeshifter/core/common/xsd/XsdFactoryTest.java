@@ -5,13 +5,20 @@
 package org.lfenergy.shapeshifter.core.common.xsd;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.lfenergy.shapeshifter.core.UftpTestSupport.assertException;
 import static org.lfenergy.shapeshifter.core.UftpTestSupport.assertExceptionCauseNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,10 +26,15 @@ import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
 
 @ExtendWith(MockitoExtension.class)
 class XsdFactoryTest {
 
+  private static final String XXE_ATTACK = "xml/xxe/FlexRequestResponse_with_XXE_Attack.xml";
+  private static final String XXE_ATTACK_SSRF = "xml/xxe/FlexRequestResponse_with_XXE_Attack_SSRF.xml";
+
   @Mock
   private XsdSchemaFactoryPool factoryPool;
 
@@ -31,24 +43,52 @@ class XsdFactoryTest {
 
   @Mock
   private IOException ioException;
+  @Mock
+  private SchemaFactory factory;
+  @Mock
+  private Schema schema;
 
   @AfterEach
   void noMore() {
-    verifyNoMoreInteractions(factoryPool, ioException);
+    verifyNoMoreInteractions(factoryPool, ioException, factory, schema);
   }
 
   @Test
-  void newXsdSchemaPool() throws Exception {
+  void newSchema() throws Exception {
+    given(factoryPool.claim()).willReturn(factory);
+
     var url = new URL("file:///test.xsd");
-    final XsdSchemaPool v1 = testSubject.newXsdSchemaPool(url);
-    final XsdSchemaPool v2 = testSubject.newXsdSchemaPool(url);
+    given(factory.newSchema(url)).willReturn(schema);
 
-    assertThat(v1).isNotNull();
-    assertThat(v2).isNotNull();
-    assertThat(v2).isNotSameAs(v1);
+    assertThat(testSubject.newSchema(url)).isSameAs(schema);
 
-    assertThat(v1.getXsd()).isEqualTo(url);
-    assertThat(v1.getFactoryPool()).isSameAs(factoryPool);
+    verify(factoryPool).release(factory);
+  }
+
+  @Test
+  void newSchema_throws() throws Exception {
+    given(factoryPool.claim()).willReturn(factory);
+
+    var url = new URL("file:///test.xsd");
+
+    var saxException = new SAXException("test");
+    given(factory.newSchema(any(URL.class))).willThrow(saxException);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () -> testSubject.newSchema(url));
+
+    assertException(actual, "Creating new schema instance failed for XSD: file:/test.xsd", saxException);
+
+    verify(factoryPool).release(factory);
+  }
+
+  @Test
+  void newSchema_violate_xxe_then_fail() {
+    doTestXXE(XXE_ATTACK, "not allowed");
+  }
+
+  @Test
+  void newSchema_violate_xxe_ssrf_then_fail() {
+    doTestXXE(XXE_ATTACK_SSRF, "not allowed");
   }
 
   @Test
@@ -68,4 +108,17 @@ class XsdFactoryTest {
 
     assertExceptionCauseNotNull(actual, "Failed to read file content from 'not exist.file'.");
   }
+
+  private void doTestXXE(String fileName, String errorMessage) {
+    var xsdFactory = new XsdFactory(new XsdSchemaFactoryPool());
+
+    var url = this.getClass().getClassLoader().getResource(fileName);
+
+    assertThatThrownBy((() ->
+        xsdFactory.newSchema(url)))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasRootCauseInstanceOf(SAXParseException.class)
+        .rootCause()
+        .hasMessageContaining(errorMessage);
+  }
 }
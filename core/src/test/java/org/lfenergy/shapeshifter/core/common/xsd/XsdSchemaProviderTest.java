@@ -4,21 +4,25 @@
 
 package org.lfenergy.shapeshifter.core.common.xsd;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.File;
-import java.io.InputStream;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import javax.xml.XMLConstants;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.Validator;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -33,47 +37,37 @@ class XsdSchemaProviderTest {
   @Mock
   private XsdFactory xsdFactory;
 
-  @InjectMocks
   private XsdSchemaProvider testSubject;
 
-  @Mock
-  private File xsd1File, xsd2File;
-  @Mock
-  private InputStream xsd1Stream, xsd2Stream;
-  @Mock
-  private XsdSchemaPool pool1, pool2;
   @Mock
   private Schema schema1, schema2;
   @Mock
-  private Validator validator;
+  private Validator validator1, validator2;
+
+  @BeforeEach
+  void setUp() {
+    testSubject = new XsdSchemaProvider(xsdFactory);
+  }
 
   @AfterEach
   void noMore() {
     Mockito.verifyNoMoreInteractions(
         xsdFactory,
-        xsd1File,
-        xsd2File,
-        xsd1Stream,
-        xsd2Stream,
-        pool1,
-        pool2,
         schema1,
         schema2
     );
   }
 
   @Test
-  void multipleCalls() throws Exception {
+  void multipleCalls_compileEachXsdOnce() throws Exception {
     var xsd1 = new URL("file:///one.xsd");
     var xsd2 = new URL("file:///two.xsd");
 
-    given(xsdFactory.newXsdSchemaPool(xsd1)).willReturn(pool1);
-    given(pool1.claim()).willReturn(schema1);
-    given(schema1.newValidator()).willReturn(validator);
+    given(xsdFactory.newSchema(xsd1)).willReturn(schema1);
+    given(schema1.newValidator()).willReturn(validator1);
 
-    given(xsdFactory.newXsdSchemaPool(xsd2)).willReturn(pool2);
-    given(pool2.claim()).willReturn(schema2);
-    given(schema2.newValidator()).willReturn(validator);
+    given(xsdFactory.newSchema(xsd2)).willReturn(schema2);
+    given(schema2.newValidator()).willReturn(validator2);
 
     testSubject.getValidator(xsd1);
     testSubject.getValidator(xsd1);
@@ -82,15 +76,97 @@ class XsdSchemaProviderTest {
     testSubject.getValidator(xsd2);
     testSubject.getValidator(xsd2);
 
-    verify(xsdFactory).newXsdSchemaPool(xsd1);
-    verify(pool1, times(2)).claim();
+    verify(xsdFactory).newSchema(xsd1);
     verify(schema1, times(2)).newValidator();
-    verify(pool1, times(2)).release(schema1);
 
-    verify(xsdFactory).newXsdSchemaPool(xsd2);
-    verify(pool2, times(3)).claim();
+    verify(xsdFactory).newSchema(xsd2);
     verify(schema2, times(3)).newValidator();
-    verify(pool2, times(3)).release(schema2);
+  }
+
+  @Test
+  void getSchema() throws Exception {
+    var xsd = new URL("file:///three.xsd");
+
+    given(xsdFactory.newSchema(xsd)).willReturn(schema1);
+
+    assertThat(testSubject.getSchema(xsd)).isSameAs(schema1);
+    assertThat(testSubject.getSchema(xsd)).isSameAs(schema1);
+
+    verify(xsdFactory).newSchema(xsd);
+  }
+
+  @Test
+  void precompile() throws Exception {
+    var xsd1 = new URL("file:///one.xsd");
+    var xsd2 = new URL("file:///two.xsd");
+
+    given(xsdFactory.newSchema(xsd1)).willReturn(schema1);
+    given(xsdFactory.newSchema(xsd2)).willReturn(schema2);
+
+    testSubject.precompile(xsd1, xsd2);
+    testSubject.getSchema(xsd1);
+
+    verify(xsdFactory).newSchema(xsd1);
+    verify(xsdFactory).newSchema(xsd2);
+  }
+
+  @Test
+  void claimAndRelease_reusesValidator() throws Exception {
+    var xsd = new URL("file:///one.xsd");
+
+    given(xsdFactory.newSchema(xsd)).willReturn(schema1);
+    given(schema1.newValidator()).willReturn(validator1);
+
+    var claimed = testSubject.claimValidator(xsd);
+    testSubject.releaseValidator(xsd, claimed);
+
+    assertThat(testSubject.claimValidator(xsd)).isSameAs(claimed);
+
+    verify(xsdFactory).newSchema(xsd);
+    verify(schema1).newValidator();
+    verify(validator1).setErrorHandler(null);
+    verify(validator1).setResourceResolver(null);
+    verify(validator1, times(2)).setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+    verify(validator1, times(2)).setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+  }
+
+  @Test
+  void prefillValidators() throws Exception {
+    var xsd = new URL("file:///one.xsd");
+
+    given(xsdFactory.newSchema(xsd)).willReturn(schema1);
+    given(schema1.newValidator()).willReturn(validator1, validator2);
+
+    assertThat(testSubject.prefillValidators(xsd, 2)).isEqualTo(2);
+    assertThat(testSubject.claimValidator(xsd)).isSameAs(validator1);
+    assertThat(testSubject.claimValidator(xsd)).isSameAs(validator2);
+
+    verify(xsdFactory).newSchema(xsd);
+    verify(schema1, times(2)).newValidator();
+  }
+
+  @Test
+  void releaseValidator_null_isIgnored() throws Exception {
+    testSubject.releaseValidator(new URL("file:///one.xsd"), null);
+  }
+
+  @Test
+  void concurrentCalls_compileOnce() throws Exception {
+    var xsd = new URL("file:///one.xsd");
+    given(xsdFactory.newSchema(xsd)).willReturn(schema1);
+
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var futures = IntStream.range(0, 32)
+                             .mapToObj(i -> CompletableFuture.supplyAsync(() -> testSubject.getSchema(xsd), executor))
+                             .toList();
+
+      futures.forEach(future -> assertThat(future.join()).isSameAs(schema1));
+    } finally {
+      executor.shutdown();
+    }
+
+    verify(xsdFactory).newSchema(xsd);
   }
 
   @Test
@@ -105,6 +181,23 @@ class XsdSchemaProviderTest {
               "Failed to read external document '', because 'http' access is not allowed due to restriction set by the accessExternalDTD property");
   }
 
+  @Test
+  void test_violate_XXE_withReusedValidator_then_fail() {
+    var xsdSchemaProvider = new XsdSchemaProvider(new XsdFactory(new XsdSchemaFactoryPool()));
+    var xsdUrl = this.getClass().getClassLoader().getResource("UFTP.xsd");
+    var validator = xsdSchemaProvider.claimValidator(xsdUrl);
+    xsdSchemaProvider.releaseValidator(xsdUrl, validator);
+
+    var reusedValidator = xsdSchemaProvider.claimValidator(xsdUrl);
+    var xmlFile = this.getClass().getClassLoader().getResource(XXE_ATTACK);
+    var xmlStreamSource = new StreamSource(new File(xmlFile.getFile()));
+
+    assertThat(reusedValidator).isSameAs(validator);
+    assertThatThrownBy(() -> reusedValidator.validate(xmlStreamSource))
+        .isInstanceOf(SAXParseException.class)
+        .hasMessageContaining("because 'file' access is not allowed due to restriction set by the accessExternalDTD property");
+  }
+
   private void doTestXXE(String fileName, String errorMessage) {
     var xsdFactory = new XsdFactory(new XsdSchemaFactoryPool());
     var xsdSchemaProvider = new XsdSchemaProvider(xsdFactory);
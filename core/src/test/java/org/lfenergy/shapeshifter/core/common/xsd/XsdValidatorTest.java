@@ -4,6 +4,7 @@
 
 package org.lfenergy.shapeshifter.core.common.xsd;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.lfenergy.shapeshifter.core.UftpTestSupport.assertException;
 import static org.mockito.ArgumentMatchers.any;
@@ -15,6 +16,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import javax.xml.transform.Source;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
@@ -57,16 +59,35 @@ class XsdValidatorTest {
   @Test
   void validateXsd() throws Exception {
     var url = new URL("file:///test.xsd");
-    given(schemaProvider.getValidator(url)).willReturn(validator);
+    given(schemaProvider.claimValidator(url)).willReturn(validator);
     testSubject.validate("xml", url);
 
     verify(validator).validate(any(Source.class));
+    verify(schemaProvider).releaseValidator(url, validator);
+  }
+
+  @Test
+  void getSchema() throws Exception {
+    var url = new URL("file:///test.xsd");
+    given(schemaProvider.getSchema(url)).willReturn(schema);
+
+    assertThat(testSubject.getSchema(url)).isSameAs(schema);
+  }
+
+  @Test
+  void validateXsdBytes() throws Exception {
+    var url = new URL("file:///test.xsd");
+    given(schemaProvider.claimValidator(url)).willReturn(validator);
+    testSubject.validate("xml".getBytes(StandardCharsets.UTF_8), url);
+
+    verify(validator).validate(any(Source.class));
+    verify(schemaProvider).releaseValidator(url, validator);
   }
 
   @Test
   void validateXsdThrows() throws Exception {
     var url = new URL("file:///test.xsd");
-    given(schemaProvider.getValidator(url)).willReturn(validator);
+    given(schemaProvider.claimValidator(url)).willReturn(validator);
 
     var ioException = new IOException("test");
     doThrow(ioException).when(validator).validate(any(Source.class));
@@ -75,5 +96,6 @@ class XsdValidatorTest {
         testSubject.validate("xml", url));
 
     assertException(actual, "XSD validation failed: test", ioException, 400);
+    verify(schemaProvider).releaseValidator(url, validator);
   }
 }
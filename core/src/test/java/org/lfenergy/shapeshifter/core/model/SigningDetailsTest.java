@@ -10,6 +10,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpSigningKey;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -23,10 +24,12 @@ class SigningDetailsTest {
   private UftpParticipant sender;
   @Mock
   private UftpParticipant recipient;
+  @Mock
+  private UftpSigningKey signingKey;
 
   @AfterEach
   void noMore() {
-    verifyNoMoreInteractions(sender, recipient);
+    verifyNoMoreInteractions(sender, recipient, signingKey);
   }
 
   @Test
@@ -36,5 +39,16 @@ class SigningDetailsTest {
     assertThat(testSubject.sender()).isSameAs(sender);
     assertThat(testSubject.senderPrivateKey()).isEqualTo(PRIVATE_KEY);
     assertThat(testSubject.recipient()).isSameAs(recipient);
+    assertThat(testSubject.senderSigningKey()).isNull();
+  }
+
+  @Test
+  void construction_withSigningKey() {
+    var testSubject = new SigningDetails(sender, signingKey, recipient);
+
+    assertThat(testSubject.sender()).isSameAs(sender);
+    assertThat(testSubject.senderPrivateKey()).isNull();
+    assertThat(testSubject.recipient()).isSameAs(recipient);
+    assertThat(testSubject.senderSigningKey()).isSameAs(signingKey);
   }
 }
\ No newline at end of file
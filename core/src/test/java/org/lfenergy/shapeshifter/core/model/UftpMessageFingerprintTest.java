@@ -0,0 +1,43 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class UftpMessageFingerprintTest {
+
+  private static final byte[] PAYLOAD_XML = "<FlexRequest/>".getBytes(StandardCharsets.UTF_8);
+  private static final String PAYLOAD_XML_SHA_256 = "65fae5806d2fef91ba9268244f88be9bfa1d0d738c1602c1dcccca588fe431e4";
+
+  @Test
+  void of_sameContent() {
+    assertThat(UftpMessageFingerprint.of(PAYLOAD_XML))
+        .isEqualTo(UftpMessageFingerprint.of("<FlexRequest/>".getBytes(StandardCharsets.UTF_8)))
+        .hasSameHashCodeAs(UftpMessageFingerprint.of(PAYLOAD_XML));
+  }
+
+  @Test
+  void of_otherContent() {
+    assertThat(UftpMessageFingerprint.of(PAYLOAD_XML)).isNotEqualTo(UftpMessageFingerprint.of("<FlexRequest />".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void toHex() {
+    assertThat(UftpMessageFingerprint.of(PAYLOAD_XML).toHex()).isEqualTo(PAYLOAD_XML_SHA_256);
+  }
+
+  @Test
+  void fromHex() {
+    assertThat(UftpMessageFingerprint.fromHex(PAYLOAD_XML_SHA_256)).isEqualTo(UftpMessageFingerprint.of(PAYLOAD_XML));
+  }
+
+  @Test
+  void toString_containsHex() {
+    assertThat(UftpMessageFingerprint.of(PAYLOAD_XML)).hasToString("UftpMessageFingerprint[" + PAYLOAD_XML_SHA_256 + "]");
+  }
+}
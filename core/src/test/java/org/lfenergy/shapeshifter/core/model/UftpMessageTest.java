@@ -4,6 +4,7 @@
 
 package org.lfenergy.shapeshifter.core.model;
 
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 import org.lfenergy.shapeshifter.api.FlexOffer;
 import org.lfenergy.shapeshifter.api.FlexRequest;
@@ -32,6 +33,31 @@ class UftpMessageTest {
     assertThat(uftpMessage.sender()).isSameAs(sender);
     assertThat(uftpMessage.signedMessageXml()).isEqualTo(signedMessageXml);
     assertThat(uftpMessage.payloadMessageXml()).isEqualTo(payloadMessageXml);
+    assertThat(uftpMessage.payloadMessageXmlBytes()).isEqualTo(payloadMessageXml.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void createIncomingFromBytes() {
+    var sender = new UftpParticipant(DSO_DOMAIN, USEFRoleType.DSO);
+    var payloadMessage = new FlexRequest();
+    var signedMessageXml = "<SignedMessage/>".getBytes(StandardCharsets.UTF_8);
+    var payloadMessageXml = "<FlexRequest ContractID=\"caf\u00e9\"/>".getBytes(StandardCharsets.UTF_8);
+
+    var uftpMessage = IncomingUftpMessage.createFromBytes(sender, payloadMessage, signedMessageXml, payloadMessageXml);
+
+    assertThat(uftpMessage.signedMessageXmlBytes()).isSameAs(signedMessageXml);
+    assertThat(uftpMessage.payloadMessageXmlBytes()).isSameAs(payloadMessageXml);
+    assertThat(uftpMessage.signedMessageXml()).isEqualTo("<SignedMessage/>");
+    assertThat(uftpMessage.payloadMessageXml()).isEqualTo("<FlexRequest ContractID=\"caf\u00e9\"/>");
+  }
+
+  @Test
+  void fingerprint() {
+    var payloadMessageXml = "<FlexRequest/>";
+    var uftpMessage = IncomingUftpMessage.create(new UftpParticipant(DSO_DOMAIN, USEFRoleType.DSO), new FlexRequest(), "<SignedMessage/>", payloadMessageXml);
+
+    assertThat(uftpMessage.fingerprint()).isEqualTo(UftpMessageFingerprint.of(payloadMessageXml.getBytes(StandardCharsets.UTF_8)))
+                                         .isSameAs(uftpMessage.fingerprint());
   }
 
   @Test
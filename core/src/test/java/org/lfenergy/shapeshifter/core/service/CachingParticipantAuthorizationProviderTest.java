@@ -0,0 +1,227 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CachingParticipantAuthorizationProviderTest {
+
+  private static final UftpParticipant PARTICIPANT = new UftpParticipant("example.com", USEFRoleType.DSO);
+  private static final UftpParticipant OTHER_PARTICIPANT = new UftpParticipant("example.org", USEFRoleType.AGR);
+  private static final CacheSettings SETTINGS = new CacheSettings(2, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ZERO);
+
+  @Mock
+  private ParticipantAuthorizationProvider delegate;
+  @Mock
+  private Clock clock;
+
+  private final List<Runnable> refreshes = new ArrayList<>();
+  private final Executor refreshExecutor = refreshes::add;
+
+  private CachingParticipantAuthorizationProvider testSubject;
+
+  @BeforeEach
+  void setUp() {
+    testSubject = new CachingParticipantAuthorizationProvider(delegate, SETTINGS, refreshExecutor, clock);
+  }
+
+  @AfterEach
+  void noMore() {
+    verifyNoMoreInteractions(delegate);
+  }
+
+  @Test
+  void getAuthorizationHeader_fetchesOnce() {
+    givenTime(0);
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", null));
+
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 1");
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 1");
+
+    verify(delegate).getAuthorization(PARTICIPANT);
+    assertThat(testSubject.stats()).isEqualTo(new CacheStats(1, 1, 0, 0));
+  }
+
+  @Test
+  void getAuthorizationHeader_unknownExpiry_usedForTtl() {
+    givenTime(0);
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", null), new AuthorizationHeader("Bearer 2", null));
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+
+    givenTime(Duration.ofMinutes(5).toMillis());
+
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 2");
+    verify(delegate, times(2)).getAuthorization(PARTICIPANT);
+  }
+
+  @Test
+  void getAuthorizationHeader_knownExpiry_usedUntilTokenExpires() {
+    givenTime(0);
+    var expiresAt = Instant.ofEpochMilli(Duration.ofHours(1).toMillis());
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", expiresAt));
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+
+    givenTime(Duration.ofMinutes(30).toMillis());
+
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 1");
+    assertThat(refreshes).isEmpty();
+    verify(delegate).getAuthorization(PARTICIPANT);
+  }
+
+  @Test
+  void getAuthorizationHeader_aboutToExpire_refreshesInBackgroundOnce() {
+    givenTime(0);
+    var expiresAt = Instant.ofEpochMilli(Duration.ofMinutes(10).toMillis());
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", expiresAt), new AuthorizationHeader("Bearer 2", null));
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+
+    givenTime(Duration.ofMinutes(10).minusSeconds(10).toMillis());
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 1");
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 1");
+    assertThat(refreshes).hasSize(1);
+
+    refreshes.get(0).run();
+
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 2");
+    verify(delegate, times(2)).getAuthorization(PARTICIPANT);
+    assertThat(testSubject.stats().refreshes()).isEqualTo(1);
+  }
+
+  @Test
+  void getAuthorizationHeader_refreshFails_keepsCurrentHeader() {
+    givenTime(0);
+    var expiresAt = Instant.ofEpochMilli(Duration.ofMinutes(10).toMillis());
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", expiresAt)).willThrow(new IllegalStateException("down"));
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+    givenTime(Duration.ofMinutes(10).minusSeconds(10).toMillis());
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+
+    refreshes.get(0).run();
+
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 1");
+    verify(delegate, times(2)).getAuthorization(PARTICIPANT);
+  }
+
+  @Test
+  void getAuthorizationHeader_failureIsNotCached() {
+    givenTime(0);
+    given(delegate.getAuthorization(PARTICIPANT)).willThrow(new IllegalStateException("down")).willReturn(new AuthorizationHeader("Bearer 1", null));
+
+    assertThrows(IllegalStateException.class, () -> testSubject.getAuthorizationHeader(PARTICIPANT));
+
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 1");
+    verify(delegate, times(2)).getAuthorization(PARTICIPANT);
+  }
+
+  @Test
+  void getAuthorizationHeader_concurrentRequests_shareOneFetch() throws Exception {
+    givenTime(0);
+    var fetching = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var fetches = new AtomicInteger();
+    testSubject = new CachingParticipantAuthorizationProvider(new ParticipantAuthorizationProvider() {
+      @Override
+      public String getAuthorizationHeader(UftpParticipant participant) {
+        fetches.incrementAndGet();
+        fetching.countDown();
+        await(release);
+        return "Bearer 1";
+      }
+    }, SETTINGS, refreshExecutor, clock);
+
+    var first = CompletableFuture.supplyAsync(() -> testSubject.getAuthorizationHeader(PARTICIPANT));
+    assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+    var second = CompletableFuture.supplyAsync(() -> testSubject.getAuthorizationHeader(PARTICIPANT));
+    Thread.sleep(50);
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Bearer 1");
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("Bearer 1");
+    assertThat(fetches).hasValue(1);
+  }
+
+  @Test
+  void invalidateAuthorizationHeader_fetchesAgain() {
+    givenTime(0);
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", null), new AuthorizationHeader("Bearer 2", null));
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+
+    assertThat(testSubject.invalidateAuthorizationHeader(PARTICIPANT)).isTrue();
+
+    assertThat(testSubject.getAuthorizationHeader(PARTICIPANT)).isEqualTo("Bearer 2");
+    verify(delegate).invalidateAuthorizationHeader(PARTICIPANT);
+    verify(delegate, times(2)).getAuthorization(PARTICIPANT);
+  }
+
+  @Test
+  void getAuthorizationHeader_full_evictsFirstToExpire() {
+    givenTime(0);
+    var third = new UftpParticipant("example.net", USEFRoleType.CRO);
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", Instant.ofEpochMilli(1_000)));
+    given(delegate.getAuthorization(OTHER_PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 2", Instant.ofEpochMilli(2_000)));
+    given(delegate.getAuthorization(third)).willReturn(new AuthorizationHeader("Bearer 3", Instant.ofEpochMilli(3_000)));
+
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+    testSubject.getAuthorizationHeader(OTHER_PARTICIPANT);
+    testSubject.getAuthorizationHeader(third);
+
+    assertThat(testSubject.size()).isEqualTo(2);
+    assertThat(testSubject.stats().evictions()).isEqualTo(1);
+    verify(delegate).getAuthorization(PARTICIPANT);
+    verify(delegate).getAuthorization(OTHER_PARTICIPANT);
+    verify(delegate).getAuthorization(third);
+  }
+
+  @Test
+  void invalidateAll() {
+    givenTime(0);
+    given(delegate.getAuthorization(PARTICIPANT)).willReturn(new AuthorizationHeader("Bearer 1", null));
+    testSubject.getAuthorizationHeader(PARTICIPANT);
+
+    testSubject.invalidateAll();
+
+    assertThat(testSubject.size()).isZero();
+    verify(delegate).getAuthorization(PARTICIPANT);
+  }
+
+  private void givenTime(long millis) {
+    given(clock.millis()).willReturn(millis);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
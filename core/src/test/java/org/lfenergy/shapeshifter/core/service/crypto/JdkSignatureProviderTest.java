@@ -0,0 +1,95 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.shapeshifter.core.tools.UftpKeyPairTool;
+
+class JdkSignatureProviderTest {
+
+  private static final byte[] MESSAGE = "<TestMessage/>".getBytes(StandardCharsets.UTF_8);
+
+  private final JdkSignatureProvider testSubject = new JdkSignatureProvider();
+  private final LazySodiumSignatureProvider libsodium = new LazySodiumSignatureProvider(new LazySodiumBase64Pool());
+
+  // Every key pair has a different sign bit and y-coordinate, so repeat to cover both encodings of the x-coordinate
+  @RepeatedTest(8)
+  void sign_sameAsLibsodium() {
+    var keyPair = keyPair();
+
+    assertThat(testSubject.sign(MESSAGE, keyPair.secretKey())).isEqualTo(libsodium.sign(MESSAGE, keyPair.secretKey()));
+  }
+
+  @RepeatedTest(8)
+  void open_signedByLibsodium() {
+    var keyPair = keyPair();
+
+    assertThat(testSubject.open(libsodium.sign(MESSAGE, keyPair.secretKey()), keyPair.publicKey())).isEqualTo(MESSAGE);
+  }
+
+  @RepeatedTest(8)
+  void libsodiumOpens_signedByJdk() {
+    var keyPair = keyPair();
+
+    assertThat(libsodium.open(testSubject.sign(MESSAGE, keyPair.secretKey()), keyPair.publicKey())).isEqualTo(MESSAGE);
+  }
+
+  @Test
+  void sign_emptyMessage() {
+    var keyPair = keyPair();
+
+    var signedMessage = testSubject.sign(new byte[0], keyPair.secretKey());
+
+    assertThat(signedMessage).hasSize(UftpSignatureProvider.SIGNATURE_BYTES);
+    assertThat(testSubject.open(signedMessage, keyPair.publicKey())).isEmpty();
+  }
+
+  @Test
+  void open_tampered() {
+    var keyPair = keyPair();
+    var signedMessage = testSubject.sign(MESSAGE, keyPair.secretKey());
+    signedMessage[signedMessage.length - 1] ^= 1;
+
+    assertThat(testSubject.open(signedMessage, keyPair.publicKey())).isNull();
+  }
+
+  @Test
+  void open_otherPublicKey() {
+    var signedMessage = testSubject.sign(MESSAGE, keyPair().secretKey());
+
+    assertThat(testSubject.open(signedMessage, keyPair().publicKey())).isNull();
+  }
+
+  @Test
+  void open_shorterThanSignature() {
+    assertThat(testSubject.open(new byte[UftpSignatureProvider.SIGNATURE_BYTES - 1], keyPair().publicKey())).isNull();
+  }
+
+  @Test
+  void open_publicKeyNotOnCurve() {
+    var keyPair = keyPair();
+    var signedMessage = testSubject.sign(MESSAGE, keyPair.secretKey());
+    // y = 2 is not the y-coordinate of a point on edwards25519
+    var publicKey = new byte[UftpSignatureProvider.PUBLIC_KEY_BYTES];
+    publicKey[0] = 2;
+
+    assertThat(testSubject.open(signedMessage, publicKey)).isNull();
+    assertThat(libsodium.open(signedMessage, publicKey)).isNull();
+  }
+
+  private static RawKeyPair keyPair() {
+    var keyPair = UftpKeyPairTool.generateKeyPair();
+    return new RawKeyPair(Base64.getDecoder().decode(keyPair.publicKey()), Base64.getDecoder().decode(keyPair.privateKey()));
+  }
+
+  private record RawKeyPair(byte[] publicKey, byte[] secretKey) {
+
+  }
+}
@@ -5,12 +5,16 @@
 package org.lfenergy.shapeshifter.core.service.crypto;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.goterl.lazysodium.LazySodiumJava;
 import com.goterl.lazysodium.SodiumJava;
 import com.goterl.lazysodium.utils.Base64MessageEncoder;
 import java.lang.reflect.Field;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
+import org.lfenergy.shapeshifter.core.common.collection.InstancePoolSettings;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 
 class LazySodiumBase64PoolTest {
 
@@ -47,4 +51,22 @@ class LazySodiumBase64PoolTest {
     assertThat(v2).isNotNull();
     assertThat(v2).isSameAs(v1);
   }
-}
\ No newline at end of file
+
+  @Test
+  void boundedAtMaxSize() {
+    final LazySodiumBase64Pool testSubject = new LazySodiumBase64Pool(new InstancePoolSettings(0, 1, Duration.ZERO, Duration.ZERO));
+    final LazySodiumJava v1 = testSubject.claim();
+
+    assertThatThrownBy(testSubject::claim).isInstanceOf(UftpConnectorException.class);
+    testSubject.release(v1);
+    assertThat(testSubject.claim()).isSameAs(v1);
+  }
+
+  @Test
+  void defaultSettings() {
+    final LazySodiumBase64Pool testSubject = new LazySodiumBase64Pool();
+
+    assertThat(testSubject.getSettings()).isEqualTo(LazySodiumBase64Pool.DEFAULT_SETTINGS);
+    assertThat(testSubject.getSettings().maxSize()).isGreaterThanOrEqualTo(8);
+  }
+}
@@ -0,0 +1,141 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.goterl.lazysodium.LazySodiumJava;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LazySodiumSignatureProviderTest {
+
+  private static final byte[] MESSAGE = "PAYLOAD_XML".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] SIGNED_MESSAGE = ("SIGNATURE".repeat(8).substring(0, UftpSignatureProvider.SIGNATURE_BYTES) + "PAYLOAD_XML")
+      .getBytes(StandardCharsets.UTF_8);
+  private static final byte[] SECRET_KEY = new byte[UftpSignatureProvider.SECRET_KEY_BYTES];
+  private static final byte[] PUBLIC_KEY = new byte[UftpSignatureProvider.PUBLIC_KEY_BYTES];
+
+  @Mock
+  private LazySodiumBase64Pool lazySodiumInstancePool;
+
+  @InjectMocks
+  private LazySodiumSignatureProvider testSubject;
+
+  @Mock
+  private LazySodiumJava lazySodium;
+  @Mock
+  private RuntimeException runtimeException;
+
+  @AfterEach
+  void noMore() {
+    verifyNoMoreInteractions(
+        lazySodiumInstancePool,
+        lazySodium,
+        runtimeException
+    );
+  }
+
+  @Test
+  void sign() {
+    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+    given(lazySodium.cryptoSign(any(byte[].class), eq(MESSAGE), eq((long) MESSAGE.length), eq(SECRET_KEY))).willAnswer(
+        invocation -> copy(SIGNED_MESSAGE, invocation.getArgument(0)));
+
+    assertThat(testSubject.sign(MESSAGE, SECRET_KEY)).isEqualTo(SIGNED_MESSAGE);
+    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  @Test
+  void sign_fails() {
+    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+    given(lazySodium.cryptoSign(any(byte[].class), eq(MESSAGE), eq((long) MESSAGE.length), eq(SECRET_KEY))).willReturn(false);
+
+    assertThatThrownBy(() -> testSubject.sign(MESSAGE, SECRET_KEY))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("libsodium could not sign the message.");
+    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  @Test
+  void sign_throws() {
+    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+    given(lazySodium.cryptoSign(any(byte[].class), eq(MESSAGE), eq((long) MESSAGE.length), eq(SECRET_KEY))).willThrow(runtimeException);
+
+    assertThatThrownBy(() -> testSubject.sign(MESSAGE, SECRET_KEY)).isSameAs(runtimeException);
+    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  @Test
+  void open() {
+    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+    given(lazySodium.cryptoSignOpen(any(byte[].class), eq(SIGNED_MESSAGE), eq((long) SIGNED_MESSAGE.length), eq(PUBLIC_KEY))).willAnswer(
+        invocation -> copy(MESSAGE, invocation.getArgument(0)));
+
+    assertThat(testSubject.open(SIGNED_MESSAGE, PUBLIC_KEY)).isEqualTo(MESSAGE);
+    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  @Test
+  void open_notValidlySigned() {
+    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+    given(lazySodium.cryptoSignOpen(any(byte[].class), eq(SIGNED_MESSAGE), eq((long) SIGNED_MESSAGE.length), eq(PUBLIC_KEY))).willReturn(false);
+
+    assertThat(testSubject.open(SIGNED_MESSAGE, PUBLIC_KEY)).isNull();
+    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  @Test
+  void open_shorterThanSignature() {
+    assertThat(testSubject.open(new byte[UftpSignatureProvider.SIGNATURE_BYTES - 1], PUBLIC_KEY)).isNull();
+  }
+
+  @Test
+  void withWorker_claimsOneInstanceForAllCalls() {
+    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+    given(lazySodium.cryptoSign(any(byte[].class), eq(MESSAGE), eq((long) MESSAGE.length), eq(SECRET_KEY))).willAnswer(
+        invocation -> copy(SIGNED_MESSAGE, invocation.getArgument(0)));
+    given(lazySodium.cryptoSignOpen(any(byte[].class), eq(SIGNED_MESSAGE), eq((long) SIGNED_MESSAGE.length), eq(PUBLIC_KEY))).willAnswer(
+        invocation -> copy(MESSAGE, invocation.getArgument(0)));
+
+    var result = testSubject.withWorker(worker -> {
+      assertThat(worker.sign(MESSAGE, SECRET_KEY)).isEqualTo(SIGNED_MESSAGE);
+      assertThat(worker.open(SIGNED_MESSAGE, PUBLIC_KEY)).isEqualTo(MESSAGE);
+      assertThat(worker.open(new byte[UftpSignatureProvider.SIGNATURE_BYTES - 1], PUBLIC_KEY)).isNull();
+      return "done";
+    });
+
+    assertThat(result).isEqualTo("done");
+    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  @Test
+  void withWorker_throws() {
+    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+
+    assertThatThrownBy(() -> testSubject.withWorker(worker -> {
+      throw runtimeException;
+    })).isSameAs(runtimeException);
+    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  private static boolean copy(byte[] source, byte[] target) {
+    System.arraycopy(source, 0, target, 0, source.length);
+    return true;
+  }
+}
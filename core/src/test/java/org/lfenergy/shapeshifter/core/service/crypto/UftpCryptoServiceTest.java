@@ -5,26 +5,39 @@
 package org.lfenergy.shapeshifter.core.service.crypto;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.lfenergy.shapeshifter.core.UftpTestSupport.assertException;
+import static org.lfenergy.shapeshifter.core.UftpTestSupport.assertExceptionCauseNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
-import com.goterl.lazysodium.LazySodiumJava;
-import com.goterl.lazysodium.exceptions.SodiumException;
 import com.goterl.lazysodium.utils.Key;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.lfenergy.shapeshifter.api.SignedMessage;
 import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
-import org.mockito.InjectMocks;
+import org.lfenergy.shapeshifter.core.tools.UftpKeyPairTool;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -32,9 +45,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class UftpCryptoServiceTest {
 
   public static final String PAYLOAD_XML = "PAYLOAD_XML";
+  public static final byte[] PAYLOAD_XML_BYTES = PAYLOAD_XML.getBytes(StandardCharsets.UTF_8);
   public static final String PRIVATE_KEY = "PRIVATE_KEY";
-  public static final byte[] BODY = "BODY".getBytes(StandardCharsets.UTF_8);
-  public static final String BASE_64_BODY = Base64.getEncoder().encodeToString(BODY);
+  public static final byte[] SECRET_KEY_BYTES = new byte[UftpSignatureProvider.SECRET_KEY_BYTES];
+  public static final byte[] PUBLIC_KEY_BYTES = new byte[UftpSignatureProvider.PUBLIC_KEY_BYTES];
+  public static final byte[] BODY = ("SIGNATURE".repeat(8).substring(0, UftpSignatureProvider.SIGNATURE_BYTES) + PAYLOAD_XML).getBytes(StandardCharsets.UTF_8);
   public static final String SENDER_DOMAIN = "SENDER_DOMAIN";
   public static final USEFRoleType SENDER_ROLE = USEFRoleType.DSO;
   private static final String PUBLIC_KEY = "PUBLIC_KEY";
@@ -44,43 +59,52 @@ class UftpCryptoServiceTest {
   @Mock
   private LazySodiumFactory factory;
   @Mock
-  private LazySodiumBase64Pool lazySodiumInstancePool;
+  private UftpSignatureProvider signatureProvider;
 
-  @InjectMocks
   private UftpCryptoService testSubject;
 
-  @Mock
-  private LazySodiumJava lazySodium;
   @Mock
   private UftpParticipant sender;
   @Mock
-  private SodiumException sodiumException;
-  @Mock
   private SignedMessage signedMessage;
   @Mock
   private Key publicKey;
   @Mock
+  private Key privateKey;
+  @Mock
   private RuntimeException runtimeException;
+  @Mock
+  private UftpVerificationKeyCache verificationKeyCache;
+
+  static Stream<UftpSignatureProvider> signatureProviders() {
+    return Stream.of(new LazySodiumSignatureProvider(new LazySodiumBase64Pool()), new JdkSignatureProvider());
+  }
+
+  @BeforeEach
+  void setUp() {
+    testSubject = new UftpCryptoService(participantService, factory, signatureProvider);
+  }
 
   @AfterEach
   void noMore() {
     verifyNoMoreInteractions(
         participantService,
         factory,
-        lazySodiumInstancePool,
-        lazySodium,
+        signatureProvider,
         sender,
-        sodiumException,
         signedMessage,
         publicKey,
-        runtimeException
+        privateKey,
+        runtimeException,
+        verificationKeyCache
     );
   }
 
   @Test
-  void signMessage() throws Exception {
-    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
-    given(lazySodium.cryptoSign(PAYLOAD_XML, PRIVATE_KEY)).willReturn(BASE_64_BODY);
+  void signMessage() {
+    given(factory.keyFromBase64String(PRIVATE_KEY)).willReturn(privateKey);
+    given(privateKey.getAsBytes()).willReturn(SECRET_KEY_BYTES);
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willReturn(BODY);
     given(sender.domain()).willReturn(SENDER_DOMAIN);
     given(sender.role()).willReturn(SENDER_ROLE);
 
@@ -89,69 +113,466 @@ class UftpCryptoServiceTest {
     assertThat(result.getSenderDomain()).isEqualTo(SENDER_DOMAIN);
     assertThat(result.getSenderRole()).isEqualTo(SENDER_ROLE);
     assertThat(result.getBody()).isEqualTo(BODY);
-    verify(lazySodiumInstancePool).release(lazySodium);
   }
 
   @Test
-  void signMessageThrows() throws Exception {
-    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
-    given(lazySodium.cryptoSign(PAYLOAD_XML, PRIVATE_KEY)).willThrow(sodiumException);
+  void signMessage_bytes() {
+    given(factory.keyFromBase64String(PRIVATE_KEY)).willReturn(privateKey);
+    given(privateKey.getAsBytes()).willReturn(SECRET_KEY_BYTES);
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willReturn(BODY);
+    given(sender.domain()).willReturn(SENDER_DOMAIN);
+    given(sender.role()).willReturn(SENDER_ROLE);
+
+    var result = testSubject.signMessage(PAYLOAD_XML_BYTES, sender, PRIVATE_KEY);
+
+    assertThat(result.getBody()).isSameAs(BODY);
+  }
+
+  @Test
+  void signMessageThrows() {
+    given(factory.keyFromBase64String(PRIVATE_KEY)).willReturn(privateKey);
+    given(privateKey.getAsBytes()).willReturn(SECRET_KEY_BYTES);
+    given(sender.domain()).willReturn(SENDER_DOMAIN);
+    given(sender.role()).willReturn(SENDER_ROLE);
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willThrow(runtimeException);
 
     UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
         testSubject.signMessage(PAYLOAD_XML, sender, PRIVATE_KEY));
 
-    assertException(actual, "Failed to sign message.", sodiumException);
-    verify(lazySodiumInstancePool).release(lazySodium);
+    assertException(actual, "Failed to sign message.", runtimeException);
   }
 
   @Test
-  void verifySignedMessage() throws Exception {
-    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
-    given(signedMessage.getSenderRole()).willReturn(SENDER_ROLE);
-    given(participantService.getPublicKey(SENDER_ROLE, SENDER_DOMAIN)).willReturn(PUBLIC_KEY);
-    given(signedMessage.getBody()).willReturn(BODY);
-    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
-    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(publicKey);
-    given(lazySodium.cryptoSignOpen(BASE_64_BODY, publicKey)).willReturn(PAYLOAD_XML);
+  void signMessage_invalidPrivateKeyLength() {
+    given(factory.keyFromBase64String(PRIVATE_KEY)).willReturn(privateKey);
+    given(privateKey.getAsBytes()).willReturn(new byte[UftpSignatureProvider.PUBLIC_KEY_BYTES]);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
+        testSubject.signMessage(PAYLOAD_XML, sender, PRIVATE_KEY));
+
+    assertThat(actual).hasMessage("Failed to sign message.")
+                      .cause().hasMessage("Invalid private key length: expected 64 bytes, got 32.");
+  }
+
+  @Test
+  void createSigningKey() {
+    given(factory.keyFromBase64String(PRIVATE_KEY)).willReturn(privateKey);
+    given(privateKey.getAsBytes()).willReturn(SECRET_KEY_BYTES);
+
+    var result = testSubject.createSigningKey(PRIVATE_KEY);
+
+    assertThat(result.secretKey()).isSameAs(SECRET_KEY_BYTES);
+  }
+
+  @Test
+  void createSigningKey_invalidBase64() {
+    var exception = new IllegalArgumentException("Illegal base64 character");
+    given(factory.keyFromBase64String(PRIVATE_KEY)).willThrow(exception);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
+        testSubject.createSigningKey(PRIVATE_KEY));
+
+    assertException(actual, "Invalid private key.", exception);
+  }
+
+  @Test
+  void createSigningKey_invalidPrivateKeyLength() {
+    given(factory.keyFromBase64String(PRIVATE_KEY)).willReturn(privateKey);
+    given(privateKey.getAsBytes()).willReturn(new byte[UftpSignatureProvider.PUBLIC_KEY_BYTES]);
+
+    assertThatThrownBy(() -> testSubject.createSigningKey(PRIVATE_KEY))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("Invalid private key length: expected 64 bytes, got 32.");
+  }
+
+  @Test
+  void signMessage_signingKey() {
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willReturn(BODY);
+    given(sender.domain()).willReturn(SENDER_DOMAIN);
+    given(sender.role()).willReturn(SENDER_ROLE);
+
+    var result = testSubject.signMessage(PAYLOAD_XML, sender, new UftpSigningKey(SECRET_KEY_BYTES));
+
+    assertThat(result.getSenderDomain()).isEqualTo(SENDER_DOMAIN);
+    assertThat(result.getSenderRole()).isEqualTo(SENDER_ROLE);
+    assertThat(result.getBody()).isSameAs(BODY);
+  }
+
+  @Test
+  void signMessage_signingKey_bytes() {
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willReturn(BODY);
+    given(sender.domain()).willReturn(SENDER_DOMAIN);
+    given(sender.role()).willReturn(SENDER_ROLE);
+
+    var result = testSubject.signMessage(PAYLOAD_XML_BYTES, sender, new UftpSigningKey(SECRET_KEY_BYTES));
+
+    assertThat(result.getBody()).isSameAs(BODY);
+  }
+
+  @Test
+  void signMessage_signingKey_throws() {
+    given(sender.domain()).willReturn(SENDER_DOMAIN);
+    given(sender.role()).willReturn(SENDER_ROLE);
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willThrow(runtimeException);
+    var signingKey = new UftpSigningKey(SECRET_KEY_BYTES);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
+        testSubject.signMessage(PAYLOAD_XML_BYTES, sender, signingKey));
+
+    assertException(actual, "Failed to sign message.", runtimeException);
+  }
+
+  @Test
+  void withSigner() {
+    var otherPayloadXml = "<Other/>".getBytes(StandardCharsets.UTF_8);
+    var otherBody = "OTHER_BODY".getBytes(StandardCharsets.UTF_8);
+    given(signatureProvider.withWorker(any())).willAnswer(invocation -> invocation.<Function<UftpSignatureProvider, ?>>getArgument(0).apply(signatureProvider));
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willReturn(BODY);
+    given(signatureProvider.sign(otherPayloadXml, SECRET_KEY_BYTES)).willReturn(otherBody);
+    given(sender.domain()).willReturn(SENDER_DOMAIN);
+    given(sender.role()).willReturn(SENDER_ROLE);
+    var signingKey = new UftpSigningKey(SECRET_KEY_BYTES);
+
+    var result = testSubject.withSigner(signer -> List.of(signer.sign(PAYLOAD_XML_BYTES, sender, signingKey),
+                                                          signer.sign(otherPayloadXml, sender, signingKey)));
+
+    assertThat(result).extracting(SignedMessage::getBody).containsExactly(BODY, otherBody);
+    assertThat(result).extracting(SignedMessage::getSenderDomain).containsOnly(SENDER_DOMAIN);
+    assertThat(result).extracting(SignedMessage::getSenderRole).containsOnly(SENDER_ROLE);
+  }
+
+  @Test
+  void withSigner_signThrows() {
+    given(sender.domain()).willReturn(SENDER_DOMAIN);
+    given(sender.role()).willReturn(SENDER_ROLE);
+    given(signatureProvider.withWorker(any())).willAnswer(invocation -> invocation.<Function<UftpSignatureProvider, ?>>getArgument(0).apply(signatureProvider));
+    given(signatureProvider.sign(PAYLOAD_XML_BYTES, SECRET_KEY_BYTES)).willThrow(runtimeException);
+    var signingKey = new UftpSigningKey(SECRET_KEY_BYTES);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
+        testSubject.withSigner(signer -> signer.sign(PAYLOAD_XML_BYTES, sender, signingKey)));
+
+    assertException(actual, "Failed to sign message.", runtimeException);
+  }
+
+  @Test
+  void withSigner_workerUnavailable() {
+    var unavailable = new UftpConnectorException("No pooled instance available", HttpStatusCode.SERVICE_UNAVAILABLE);
+    given(signatureProvider.withWorker(any())).willThrow(unavailable);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () -> testSubject.withSigner(signer -> null));
+
+    assertThat(actual).isSameAs(unavailable);
+  }
+
+  @Test
+  void verifySignedMessage() {
+    mockVerification();
+    given(signatureProvider.open(BODY, PUBLIC_KEY_BYTES)).willReturn(PAYLOAD_XML_BYTES);
 
     var result = testSubject.verifySignedMessage(signedMessage);
 
     assertThat(result).isEqualTo(PAYLOAD_XML);
-    verify(lazySodiumInstancePool).release(lazySodium);
+  }
+
+  @Test
+  void verifySignedMessageAsBytes() {
+    mockVerification();
+    given(signatureProvider.open(BODY, PUBLIC_KEY_BYTES)).willReturn(PAYLOAD_XML_BYTES);
+
+    var result = testSubject.verifySignedMessageAsBytes(signedMessage);
+
+    assertThat(result).isSameAs(PAYLOAD_XML_BYTES);
   }
 
   @Test
   void verifySignedMessageThrows() {
-    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
-    given(signedMessage.getSenderRole()).willReturn(SENDER_ROLE);
-    given(participantService.getPublicKey(SENDER_ROLE, SENDER_DOMAIN)).willReturn(PUBLIC_KEY);
-    given(signedMessage.getBody()).willReturn(BODY);
-    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
-    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(publicKey);
-    given(lazySodium.cryptoSignOpen(BASE_64_BODY, publicKey)).willThrow(runtimeException);
+    mockVerification();
+    given(signatureProvider.open(BODY, PUBLIC_KEY_BYTES)).willThrow(runtimeException);
 
     UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
         testSubject.verifySignedMessage(signedMessage));
 
     assertException(actual, "Failed to verify message.", runtimeException, 401);
-    verify(lazySodiumInstancePool).release(lazySodium);
   }
 
   @Test
   void verifySignedMessageReturnsNullWhenMessageNotValidlySignedWithPublicKey() {
+    mockVerification();
+    given(signatureProvider.open(BODY, PUBLIC_KEY_BYTES)).willReturn(null);
+
+    var exception = assertThrows(UftpConnectorException.class, () ->
+        testSubject.verifySignedMessage(signedMessage));
+
+    assertThat(exception).isInstanceOf(UftpConnectorException.class);
+    assertThat(exception.getHttpStatusCode().getValue()).isEqualTo(401);
+  }
+
+  @Test
+  void verifySignedMessage_invalidPublicKeyLength() {
+    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(publicKey);
+    given(publicKey.getAsBytes()).willReturn(SECRET_KEY_BYTES);
+
+    assertThatThrownBy(() -> testSubject.verifySignedMessage(signedMessage, PUBLIC_KEY))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("Invalid public key length: expected 32 bytes, got 64.");
+  }
+
+  @Test
+  void verifySignedMessage_withVerificationKeyCache() {
+    var cryptoService = new UftpCryptoService(participantService, factory, signatureProvider, verificationKeyCache);
+    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
+    given(signedMessage.getSenderRole()).willReturn(SENDER_ROLE);
+    given(signedMessage.getBody()).willReturn(BODY);
+    given(verificationKeyCache.getPublicKey(new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE))).willReturn(PUBLIC_KEY_BYTES);
+    given(signatureProvider.open(BODY, PUBLIC_KEY_BYTES)).willReturn(PAYLOAD_XML_BYTES);
+
+    assertThat(cryptoService.verifySignedMessageAsBytes(signedMessage)).isSameAs(PAYLOAD_XML_BYTES);
+  }
+
+  @Test
+  void verifySignedMessage_withVerificationKeyCache_unknownSender() {
+    var cryptoService = new UftpCryptoService(participantService, factory, signatureProvider, verificationKeyCache);
+    var exception = new UftpConnectorException("No public key found for SENDER_DOMAIN in DSO");
     given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
     given(signedMessage.getSenderRole()).willReturn(SENDER_ROLE);
+    given(verificationKeyCache.getPublicKey(new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE))).willThrow(exception);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
+        cryptoService.verifySignedMessage(signedMessage));
+
+    assertException(actual, "Failed to verify message.", exception, 401);
+  }
+
+  @Test
+  void getPublicKey() {
     given(participantService.getPublicKey(SENDER_ROLE, SENDER_DOMAIN)).willReturn(PUBLIC_KEY);
+    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(publicKey);
+    given(publicKey.getAsBytes()).willReturn(PUBLIC_KEY_BYTES);
+
+    assertThat(testSubject.getPublicKey(new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE))).isSameAs(PUBLIC_KEY_BYTES);
+  }
+
+  @Test
+  void getPublicKey_withVerificationKeyCache_unknownSender() {
+    var cryptoService = new UftpCryptoService(participantService, factory, signatureProvider, verificationKeyCache);
+    var exception = new UftpConnectorException("No public key found for SENDER_DOMAIN in DSO");
+    given(verificationKeyCache.getPublicKey(new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE))).willThrow(exception);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
+        cryptoService.getPublicKey(new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE)));
+
+    assertException(actual, "Failed to verify message.", exception, 401);
+  }
+
+  @Test
+  void verifySignedMessageAsBytes_withPublicKeyBytes() {
     given(signedMessage.getBody()).willReturn(BODY);
-    given(lazySodiumInstancePool.claim()).willReturn(lazySodium);
+    given(signatureProvider.open(BODY, PUBLIC_KEY_BYTES)).willReturn(null);
+
+    UftpConnectorException actual = assertThrows(UftpConnectorException.class, () ->
+        testSubject.verifySignedMessageAsBytes(signedMessage, PUBLIC_KEY_BYTES));
+
+    assertThat(actual.getHttpStatusCode().getValue()).isEqualTo(401);
+  }
+
+  @ParameterizedTest
+  @MethodSource("signatureProviders")
+  void signAndVerify(UftpSignatureProvider provider) {
+    var keyPair = UftpKeyPairTool.generateKeyPair();
+    var cryptoService = new UftpCryptoService(participantService, new LazySodiumFactory(), provider);
+    var payloadXml = "<FlexRequest ContractID=\"café\"/>";
+
+    var signed = cryptoService.signMessage(payloadXml, new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE), keyPair.privateKey());
+
+    assertThat(signed.getBody()).hasSize(UftpSignatureProvider.SIGNATURE_BYTES + payloadXml.getBytes(StandardCharsets.UTF_8).length);
+    assertThat(cryptoService.verifySignedMessage(signed, keyPair.publicKey())).isEqualTo(payloadXml);
+    assertThat(cryptoService.verifySignedMessageAsBytes(signed, keyPair.publicKey())).isEqualTo(payloadXml.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @ParameterizedTest
+  @MethodSource("signatureProviders")
+  void signAndVerify_sameAsBase64Api(UftpSignatureProvider provider) throws Exception {
+    var keyPair = UftpKeyPairTool.generateKeyPair();
+    var cryptoService = new UftpCryptoService(participantService, new LazySodiumFactory(), provider);
+    var lazySodiumBase64 = new LazySodiumBase64Pool().claim();
+
+    var signed = cryptoService.signMessage(PAYLOAD_XML, new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE), keyPair.privateKey());
+
+    // Ed25519 signatures are deterministic, so the base64 based API of LazySodium must produce the same body
+    assertThat(Base64.getEncoder().encodeToString(signed.getBody())).isEqualTo(lazySodiumBase64.cryptoSign(PAYLOAD_XML, keyPair.privateKey()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("signatureProviders")
+  void signAndVerify_signingKey(UftpSignatureProvider provider) {
+    var keyPair = UftpKeyPairTool.generateKeyPair();
+    var cryptoService = new UftpCryptoService(participantService, new LazySodiumFactory(), provider);
+    var signingKey = cryptoService.createSigningKey(keyPair.privateKey());
+    var sender = new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE);
+
+    var signed = cryptoService.signMessage(PAYLOAD_XML, sender, signingKey);
+
+    assertThat(signed.getBody()).isEqualTo(cryptoService.signMessage(PAYLOAD_XML, sender, keyPair.privateKey()).getBody());
+    assertThat(cryptoService.verifySignedMessage(signed, keyPair.publicKey())).isEqualTo(PAYLOAD_XML);
+  }
+
+  @ParameterizedTest
+  @MethodSource("signatureProviders")
+  void signAndVerify_withSigner(UftpSignatureProvider provider) {
+    var keyPair = UftpKeyPairTool.generateKeyPair();
+    var cryptoService = new UftpCryptoService(participantService, new LazySodiumFactory(), provider);
+    var signingKey = cryptoService.createSigningKey(keyPair.privateKey());
+    var sender = new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE);
+    var otherPayloadXml = "<Other/>".getBytes(StandardCharsets.UTF_8);
+
+    var signed = cryptoService.withSigner(signer -> List.of(signer.sign(PAYLOAD_XML_BYTES, sender, signingKey),
+                                                            signer.sign(otherPayloadXml, sender, signingKey)));
+
+    assertThat(signed.get(0).getBody()).isEqualTo(cryptoService.signMessage(PAYLOAD_XML_BYTES, sender, signingKey).getBody());
+    assertThat(cryptoService.verifySignedMessageAsBytes(signed.get(1), keyPair.publicKey())).isEqualTo(otherPayloadXml);
+  }
+
+  @ParameterizedTest
+  @MethodSource("signatureProviders")
+  void verify_tamperedBody(UftpSignatureProvider provider) {
+    var keyPair = UftpKeyPairTool.generateKeyPair();
+    var cryptoService = new UftpCryptoService(participantService, new LazySodiumFactory(), provider);
+    var signed = cryptoService.signMessage(PAYLOAD_XML, new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE), keyPair.privateKey());
+    signed.getBody()[signed.getBody().length - 1] ^= 1;
+
+    assertThatThrownBy(() -> cryptoService.verifySignedMessage(signed, keyPair.publicKey()))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("Failed to verify message. Message is not validly signed for given public key.");
+  }
+
+  @Test
+  void verifySignedMessages_resolvesKeyOncePerSender() {
+    var dso = UftpKeyPairTool.generateKeyPair();
+    var agr = UftpKeyPairTool.generateKeyPair();
+    var dsoParticipant = new UftpParticipant("dso.tld", USEFRoleType.DSO);
+    var agrParticipant = new UftpParticipant("agr.tld", USEFRoleType.AGR);
+    var unknownParticipant = new UftpParticipant("unknown.tld", USEFRoleType.AGR);
+    var unknownSender = new UftpConnectorException("Unknown sender");
+    given(participantService.getPublicKey(USEFRoleType.DSO, "dso.tld")).willReturn(dso.publicKey());
+    given(participantService.getPublicKey(USEFRoleType.AGR, "agr.tld")).willReturn(agr.publicKey());
+    given(participantService.getPublicKey(USEFRoleType.AGR, "unknown.tld")).willThrow(unknownSender);
+    var cryptoService = new UftpCryptoService(participantService, new LazySodiumFactory(), new LazySodiumSignatureProvider(new LazySodiumBase64Pool()));
+    var signedMessages = new ArrayList<SignedMessage>();
+    for (int i = 0; i < 20; i++) {
+      var payloadXml = "<Message" + i + "/>";
+      signedMessages.add(i % 2 == 0
+                             ? cryptoService.signMessage(payloadXml, dsoParticipant, dso.privateKey())
+                             : cryptoService.signMessage(payloadXml, agrParticipant, agr.privateKey()));
+    }
+    var tampered = cryptoService.signMessage("<Tampered/>", dsoParticipant, dso.privateKey());
+    tampered.getBody()[tampered.getBody().length - 1] ^= 1;
+    signedMessages.add(5, tampered);
+    signedMessages.add(cryptoService.signMessage("<Unknown/>", unknownParticipant, agr.privateKey()));
+    var executor = Executors.newFixedThreadPool(4);
+
+    try {
+      var results = cryptoService.verifySignedMessages(signedMessages, executor, 4);
+
+      assertThat(results).hasSize(22);
+      assertThat(results).extracting(UftpVerificationResult::signedMessage).containsExactlyElementsOf(signedMessages);
+      assertThat(results.get(0).payloadXmlAsString()).isEqualTo("<Message0/>");
+      assertThat(results.get(6).payloadXmlAsString()).isEqualTo("<Message5/>");
+      assertThat(results.get(20).payloadXmlAsString()).isEqualTo("<Message19/>");
+      assertThat(results).filteredOn(UftpVerificationResult::isVerified).hasSize(20);
+      assertExceptionCauseNotNull(results.get(5).failure(), "Failed to verify message.", 401);
+      assertThat(results.get(5).failure()).cause().hasMessage("Failed to verify message. Message is not validly signed for given public key.");
+      assertThat(results.get(5).payloadXml()).isNull();
+      assertException(results.get(21).failure(), "Failed to verify message.", unknownSender, 401);
+      verify(participantService).getPublicKey(USEFRoleType.DSO, "dso.tld");
+      verify(participantService).getPublicKey(USEFRoleType.AGR, "agr.tld");
+      verify(participantService).getPublicKey(USEFRoleType.AGR, "unknown.tld");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void verifySignedMessages_workerFails() {
+    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
+    given(signedMessage.getSenderRole()).willReturn(SENDER_ROLE);
+    given(participantService.getPublicKey(SENDER_ROLE, SENDER_DOMAIN)).willReturn(PUBLIC_KEY);
     given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(publicKey);
-    given(lazySodium.cryptoSignOpen(BASE_64_BODY, publicKey)).willReturn(null);
+    given(publicKey.getAsBytes()).willReturn(PUBLIC_KEY_BYTES);
+    given(signatureProvider.withWorker(any())).willThrow(runtimeException);
 
-    var exception = assertThrows(UftpConnectorException.class, () ->
-        testSubject.verifySignedMessage(signedMessage));
+    var results = testSubject.verifySignedMessages(List.of(signedMessage, signedMessage), Runnable::run, 2);
 
-    assertThat(exception).isInstanceOf(UftpConnectorException.class);
+    assertThat(results).hasSize(2);
+    assertException(results.get(0).failure(), "Failed to verify message.", runtimeException, 401);
+    assertException(results.get(1).failure(), "Failed to verify message.", runtimeException, 401);
+  }
+
+  @Test
+  void verifySignedMessages_withVerificationKeyCache() {
+    var cryptoService = new UftpCryptoService(participantService, factory, signatureProvider, verificationKeyCache);
+    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
+    given(signedMessage.getSenderRole()).willReturn(SENDER_ROLE);
+    given(verificationKeyCache.getPublicKey(new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE))).willReturn(PUBLIC_KEY_BYTES);
+    given(signatureProvider.withWorker(any())).willAnswer(invocation -> invocation.<Function<UftpSignatureProvider, ?>>getArgument(0).apply(signatureProvider));
+    given(signedMessage.getBody()).willReturn(BODY);
+    given(signatureProvider.open(BODY, PUBLIC_KEY_BYTES)).willReturn(PAYLOAD_XML_BYTES);
+
+    var results = cryptoService.verifySignedMessages(List.of(signedMessage), Runnable::run, 4);
+
+    assertThat(results).singleElement().satisfies(result -> {
+      assertThat(result.isVerified()).isTrue();
+      assertThat(result.payloadXml()).isSameAs(PAYLOAD_XML_BYTES);
+    });
+  }
+
+  @Test
+  void verifySignedMessages_stream() {
+    var keyPair = UftpKeyPairTool.generateKeyPair();
+    var sender = new UftpParticipant(SENDER_DOMAIN, SENDER_ROLE);
+    given(participantService.getPublicKey(SENDER_ROLE, SENDER_DOMAIN)).willReturn(keyPair.publicKey());
+    var cryptoService = new UftpCryptoService(participantService, new LazySodiumFactory(), new JdkSignatureProvider());
+    var read = new AtomicInteger();
+    var signedMessages = IntStream.range(0, 7)
+                                  .mapToObj(i -> cryptoService.signMessage("<Message" + i + "/>", sender, keyPair.privateKey()))
+                                  .toList();
+    var closed = new AtomicBoolean();
 
-    verify(lazySodiumInstancePool).release(lazySodium);
+    try (var results = cryptoService.verifySignedMessages(signedMessages.stream().peek(m -> read.incrementAndGet()).onClose(() -> closed.set(true)),
+                                                          Runnable::run, 2, 3)) {
+      var iterator = results.iterator();
+      assertThat(iterator.next().payloadXmlAsString()).isEqualTo("<Message0/>");
+      // Messages are read one batch at a time
+      assertThat(read).hasValue(3);
+      var remaining = new ArrayList<String>();
+      iterator.forEachRemaining(result -> remaining.add(result.payloadXmlAsString()));
+      assertThat(remaining).containsExactly("<Message1/>", "<Message2/>", "<Message3/>", "<Message4/>", "<Message5/>", "<Message6/>");
+    }
+
+    assertThat(closed).isTrue();
+    verify(participantService).getPublicKey(SENDER_ROLE, SENDER_DOMAIN);
+  }
+
+  @Test
+  void verifySignedMessages_invalidArguments() {
+    List<SignedMessage> signedMessages = List.of();
+    Stream<SignedMessage> signedMessageStream = Stream.empty();
+
+    assertThatThrownBy(() -> testSubject.verifySignedMessages(signedMessages, Runnable::run, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("parallelism must be positive");
+    assertThatThrownBy(() -> testSubject.verifySignedMessages(signedMessageStream, Runnable::run, 1, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("batchSize must be positive");
+    assertThat(testSubject.verifySignedMessages(signedMessages)).isEmpty();
+  }
+
+  private void mockVerification() {
+    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
+    given(signedMessage.getSenderRole()).willReturn(SENDER_ROLE);
+    given(participantService.getPublicKey(SENDER_ROLE, SENDER_DOMAIN)).willReturn(PUBLIC_KEY);
+    given(signedMessage.getBody()).willReturn(BODY);
+    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(publicKey);
+    given(publicKey.getAsBytes()).willReturn(PUBLIC_KEY_BYTES);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class UftpSigningKeyTest {
+
+  @Test
+  void toString_doesNotRevealKey() {
+    var secretKey = new byte[UftpSignatureProvider.SECRET_KEY_BYTES];
+    secretKey[0] = 42;
+
+    assertThat(new UftpSigningKey(secretKey)).hasToString("UftpSigningKey[***]");
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.goterl.lazysodium.utils.Key;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UftpVerificationKeyCacheTest {
+
+  private static final String DOMAIN = "dso.tld";
+  private static final USEFRoleType ROLE = USEFRoleType.DSO;
+  private static final UftpParticipant SENDER = new UftpParticipant(DOMAIN, ROLE);
+  private static final String PUBLIC_KEY = "PUBLIC_KEY";
+  private static final byte[] PUBLIC_KEY_BYTES = new byte[UftpSignatureProvider.PUBLIC_KEY_BYTES];
+
+  @Mock
+  private ParticipantResolutionService participantService;
+  @Mock
+  private LazySodiumFactory factory;
+  @Mock
+  private Key key;
+
+  private UftpVerificationKeyCache testSubject;
+
+  @BeforeEach
+  void setUp() {
+    testSubject = new UftpVerificationKeyCache(participantService, factory);
+  }
+
+  @AfterEach
+  void noMore() {
+    verifyNoMoreInteractions(
+        participantService,
+        factory,
+        key
+    );
+  }
+
+  @Test
+  void getPublicKey_resolvedAndDecodedOnce() {
+    given(participantService.findPublicKey(ROLE, DOMAIN)).willReturn(Optional.of(PUBLIC_KEY));
+    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(key);
+    given(key.getAsBytes()).willReturn(PUBLIC_KEY_BYTES);
+
+    assertThat(testSubject.getPublicKey(SENDER)).isSameAs(PUBLIC_KEY_BYTES);
+    assertThat(testSubject.getPublicKey(new UftpParticipant(DOMAIN, ROLE))).isSameAs(PUBLIC_KEY_BYTES);
+
+    verify(participantService, times(1)).findPublicKey(ROLE, DOMAIN);
+    assertThat(testSubject.stats()).isEqualTo(new CacheStats(1, 1, 0, 0));
+  }
+
+  @Test
+  void getPublicKey_unknownSender_remembered() {
+    given(participantService.findPublicKey(ROLE, DOMAIN)).willReturn(Optional.empty());
+
+    assertThatThrownBy(() -> testSubject.getPublicKey(SENDER))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("No public key found for dso.tld in DSO");
+    assertThatThrownBy(() -> testSubject.getPublicKey(SENDER)).isInstanceOf(UftpConnectorException.class);
+
+    verify(participantService, times(1)).findPublicKey(ROLE, DOMAIN);
+  }
+
+  @Test
+  void getPublicKey_invalidKey_notCached() {
+    given(participantService.findPublicKey(ROLE, DOMAIN)).willReturn(Optional.of(PUBLIC_KEY));
+    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(key);
+    given(key.getAsBytes()).willReturn(new byte[UftpSignatureProvider.SECRET_KEY_BYTES]);
+
+    assertThatThrownBy(() -> testSubject.getPublicKey(SENDER))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("Invalid public key length: expected 32 bytes, got 64.");
+    assertThatThrownBy(() -> testSubject.getPublicKey(SENDER)).isInstanceOf(UftpConnectorException.class);
+
+    verify(participantService, times(2)).findPublicKey(ROLE, DOMAIN);
+  }
+
+  @Test
+  void invalidate_afterKeyRotation() {
+    var rotatedKey = new byte[UftpSignatureProvider.PUBLIC_KEY_BYTES];
+    given(participantService.findPublicKey(ROLE, DOMAIN)).willReturn(Optional.of(PUBLIC_KEY));
+    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(key);
+    given(key.getAsBytes()).willReturn(PUBLIC_KEY_BYTES, rotatedKey);
+
+    testSubject.getPublicKey(SENDER);
+    testSubject.invalidate(SENDER);
+
+    assertThat(testSubject.getPublicKey(SENDER)).isSameAs(rotatedKey);
+    verify(participantService, times(2)).findPublicKey(ROLE, DOMAIN);
+  }
+
+  @Test
+  void invalidateAll() {
+    given(participantService.findPublicKey(ROLE, DOMAIN)).willReturn(Optional.of(PUBLIC_KEY));
+    given(factory.keyFromBase64String(PUBLIC_KEY)).willReturn(key);
+    given(key.getAsBytes()).willReturn(PUBLIC_KEY_BYTES);
+
+    testSubject.getPublicKey(SENDER);
+    testSubject.invalidateAll();
+    testSubject.getPublicKey(SENDER);
+
+    verify(participantService, times(2)).findPublicKey(ROLE, DOMAIN);
+  }
+}
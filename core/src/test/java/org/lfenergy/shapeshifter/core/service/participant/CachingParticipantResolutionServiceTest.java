@@ -0,0 +1,140 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.participant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.api.model.UftpParticipantInformation;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.common.cache.ExpiringCache;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.UftpParticipantService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CachingParticipantResolutionServiceTest {
+
+  private static final USEFRoleType ROLE = USEFRoleType.AGR;
+  private static final String DOMAIN = "agr.tld";
+  private static final UftpParticipant PARTICIPANT = new UftpParticipant(DOMAIN, ROLE);
+  private static final CacheSettings SETTINGS = new CacheSettings(10, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+  private final UftpParticipantInformation information = new UftpParticipantInformationBuilder().withDomain(DOMAIN).withEndpoint("https://agr.tld/v3")
+                                                                                                 .withPublicKey("PUBLIC_KEY").build();
+  private final UftpParticipantInformation movedInformation = new UftpParticipantInformationBuilder().withDomain(DOMAIN).withEndpoint("https://agr.tld/v4")
+                                                                                                      .withPublicKey("PUBLIC_KEY").build();
+
+  @Mock
+  private UftpParticipantService uftpParticipantService;
+  @Mock
+  private Clock clock;
+
+  private final List<Runnable> refreshes = new ArrayList<>();
+
+  private CachingParticipantResolutionService testSubject;
+
+  @BeforeEach
+  void setUp() {
+    var cache = new ExpiringCache<UftpParticipant, UftpParticipantInformation>(
+        participant -> uftpParticipantService.getParticipantInformation(participant.role(), participant.domain()), SETTINGS, refreshes::add, clock);
+    testSubject = new CachingParticipantResolutionService(cache);
+  }
+
+  @AfterEach
+  void noMore() {
+    verifyNoMoreInteractions(uftpParticipantService);
+  }
+
+  @Test
+  void getParticipantInformation_loadedOnce() {
+    givenTime(0);
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN)).willReturn(Optional.of(information));
+
+    assertThat(testSubject.getParticipantInformation(PARTICIPANT)).isSameAs(information);
+    assertThat(testSubject.getEndPointUrl(PARTICIPANT)).isEqualTo("https://agr.tld/v3");
+    assertThat(testSubject.findPublicKey(ROLE, DOMAIN)).contains("PUBLIC_KEY");
+
+    verify(uftpParticipantService, times(1)).getParticipantInformation(ROLE, DOMAIN);
+    assertThat(testSubject.stats()).isEqualTo(new CacheStats(2, 1, 0, 0));
+  }
+
+  @Test
+  void getParticipantInformation_aboutToExpire_refreshedInBackground() {
+    givenTime(0);
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN)).willReturn(Optional.of(information), Optional.of(movedInformation));
+    testSubject.getParticipantInformation(PARTICIPANT);
+
+    givenTime(Duration.ofMinutes(9).toMillis());
+    assertThat(testSubject.getEndPointUrl(PARTICIPANT)).isEqualTo("https://agr.tld/v3");
+    assertThat(refreshes).hasSize(1);
+    refreshes.get(0).run();
+
+    assertThat(testSubject.getEndPointUrl(PARTICIPANT)).isEqualTo("https://agr.tld/v4");
+    verify(uftpParticipantService, times(2)).getParticipantInformation(ROLE, DOMAIN);
+  }
+
+  @Test
+  void getParticipantInformation_unknownParticipant_rememberedForNegativeTtl() {
+    givenTime(0);
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN)).willReturn(Optional.empty());
+
+    assertThatThrownBy(() -> testSubject.getParticipantInformation(PARTICIPANT))
+        .isInstanceOf(UftpConnectorException.class)
+        .hasMessage("No participant found for agr.tld in AGR");
+    assertThat(testSubject.findPublicKey(ROLE, DOMAIN)).isEmpty();
+    verify(uftpParticipantService, times(1)).getParticipantInformation(ROLE, DOMAIN);
+
+    givenTime(Duration.ofSeconds(30).toMillis());
+    assertThat(testSubject.findPublicKey(ROLE, DOMAIN)).isEmpty();
+    verify(uftpParticipantService, times(2)).getParticipantInformation(ROLE, DOMAIN);
+  }
+
+  @Test
+  void invalidate() {
+    givenTime(0);
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN)).willReturn(Optional.of(information), Optional.of(movedInformation));
+    testSubject.getParticipantInformation(PARTICIPANT);
+
+    testSubject.invalidate(PARTICIPANT);
+
+    assertThat(testSubject.getEndPointUrl(PARTICIPANT)).isEqualTo("https://agr.tld/v4");
+    verify(uftpParticipantService, times(2)).getParticipantInformation(ROLE, DOMAIN);
+  }
+
+  @Test
+  void invalidateAll() {
+    givenTime(0);
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN)).willReturn(Optional.of(information));
+    testSubject.getParticipantInformation(PARTICIPANT);
+    assertThat(testSubject.size()).isEqualTo(1);
+
+    testSubject.invalidateAll();
+
+    assertThat(testSubject.size()).isZero();
+    verify(uftpParticipantService, times(1)).getParticipantInformation(ROLE, DOMAIN);
+  }
+
+  private void givenTime(long millis) {
+    given(clock.millis()).willReturn(millis);
+  }
+}
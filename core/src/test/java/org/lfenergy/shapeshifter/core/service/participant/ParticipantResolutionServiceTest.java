@@ -78,4 +78,37 @@ class ParticipantResolutionServiceTest {
 
     assertThat(thrown.getMessage()).isEqualTo("No participant found for DOMAIN_NAME in AGR");
   }
-}
\ No newline at end of file
+
+  @Test
+  void findPublicKey() {
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN_NAME)).willReturn(Optional.of(information));
+    given(information.publicKey()).willReturn(PUBLIC_KEY);
+
+    assertThat(testSubject.findPublicKey(ROLE, DOMAIN_NAME)).contains(PUBLIC_KEY);
+  }
+
+  @Test
+  void findPublicKey_notFound() {
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN_NAME)).willReturn(Optional.empty());
+
+    assertThat(testSubject.findPublicKey(ROLE, DOMAIN_NAME)).isEmpty();
+  }
+
+  @Test
+  void findParticipantInformation() {
+    given(recipient.role()).willReturn(ROLE);
+    given(recipient.domain()).willReturn(DOMAIN_NAME);
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN_NAME)).willReturn(Optional.of(information));
+
+    assertThat(testSubject.findParticipantInformation(recipient)).containsSame(information);
+  }
+
+  @Test
+  void findParticipantInformation_notFound() {
+    given(recipient.role()).willReturn(ROLE);
+    given(recipient.domain()).willReturn(DOMAIN_NAME);
+    given(uftpParticipantService.getParticipantInformation(ROLE, DOMAIN_NAME)).willReturn(Optional.empty());
+
+    assertThat(testSubject.findParticipantInformation(recipient)).isEmpty();
+  }
+}
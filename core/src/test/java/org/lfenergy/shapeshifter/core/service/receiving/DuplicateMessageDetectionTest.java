@@ -11,6 +11,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.lfenergy.shapeshifter.api.FlexOffer;
 import org.lfenergy.shapeshifter.api.FlexRequest;
 import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
+import org.lfenergy.shapeshifter.core.model.IncomingUftpMessage;
+import org.lfenergy.shapeshifter.core.model.UftpMessageFingerprint;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.validation.UftpMessageSupport;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -18,6 +21,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageDetection.DuplicateMessageResult.DUPLICATE_MESSAGE;
 import static org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageDetection.DuplicateMessageResult.NEW_MESSAGE;
@@ -34,6 +38,7 @@ class DuplicateMessageDetectionTest {
     private static final String RECIPIENT_DOMAIN = "recipient.test.nl";
     private static final String CONTENT_NEW_MESSAGE = "CONTENT_NEW_MESSAGE";
     private static final String CONTENT_PREVIOUS_MESSAGE = "CONTENT_PREVIOUS_MESSAGE";
+    private static final String PAYLOAD_XML = "<FlexRequest/>";
 
     @Mock
     private UftpMessageSupport support;
@@ -49,6 +54,8 @@ class DuplicateMessageDetectionTest {
     private FlexRequest previousFlexRequest;
     @Mock
     private FlexOffer previousFlexOffer;
+    @Mock
+    private UftpParticipant sender;
 
     @BeforeEach
     void setup() {
@@ -64,7 +71,8 @@ class DuplicateMessageDetectionTest {
                 serializer,
                 newMessage,
                 previousFlexRequest,
-                previousFlexOffer
+                previousFlexOffer,
+                sender
         );
     }
 
@@ -99,4 +107,45 @@ class DuplicateMessageDetectionTest {
 
         assertThat(testSubject.isDuplicate(newMessage)).isEqualTo(DUPLICATE_MESSAGE);
     }
+
+    @Test
+    void isDuplicate_incoming_resultDuplicateMessage_whenSameFingerprint() {
+        given(support.findDuplicateMessageFingerprint(MESSAGE_ID, SENDER_DOMAIN, RECIPIENT_DOMAIN))
+                .willReturn(Optional.of(UftpMessageFingerprint.of(PAYLOAD_XML.getBytes(UTF_8))));
+
+        assertThat(testSubject.isDuplicate(incomingMessage())).isEqualTo(DUPLICATE_MESSAGE);
+    }
+
+    @Test
+    void isDuplicate_incoming_comparesContent_whenOtherFingerprint() {
+        given(support.findDuplicateMessageFingerprint(MESSAGE_ID, SENDER_DOMAIN, RECIPIENT_DOMAIN))
+                .willReturn(Optional.of(UftpMessageFingerprint.of("<FlexRequest />".getBytes(UTF_8))));
+        given(support.findDuplicateMessage(MESSAGE_ID, SENDER_DOMAIN, RECIPIENT_DOMAIN)).willReturn(Optional.of(previousFlexRequest));
+        given(serializer.toXml(newMessage)).willReturn(CONTENT_NEW_MESSAGE);
+        given(serializer.toXml(previousFlexRequest)).willReturn(CONTENT_PREVIOUS_MESSAGE);
+
+        assertThat(testSubject.isDuplicate(incomingMessage())).isEqualTo(REUSED_ID_DIFFERENT_CONTENT);
+    }
+
+    @Test
+    void isDuplicate_incoming_comparesContent_whenNoFingerprintStored() {
+        given(support.findDuplicateMessageFingerprint(MESSAGE_ID, SENDER_DOMAIN, RECIPIENT_DOMAIN)).willReturn(Optional.empty());
+        given(support.findDuplicateMessage(MESSAGE_ID, SENDER_DOMAIN, RECIPIENT_DOMAIN)).willReturn(Optional.of(previousFlexRequest));
+        given(serializer.toXml(newMessage)).willReturn(CONTENT_PREVIOUS_MESSAGE);
+        given(serializer.toXml(previousFlexRequest)).willReturn(CONTENT_PREVIOUS_MESSAGE);
+
+        assertThat(testSubject.isDuplicate(incomingMessage())).isEqualTo(DUPLICATE_MESSAGE);
+    }
+
+    @Test
+    void isDuplicate_incoming_resultNewMessage_whenUnknownMessageId() {
+        given(support.findDuplicateMessageFingerprint(MESSAGE_ID, SENDER_DOMAIN, RECIPIENT_DOMAIN)).willReturn(Optional.empty());
+        given(support.findDuplicateMessage(MESSAGE_ID, SENDER_DOMAIN, RECIPIENT_DOMAIN)).willReturn(Optional.empty());
+
+        assertThat(testSubject.isDuplicate(incomingMessage())).isEqualTo(NEW_MESSAGE);
+    }
+
+    private IncomingUftpMessage<FlexRequest> incomingMessage() {
+        return IncomingUftpMessage.create(sender, newMessage, "<SignedMessage/>", PAYLOAD_XML);
+    }
 }
@@ -85,9 +85,9 @@ class ReceivedMessageProcessorTest {
   void onReceivedMessage_businessMsg_smoothSailing() {
     mockSenderSignedMessage();
 
-    given(duplicateDetection.isDuplicate(businessMsg)).willReturn(NEW_MESSAGE);
-
     var incomingUftpMessage = IncomingUftpMessage.create(new UftpParticipant(signedMessage), businessMsg, SIGNED_MESSAGE_XML, PAYLOAD_MESSAGE_XML);
+    given(duplicateDetection.isDuplicate(incomingUftpMessage)).willReturn(NEW_MESSAGE);
+
     testSubject.onReceivedMessage(incomingUftpMessage);
 
     verify(payloadHandler, times(1)).notifyNewIncomingMessage(incomingUftpMessage);
@@ -100,9 +100,9 @@ class ReceivedMessageProcessorTest {
     mockSenderSignedMessage();
 
     var exception = new RuntimeException("Simulated error during duplicate detection");
-    given(duplicateDetection.isDuplicate(businessMsg)).willThrow(exception);
-
     var incomingUftpMessage = IncomingUftpMessage.create(new UftpParticipant(signedMessage), businessMsg, SIGNED_MESSAGE_XML, PAYLOAD_MESSAGE_XML);
+    given(duplicateDetection.isDuplicate(incomingUftpMessage)).willThrow(exception);
+
     assertThatThrownBy(() -> testSubject.onReceivedMessage(incomingUftpMessage))
         .isSameAs(exception);
   }
@@ -110,10 +110,11 @@ class ReceivedMessageProcessorTest {
   @Test
   void onReceivedMessage_businessMsg_isDuplicate() {
     mockSenderSignedMessage();
-    given(duplicateDetection.isDuplicate(businessMsg)).willReturn(DUPLICATE_MESSAGE);
     given(businessMsg.getMessageID()).willReturn(MESSAGE_ID);
 
     var incomingUftpMessage = IncomingUftpMessage.create(new UftpParticipant(signedMessage), businessMsg, SIGNED_MESSAGE_XML, PAYLOAD_MESSAGE_XML);
+    given(duplicateDetection.isDuplicate(incomingUftpMessage)).willReturn(DUPLICATE_MESSAGE);
+
     assertThatThrownBy(() -> testSubject.onReceivedMessage(incomingUftpMessage))
         .isInstanceOf(DuplicateMessageException.class);
 
@@ -128,9 +129,9 @@ class ReceivedMessageProcessorTest {
   void onReceivedMessage_responseMsg_smoothSailing() {
     mockSenderSignedMessage();
 
-    given(duplicateDetection.isDuplicate(responseMsg)).willReturn(NEW_MESSAGE);
-
     var incomingUftpMessage = IncomingUftpMessage.create(new UftpParticipant(signedMessage), responseMsg, SIGNED_MESSAGE_XML, PAYLOAD_MESSAGE_XML);
+    given(duplicateDetection.isDuplicate(incomingUftpMessage)).willReturn(NEW_MESSAGE);
+
     testSubject.onReceivedMessage(incomingUftpMessage);
 
     verify(payloadHandler, times(1)).notifyNewIncomingMessage(incomingUftpMessage);
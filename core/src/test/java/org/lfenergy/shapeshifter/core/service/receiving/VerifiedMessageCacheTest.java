@@ -0,0 +1,125 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.receiving;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.common.cache.CacheStats;
+import org.lfenergy.shapeshifter.core.common.cache.ExpiringCache;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedMessageCacheTest {
+
+  private static final String DOMAIN = "dso.tld";
+  private static final USEFRoleType ROLE = USEFRoleType.DSO;
+  private static final byte[] BODY = "BODY".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] PUBLIC_KEY = "PUBLIC_KEY".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] OTHER_PUBLIC_KEY = "OTHER_PUBLIC_KEY".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] PAYLOAD_XML = "PAYLOAD_XML".getBytes(StandardCharsets.UTF_8);
+
+  @Mock
+  private Clock clock;
+
+  private final VerifiedMessageCache testSubject = new VerifiedMessageCache();
+
+  @Test
+  void find_afterPut() {
+    testSubject.put(signedMessage(DOMAIN, BODY), PUBLIC_KEY, PAYLOAD_XML);
+
+    var actual = testSubject.find(signedMessage(DOMAIN, BODY.clone()), PUBLIC_KEY.clone());
+
+    assertThat(actual).hasValueSatisfying(payloadXml -> assertThat(payloadXml).isEqualTo(PAYLOAD_XML));
+    assertThat(testSubject.stats()).isEqualTo(new CacheStats(1, 0, 0, 0));
+  }
+
+  @Test
+  void find_returnsCopyOfPayloadXml() {
+    var payloadXml = PAYLOAD_XML.clone();
+    testSubject.put(signedMessage(DOMAIN, BODY), PUBLIC_KEY, payloadXml);
+    payloadXml[0] = 'X';
+
+    var first = testSubject.find(signedMessage(DOMAIN, BODY), PUBLIC_KEY).orElseThrow();
+    first[0] = 'Y';
+    var second = testSubject.find(signedMessage(DOMAIN, BODY), PUBLIC_KEY).orElseThrow();
+
+    assertThat(second).isEqualTo(PAYLOAD_XML).isNotSameAs(first);
+  }
+
+  @Test
+  void find_otherPublicKey() {
+    testSubject.put(signedMessage(DOMAIN, BODY), PUBLIC_KEY, PAYLOAD_XML);
+
+    // The key of the sender was replaced or revoked since the message was verified
+    assertThat(testSubject.find(signedMessage(DOMAIN, BODY), OTHER_PUBLIC_KEY)).isEmpty();
+  }
+
+  @Test
+  void find_otherBody() {
+    testSubject.put(signedMessage(DOMAIN, BODY), PUBLIC_KEY, PAYLOAD_XML);
+
+    assertThat(testSubject.find(signedMessage(DOMAIN, "OTHER".getBytes(StandardCharsets.UTF_8)), PUBLIC_KEY)).isEmpty();
+    assertThat(testSubject.stats().hitRate()).isZero();
+  }
+
+  @Test
+  void find_sameBodyFromOtherSender() {
+    testSubject.put(signedMessage(DOMAIN, BODY), PUBLIC_KEY, PAYLOAD_XML);
+
+    assertThat(testSubject.find(signedMessage("other.tld", BODY), PUBLIC_KEY)).isEmpty();
+  }
+
+  @Test
+  void find_expired() {
+    var settings = new CacheSettings(10, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+    var cache = new VerifiedMessageCache(new ExpiringCache<>(key -> Optional.empty(), settings, Runnable::run, clock));
+    given(clock.millis()).willReturn(0L, 59_999L, 60_000L);
+    cache.put(signedMessage(DOMAIN, BODY), PUBLIC_KEY, PAYLOAD_XML);
+
+    assertThat(cache.find(signedMessage(DOMAIN, BODY), PUBLIC_KEY)).isPresent();
+    assertThat(cache.find(signedMessage(DOMAIN, BODY), PUBLIC_KEY)).isEmpty();
+  }
+
+  @Test
+  void put_evictsWhenFull() {
+    var cache = new VerifiedMessageCache(new CacheSettings(2, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO));
+
+    for (int i = 0; i < 3; i++) {
+      cache.put(signedMessage(DOMAIN, ("BODY" + i).getBytes(StandardCharsets.UTF_8)), PUBLIC_KEY, PAYLOAD_XML);
+    }
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.stats().evictions()).isEqualTo(1);
+  }
+
+  @Test
+  void invalidateAll() {
+    testSubject.put(signedMessage(DOMAIN, BODY), PUBLIC_KEY, PAYLOAD_XML);
+
+    testSubject.invalidateAll();
+
+    assertThat(testSubject.size()).isZero();
+    assertThat(testSubject.find(signedMessage(DOMAIN, BODY), PUBLIC_KEY)).isEmpty();
+  }
+
+  private static SignedMessage signedMessage(String domain, byte[] body) {
+    var signedMessage = new SignedMessage();
+    signedMessage.setSenderDomain(domain);
+    signedMessage.setSenderRole(ROLE);
+    signedMessage.setBody(body);
+    return signedMessage;
+  }
+}
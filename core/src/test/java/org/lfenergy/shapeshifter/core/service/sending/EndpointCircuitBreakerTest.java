@@ -0,0 +1,139 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.shapeshifter.core.service.sending.EndpointCircuitBreaker.State;
+
+class EndpointCircuitBreakerTest {
+
+  private static final String ENDPOINT = "https://example.com/shapeshifter/api/v3/message";
+  private static final String OTHER_ENDPOINT = "https://example.org/shapeshifter/api/v3/message";
+
+  private final MutableClock clock = new MutableClock();
+  private final EndpointCircuitBreaker testSubject = new EndpointCircuitBreaker(3, Duration.ofSeconds(30), clock);
+
+  @Test
+  void closed_untilFailureThreshold() {
+    testSubject.onFailure(ENDPOINT);
+    testSubject.onFailure(ENDPOINT);
+
+    assertThat(testSubject.allowRequest(ENDPOINT)).isTrue();
+    assertThat(testSubject.getState(ENDPOINT)).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void open_afterFailureThreshold() {
+    openCircuit();
+
+    assertThat(testSubject.allowRequest(ENDPOINT)).isFalse();
+    assertThat(testSubject.getState(ENDPOINT)).isEqualTo(State.OPEN);
+    assertThat(testSubject.allowRequest(OTHER_ENDPOINT)).isTrue();
+  }
+
+  @Test
+  void success_resetsConsecutiveFailures() {
+    testSubject.onFailure(ENDPOINT);
+    testSubject.onFailure(ENDPOINT);
+    testSubject.onSuccess(ENDPOINT);
+    testSubject.onFailure(ENDPOINT);
+
+    assertThat(testSubject.getState(ENDPOINT)).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void halfOpen_letsOneProbeThrough() {
+    openCircuit();
+    clock.advance(Duration.ofSeconds(30));
+
+    assertThat(testSubject.allowRequest(ENDPOINT)).isTrue();
+    assertThat(testSubject.getState(ENDPOINT)).isEqualTo(State.HALF_OPEN);
+    assertThat(testSubject.allowRequest(ENDPOINT)).isFalse();
+  }
+
+  @Test
+  void halfOpen_probeSucceeds_closes() {
+    openCircuit();
+    clock.advance(Duration.ofSeconds(30));
+    testSubject.allowRequest(ENDPOINT);
+
+    testSubject.onSuccess(ENDPOINT);
+
+    assertThat(testSubject.getState(ENDPOINT)).isEqualTo(State.CLOSED);
+    assertThat(testSubject.allowRequest(ENDPOINT)).isTrue();
+  }
+
+  @Test
+  void halfOpen_probeFails_opensAgain() {
+    openCircuit();
+    clock.advance(Duration.ofSeconds(30));
+    testSubject.allowRequest(ENDPOINT);
+
+    testSubject.onFailure(ENDPOINT);
+
+    assertThat(testSubject.getState(ENDPOINT)).isEqualTo(State.OPEN);
+    clock.advance(Duration.ofSeconds(29));
+    assertThat(testSubject.allowRequest(ENDPOINT)).isFalse();
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(testSubject.allowRequest(ENDPOINT)).isTrue();
+  }
+
+  @Test
+  void halfOpen_probeOutcomeNeverReported_nextProbeAfterOpenDuration() {
+    openCircuit();
+    clock.advance(Duration.ofSeconds(30));
+    testSubject.allowRequest(ENDPOINT);
+
+    clock.advance(Duration.ofSeconds(30));
+
+    assertThat(testSubject.allowRequest(ENDPOINT)).isTrue();
+  }
+
+  @Test
+  void invalidSettings() {
+    var openDuration = Duration.ofSeconds(1);
+
+    assertThrows(IllegalArgumentException.class, () -> new EndpointCircuitBreaker(0, openDuration));
+    assertThrows(IllegalArgumentException.class, () -> new EndpointCircuitBreaker(1, Duration.ZERO));
+  }
+
+  private void openCircuit() {
+    testSubject.onFailure(ENDPOINT);
+    testSubject.onFailure(ENDPOINT);
+    testSubject.onFailure(ENDPOINT);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+import java.time.Clock;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectCacheTest {
+
+  private static final String ENDPOINT = "https://example.com/shapeshifter/api/v3/message";
+  private static final String TARGET = "https://node-1.example.com/shapeshifter/api/v3/message";
+
+  @Mock
+  private Clock clock;
+
+  private RedirectCache testSubject;
+
+  @BeforeEach
+  void setUp() {
+    testSubject = new RedirectCache(10, Duration.ofMinutes(10), Duration.ofSeconds(5), clock);
+  }
+
+  @Test
+  void find_nothingRemembered() {
+    assertThat(testSubject.find(ENDPOINT)).isEmpty();
+    assertThat(testSubject.stats()).isEqualTo(new RedirectCacheStats(0, 1, 0));
+  }
+
+  @Test
+  void permanentRedirect_rememberedForPermanentTtl() {
+    given(clock.millis()).willReturn(0L);
+    testSubject.remember(ENDPOINT, TARGET, true);
+
+    given(clock.millis()).willReturn(Duration.ofMinutes(10).toMillis() - 1);
+    assertThat(testSubject.find(ENDPOINT)).contains(TARGET);
+    given(clock.millis()).willReturn(Duration.ofMinutes(10).toMillis());
+    assertThat(testSubject.find(ENDPOINT)).isEmpty();
+    assertThat(testSubject.stats()).isEqualTo(new RedirectCacheStats(1, 1, 0));
+  }
+
+  @Test
+  void temporaryRedirect_rememberedForTemporaryTtl() {
+    given(clock.millis()).willReturn(0L);
+    testSubject.remember(ENDPOINT, TARGET, false);
+
+    given(clock.millis()).willReturn(Duration.ofSeconds(5).toMillis() - 1);
+    assertThat(testSubject.find(ENDPOINT)).contains(TARGET);
+    given(clock.millis()).willReturn(Duration.ofSeconds(5).toMillis());
+    assertThat(testSubject.find(ENDPOINT)).isEmpty();
+  }
+
+  @Test
+  void temporaryRedirect_notRememberedWithoutTemporaryTtl() {
+    var cache = new RedirectCache();
+
+    cache.remember(ENDPOINT, TARGET, false);
+
+    assertThat(cache.find(ENDPOINT)).isEmpty();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void invalidate_countsRememberedTargetsOnly() {
+    given(clock.millis()).willReturn(0L);
+    testSubject.remember(ENDPOINT, TARGET, true);
+
+    testSubject.invalidate(ENDPOINT);
+    testSubject.invalidate(ENDPOINT);
+
+    assertThat(testSubject.find(ENDPOINT)).isEmpty();
+    assertThat(testSubject.stats().invalidations()).isEqualTo(1);
+  }
+
+  @Test
+  void invalidateAll() {
+    given(clock.millis()).willReturn(0L);
+    testSubject.remember(ENDPOINT, TARGET, true);
+    testSubject.remember(TARGET, ENDPOINT, false);
+
+    assertThat(testSubject.size()).isEqualTo(2);
+    testSubject.invalidateAll();
+
+    assertThat(testSubject.size()).isZero();
+  }
+
+  @Test
+  void stats_hitRate() {
+    given(clock.millis()).willReturn(0L);
+    testSubject.remember(ENDPOINT, TARGET, true);
+
+    testSubject.find(ENDPOINT);
+    testSubject.find(ENDPOINT);
+    testSubject.find(ENDPOINT);
+    testSubject.find(TARGET);
+
+    assertThat(testSubject.stats().hitRate()).isEqualTo(0.75);
+  }
+
+  @Test
+  void invalidSettings() {
+    var ttl = Duration.ofMinutes(1);
+
+    assertThrows(IllegalArgumentException.class, () -> new RedirectCache(0, ttl, ttl));
+    assertThrows(IllegalArgumentException.class, () -> new RedirectCache(1, Duration.ZERO, ttl));
+    assertThrows(IllegalArgumentException.class, () -> new RedirectCache(1, ttl, Duration.ofSeconds(-1)));
+  }
+}
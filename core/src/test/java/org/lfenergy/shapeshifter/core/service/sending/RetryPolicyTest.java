@@ -0,0 +1,97 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+
+class RetryPolicyTest {
+
+  private final RetryPolicy testSubject = new RetryPolicy(5, Duration.ofMillis(100), Duration.ofMillis(500), 2.0, 0.5);
+
+  @Test
+  void backoff_growsExponentiallyUpToMaxBackoff() {
+    assertThat(testSubject.backoff(1, 0.0)).isEqualTo(Duration.ofMillis(100));
+    assertThat(testSubject.backoff(2, 0.0)).isEqualTo(Duration.ofMillis(200));
+    assertThat(testSubject.backoff(3, 0.0)).isEqualTo(Duration.ofMillis(400));
+    assertThat(testSubject.backoff(4, 0.0)).isEqualTo(Duration.ofMillis(500));
+    assertThat(testSubject.backoff(50, 0.0)).isEqualTo(Duration.ofMillis(500));
+  }
+
+  @Test
+  void backoff_jitterRandomizesPartOfTheWait() {
+    assertThat(testSubject.backoff(2, 0.5)).isEqualTo(Duration.ofMillis(150));
+    assertThat(testSubject.backoff(2, 0.999)).isGreaterThan(Duration.ofMillis(100));
+  }
+
+  @Test
+  void shouldRetry_untilMaxAttempts() {
+    var failure = new UftpServerErrorException("Server error", HttpStatusCode.SERVICE_UNAVAILABLE);
+
+    assertThat(testSubject.shouldRetry(failure, 4)).isTrue();
+    assertThat(testSubject.shouldRetry(failure, 5)).isFalse();
+    assertThat(RetryPolicy.NONE.shouldRetry(failure, 1)).isFalse();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {500, 502, 503, 504})
+  void isRetryable_serverError(int statusCode) {
+    assertThat(RetryPolicy.isRetryable(new UftpServerErrorException("Server error", HttpStatusCode.valueOf(statusCode)))).isTrue();
+  }
+
+  @Test
+  void isRetryable_tooManyRequests() {
+    assertThat(RetryPolicy.isRetryable(new UftpClientErrorException("Client error", HttpStatusCode.TOO_MANY_REQUESTS))).isTrue();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {400, 401, 403, 404, 409})
+  void isRetryable_clientError(int statusCode) {
+    assertThat(RetryPolicy.isRetryable(new UftpClientErrorException("Client error", HttpStatusCode.valueOf(statusCode)))).isFalse();
+  }
+
+  @Test
+  void isRetryable_ioError() {
+    assertThat(RetryPolicy.isRetryable(new UftpSendException("I/O error", new ConnectException()))).isTrue();
+    assertThat(RetryPolicy.isRetryable(new UftpSendException("I/O error", new IOException()))).isTrue();
+  }
+
+  @Test
+  void isRetryable_otherFailures() {
+    assertThat(RetryPolicy.isRetryable(new UftpSendException("Invalid endpoint", new IllegalArgumentException()))).isFalse();
+    assertThat(RetryPolicy.isRetryable(new UftpSendException("Too many redirects"))).isFalse();
+    assertThat(RetryPolicy.isRetryable(new UftpSendException("Interrupted", new InterruptedException()))).isFalse();
+  }
+
+  @Test
+  void invalidSettings() {
+    var zero = Duration.ZERO;
+    var second = Duration.ofSeconds(1);
+
+    assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, zero, zero, 1.0, 0.0));
+    assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, Duration.ofSeconds(-1), zero, 1.0, 0.0));
+    assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, second, zero, 1.0, 0.0));
+    assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, zero, second, 0.5, 0.0));
+    assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, zero, second, 1.0, 1.5));
+    assertThrows(NullPointerException.class, () -> new RetryPolicy(1, null, second, 1.0, 0.0));
+  }
+
+  @Test
+  void exponential() {
+    var actual = RetryPolicy.exponential(3, Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+    assertThat(actual.maxAttempts()).isEqualTo(3);
+    assertThat(actual.multiplier()).isEqualTo(2.0);
+    assertThat(actual.jitter()).isEqualTo(0.5);
+  }
+}
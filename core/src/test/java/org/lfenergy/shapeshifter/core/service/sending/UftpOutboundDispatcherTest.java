@@ -0,0 +1,208 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lfenergy.shapeshifter.api.FlexRequest;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.model.SigningDetails;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.sending.OutboundDispatcherSettings.OverflowPolicy;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UftpOutboundDispatcherTest {
+
+  private static final UftpParticipant SENDER = new UftpParticipant("dso.tld", USEFRoleType.DSO);
+  private static final UftpParticipant SLOW_RECIPIENT = new UftpParticipant("slow.tld", USEFRoleType.AGR);
+  private static final UftpParticipant OTHER_RECIPIENT = new UftpParticipant("other.tld", USEFRoleType.AGR);
+  private static final SigningDetails SLOW_DETAILS = new SigningDetails(SENDER, "PRIVATE_KEY", SLOW_RECIPIENT);
+  private static final SigningDetails OTHER_DETAILS = new SigningDetails(SENDER, "PRIVATE_KEY", OTHER_RECIPIENT);
+
+  @Mock
+  private UftpSendMessageService sendMessageService;
+
+  private final FlexRequest first = new FlexRequest();
+  private final FlexRequest second = new FlexRequest();
+  private final FlexRequest third = new FlexRequest();
+
+  @AfterEach
+  void noMore() {
+    verifyNoMoreInteractions(sendMessageService);
+  }
+
+  @Test
+  void attemptToSendMessage_limitsMessagesInFlightPerRecipient() {
+    var firstSending = new CompletableFuture<Void>();
+    var secondSending = new CompletableFuture<Void>();
+    given(sendMessageService.attemptToSendMessageAsync(first, SLOW_DETAILS)).willReturn(firstSending);
+    given(sendMessageService.attemptToSendMessageAsync(second, SLOW_DETAILS)).willReturn(secondSending);
+    var testSubject = new UftpOutboundDispatcher(sendMessageService, settings(1, 1, OverflowPolicy.FAIL));
+
+    var firstResult = testSubject.attemptToSendMessage(first, SLOW_DETAILS);
+    var secondResult = testSubject.attemptToSendMessage(second, SLOW_DETAILS);
+
+    verify(sendMessageService).attemptToSendMessageAsync(first, SLOW_DETAILS);
+    assertThat(testSubject.stats(SLOW_RECIPIENT)).satisfies(stats -> {
+      assertThat(stats.inFlight()).isEqualTo(1);
+      assertThat(stats.queued()).isEqualTo(1);
+    });
+
+    firstSending.complete(null);
+
+    assertThat(firstResult).isCompleted();
+    assertThat(secondResult).isNotDone();
+    verify(sendMessageService).attemptToSendMessageAsync(second, SLOW_DETAILS);
+
+    secondSending.complete(null);
+
+    assertThat(secondResult).isCompleted();
+    assertThat(testSubject.stats(SLOW_RECIPIENT)).satisfies(stats -> {
+      assertThat(stats.inFlight()).isZero();
+      assertThat(stats.queued()).isZero();
+      assertThat(stats.sent()).isEqualTo(2);
+      assertThat(stats.averageSendTime()).isPositive();
+    });
+  }
+
+  @Test
+  void attemptToSendMessage_fullQueue_doesNotAffectOtherRecipients() {
+    given(sendMessageService.attemptToSendMessageAsync(first, SLOW_DETAILS)).willReturn(new CompletableFuture<>());
+    given(sendMessageService.attemptToSendMessageAsync(third, OTHER_DETAILS)).willReturn(CompletableFuture.completedFuture(null));
+    var testSubject = new UftpOutboundDispatcher(sendMessageService, settings(1, 0, OverflowPolicy.FAIL));
+
+    testSubject.attemptToSendMessage(first, SLOW_DETAILS);
+    var rejected = testSubject.attemptToSendMessage(second, SLOW_DETAILS);
+    var other = testSubject.attemptToSendMessage(third, OTHER_DETAILS);
+
+    var failure = assertThrows(CompletionException.class, rejected::join).getCause();
+    assertThat(failure)
+        .isInstanceOf(UftpSendException.class)
+        .hasMessage("Could not send UFTP message; the outbound queue of " + SLOW_RECIPIENT + " is full (0 messages)");
+    assertThat(((UftpSendException) failure).getHttpStatusCode()).isEqualTo(HttpStatusCode.SERVICE_UNAVAILABLE);
+    assertThat(other).isCompleted();
+    assertThat(testSubject.stats(SLOW_RECIPIENT).rejected()).isEqualTo(1);
+    assertThat(testSubject.stats()).extracting(OutboundQueueStats::recipient).containsExactlyInAnyOrder(SLOW_RECIPIENT, OTHER_RECIPIENT);
+    verify(sendMessageService).attemptToSendMessageAsync(first, SLOW_DETAILS);
+    verify(sendMessageService).attemptToSendMessageAsync(third, OTHER_DETAILS);
+  }
+
+  @Test
+  void attemptToSendMessage_fullQueue_reject() {
+    given(sendMessageService.attemptToSendMessageAsync(first, SLOW_DETAILS)).willReturn(new CompletableFuture<>());
+    var testSubject = new UftpOutboundDispatcher(sendMessageService, settings(1, 0, OverflowPolicy.REJECT));
+    testSubject.attemptToSendMessage(first, SLOW_DETAILS);
+
+    assertThatThrownBy(() -> testSubject.attemptToSendMessage(second, SLOW_DETAILS))
+        .isInstanceOf(UftpSendException.class)
+        .hasMessage("Could not send UFTP message; the outbound queue of " + SLOW_RECIPIENT + " is full (0 messages)");
+    verify(sendMessageService).attemptToSendMessageAsync(first, SLOW_DETAILS);
+  }
+
+  @Test
+  void attemptToSendMessage_fullQueue_blockUntilTimeout() {
+    given(sendMessageService.attemptToSendMessageAsync(first, SLOW_DETAILS)).willReturn(new CompletableFuture<>());
+    var testSubject = new UftpOutboundDispatcher(sendMessageService, new OutboundDispatcherSettings(0, 1, OverflowPolicy.BLOCK, Duration.ofMillis(20)));
+    testSubject.attemptToSendMessage(first, SLOW_DETAILS);
+
+    assertThatThrownBy(() -> testSubject.attemptToSendMessage(second, SLOW_DETAILS)).isInstanceOf(UftpSendException.class);
+    verify(sendMessageService).attemptToSendMessageAsync(first, SLOW_DETAILS);
+  }
+
+  @Test
+  void attemptToSendMessage_fullQueue_blockUntilRoom() throws Exception {
+    var firstSending = new CompletableFuture<Void>();
+    given(sendMessageService.attemptToSendMessageAsync(first, SLOW_DETAILS)).willReturn(firstSending);
+    given(sendMessageService.attemptToSendMessageAsync(second, SLOW_DETAILS)).willReturn(CompletableFuture.completedFuture(null));
+    var testSubject = new UftpOutboundDispatcher(sendMessageService, new OutboundDispatcherSettings(0, 1, OverflowPolicy.BLOCK, Duration.ofSeconds(10)));
+    testSubject.attemptToSendMessage(first, SLOW_DETAILS);
+
+    var scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      scheduler.schedule(() -> firstSending.complete(null), 50, TimeUnit.MILLISECONDS);
+
+      var secondResult = testSubject.attemptToSendMessage(second, SLOW_DETAILS);
+
+      assertThat(secondResult.get(10, TimeUnit.SECONDS)).isNull();
+    } finally {
+      scheduler.shutdownNow();
+    }
+    verify(sendMessageService).attemptToSendMessageAsync(first, SLOW_DETAILS);
+    verify(sendMessageService).attemptToSendMessageAsync(second, SLOW_DETAILS);
+  }
+
+  @Test
+  void attemptToSendMessage_sendFailure_startsNextMessage() {
+    var sendFailure = new UftpServerErrorException("Server error", HttpStatusCode.INTERNAL_SERVER_ERROR);
+    var runtimeException = new IllegalStateException("Unexpected");
+    given(sendMessageService.attemptToSendMessageAsync(first, SLOW_DETAILS)).willReturn(CompletableFuture.failedFuture(new CompletionException(sendFailure)));
+    given(sendMessageService.attemptToSendMessageAsync(second, SLOW_DETAILS)).willThrow(runtimeException);
+    given(sendMessageService.attemptToSendMessageAsync(third, SLOW_DETAILS)).willReturn(CompletableFuture.completedFuture(null));
+    var testSubject = new UftpOutboundDispatcher(sendMessageService, settings(1, 10, OverflowPolicy.FAIL));
+
+    var firstResult = testSubject.attemptToSendMessage(first, SLOW_DETAILS);
+    var secondResult = testSubject.attemptToSendMessage(second, SLOW_DETAILS);
+    var thirdResult = testSubject.attemptToSendMessage(third, SLOW_DETAILS);
+
+    assertThat(assertThrows(CompletionException.class, firstResult::join)).hasCause(sendFailure);
+    assertThat(assertThrows(CompletionException.class, secondResult::join)).hasCause(runtimeException);
+    assertThat(thirdResult).isCompleted();
+    assertThat(testSubject.stats(SLOW_RECIPIENT)).satisfies(stats -> {
+      assertThat(stats.sent()).isEqualTo(1);
+      assertThat(stats.failed()).isEqualTo(2);
+    });
+    verify(sendMessageService, times(3)).attemptToSendMessageAsync(any(), eq(SLOW_DETAILS));
+  }
+
+  @Test
+  void attemptToValidateAndSendMessage() {
+    given(sendMessageService.attemptToValidateAndSendMessageAsync(first, SLOW_DETAILS)).willReturn(CompletableFuture.completedFuture(null));
+    var testSubject = new UftpOutboundDispatcher(sendMessageService);
+
+    assertThat(testSubject.attemptToValidateAndSendMessage(first, SLOW_DETAILS)).isCompleted();
+    assertThat(testSubject.getSettings()).isEqualTo(OutboundDispatcherSettings.DEFAULT);
+  }
+
+  @Test
+  void stats_unknownRecipient() {
+    var testSubject = new UftpOutboundDispatcher(sendMessageService);
+
+    assertThat(testSubject.stats(SLOW_RECIPIENT)).isEqualTo(new OutboundQueueStats(SLOW_RECIPIENT, 0, 0, 0, 0, 0, Duration.ZERO, Duration.ZERO));
+    assertThat(testSubject.stats()).isEmpty();
+  }
+
+  @Test
+  void settings_invalid() {
+    assertThatThrownBy(() -> new OutboundDispatcherSettings(-1, 1, OverflowPolicy.FAIL, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class).hasMessage("maxQueueSize must not be negative");
+    assertThatThrownBy(() -> new OutboundDispatcherSettings(1, 0, OverflowPolicy.FAIL, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class).hasMessage("maxInFlight must be positive");
+    assertThatThrownBy(() -> new OutboundDispatcherSettings(1, 1, OverflowPolicy.FAIL, Duration.ofSeconds(-1)))
+        .isInstanceOf(IllegalArgumentException.class).hasMessage("blockTimeout must not be negative");
+  }
+
+  private static OutboundDispatcherSettings settings(int maxInFlight, int maxQueueSize, OverflowPolicy overflowPolicy) {
+    return new OutboundDispatcherSettings(maxQueueSize, maxInFlight, overflowPolicy, Duration.ZERO);
+  }
+}
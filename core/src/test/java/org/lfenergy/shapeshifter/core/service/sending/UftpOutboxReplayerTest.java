@@ -0,0 +1,90 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UftpOutboxReplayerTest {
+
+  @Mock
+  private UftpSendMessageService sendMessageService;
+
+  private UftpOutboxReplayer testSubject;
+
+  @AfterEach
+  void tearDown() {
+    if (testSubject != null) {
+      testSubject.close();
+    }
+  }
+
+  @Test
+  void start_replaysPeriodically() {
+    given(sendMessageService.replayOutbox()).willReturn(1, 0);
+    testSubject = new UftpOutboxReplayer(sendMessageService, Duration.ofMillis(10));
+
+    testSubject.start();
+
+    verify(sendMessageService, timeout(5000).atLeast(3)).replayOutbox();
+  }
+
+  @Test
+  void start_failingReplayDoesNotStopReplaying() {
+    given(sendMessageService.replayOutbox()).willThrow(new UftpSendException("Outbox is closed"));
+    testSubject = new UftpOutboxReplayer(sendMessageService, Duration.ofMillis(10));
+
+    testSubject.start();
+
+    verify(sendMessageService, timeout(5000).atLeast(2)).replayOutbox();
+  }
+
+  @Test
+  void close_stopsReplaying() throws Exception {
+    var replays = new AtomicInteger();
+    given(sendMessageService.replayOutbox()).willAnswer(invocation -> {
+      replays.incrementAndGet();
+      return 0;
+    });
+    testSubject = new UftpOutboxReplayer(sendMessageService, Duration.ofMillis(10));
+    testSubject.start();
+    verify(sendMessageService, timeout(5000).atLeastOnce()).replayOutbox();
+
+    testSubject.close();
+    var replaysWhenClosed = replays.get();
+    Thread.sleep(100);
+
+    assertThat(replays).hasValue(replaysWhenClosed);
+  }
+
+  @Test
+  void notStarted_doesNotReplay() {
+    testSubject = new UftpOutboxReplayer(sendMessageService);
+
+    assertThat(testSubject.getInterval()).isEqualTo(UftpOutboxReplayer.DEFAULT_INTERVAL);
+    verifyNoInteractions(sendMessageService);
+  }
+
+  @Test
+  void interval_mustBePositive() {
+    var interval = Duration.ZERO;
+    var thrown = assertThrows(IllegalArgumentException.class, () -> new UftpOutboxReplayer(sendMessageService, interval));
+
+    assertThat(thrown).hasMessage("interval must be positive");
+  }
+}
@@ -0,0 +1,295 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.sending;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+
+class UftpOutboxTest {
+
+  private static final UftpParticipant RECIPIENT = new UftpParticipant("dso.example.com", USEFRoleType.DSO);
+  private static final UftpParticipant OTHER_RECIPIENT = new UftpParticipant("agr.example.com", USEFRoleType.AGR);
+  private static final OutboxSettings SMALL_SEGMENTS = new OutboxSettings(4096, true);
+
+  @TempDir
+  private Path directory;
+
+  private UftpOutbox testSubject;
+
+  @AfterEach
+  void tearDown() {
+    if (testSubject != null) {
+      testSubject.close();
+    }
+  }
+
+  @Test
+  void append_pendingUntilMarked() {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+    var first = testSubject.append(RECIPIENT, xml("first"));
+    var second = testSubject.append(OTHER_RECIPIENT, xml("second"));
+
+    assertThat(second).isGreaterThan(first);
+    assertThat(testSubject.pendingEntries()).extracting(OutboxEntry::sequence, OutboxEntry::recipient, entry -> text(entry.signedXml()))
+                                            .containsExactly(tuple(first, RECIPIENT, "first"),
+                                                             tuple(second, OTHER_RECIPIENT, "second"));
+
+    testSubject.markDelivered(first);
+    testSubject.markFailed(second);
+
+    assertThat(testSubject.pendingEntries()).isEmpty();
+    assertThat(testSubject.pendingCount()).isZero();
+  }
+
+  @Test
+  void markDelivered_unknownSequenceIgnored() {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var sequence = testSubject.append(RECIPIENT, xml("message"));
+
+    testSubject.markDelivered(sequence);
+    testSubject.markDelivered(sequence);
+    testSubject.markFailed(42);
+
+    assertThat(testSubject.pendingCount()).isZero();
+  }
+
+  @Test
+  void append_claimedUntilReleased() {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var sequence = testSubject.append(RECIPIENT, xml("message"));
+
+    assertThat(testSubject.claim(sequence)).isFalse();
+
+    testSubject.release(sequence);
+
+    assertThat(testSubject.claim(sequence)).isTrue();
+    assertThat(testSubject.claim(sequence)).isFalse();
+    assertThat(testSubject.pendingCount()).isOne();
+  }
+
+  @Test
+  void claim_markedOrUnknownSequence() {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var sequence = testSubject.append(RECIPIENT, xml("message"));
+    testSubject.markDelivered(sequence);
+
+    assertThat(testSubject.claim(sequence)).isFalse();
+    assertThat(testSubject.claim(42)).isFalse();
+  }
+
+  @Test
+  void reopen_recoveredEntriesNotClaimed() {
+    var previous = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var sequence = previous.append(RECIPIENT, xml("message"));
+    previous.close();
+
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+    assertThat(testSubject.claim(sequence)).isTrue();
+  }
+
+  @Test
+  void reopen_recoversPendingEntriesInOrder() {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var sequences = new ArrayList<Long>();
+    for (var i = 0; i < 50; i++) {
+      sequences.add(testSubject.append(RECIPIENT, xml("message-" + i)));
+    }
+    for (var i = 0; i < 50; i += 2) {
+      testSubject.markDelivered(sequences.get(i));
+    }
+    testSubject.close();
+
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+    var pending = testSubject.pendingEntries();
+    assertThat(pending).hasSize(25);
+    for (var i = 0; i < 25; i++) {
+      assertThat(pending.get(i).sequence()).isEqualTo(sequences.get(2 * i + 1));
+      assertThat(pending.get(i).recipient()).isEqualTo(RECIPIENT);
+      assertThat(text(pending.get(i).signedXml())).isEqualTo("message-" + (2 * i + 1));
+    }
+    assertThat(testSubject.append(RECIPIENT, xml("next"))).isGreaterThan(sequences.get(49));
+  }
+
+  @Test
+  void reopen_withoutClose_recoversPendingEntries() {
+    // Without close, nothing is deleted or forced by the outbox itself, as after a crash of the application
+    var crashed = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var delivered = crashed.append(RECIPIENT, xml("delivered"));
+    var pending = crashed.append(RECIPIENT, xml("pending"));
+    crashed.markDelivered(delivered);
+
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+    assertThat(testSubject.pendingEntries()).extracting(OutboxEntry::sequence).containsExactly(pending);
+  }
+
+  @Test
+  void markDelivered_compactsFinishedSegments() throws IOException {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var sequences = new ArrayList<Long>();
+    for (var i = 0; i < 100; i++) {
+      sequences.add(testSubject.append(RECIPIENT, xml("message-" + i)));
+    }
+    assertThat(testSubject.segmentCount()).isGreaterThan(1);
+    assertThat(segmentFiles()).hasSize(testSubject.segmentCount());
+
+    sequences.forEach(testSubject::markDelivered);
+
+    // The active segment is kept until the next segment is started
+    assertThat(testSubject.segmentCount()).isEqualTo(1);
+    assertThat(segmentFiles()).hasSize(1);
+
+    testSubject.close();
+    assertThat(segmentFiles()).isEmpty();
+  }
+
+  @Test
+  void reopen_finishedSegmentsDeleted() throws IOException {
+    var previous = new UftpOutbox(directory, SMALL_SEGMENTS);
+    previous.markDelivered(previous.append(RECIPIENT, xml("message")));
+
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+    assertThat(testSubject.pendingCount()).isZero();
+    assertThat(segmentFiles()).isEmpty();
+  }
+
+  @Test
+  void append_largerThanSegment_getsSegmentOfItsOwn() {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var large = "x".repeat(10_000);
+
+    var sequence = testSubject.append(RECIPIENT, xml(large));
+    testSubject.close();
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+    assertThat(testSubject.pendingEntries()).singleElement()
+                                            .satisfies(entry -> assertThat(entry.sequence()).isEqualTo(sequence))
+                                            .satisfies(entry -> assertThat(text(entry.signedXml())).isEqualTo(large));
+  }
+
+  @Test
+  void reopen_corruptRecordIgnored() throws IOException {
+    var previous = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var intact = previous.append(RECIPIENT, xml("intact"));
+    previous.append(RECIPIENT, xml("corrupt"));
+    previous.append(RECIPIENT, xml("after"));
+    previous.close();
+
+    var segment = segmentFiles().get(0);
+    try (var channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      var content = ByteBuffer.allocate((int) channel.size());
+      channel.read(content, 0);
+      var offset = indexOf(content.array(), "corrupt".getBytes(StandardCharsets.UTF_8));
+      channel.write(ByteBuffer.wrap("C".getBytes(StandardCharsets.UTF_8)), offset);
+    }
+
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+    // Records after a corrupt record cannot be trusted and are not recovered either
+    assertThat(testSubject.pendingEntries()).extracting(OutboxEntry::sequence).containsExactly(intact);
+  }
+
+  @Test
+  void append_afterClose_throws() {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    testSubject.close();
+
+    var payload = xml("message");
+    var thrown = assertThrows(UftpSendException.class, () -> testSubject.append(RECIPIENT, payload));
+
+    assertThat(thrown).hasMessage("Could not write UFTP message to the outbox; the outbox is closed");
+  }
+
+  @Test
+  void append_concurrently_allEntriesRecovered() throws Exception {
+    testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var tasks = new ArrayList<Callable<Long>>();
+      for (var i = 0; i < 400; i++) {
+        var message = xml("message-" + i);
+        tasks.add(() -> testSubject.append(RECIPIENT, message));
+      }
+      var sequences = new ArrayList<Long>();
+      for (var future : executor.invokeAll(tasks)) {
+        sequences.add(future.get());
+      }
+      testSubject.close();
+
+      testSubject = new UftpOutbox(directory, SMALL_SEGMENTS);
+
+      assertThat(testSubject.pendingEntries()).extracting(OutboxEntry::sequence).containsExactlyInAnyOrderElementsOf(sequences).isSorted();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void withoutFsync_entriesRecovered() {
+    var settings = new OutboxSettings(4096, false);
+    var previous = new UftpOutbox(directory, settings);
+    var sequence = previous.append(RECIPIENT, xml("message"));
+    previous.close();
+
+    testSubject = new UftpOutbox(directory, settings);
+
+    assertThat(testSubject.pendingEntries()).extracting(OutboxEntry::sequence).containsExactly(sequence);
+    assertThat(testSubject.getSettings()).isEqualTo(settings);
+  }
+
+  @Test
+  void settings_segmentSizeTooSmall() {
+    var thrown = assertThrows(IllegalArgumentException.class, () -> new OutboxSettings(1024, true));
+
+    assertThat(thrown).hasMessage("segmentSize must be at least 4096 bytes");
+  }
+
+  private List<Path> segmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().toList();
+    }
+  }
+
+  private static byte[] xml(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String text(byte[] xml) {
+    return new String(xml, StandardCharsets.UTF_8);
+  }
+
+  private static int indexOf(byte[] content, byte[] part) {
+    for (var i = 0; i <= content.length - part.length; i++) {
+      if (Arrays.equals(content, i, i + part.length, part, 0, part.length)) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("Not found");
+  }
+}
@@ -5,6 +5,7 @@
 package org.lfenergy.shapeshifter.core.service.sending;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,6 +21,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.lfenergy.shapeshifter.api.FlexRequest;
@@ -28,13 +30,17 @@ import org.lfenergy.shapeshifter.api.SignedMessage;
 import org.lfenergy.shapeshifter.api.USEFRoleType;
 import org.lfenergy.shapeshifter.api.model.UftpParticipantInformation;
 import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.model.SigningDetails;
 import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.ParticipantAuthorizationProvider;
 import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpMessageSigner;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpSigningKey;
 import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
 import org.lfenergy.shapeshifter.core.service.participant.UftpParticipantInformationBuilder;
 import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
+import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializerException;
 import org.lfenergy.shapeshifter.core.service.validation.UftpValidationService;
 import org.lfenergy.shapeshifter.core.service.validation.model.ValidationResult;
 import org.mockito.ArgumentCaptor;
@@ -45,15 +51,26 @@ import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 @ExtendWith(MockitoExtension.class)
 class UftpSendMessageServiceTest {
 
-    private static final String PAYLOAD_XML = "PAYLOAD_XML";
+    private static final byte[] PAYLOAD_XML = "PAYLOAD_XML".getBytes(StandardCharsets.UTF_8);
     private static final String PRIVATE_KEY = "PRIVATE_KEY";
-    private static final String SIGNED_XML = "SIGNED_XML";
+    private static final byte[] SIGNED_XML = "SIGNED_XML".getBytes(StandardCharsets.UTF_8);
     private static final String DOMAIN = "DOMAIN";
     private static final String PATH_HAPPY_FLOW = "/happy-flow/";
     private static final String PATH_204_NO_CONTENT = "/204-no-content/";
@@ -61,6 +78,8 @@ class UftpSendMessageServiceTest {
     private static final String PATH_3XX = "/3xx/";
     private static final String PATH_FORBIDDEN = "/forbidden/";
     private static final String PATH_INTERNAL_SERVER_ERROR = "/internal-server-error/";
+    private static final String PATH_RETRY = "/retry/";
+    private static final String PATH_TARGET = "/target/";
 
     private static WireMockServer wireMockServer;
 
@@ -94,6 +113,8 @@ class UftpSendMessageServiceTest {
 
     @Mock
     private HttpClient httpClient;
+    @TempDir
+    private Path outboxDirectory;
     @Mock
     private HttpResponse<String> httpResponse;
 
@@ -132,11 +153,12 @@ class UftpSendMessageServiceTest {
 
 
     private void mockSerialisation() {
-        given(serializer.toXml(flexRequest)).willReturn(PAYLOAD_XML);
+        given(serializer.toXmlBytes(flexRequest)).willReturn(PAYLOAD_XML);
         given(details.sender()).willReturn(sender);
+        given(details.senderSigningKey()).willReturn(null);
         given(details.senderPrivateKey()).willReturn(PRIVATE_KEY);
         given(cryptoService.signMessage(PAYLOAD_XML, sender, PRIVATE_KEY)).willReturn(signedMessage);
-        given(serializer.toXml(signedMessage)).willReturn(SIGNED_XML);
+        given(serializer.toXmlBytes(signedMessage)).willReturn(SIGNED_XML);
     }
 
     private void mockSending() {
@@ -174,6 +196,23 @@ class UftpSendMessageServiceTest {
         verifyNoValidations();
     }
 
+    @Test
+    void attemptToSendMessage_happyFlow_withSigningKey() {
+        var signingKey = mock(UftpSigningKey.class);
+        given(serializer.toXmlBytes(flexRequest)).willReturn(PAYLOAD_XML);
+        given(details.sender()).willReturn(sender);
+        given(details.senderSigningKey()).willReturn(signingKey);
+        given(cryptoService.signMessage(PAYLOAD_XML, sender, signingKey)).willReturn(signedMessage);
+        given(serializer.toXmlBytes(signedMessage)).willReturn(SIGNED_XML);
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)).withRequestBody(binaryEqualTo(SIGNED_XML)));
+        verifyNoValidations();
+    }
+
     @Test
     void attemptToSendMessage_204_No_Content() {
         mockSerialisation();
@@ -409,11 +448,12 @@ class UftpSendMessageServiceTest {
     @Test
     void attemptToValidateAndSendMessage_OutgoingResponseMessageShouldNotBeValidated() {
         var flexRequestResponse = mock(FlexRequestResponse.class);
-        given(serializer.toXml(flexRequestResponse)).willReturn(PAYLOAD_XML);
+        given(serializer.toXmlBytes(flexRequestResponse)).willReturn(PAYLOAD_XML);
         given(details.sender()).willReturn(sender);
+        given(details.senderSigningKey()).willReturn(null);
         given(details.senderPrivateKey()).willReturn(PRIVATE_KEY);
         given(cryptoService.signMessage(PAYLOAD_XML, sender, PRIVATE_KEY)).willReturn(signedMessage);
-        given(serializer.toXml(signedMessage)).willReturn(SIGNED_XML);
+        given(serializer.toXmlBytes(signedMessage)).willReturn(SIGNED_XML);
 
         mockSending();
         mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
@@ -425,57 +465,1058 @@ class UftpSendMessageServiceTest {
     }
 
     @Test
-    void attemptToSendMessage_appliesReadTimeoutToRequest() throws IOException, InterruptedException {
+    void attemptToSendMessageAsync_happyFlow_withAuthorization() {
         mockSerialisation();
         mockSending();
-        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        mockParticipantServiceWithAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
 
-        var readTimeout = Duration.ofSeconds(42);
+        String authorizationHeader = FAKER.regexify("Bearer [\\w\\d]{20}");
+        given(authorizationProvider.getAuthorizationHeader(any(UftpParticipant.class))).willReturn(authorizationHeader);
 
-        testSubject = new UftpSendMessageService(serializer, cryptoService, participantService, authorizationProvider, uftpValidationService, httpClient);
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
 
-        testSubject.addRequestInterceptor(request -> request.timeout(readTimeout));
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)).withHeader("Authorization", equalTo(authorizationHeader))
+                .withRequestBody(binaryEqualTo(SIGNED_XML)));
+        verifyNoValidations();
+    }
 
-        given(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).willReturn(httpResponse);
-        given(httpResponse.statusCode()).willReturn(200);
+    @ParameterizedTest
+    @ValueSource(ints = {307, 308})
+    void attemptToSendMessageAsync_3xx_followRedirect(int statusCode) {
+        mockSerialisation();
+        mockSending();
+
+        stubFor(post(urlPathMatching(PATH_3XX + ".*"))
+                .willReturn(aResponse()
+                        .withStatus(statusCode)
+                        .withHeader("Location", getEndpointURL(PATH_HAPPY_FLOW))));
+
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_3XX));
+
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+
+        wireMockServer.verify(1, postRequestedFor(urlPathMatching(PATH_3XX + ".*")));
+        wireMockServer.verify(1, postRequestedFor(urlPathMatching(PATH_HAPPY_FLOW)));
+        verifyNoValidations();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {307, 308})
+    void attemptToSendMessageAsync_3xx_followRedirect_tooManyRedirects(int statusCode) {
+        mockSerialisation();
+        mockSending();
+
+        stubFor(post(urlPathMatching(PATH_3XX + ".*"))
+                .willReturn(aResponse()
+                        .withStatus(statusCode)
+                        .withHeader("Location", getEndpointURL(PATH_3XX))));
+
+        var endpoint = getEndpointURL(PATH_3XX);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        wireMockServer.verify(3, postRequestedFor(urlPathMatching(PATH_3XX + ".*")));
+        assertThat(actual)
+                .isInstanceOf(UftpSendException.class)
+                .hasMessage("Too many redirects while sending UFTP message to " + endpoint);
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_ResponseOnBadRequest() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_BAD_REQUEST);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        assertThat(actual)
+                .isInstanceOf(UftpClientErrorException.class)
+                .hasMessage("Client error 400 received while sending UFTP message to " + endpoint + ": Bad Request");
+        assertThat(((UftpClientErrorException) actual).getHttpStatusCode()).isEqualTo(HttpStatusCode.BAD_REQUEST);
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_internalServerError() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_INTERNAL_SERVER_ERROR);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        assertThat(actual)
+                .isInstanceOf(UftpServerErrorException.class)
+                .hasMessage("Server error 500 received while sending UFTP message to " + endpoint + ": Internal Server Error");
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_MalformedUrl() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = "http://???";
+        mockParticipantServiceWithoutAuthorization(endpoint);
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        assertThat(actual)
+                .isInstanceOf(UftpSendException.class)
+                .hasMessage("Could not send UFTP message; invalid endpoint: unsupported URI " + endpoint);
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_connectFailed() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = "http://localhost:1"; // something that will trigger a java.net.ConnectException
+        mockParticipantServiceWithoutAuthorization(endpoint);
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        assertThat(actual)
+                .isInstanceOf(UftpSendException.class)
+                .hasMessage("Unexpected I/O exception while sending UFTP message to " + endpoint + ": ConnectException: null");
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToValidateAndSendMessageAsync_ValidationException() {
+        given(details.sender()).willReturn(sender);
+        given(uftpValidationService.validate(any())).willReturn(new ValidationResult(false, "The message was incorrect"));
+
+        var future = testSubject.attemptToValidateAndSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        assertThat(actual)
+                .isInstanceOf(UftpSendException.class)
+                .hasMessage("Could not send UFTP message; the outgoing FlexRequest message was not valid: The message was incorrect");
+        wireMockServer.verify(0, postRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void attemptToSendMessage_retry_serverErrorThenSuccess() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_RETRY));
+        stubFailingOnce(500);
+        testSubject.setRetryPolicy(new RetryPolicy(3, Duration.ZERO, Duration.ZERO, 1.0, 0.0));
 
         testSubject.attemptToSendMessage(flexRequest, details);
 
-        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
-        verify(httpClient).send(requestCaptor.capture(), any());
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_RETRY)).withRequestBody(binaryEqualTo(SIGNED_XML)));
+        verifyNoValidations();
+    }
 
-        HttpRequest capturedRequest = requestCaptor.getValue();
-        assertThat(capturedRequest.timeout()).isPresent().contains(readTimeout);
+    @Test
+    void attemptToSendMessage_retry_tooManyRequestsThenSuccess() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_RETRY));
+        stubFailingOnce(429);
+        testSubject.setRetryPolicy(new RetryPolicy(3, Duration.ZERO, Duration.ZERO, 1.0, 0.0));
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_RETRY)));
+        verifyNoValidations();
     }
 
     @Test
-    void attemptToSendMessage_noTimeoutByDefault() throws IOException, InterruptedException {
+    void attemptToSendMessage_retry_givesUpAfterMaxAttempts() {
         mockSerialisation();
         mockSending();
-        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_INTERNAL_SERVER_ERROR));
+        testSubject.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(2), 2.0, 0.5));
 
-        testSubject = new UftpSendMessageService(serializer, cryptoService, participantService, authorizationProvider, uftpValidationService, httpClient);
+        var actual = assertThrows(UftpServerErrorException.class, () ->
+                testSubject.attemptToSendMessage(flexRequest, details));
 
-        given(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).willReturn(httpResponse);
-        given(httpResponse.statusCode()).willReturn(200);
+        assertThat(actual.getHttpStatusCode()).isEqualTo(HttpStatusCode.INTERNAL_SERVER_ERROR);
+        wireMockServer.verify(3, postRequestedFor(urlPathEqualTo(PATH_INTERNAL_SERVER_ERROR)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_retry_clientErrorIsNotRetried() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_BAD_REQUEST));
+        testSubject.setRetryPolicy(new RetryPolicy(3, Duration.ZERO, Duration.ZERO, 1.0, 0.0));
+
+        assertThrows(UftpClientErrorException.class, () ->
+                testSubject.attemptToSendMessage(flexRequest, details));
+
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_BAD_REQUEST)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_circuitBreaker_failsFastWhileOpen() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_INTERNAL_SERVER_ERROR);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        testSubject.setCircuitBreaker(new EndpointCircuitBreaker(2, Duration.ofMinutes(1)));
+
+        assertThrows(UftpServerErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        assertThrows(UftpServerErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        var actual = assertThrows(UftpSendException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(actual).hasMessage("Could not send UFTP message; the circuit breaker for " + endpoint + " is open");
+        assertThat(actual.getHttpStatusCode()).isEqualTo(HttpStatusCode.SERVICE_UNAVAILABLE);
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_INTERNAL_SERVER_ERROR)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_circuitBreaker_clientErrorsDoNotOpen() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_BAD_REQUEST));
+        testSubject.setCircuitBreaker(new EndpointCircuitBreaker(1, Duration.ofMinutes(1)));
+
+        assertThrows(UftpClientErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        assertThrows(UftpClientErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_BAD_REQUEST)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_circuitBreaker_probeWithoutResponseDoesNotClose() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_3XX);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        stubFor(post(urlPathEqualTo(PATH_3XX)).inScenario("probe").whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("redirecting"));
+        stubFor(post(urlPathEqualTo(PATH_3XX)).inScenario("probe").whenScenarioStateIs("redirecting")
+                .willReturn(aResponse().withStatus(308)));
+        var now = new AtomicLong();
+        var clock = mock(Clock.class);
+        given(clock.millis()).willAnswer(invocation -> now.get());
+        var circuitBreaker = new EndpointCircuitBreaker(1, Duration.ofMinutes(1), clock);
+        testSubject.setCircuitBreaker(circuitBreaker);
+
+        assertThrows(UftpServerErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        now.addAndGet(Duration.ofMinutes(1).toMillis());
+        // The probe gets a redirect without a location, which does not show that the endpoint takes messages
+        var probe = assertThrows(UftpServerErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(probe).hasMessage("Redirect received without Location header while sending UFTP message to " + endpoint);
+        assertThat(circuitBreaker.getState(endpoint)).isEqualTo(EndpointCircuitBreaker.State.HALF_OPEN);
+        assertThrows(UftpSendException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_3XX)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_circuitBreaker_interruptedProbeDoesNotClose() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_INTERNAL_SERVER_ERROR);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        var now = new AtomicLong();
+        var clock = mock(Clock.class);
+        given(clock.millis()).willAnswer(invocation -> now.get());
+        var circuitBreaker = new EndpointCircuitBreaker(1, Duration.ofMinutes(1), clock);
+        testSubject.setCircuitBreaker(circuitBreaker);
+
+        assertThrows(UftpServerErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        now.addAndGet(Duration.ofMinutes(1).toMillis());
+        Thread.currentThread().interrupt();
+        UftpSendException probe;
+        try {
+            probe = assertThrows(UftpSendException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertThat(probe).hasMessageStartingWith("Interrupted while sending UFTP message to " + endpoint);
+        assertThat(circuitBreaker.getState(endpoint)).isEqualTo(EndpointCircuitBreaker.State.HALF_OPEN);
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_retry_serverErrorThenSuccess() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_RETRY));
+        stubFailingOnce(503);
+        testSubject.setRetryPolicy(new RetryPolicy(2, Duration.ofMillis(5), Duration.ofMillis(5), 1.0, 0.0));
+
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_RETRY)).withRequestBody(binaryEqualTo(SIGNED_XML)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_retry_givesUpAfterMaxAttempts() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_INTERNAL_SERVER_ERROR));
+        testSubject.setRetryPolicy(new RetryPolicy(2, Duration.ZERO, Duration.ZERO, 1.0, 0.0));
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        assertThat(actual).isInstanceOf(UftpServerErrorException.class);
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_INTERNAL_SERVER_ERROR)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_circuitBreaker_failsFastWhileOpen() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_INTERNAL_SERVER_ERROR);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        testSubject.setCircuitBreaker(new EndpointCircuitBreaker(1, Duration.ofMinutes(1)));
+
+        assertThrows(CompletionException.class, testSubject.attemptToSendMessageAsync(flexRequest, details)::join);
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var actual = assertThrows(CompletionException.class, future::join).getCause();
+
+        assertThat(actual).hasMessage("Could not send UFTP message; the circuit breaker for " + endpoint + " is open");
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_INTERNAL_SERVER_ERROR)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_redirectCache_permanentRedirectIsRemembered() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_3XX);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        stubFor(post(urlPathEqualTo(PATH_3XX))
+                .willReturn(aResponse().withStatus(308).withHeader("Location", getEndpointURL(PATH_HAPPY_FLOW))));
+        var redirectCache = new RedirectCache();
+        testSubject.setRedirectCache(redirectCache);
 
+        testSubject.attemptToSendMessage(flexRequest, details);
         testSubject.attemptToSendMessage(flexRequest, details);
 
-        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
-        verify(httpClient).send(requestCaptor.capture(), any());
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_3XX)));
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        assertThat(redirectCache.find(endpoint)).contains(getEndpointURL(PATH_HAPPY_FLOW));
+        assertThat(redirectCache.stats()).isEqualTo(new RedirectCacheStats(2, 1, 0));
+        verifyNoValidations();
+    }
 
-        assertThat(requestCaptor.getValue().timeout()).isEmpty();
+    @Test
+    void attemptToSendMessage_redirectCache_temporaryRedirectIsNotRememberedByDefault() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_3XX));
+        stubFor(post(urlPathEqualTo(PATH_3XX))
+                .willReturn(aResponse().withStatus(307).withHeader("Location", getEndpointURL(PATH_HAPPY_FLOW))));
+        testSubject.setRedirectCache(new RedirectCache());
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_3XX)));
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        verifyNoValidations();
     }
 
+    @Test
+    void attemptToSendMessage_redirectCache_unreachableTargetIsForgotten() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_3XX));
+        stubMovingTarget(503);
+        var redirectCache = new RedirectCache();
+        testSubject.setRedirectCache(redirectCache);
 
-    private void mockParticipantServiceWithAuthorization(String endpointUrl) {
-        UftpParticipantInformation recipientInformation = uftpParticipantInformationBuilder.withEndpoint(endpointUrl).withRequiresAuthorization(true).build();
-        given(participantService.getParticipantInformation(any(UftpParticipant.class))).willReturn(recipientInformation);
+        testSubject.attemptToSendMessage(flexRequest, details);
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_3XX)));
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_TARGET)));
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        assertThat(redirectCache.stats()).isEqualTo(new RedirectCacheStats(1, 1, 1));
+        verifyNoValidations();
     }
 
-    private void mockParticipantServiceWithoutAuthorization(String endpointUrl) {
-        UftpParticipantInformation recipientInformation = uftpParticipantInformationBuilder.withEndpoint(endpointUrl).withRequiresAuthorization(false).build();
-        given(participantService.getParticipantInformation(any(UftpParticipant.class))).willReturn(recipientInformation);
+    @ParameterizedTest
+    @ValueSource(ints = {404, 405, 410, 421})
+    void attemptToSendMessage_redirectCache_staleTargetIsForgotten(int targetStatus) {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_3XX);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        stubMovingTarget(targetStatus);
+        var redirectCache = new RedirectCache();
+        testSubject.setRedirectCache(redirectCache);
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_3XX)));
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_TARGET)));
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        assertThat(redirectCache.find(endpoint)).contains(getEndpointURL(PATH_HAPPY_FLOW));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_redirectCache_invalidTargetIsForgotten() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_HAPPY_FLOW);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        var redirectCache = new RedirectCache();
+        redirectCache.remember(endpoint, "http://???", true);
+        testSubject.setRedirectCache(redirectCache);
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        assertThat(redirectCache.find(endpoint)).isEmpty();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_redirectCache_rejectedMessageKeepsTarget() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_3XX);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        var redirectCache = new RedirectCache();
+        // The endpoint would reject the message the same way, so the target is not stale
+        redirectCache.remember(endpoint, getEndpointURL(PATH_BAD_REQUEST), true);
+        testSubject.setRedirectCache(redirectCache);
+
+        assertThrows(UftpClientErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        wireMockServer.verify(0, postRequestedFor(urlPathEqualTo(PATH_3XX)));
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_BAD_REQUEST)));
+        assertThat(redirectCache.find(endpoint)).isPresent();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_redirectCache_unreachableTargetIsForgotten() {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_3XX);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        stubMovingTarget(503);
+        var redirectCache = new RedirectCache();
+        testSubject.setRedirectCache(redirectCache);
+
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_3XX)));
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_TARGET)));
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        assertThat(redirectCache.find(endpoint)).contains(getEndpointURL(PATH_HAPPY_FLOW));
+        verifyNoValidations();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {404, 410})
+    void attemptToSendMessageAsync_redirectCache_staleTargetIsForgotten(int targetStatus) {
+        mockSerialisation();
+        mockSending();
+        var endpoint = getEndpointURL(PATH_3XX);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        stubMovingTarget(targetStatus);
+        var redirectCache = new RedirectCache();
+        testSubject.setRedirectCache(redirectCache);
+
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_TARGET)));
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        assertThat(redirectCache.find(endpoint)).contains(getEndpointURL(PATH_HAPPY_FLOW));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_deliveredMessageIsMarked() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        assertThat(outbox.pendingCount()).isZero();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_serverErrorStaysPending() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_INTERNAL_SERVER_ERROR));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        assertThrows(UftpServerErrorException.class, () ->
+                testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(outbox.pendingEntries()).singleElement().satisfies(entry -> {
+            assertThat(entry.recipient()).isEqualTo(recipient);
+            assertThat(entry.signedXml()).isEqualTo(SIGNED_XML);
+        });
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_clientErrorIsMarkedFailed() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_BAD_REQUEST));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        assertThrows(UftpClientErrorException.class, () ->
+                testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(outbox.pendingCount()).isZero();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_circuitOpenStaysPendingAndIsReplayed() {
+        mockSerialisation();
+        mockSending();
+        stubFailingOnce(500);
+        var endpoint = getEndpointURL(PATH_RETRY);
+        mockParticipantServiceWithoutAuthorization(endpoint);
+        var now = new AtomicLong();
+        var clock = mock(Clock.class);
+        given(clock.millis()).willAnswer(invocation -> now.get());
+        testSubject.setCircuitBreaker(new EndpointCircuitBreaker(1, Duration.ofMinutes(1), clock));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        assertThrows(UftpServerErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+        var circuitOpen = assertThrows(UftpSendException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(circuitOpen).hasMessage("Could not send UFTP message; the circuit breaker for " + endpoint + " is open");
+        assertThat(outbox.pendingCount()).isEqualTo(2);
+
+        now.addAndGet(Duration.ofMinutes(1).toMillis());
+
+        assertThat(testSubject.replayOutbox()).isEqualTo(2);
+        assertThat(outbox.pendingCount()).isZero();
+        wireMockServer.verify(3, postRequestedFor(urlPathEqualTo(PATH_RETRY)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_tooManyRequestsStaysPending() {
+        mockSerialisation();
+        mockSending();
+        stubFailingOnce(429);
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_RETRY));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        assertThrows(UftpClientErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(outbox.pendingCount()).isOne();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_invalidEndpointIsMarkedFailed() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization("http://???");
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        assertThrows(UftpEndpointException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(outbox.pendingCount()).isZero();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_unknownRecipientIsMarkedFailed() {
+        mockSerialisation();
+        mockSending();
+        given(participantService.findParticipantInformation(recipient)).willReturn(Optional.empty());
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        var actual = assertThrows(UftpEndpointException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(actual).hasMessage("No participant found for " + recipient.domain() + " in " + recipient.role());
+        assertThat(outbox.pendingCount()).isZero();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_outbox_participantLookupFailureStaysPending() {
+        mockSerialisation();
+        mockSending();
+        given(participantService.findParticipantInformation(recipient)).willThrow(new IllegalStateException("registry unavailable"));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        assertThrows(IllegalStateException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(outbox.pendingCount()).isOne();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_outbox_serverErrorStaysPending() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_INTERNAL_SERVER_ERROR));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+
+        assertThrows(CompletionException.class, future::join);
+        assertThat(outbox.pendingCount()).isOne();
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_outbox_deliveredMessageIsMarked() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+
+        assertThat(outbox.pendingCount()).isZero();
+        verifyNoValidations();
+    }
+
+    @Test
+    void replayOutbox_sendsPendingMessages() {
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        var outbox = newOutbox();
+        appendRecovered(outbox);
+        appendRecovered(outbox);
+        testSubject.setOutbox(outbox);
+
+        var delivered = testSubject.replayOutbox();
+
+        assertThat(delivered).isEqualTo(2);
+        assertThat(outbox.pendingCount()).isZero();
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)).withRequestBody(binaryEqualTo(SIGNED_XML)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void replayOutbox_failedMessageStaysPending() {
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_INTERNAL_SERVER_ERROR));
+        var outbox = newOutbox();
+        appendRecovered(outbox);
+        testSubject.setOutbox(outbox);
+
+        var delivered = testSubject.replayOutbox();
+
+        assertThat(delivered).isZero();
+        assertThat(outbox.pendingCount()).isOne();
+        verifyNoValidations();
+    }
+
+    @Test
+    void replayOutbox_skipsMessagesInFlight() {
+        mockSerialisation();
+        mockSending();
+        stubFor(post(urlPathEqualTo("/slow/")).willReturn(aResponse().withStatus(200).withFixedDelay(500)));
+        mockParticipantServiceWithoutAuthorization(getEndpointURL("/slow/"));
+        var outbox = newOutbox();
+        testSubject.setOutbox(outbox);
+
+        var future = testSubject.attemptToSendMessageAsync(flexRequest, details);
+        var delivered = testSubject.replayOutbox();
+        future.join();
+
+        assertThat(delivered).isZero();
+        assertThat(outbox.pendingCount()).isZero();
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo("/slow/")));
+        verifyNoValidations();
+    }
+
+    @Test
+    void replayOutbox_skipsMessagesFinishedAfterListing() {
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        var outbox = spy(newOutbox());
+        var first = appendRecovered(outbox);
+        var second = appendRecovered(outbox);
+        // The second message is delivered by another thread while the first one is replayed
+        doAnswer(invocation -> {
+            outbox.markDelivered(second);
+            return invocation.callRealMethod();
+        }).when(outbox).markDelivered(first);
+        testSubject.setOutbox(outbox);
+
+        var delivered = testSubject.replayOutbox();
+
+        assertThat(delivered).isOne();
+        assertThat(outbox.pendingCount()).isZero();
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void replayOutbox_skipsMessageWhileAppendForcesIt() throws Exception {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        var outbox = new UftpOutbox(outboxDirectory, new OutboxSettings(4096, true));
+        testSubject.setOutbox(outbox);
+        // Holding the sync lock keeps the append of the sender in the force, after the message became pending
+        var syncLockField = UftpOutbox.class.getDeclaredField("syncLock");
+        syncLockField.setAccessible(true);
+        var syncLock = (ReentrantLock) syncLockField.get(outbox);
+        syncLock.lock();
+        CompletableFuture<Void> sending;
+        try {
+            sending = CompletableFuture.runAsync(() -> testSubject.attemptToSendMessage(flexRequest, details));
+            while (outbox.pendingCount() == 0 || !syncLock.hasQueuedThreads()) {
+                Thread.sleep(1);
+            }
+
+            assertThat(testSubject.replayOutbox()).isZero();
+        } finally {
+            syncLock.unlock();
+        }
+        sending.get(10, TimeUnit.SECONDS);
+
+        assertThat(outbox.pendingCount()).isZero();
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void replayOutbox_interrupted_stopsAndLeavesMessagesPending() {
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+        var outbox = newOutbox();
+        appendRecovered(outbox);
+        appendRecovered(outbox);
+        testSubject.setOutbox(outbox);
+
+        Thread.currentThread().interrupt();
+        int delivered;
+        try {
+            delivered = testSubject.replayOutbox();
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+
+        assertThat(delivered).isZero();
+        assertThat(outbox.pendingCount()).isEqualTo(2);
+        wireMockServer.verify(0, postRequestedFor(anyUrl()));
+        assertThat(testSubject.replayOutbox()).isEqualTo(2);
+    }
+
+    @Test
+    void replayOutbox_withoutOutbox() {
+        assertThat(testSubject.replayOutbox()).isZero();
+        verifyNoValidations();
+        verifyNoInteractions(participantService);
+    }
+
+    @Test
+    void attemptToSendMessage_unauthorized_retriesOnceWithNewAuthorizationHeader() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithAuthorization(getEndpointURL(PATH_RETRY));
+        stubFailingOnce(401);
+        given(authorizationProvider.getAuthorizationHeader(recipient)).willReturn("Bearer expired", "Bearer renewed");
+        given(authorizationProvider.invalidateAuthorizationHeader(recipient)).willReturn(true);
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_RETRY)).withHeader("Authorization", equalTo("Bearer expired")));
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_RETRY)).withHeader("Authorization", equalTo("Bearer renewed")));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_unauthorized_notRetriedWhenHeaderCannotBeRenewed() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithAuthorization(getEndpointURL(PATH_RETRY));
+        stubFailingOnce(401);
+        given(authorizationProvider.getAuthorizationHeader(recipient)).willReturn("Bearer expired");
+
+        var actual = assertThrows(UftpClientErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        assertThat(actual.getHttpStatusCode()).isEqualTo(HttpStatusCode.UNAUTHORIZED);
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_RETRY)));
+        verify(authorizationProvider).invalidateAuthorizationHeader(recipient);
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessage_unauthorizedWithoutAuthorization_notRetried() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_RETRY));
+        stubFailingOnce(401);
+
+        assertThrows(UftpClientErrorException.class, () -> testSubject.attemptToSendMessage(flexRequest, details));
+
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_RETRY)));
+        verifyNoInteractions(authorizationProvider);
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessageAsync_unauthorized_retriesOnceWithNewAuthorizationHeader() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithAuthorization(getEndpointURL(PATH_RETRY));
+        stubFailingOnce(401);
+        given(authorizationProvider.getAuthorizationHeader(recipient)).willReturn("Bearer expired", "Bearer renewed");
+        given(authorizationProvider.invalidateAuthorizationHeader(recipient)).willReturn(true);
+
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+
+        wireMockServer.verify(1, postRequestedFor(urlPathEqualTo(PATH_RETRY)).withHeader("Authorization", equalTo("Bearer renewed")));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessages_decodesPrivateKeyOnce_andReportsEveryMessage() {
+        var signingKey = mock(UftpSigningKey.class);
+        var otherFlexRequest = mock(FlexRequest.class);
+        var serializerException = new UftpSerializerException("Failed to serialize", null, HttpStatusCode.BAD_REQUEST);
+        given(details.sender()).willReturn(sender);
+        given(details.senderSigningKey()).willReturn(null);
+        given(details.senderPrivateKey()).willReturn(PRIVATE_KEY);
+        given(cryptoService.createSigningKey(PRIVATE_KEY)).willReturn(signingKey);
+        mockBatchSigning();
+        given(serializer.toXmlBytes(flexRequest)).willReturn(PAYLOAD_XML);
+        given(serializer.toXmlBytes(otherFlexRequest)).willThrow(serializerException);
+        given(cryptoService.signMessage(PAYLOAD_XML, sender, signingKey)).willReturn(signedMessage);
+        given(serializer.toXmlBytesStreaming(signedMessage)).willReturn(SIGNED_XML);
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+
+        var requests = List.of(
+                new UftpSendRequest(flexRequest, details),
+                new UftpSendRequest(otherFlexRequest, details),
+                new UftpSendRequest(flexRequest, details));
+        var results = testSubject.attemptToSendMessages(requests, Runnable::run, 2);
+
+        assertThat(results).extracting(UftpSendResult::request).containsExactlyElementsOf(requests);
+        assertThat(results).extracting(UftpSendResult::isSent).containsExactly(true, false, true);
+        assertThat(results.get(1).failure()).isSameAs(serializerException);
+        verify(cryptoService).createSigningKey(PRIVATE_KEY);
+        // One signer per range of the batch: the first two messages and the last one
+        verify(cryptoService, times(2)).withSigner(any());
+        verifyNoInteractions(otherFlexRequest);
+        wireMockServer.verify(2, postRequestedFor(urlPathEqualTo(PATH_HAPPY_FLOW)).withRequestBody(binaryEqualTo(SIGNED_XML)));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessages_deliveryFailure() {
+        var signingKey = mock(UftpSigningKey.class);
+        given(serializer.toXmlBytes(flexRequest)).willReturn(PAYLOAD_XML);
+        given(details.sender()).willReturn(sender);
+        given(details.senderSigningKey()).willReturn(signingKey);
+        mockBatchSigning();
+        given(cryptoService.signMessage(PAYLOAD_XML, sender, signingKey)).willReturn(signedMessage);
+        given(serializer.toXmlBytesStreaming(signedMessage)).willReturn(SIGNED_XML);
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_INTERNAL_SERVER_ERROR));
+
+        var results = testSubject.attemptToSendMessages(List.of(new UftpSendRequest(flexRequest, details)));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).isSent()).isFalse();
+        assertThat(results.get(0).failure()).isInstanceOf(UftpServerErrorException.class);
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToValidateAndSendMessages_validationFailure() {
+        var signingKey = mock(UftpSigningKey.class);
+        given(details.sender()).willReturn(sender);
+        given(details.senderSigningKey()).willReturn(signingKey);
+        mockBatchSigning();
+        given(uftpValidationService.validate(any())).willReturn(new ValidationResult(false, "The message was incorrect"));
+
+        var results = testSubject.attemptToValidateAndSendMessages(List.of(new UftpSendRequest(flexRequest, details)), Runnable::run, 1);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).failure())
+                .isInstanceOf(UftpSendException.class)
+                .hasMessage("Could not send UFTP message; the outgoing FlexRequest message was not valid: The message was incorrect");
+        wireMockServer.verify(0, postRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void attemptToSendMessages_signerUnavailable_reportsEveryMessage() {
+        var signingKey = mock(UftpSigningKey.class);
+        var unavailable = new UftpConnectorException("No pooled instance available", HttpStatusCode.SERVICE_UNAVAILABLE);
+        given(details.senderSigningKey()).willReturn(signingKey);
+        given(cryptoService.withSigner(any())).willThrow(unavailable);
+
+        var requests = List.of(new UftpSendRequest(flexRequest, details), new UftpSendRequest(flexRequest, details));
+        var results = testSubject.attemptToSendMessages(requests, Runnable::run, 1);
+
+        assertThat(results).extracting(UftpSendResult::isSent).containsExactly(false, false);
+        assertThat(results).extracting(UftpSendResult::failure).containsOnly(unavailable);
+        wireMockServer.verify(0, postRequestedFor(anyUrl()));
+        verifyNoValidations();
+    }
+
+    @Test
+    void attemptToSendMessages_invalidParallelism() {
+        var requests = List.<UftpSendRequest>of();
+
+        var actual = assertThrows(IllegalArgumentException.class, () -> testSubject.attemptToSendMessages(requests, Runnable::run, 0));
+
+        assertThat(actual).hasMessage("parallelism must be positive");
+    }
+
+    @Test
+    void attemptToSendMessage_appliesReadTimeoutToRequest() throws IOException, InterruptedException {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+
+        var readTimeout = Duration.ofSeconds(42);
+
+        testSubject = new UftpSendMessageService(serializer, cryptoService, participantService, authorizationProvider, uftpValidationService, httpClient);
+
+        testSubject.addRequestInterceptor(request -> request.timeout(readTimeout));
+
+        given(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).willReturn(httpResponse);
+        given(httpResponse.statusCode()).willReturn(200);
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(requestCaptor.capture(), any());
+
+        HttpRequest capturedRequest = requestCaptor.getValue();
+        assertThat(capturedRequest.timeout()).isPresent().contains(readTimeout);
+    }
+
+    @Test
+    void attemptToSendMessageAsync_appliesReadTimeoutToRequest() {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+
+        var readTimeout = Duration.ofSeconds(42);
+
+        testSubject = new UftpSendMessageService(serializer, cryptoService, participantService, authorizationProvider, uftpValidationService, httpClient);
+
+        testSubject.addRequestInterceptor(request -> request.timeout(readTimeout));
+
+        given(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).willReturn(CompletableFuture.completedFuture(httpResponse));
+        given(httpResponse.statusCode()).willReturn(200);
+
+        testSubject.attemptToSendMessageAsync(flexRequest, details).join();
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).sendAsync(requestCaptor.capture(), any());
+
+        assertThat(requestCaptor.getValue().timeout()).isPresent().contains(readTimeout);
+    }
+
+    @Test
+    void attemptToSendMessage_noTimeoutByDefault() throws IOException, InterruptedException {
+        mockSerialisation();
+        mockSending();
+        mockParticipantServiceWithoutAuthorization(getEndpointURL(PATH_HAPPY_FLOW));
+
+        testSubject = new UftpSendMessageService(serializer, cryptoService, participantService, authorizationProvider, uftpValidationService, httpClient);
+
+        given(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).willReturn(httpResponse);
+        given(httpResponse.statusCode()).willReturn(200);
+
+        testSubject.attemptToSendMessage(flexRequest, details);
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(requestCaptor.capture(), any());
+
+        assertThat(requestCaptor.getValue().timeout()).isEmpty();
+    }
+
+
+    private void mockParticipantServiceWithAuthorization(String endpointUrl) {
+        UftpParticipantInformation recipientInformation = uftpParticipantInformationBuilder.withEndpoint(endpointUrl).withRequiresAuthorization(true).build();
+        given(participantService.findParticipantInformation(any(UftpParticipant.class))).willReturn(Optional.of(recipientInformation));
+    }
+
+    private void mockParticipantServiceWithoutAuthorization(String endpointUrl) {
+        UftpParticipantInformation recipientInformation = uftpParticipantInformationBuilder.withEndpoint(endpointUrl).withRequiresAuthorization(false).build();
+        given(participantService.findParticipantInformation(any(UftpParticipant.class))).willReturn(Optional.of(recipientInformation));
+    }
+
+    /**
+     * Lets the signer of a batch sign with {@link UftpCryptoService#signMessage(byte[], UftpParticipant, UftpSigningKey)}, so batches are signed like single
+     * messages.
+     */
+    private void mockBatchSigning() {
+        given(cryptoService.withSigner(any())).willAnswer(invocation ->
+                invocation.<Function<UftpMessageSigner, ?>>getArgument(0).apply(cryptoService::signMessage));
+    }
+
+    private UftpOutbox newOutbox() {
+        return new UftpOutbox(outboxDirectory, new OutboxSettings(4096, false));
+    }
+
+    /**
+     * Appends a message that is not being sent, like a message that was recovered when the outbox was opened.
+     */
+    private long appendRecovered(UftpOutbox outbox) {
+        var sequence = outbox.append(recipient, SIGNED_XML);
+        outbox.release(sequence);
+        return sequence;
+    }
+
+    private void stubFailingOnce(int statusCode) {
+        stubFor(post(urlPathEqualTo(PATH_RETRY)).inScenario("retry").whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(statusCode))
+                .willSetStateTo("failed"));
+        stubFor(post(urlPathEqualTo(PATH_RETRY)).inScenario("retry").whenScenarioStateIs("failed")
+                .willReturn(aResponse().withStatus(200)));
+    }
+
+    /**
+     * The endpoint permanently redirects to a target that goes down after the first message, and then to another target.
+     */
+    private void stubMovingTarget(int targetDownStatus) {
+        stubFor(post(urlPathEqualTo(PATH_3XX)).inScenario("moved").whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(308).withHeader("Location", getEndpointURL(PATH_TARGET)))
+                .willSetStateTo("moved"));
+        stubFor(post(urlPathEqualTo(PATH_3XX)).inScenario("moved").whenScenarioStateIs("moved")
+                .willReturn(aResponse().withStatus(308).withHeader("Location", getEndpointURL(PATH_HAPPY_FLOW))));
+        stubFor(post(urlPathEqualTo(PATH_TARGET)).inScenario("down").whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(200))
+                .willSetStateTo("down"));
+        stubFor(post(urlPathEqualTo(PATH_TARGET)).inScenario("down").whenScenarioStateIs("down")
+                .willReturn(aResponse().withStatus(targetDownStatus)));
     }
 
     private String getEndpointURL(String path) {
@@ -0,0 +1,160 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.lfenergy.shapeshifter.core.common.xml.TestFileHelper.readXml;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdFactory;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaFactoryPool;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
+
+class SignedMessageReaderTest {
+
+  private static final String XML_PROLOG = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+  private static final String VALID_XML = "<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>";
+  private static final String XXE_ATTACK = "xml/xxe/FlexRequestResponse_with_XXE_Attack.xml";
+
+  // The regular XSD validation and JAXB path, which the reader must agree with
+  private static final UftpSerializer UFTP_SERIALIZER = new UftpSerializer(new XmlSerializer(),
+                                                                            new XsdValidator(new XsdSchemaProvider(new XsdFactory(new XsdSchemaFactoryPool()))));
+
+  private final SignedMessageReader testSubject = new SignedMessageReader();
+
+  static Stream<String> validDocuments() {
+    return Stream.of(
+        VALID_XML,
+        XML_PROLOG + "\n<!-- comment -->\n" + VALID_XML + "\n",
+        "<SignedMessage Body=\"AQID\" SenderRole=\"DSO\" SenderDomain=\"dso.tld\"></SignedMessage>",
+        "<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQ ID\"><!-- comment --></SignedMessage>",
+        "<SignedMessage xmlns:other=\"urn:other\" SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>"
+    );
+  }
+
+  static Stream<Arguments> invalidDocuments() {
+    return Stream.of(
+        Arguments.of("<FlexRequest/>", "Unexpected root element 'FlexRequest', expected 'SignedMessage'."),
+        Arguments.of("<SignedMessage xmlns=\"urn:other\" SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>",
+                     "Unexpected root element '{urn:other}SignedMessage', expected 'SignedMessage'."),
+        Arguments.of("<SignedMessage SenderRole=\"DSO\" Body=\"AQID\"/>", "Attribute 'SenderDomain' must appear on element 'SignedMessage'."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" Body=\"AQID\"/>", "Attribute 'SenderRole' must appear on element 'SignedMessage'."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\"/>", "Attribute 'Body' must appear on element 'SignedMessage'."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\" Extra=\"x\"/>",
+                     "Attribute 'Extra' is not allowed to appear in element 'SignedMessage'."),
+        Arguments.of("<SignedMessage xmlns:o=\"urn:other\" o:SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>",
+                     "Attribute '{urn:other}SenderDomain' is not allowed to appear in element 'SignedMessage'."),
+        Arguments.of("<SignedMessage SenderDomain=\"DSO.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>",
+                     "Value 'DSO.tld' of attribute 'SenderDomain' on element 'SignedMessage' is not valid."),
+        Arguments.of("<SignedMessage SenderDomain=\" dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>",
+                     "Value ' dso.tld' of attribute 'SenderDomain' on element 'SignedMessage' is not valid."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"BRP\" Body=\"AQID\"/>",
+                     "Value 'BRP' of attribute 'SenderRole' on element 'SignedMessage' is not valid."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQI\"/>",
+                     "Value '(base64)' of attribute 'Body' on element 'SignedMessage' is not valid."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQ!D\"/>",
+                     "Value '(base64)' of attribute 'Body' on element 'SignedMessage' is not valid."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"> </SignedMessage>",
+                     "Element 'SignedMessage' must have no character or element children."),
+        Arguments.of("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"><Child/></SignedMessage>",
+                     "Element 'SignedMessage' must have no character or element children."),
+        Arguments.of("<!DOCTYPE SignedMessage>" + VALID_XML, "DOCTYPE is not allowed"),
+        Arguments.of(VALID_XML + "<!DOCTYPE SignedMessage>", null),
+        Arguments.of(VALID_XML + VALID_XML, null),
+        Arguments.of("<SignedMessage", null),
+        Arguments.of("", null)
+    );
+  }
+
+  @Test
+  void read() {
+    var signedMessage = testSubject.read(VALID_XML);
+
+    assertThat(signedMessage.getSenderDomain()).isEqualTo("dso.tld");
+    assertThat(signedMessage.getSenderRole()).isEqualTo(USEFRoleType.DSO);
+    assertThat(signedMessage.getBody()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void read_bytes() {
+    var signedMessage = testSubject.read((XML_PROLOG + VALID_XML).getBytes(StandardCharsets.UTF_8));
+
+    assertThat(signedMessage.getSenderDomain()).isEqualTo("dso.tld");
+    assertThat(signedMessage.getSenderRole()).isEqualTo(USEFRoleType.DSO);
+    assertThat(signedMessage.getBody()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void read_bodyWithWhitespace() {
+    var signedMessage = testSubject.read("<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\" AQID\nBAUG \"/>");
+
+    assertThat(signedMessage.getBody()).containsExactly(1, 2, 3, 4, 5, 6);
+  }
+
+  @ParameterizedTest
+  @MethodSource("validDocuments")
+  void read_valid(String xml) {
+    assertThat(testSubject.read(xml).getBody()).containsExactly(1, 2, 3);
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidDocuments")
+  void read_invalid(String xml, String expectedMessage) {
+    var actual = catchThrowable(() -> testSubject.read(xml));
+
+    assertThat(actual).isInstanceOf(UftpSerializerException.class)
+                      .hasMessageStartingWith("XSD validation failed: ");
+    assertThat(((UftpSerializerException) actual).getHttpStatusCode()).isEqualTo(HttpStatusCode.BAD_REQUEST);
+    if (expectedMessage != null) {
+      assertThat(actual).hasMessage("XSD validation failed: " + expectedMessage);
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("validDocuments")
+  void read_valid_regularPathAgrees(String xml) {
+    assertThat(UFTP_SERIALIZER.fromSignedXml(xml)).usingRecursiveComparison().isEqualTo(testSubject.read(xml));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidDocuments")
+  void read_invalid_regularPathAgrees(String xml, String ignored) {
+    assertThatThrownBy(() -> UFTP_SERIALIZER.fromSignedXml(xml))
+        .isInstanceOfSatisfying(UftpConnectorException.class, e -> assertThat(e.getHttpStatusCode()).isEqualTo(HttpStatusCode.BAD_REQUEST));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "<!DOCTYPE SignedMessage [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]><SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"&xxe;\"/>",
+      "<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"&xxe;\"/>"
+  })
+  void read_entities_rejected(String xml) {
+    assertThatThrownBy(() -> testSubject.read(xml))
+        .isInstanceOf(UftpSerializerException.class)
+        .hasMessageStartingWith("XSD validation failed: ");
+  }
+
+  @Test
+  void read_xxeAttack_rejected() {
+    var xml = readXml(XXE_ATTACK);
+
+    assertThatThrownBy(() -> testSubject.read(xml))
+        .isInstanceOf(UftpSerializerException.class)
+        .hasMessage("XSD validation failed: DOCTYPE is not allowed");
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright 2024 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
+import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdFactory;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaFactoryPool;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
+
+class SignedMessageWriterTest {
+
+  // The regular JAXB and XSD validation path, which the writer must agree with
+  private static final UftpSerializer UFTP_SERIALIZER = new UftpSerializer(new XmlSerializer(),
+                                                                            new XsdValidator(new XsdSchemaProvider(new XsdFactory(new XsdSchemaFactoryPool()))));
+
+  private final SignedMessageWriter testSubject = new SignedMessageWriter();
+
+  static Stream<Arguments> invalidMessages() {
+    return Stream.of(
+        Arguments.of(signedMessage(null, USEFRoleType.DSO, new byte[] {1}), "Attribute 'SenderDomain' must appear on element 'SignedMessage'."),
+        Arguments.of(signedMessage("dso.tld", null, new byte[] {1}), "Attribute 'SenderRole' must appear on element 'SignedMessage'."),
+        Arguments.of(signedMessage("dso.tld", USEFRoleType.DSO, null), "Attribute 'Body' must appear on element 'SignedMessage'."),
+        Arguments.of(signedMessage("DSO.tld", USEFRoleType.DSO, new byte[] {1}), "Value 'DSO.tld' of attribute 'SenderDomain' on element 'SignedMessage' is not valid."),
+        Arguments.of(signedMessage("dso.tld\"/><x", USEFRoleType.DSO, new byte[] {1}),
+                     "Value 'dso.tld\"/><x' of attribute 'SenderDomain' on element 'SignedMessage' is not valid.")
+    );
+  }
+
+  @Test
+  void write() {
+    var signedMessage = signedMessage("dso.tld", USEFRoleType.DSO, new byte[] {1, 2, 3});
+
+    var actual = testSubject.write(signedMessage);
+
+    assertThat(new String(actual, StandardCharsets.UTF_8))
+        .isEqualTo("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>");
+  }
+
+  @Test
+  void write_sameAsRegularPath() {
+    var body = new byte[1_000];
+    for (int i = 0; i < body.length; i++) {
+      body[i] = (byte) i;
+    }
+    for (var role : USEFRoleType.values()) {
+      var signedMessage = signedMessage("sub-domain.example-1.tld", role, body);
+
+      assertThat(testSubject.write(signedMessage)).isEqualTo(UFTP_SERIALIZER.toXmlBytes(signedMessage));
+    }
+  }
+
+  @Test
+  void write_readBack() {
+    var signedMessage = signedMessage("dso.tld", USEFRoleType.AGR, new byte[] {1, 2, 3, 4});
+
+    assertThat(new SignedMessageReader().read(testSubject.write(signedMessage))).usingRecursiveComparison().isEqualTo(signedMessage);
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidMessages")
+  void write_invalid(SignedMessage signedMessage, String expectedMessage) {
+    var actual = catchThrowable(() -> testSubject.write(signedMessage));
+
+    assertThat(actual).isInstanceOf(UftpSerializerException.class)
+                      .hasMessage("XSD validation failed: " + expectedMessage);
+    assertThat(((UftpSerializerException) actual).getHttpStatusCode()).isEqualTo(HttpStatusCode.BAD_REQUEST);
+  }
+
+  private static SignedMessage signedMessage(String senderDomain, USEFRoleType senderRole, byte[] body) {
+    var signedMessage = new SignedMessage();
+    signedMessage.setSenderDomain(senderDomain);
+    signedMessage.setSenderRole(senderRole);
+    signedMessage.setBody(body);
+    return signedMessage;
+  }
+}
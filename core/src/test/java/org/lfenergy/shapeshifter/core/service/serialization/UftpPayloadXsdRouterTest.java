@@ -0,0 +1,82 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.lfenergy.shapeshifter.api.DPrognosis;
+import org.lfenergy.shapeshifter.api.FlexRequest;
+import org.lfenergy.shapeshifter.api.Metering;
+import org.lfenergy.shapeshifter.api.TestMessage;
+import org.lfenergy.shapeshifter.api.xsdinfo.UftpXsds;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdFactory;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaFactoryPool;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
+
+class UftpPayloadXsdRouterTest {
+
+  private static final String XML_PROLOG = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
+  private final UftpPayloadXsdRouter testSubject = new UftpPayloadXsdRouter();
+
+  static Stream<Arguments> routes() {
+    return Stream.of(
+        Arguments.of("<TestMessage/>", UftpXsds.COMMON),
+        Arguments.of("<AGRPortfolioQuery/>", UftpXsds.AGR_CRO),
+        Arguments.of("<DSOPortfolioUpdate/>", UftpXsds.CRO_DSO),
+        Arguments.of("<D-Prognosis/>", UftpXsds.AGR_DSO),
+        Arguments.of(XML_PROLOG + "<!-- comment --><FlexRequest Version=\"3.0.0\"><ISP/></FlexRequest>", UftpXsds.AGR_DSO),
+        Arguments.of("<Metering/>", UftpXsds.METERING),
+        Arguments.of("<Unknown/>", UftpXsds.ALL),
+        Arguments.of("not xml", UftpXsds.ALL),
+        Arguments.of("", UftpXsds.ALL)
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("routes")
+  void route_string(String xml, UftpXsds expected) {
+    assertThat(testSubject.route(xml)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("routes")
+  void route_bytes(String xml, UftpXsds expected) {
+    assertThat(testSubject.route(xml.getBytes(StandardCharsets.UTF_8))).isEqualTo(expected);
+  }
+
+  @Test
+  void route_payloadMessage() {
+    assertThat(testSubject.route(new TestMessage())).isEqualTo(UftpXsds.COMMON);
+    assertThat(testSubject.route(new FlexRequest())).isEqualTo(UftpXsds.AGR_DSO);
+    assertThat(testSubject.route(new DPrognosis())).isEqualTo(UftpXsds.AGR_DSO);
+    assertThat(testSubject.route(new Metering())).isEqualTo(UftpXsds.METERING);
+  }
+
+  @Test
+  void routedXsdsDeclareTheirRootElements() {
+    var xsdValidator = new XsdValidator(new XsdSchemaProvider(new XsdFactory(new XsdSchemaFactoryPool())));
+
+    // An empty root element is never valid, but it must fail on its content rather than on a missing declaration (cvc-elt.1.a)
+    UftpPayloadXsdRouter.routedRootElements().forEach(rootElement -> {
+      var xml = "<" + rootElement + "/>";
+      var xsd = UftpPayloadXsdRouter.forRootElement(rootElement);
+
+      assertThatThrownBy(() -> xsdValidator.validate(xml, xsd.getUrl()))
+          .isInstanceOf(UftpConnectorException.class)
+          .message()
+          .doesNotContain("cvc-elt.1");
+    });
+  }
+}
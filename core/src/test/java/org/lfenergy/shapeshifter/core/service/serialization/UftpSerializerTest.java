@@ -7,36 +7,49 @@ package org.lfenergy.shapeshifter.core.service.serialization;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.lfenergy.shapeshifter.core.UftpTestSupport.assertException;
+import static org.lfenergy.shapeshifter.core.common.xml.TestFileHelper.readXml;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import jakarta.xml.bind.UnmarshalException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.xml.validation.Schema;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.lfenergy.shapeshifter.api.FlexRequest;
+import org.lfenergy.shapeshifter.api.Metering;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
 import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.api.USEFRoleType;
 import org.lfenergy.shapeshifter.api.xsdinfo.UftpXsds;
+import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdFactory;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaFactoryPool;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
 import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.xml.sax.SAXParseException;
 
 @ExtendWith(MockitoExtension.class)
 class UftpSerializerTest {
 
   private static final String SIGNED_XML = "SIGNED_XML";
   private static final String FLEX_REQUEST_XML = "<FlexRequest></FlexRequest>";
+  private static final String METERING_XML = "<Metering/>";
+  private static final byte[] SIGNED_XML_BYTES = SIGNED_XML.getBytes(StandardCharsets.UTF_8);
+  private static final byte[] FLEX_REQUEST_XML_BYTES = FLEX_REQUEST_XML.getBytes(StandardCharsets.UTF_8);
 
   @Mock
   private XmlSerializer serializer;
   @Mock
   private XsdValidator xsdValidator;
-  @InjectMocks
   private UftpSerializer testSubject;
 
   @Mock
@@ -45,6 +58,13 @@ class UftpSerializerTest {
   private FlexRequest flexRequest;
   @Mock
   private IOException ioException;
+  @Mock
+  private Schema schema;
+
+  @BeforeEach
+  void setUp() {
+    testSubject = new UftpSerializer(serializer, xsdValidator);
+  }
 
   @AfterEach
   void noMore() {
@@ -53,7 +73,8 @@ class UftpSerializerTest {
         xsdValidator,
         signedMessage,
         flexRequest,
-        ioException
+        ioException,
+        schema
     );
   }
 
@@ -78,6 +99,38 @@ class UftpSerializerTest {
     verify(xsdValidator).validate(SIGNED_XML, UftpXsds.COMMON.getUrl());
   }
 
+  @Test
+  void fromSignedXmlStreaming() {
+    var xml = "<SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>".getBytes(StandardCharsets.UTF_8);
+
+    var actual = testSubject.fromSignedXmlStreaming(xml);
+
+    assertThat(actual.getSenderDomain()).isEqualTo("dso.tld");
+    assertThat(actual.getSenderRole()).isEqualTo(USEFRoleType.DSO);
+    assertThat(actual.getBody()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void fromSignedXmlStreaming_throws() {
+    var actual = assertThrows(UftpSerializerException.class, () -> testSubject.fromSignedXmlStreaming(FLEX_REQUEST_XML_BYTES));
+
+    assertThat(actual).hasMessage("XSD validation failed: Unexpected root element 'FlexRequest', expected 'SignedMessage'.");
+    assertThat(actual.getHttpStatusCode()).isEqualTo(HttpStatusCode.BAD_REQUEST);
+  }
+
+  @Test
+  void toXmlBytesStreaming() {
+    var signedMessage = new SignedMessage();
+    signedMessage.setSenderDomain("dso.tld");
+    signedMessage.setSenderRole(USEFRoleType.DSO);
+    signedMessage.setBody(new byte[] {1, 2, 3});
+
+    var actual = testSubject.toXmlBytesStreaming(signedMessage);
+
+    assertThat(new String(actual, StandardCharsets.UTF_8))
+        .isEqualTo("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><SignedMessage SenderDomain=\"dso.tld\" SenderRole=\"DSO\" Body=\"AQID\"/>");
+  }
+
   @Test
   void fromPayloadXml() {
     given(serializer.fromXml(FLEX_REQUEST_XML, PayloadMessageType.class)).willReturn(flexRequest);
@@ -99,6 +152,154 @@ class UftpSerializerTest {
     verify(xsdValidator).validate(FLEX_REQUEST_XML, UftpXsds.ALL.getUrl());
   }
 
+  @Test
+  void fromSignedXml_singlePass() {
+    var singlePassSubject = new UftpSerializer(serializer, xsdValidator, true);
+    given(xsdValidator.getSchema(UftpXsds.COMMON.getUrl())).willReturn(schema);
+    given(serializer.fromXml(SIGNED_XML, SignedMessage.class, schema)).willReturn(signedMessage);
+
+    assertThat(singlePassSubject.fromSignedXml(SIGNED_XML)).isEqualTo(signedMessage);
+  }
+
+  @Test
+  void fromSignedXml_singlePass_validationFails() {
+    var singlePassSubject = new UftpSerializer(serializer, xsdValidator, true);
+    var saxException = new SAXParseException("cvc-test", null);
+    var exception = new UftpConnectorException("Failed to unmarshal XML", new UnmarshalException(saxException));
+    given(xsdValidator.getSchema(UftpXsds.COMMON.getUrl())).willReturn(schema);
+    given(serializer.fromXml(SIGNED_XML, SignedMessage.class, schema)).willThrow(exception);
+
+    UftpConnectorException thrown = assertThrows(UftpConnectorException.class, () ->
+        singlePassSubject.fromSignedXml(SIGNED_XML));
+
+    assertException(thrown, "XSD validation failed: cvc-test", saxException, 400);
+  }
+
+  @Test
+  void fromPayloadXml_singlePass() {
+    var singlePassSubject = new UftpSerializer(serializer, xsdValidator, true);
+    given(xsdValidator.getSchema(UftpXsds.ALL.getUrl())).willReturn(schema);
+    given(serializer.fromXml(FLEX_REQUEST_XML, PayloadMessageType.class, schema)).willReturn(flexRequest);
+
+    assertThat(singlePassSubject.fromPayloadXml(FLEX_REQUEST_XML)).isEqualTo(flexRequest);
+  }
+
+  @Test
+  void fromPayloadXml_singlePass_throws() {
+    var singlePassSubject = new UftpSerializer(serializer, xsdValidator, true);
+    var exception = new RuntimeException("test");
+    given(xsdValidator.getSchema(UftpXsds.ALL.getUrl())).willReturn(schema);
+    given(serializer.fromXml(FLEX_REQUEST_XML, PayloadMessageType.class, schema)).willThrow(exception);
+
+    UftpConnectorException thrown = assertThrows(UftpConnectorException.class, () ->
+        singlePassSubject.fromPayloadXml(FLEX_REQUEST_XML));
+
+    assertException(thrown, "Payload message XML deserialization failed: test", exception, 400);
+  }
+
+  @Test
+  void fromSignedXml_bytes() {
+    given(serializer.fromXml(SIGNED_XML_BYTES, SignedMessage.class)).willReturn(signedMessage);
+
+    assertThat(testSubject.fromSignedXml(SIGNED_XML_BYTES)).isEqualTo(signedMessage);
+
+    verify(xsdValidator).validate(SIGNED_XML_BYTES, UftpXsds.COMMON.getUrl());
+  }
+
+  @Test
+  void fromPayloadXml_paddedAttribute_bothModesReject() {
+    var xsdValidator = new XsdValidator(new XsdSchemaProvider(new XsdFactory(new XsdSchemaFactoryPool())));
+    var twoPass = new UftpSerializer(new XmlSerializer(), xsdValidator, false);
+    var singlePass = new UftpSerializer(new XmlSerializer(), xsdValidator, true);
+    var payloadXml = readXml("xml/FlexRequest.xml").replace("<FlexRequest", "<FlexRequest Version=\"3.0.0\"")
+                                                   .replace("MessageID=\"d3ae4836", "MessageID=\" d3ae4836");
+
+    var twoPassThrown = assertThrows(UftpConnectorException.class, () -> twoPass.fromPayloadXml(payloadXml));
+    var singlePassThrown = assertThrows(UftpConnectorException.class, () -> singlePass.fromPayloadXml(payloadXml));
+
+    assertThat(singlePassThrown).hasMessage(twoPassThrown.getMessage());
+    assertThat(singlePassThrown.getHttpStatusCode()).isEqualTo(HttpStatusCode.BAD_REQUEST);
+    assertThat(twoPassThrown.getMessage()).startsWith("XSD validation failed: cvc-pattern-valid");
+  }
+
+  @Test
+  void fromSignedXml_bytes_singlePass() {
+    var singlePassSubject = new UftpSerializer(serializer, xsdValidator, true);
+    given(xsdValidator.getSchema(UftpXsds.COMMON.getUrl())).willReturn(schema);
+    given(serializer.fromXml(SIGNED_XML_BYTES, SignedMessage.class, schema)).willReturn(signedMessage);
+
+    assertThat(singlePassSubject.fromSignedXml(SIGNED_XML_BYTES)).isEqualTo(signedMessage);
+  }
+
+  @Test
+  void fromPayloadXml_bytes() {
+    given(serializer.fromXml(FLEX_REQUEST_XML_BYTES, PayloadMessageType.class)).willReturn(flexRequest);
+
+    assertThat(testSubject.fromPayloadXml(FLEX_REQUEST_XML_BYTES)).isEqualTo(flexRequest);
+
+    verify(xsdValidator).validate(FLEX_REQUEST_XML_BYTES, UftpXsds.ALL.getUrl());
+  }
+
+  @Test
+  void fromPayloadXml_bytes_throws() {
+    var exception = new RuntimeException("test");
+    given(serializer.fromXml(FLEX_REQUEST_XML_BYTES, PayloadMessageType.class)).willThrow(exception);
+
+    UftpConnectorException thrown = assertThrows(UftpConnectorException.class, () ->
+        testSubject.fromPayloadXml(FLEX_REQUEST_XML_BYTES));
+
+    assertException(thrown, "Payload message XML deserialization failed: test", exception, 400);
+    verify(xsdValidator).validate(FLEX_REQUEST_XML_BYTES, UftpXsds.ALL.getUrl());
+  }
+
+  @Test
+  void signedMessageToXmlBytes() {
+    given(serializer.toXmlBytes(signedMessage)).willReturn(SIGNED_XML_BYTES);
+
+    assertThat(testSubject.toXmlBytes(signedMessage)).isEqualTo(SIGNED_XML_BYTES);
+
+    verify(xsdValidator).validate(SIGNED_XML_BYTES, UftpXsds.COMMON.getUrl());
+  }
+
+  @Test
+  void payloadMessageToXmlBytes() {
+    given(serializer.toXmlBytes(flexRequest)).willReturn(FLEX_REQUEST_XML_BYTES);
+
+    assertThat(testSubject.toXmlBytes(flexRequest)).isEqualTo(FLEX_REQUEST_XML_BYTES);
+
+    verify(xsdValidator).validate(FLEX_REQUEST_XML_BYTES, UftpXsds.ALL.getUrl());
+  }
+
+  @Test
+  void fromPayloadXml_schemaRouting() {
+    var routingSubject = new UftpSerializer(serializer, xsdValidator, false, true);
+    given(serializer.fromXml(FLEX_REQUEST_XML, PayloadMessageType.class)).willReturn(flexRequest);
+
+    assertThat(routingSubject.fromPayloadXml(FLEX_REQUEST_XML)).isEqualTo(flexRequest);
+
+    verify(xsdValidator).validate(FLEX_REQUEST_XML, UftpXsds.AGR_DSO.getUrl());
+  }
+
+  @Test
+  void fromPayloadXml_bytes_schemaRouting_singlePass() {
+    var routingSubject = new UftpSerializer(serializer, xsdValidator, true, true);
+    given(xsdValidator.getSchema(UftpXsds.AGR_DSO.getUrl())).willReturn(schema);
+    given(serializer.fromXml(FLEX_REQUEST_XML_BYTES, PayloadMessageType.class, schema)).willReturn(flexRequest);
+
+    assertThat(routingSubject.fromPayloadXml(FLEX_REQUEST_XML_BYTES)).isEqualTo(flexRequest);
+  }
+
+  @Test
+  void payloadMessageToXml_schemaRouting() {
+    var routingSubject = new UftpSerializer(serializer, xsdValidator, false, true);
+    var metering = new Metering();
+    given(serializer.toXml(metering)).willReturn(METERING_XML);
+
+    assertThat(routingSubject.toXml(metering)).isEqualTo(METERING_XML);
+
+    verify(xsdValidator).validate(METERING_XML, UftpXsds.METERING.getUrl());
+  }
+
   @Test
   void signedMessageToXml() {
     given(serializer.toXml(signedMessage)).willReturn(SIGNED_XML);
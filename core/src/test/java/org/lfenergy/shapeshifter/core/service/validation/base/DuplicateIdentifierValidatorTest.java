@@ -15,6 +15,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.core.model.IncomingUftpMessage;
 import org.lfenergy.shapeshifter.core.model.UftpMessageFixture;
 import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageDetection;
@@ -71,6 +72,22 @@ class DuplicateIdentifierValidatorTest {
     assertThat(testSubject.isValid(UftpMessageFixture.createOutgoing(sender, payloadMessage))).isFalse();
   }
 
+  @Test
+  void valid_true_whenIncomingDuplicateMessage() {
+    var uftpMessage = UftpMessageFixture.createIncoming(sender, payloadMessage);
+    given(duplicateDetection.isDuplicate((IncomingUftpMessage<PayloadMessageType>) uftpMessage)).willReturn(DUPLICATE_MESSAGE);
+
+    assertThat(testSubject.isValid(uftpMessage)).isTrue();
+  }
+
+  @Test
+  void valid_false_whenIncomingReusedIdDiffContent() {
+    var uftpMessage = UftpMessageFixture.createIncoming(sender, payloadMessage);
+    given(duplicateDetection.isDuplicate((IncomingUftpMessage<PayloadMessageType>) uftpMessage)).willReturn(REUSED_ID_DIFFERENT_CONTENT);
+
+    assertThat(testSubject.isValid(uftpMessage)).isFalse();
+  }
+
   @Test
   void getReason() {
     assertThat(testSubject.getReason()).isEqualTo("Duplicate Identifier");
@@ -0,0 +1,117 @@
+// Copyright 2023 Contributors to the Shapeshifter project
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.shapeshifter.core.service.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.shapeshifter.api.FlexRequest;
+import org.lfenergy.shapeshifter.api.PayloadMessageType;
+import org.lfenergy.shapeshifter.api.SignedMessage;
+import org.lfenergy.shapeshifter.api.TestMessage;
+import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
+import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdFactory;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaFactoryPool;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
+import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.crypto.JdkSignatureProvider;
+import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumBase64Pool;
+import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumFactory;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
+import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
+import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
+
+class UftpWarmUpServiceTest {
+
+  private static final int POOL_SIZE = 2;
+
+  private XmlSerializer xmlSerializer;
+  private XsdSchemaProvider xsdSchemaProvider;
+  private LazySodiumBase64Pool lazySodiumInstancePool;
+  private UftpSerializer uftpSerializer;
+
+  @BeforeEach
+  void setUp() {
+    xmlSerializer = new XmlSerializer();
+    xsdSchemaProvider = new XsdSchemaProvider(new XsdFactory(new XsdSchemaFactoryPool()));
+    lazySodiumInstancePool = new LazySodiumBase64Pool();
+    uftpSerializer = new UftpSerializer(xmlSerializer, new XsdValidator(xsdSchemaProvider));
+  }
+
+  @Test
+  void warmUp_allPhasesSucceed() {
+    var cryptoService = new UftpCryptoService(mock(ParticipantResolutionService.class), new LazySodiumFactory(), lazySodiumInstancePool);
+    var testSubject = new UftpWarmUpService(xmlSerializer, xsdSchemaProvider, lazySodiumInstancePool, uftpSerializer, cryptoService, POOL_SIZE, Runnable::run);
+
+    var report = testSubject.warmUp();
+
+    assertThat(report.succeeded()).isTrue();
+    assertThat(report.phases()).extracting(UftpWarmUpReport.Phase::name)
+                               .containsExactly(UftpWarmUpService.JAXB_PHASE, UftpWarmUpService.XSD_PHASE, UftpWarmUpService.SODIUM_PHASE,
+                                                UftpWarmUpService.ROUND_TRIP_PHASE);
+    assertThat(report.phases()).allSatisfy(phase -> assertThat(phase.duration()).isPositive());
+    assertThat(lazySodiumInstancePool.size()).isGreaterThanOrEqualTo(POOL_SIZE);
+  }
+
+  @Test
+  void warmUp_jdkSignatureProvider_skipsSodium() {
+    var cryptoService = new UftpCryptoService(mock(ParticipantResolutionService.class), new LazySodiumFactory(), new JdkSignatureProvider());
+    var testSubject = new UftpWarmUpService(xmlSerializer, xsdSchemaProvider, null, uftpSerializer, cryptoService, POOL_SIZE, Runnable::run);
+
+    var report = testSubject.warmUp();
+
+    assertThat(report.succeeded()).isTrue();
+    assertThat(report.phases()).extracting(UftpWarmUpReport.Phase::name)
+                               .containsExactly(UftpWarmUpService.JAXB_PHASE, UftpWarmUpService.XSD_PHASE, UftpWarmUpService.ROUND_TRIP_PHASE);
+  }
+
+  @Test
+  void warmUp_failingPhase_isReportedAndDoesNotThrow() {
+    var cryptoService = mock(UftpCryptoService.class);
+    given(cryptoService.signMessage(any(byte[].class), any(UftpParticipant.class), anyString()))
+        .willThrow(new UftpConnectorException("Failed to sign message."));
+    var testSubject = new UftpWarmUpService(xmlSerializer, xsdSchemaProvider, lazySodiumInstancePool, uftpSerializer, cryptoService, POOL_SIZE, Runnable::run);
+
+    var report = testSubject.warmUp();
+
+    assertThat(report.succeeded()).isFalse();
+    assertThat(report.phase(UftpWarmUpService.ROUND_TRIP_PHASE)).hasValueSatisfying(phase -> {
+      assertThat(phase.succeeded()).isFalse();
+      assertThat(phase.failure()).hasMessage("Failed to sign message.");
+    });
+    assertThat(report.phase(UftpWarmUpService.XSD_PHASE)).hasValueSatisfying(phase -> assertThat(phase.succeeded()).isTrue());
+  }
+
+  @Test
+  void warmUp_defaultExecutor() {
+    var cryptoService = new UftpCryptoService(mock(ParticipantResolutionService.class), new LazySodiumFactory(), lazySodiumInstancePool);
+    var testSubject = new UftpWarmUpService(xmlSerializer, xsdSchemaProvider, lazySodiumInstancePool, uftpSerializer, cryptoService);
+
+    assertThat(testSubject.warmUp().succeeded()).isTrue();
+  }
+
+  @Test
+  void messageTypes_containsAllRootElements() {
+    assertThat(UftpWarmUpService.messageTypes())
+        .contains(SignedMessage.class, TestMessage.class, FlexRequest.class)
+        .doesNotContain(PayloadMessageType.class)
+        .doesNotHaveDuplicates();
+  }
+
+  @Test
+  void negativePoolSize_throws() {
+    assertThatThrownBy(() -> new UftpWarmUpService(xmlSerializer, xsdSchemaProvider, lazySodiumInstancePool, uftpSerializer, null, -1, Runnable::run))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("poolSize must not be negative");
+  }
+}
@@ -5,45 +5,64 @@
 package org.lfenergy.shapeshifter.spring.config;
 
 import lombok.extern.apachecommons.CommonsLog;
+import org.lfenergy.shapeshifter.api.xsdinfo.UftpXsds;
+import org.lfenergy.shapeshifter.core.common.xml.JAXBTools;
 import org.lfenergy.shapeshifter.core.common.xml.XmlSerializer;
 import org.lfenergy.shapeshifter.core.common.xsd.XsdFactory;
 import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaFactoryPool;
 import org.lfenergy.shapeshifter.core.common.xsd.XsdSchemaProvider;
 import org.lfenergy.shapeshifter.core.common.xsd.XsdValidator;
 import org.lfenergy.shapeshifter.core.model.UftpParticipant;
+import org.lfenergy.shapeshifter.core.service.CachingParticipantAuthorizationProvider;
 import org.lfenergy.shapeshifter.core.service.ParticipantAuthorizationProvider;
 import org.lfenergy.shapeshifter.core.service.UftpErrorProcessor;
 import org.lfenergy.shapeshifter.core.service.UftpParticipantService;
+import org.lfenergy.shapeshifter.core.service.crypto.JdkSignatureProvider;
 import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumBase64Pool;
 import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumFactory;
+import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumSignatureProvider;
 import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpSignatureProvider;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpVerificationKeyCache;
 import org.lfenergy.shapeshifter.core.service.handler.UftpPayloadHandler;
+import org.lfenergy.shapeshifter.core.service.participant.CachingParticipantResolutionService;
 import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
 import org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageDetection;
 import org.lfenergy.shapeshifter.core.service.receiving.ReceivedMessageProcessor;
 import org.lfenergy.shapeshifter.core.service.receiving.UftpReceivedMessageService;
+import org.lfenergy.shapeshifter.core.service.receiving.VerifiedMessageCache;
+import org.lfenergy.shapeshifter.core.service.sending.UftpOutbox;
+import org.lfenergy.shapeshifter.core.service.sending.UftpOutboxReplayer;
 import org.lfenergy.shapeshifter.core.service.sending.UftpSendMessageService;
 import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
 import org.lfenergy.shapeshifter.core.service.validation.*;
 import org.lfenergy.shapeshifter.core.service.validation.base.*;
 import org.lfenergy.shapeshifter.core.service.validation.message.*;
+import org.lfenergy.shapeshifter.core.service.warmup.UftpWarmUpService;
 import org.lfenergy.shapeshifter.spring.ssl.SSLContextFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import javax.net.ssl.SSLContext;
+import java.net.URL;
 import java.net.http.HttpClient;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 @Configuration
 @ComponentScan(value = "org.lfenergy.shapeshifter")
@@ -66,23 +85,77 @@ public class ShapeshifterConfiguration {
                                                          UftpCryptoService cryptoService,
                                                          ParticipantResolutionService participantService,
                                                          ParticipantAuthorizationProvider participantAuthorizationProvider,
-                                                         UftpValidationService uftpValidationService) {
+                                                         UftpValidationService uftpValidationService,
+                                                         ObjectProvider<UftpOutbox> outbox) {
 
-        var service = new UftpSendMessageService(serializer, cryptoService, participantService, participantAuthorizationProvider, uftpValidationService, httpClient());
+        var service = new UftpSendMessageService(serializer, cryptoService, participantService, participantAuthorizationProvider, uftpValidationService,
+                                                 httpClient());
 
         Optional.ofNullable(properties.http())
                 .map(ShapeshifterProperties.HttpProperties::readTimeout)
                 .ifPresent(timeout -> service.addRequestInterceptor(rb -> rb.timeout(timeout)));
+        service.setOutbox(outbox.getIfAvailable());
 
         return service;
     }
 
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "shapeshifter.sending.outbox", name = "enabled", havingValue = "true")
+    @Bean
+    public UftpOutbox uftpOutbox() {
+        var outbox = properties.sending().outbox();
+        if (outbox.directory() == null) {
+            throw new IllegalStateException("shapeshifter.sending.outbox.directory is required when the outbox is enabled");
+        }
+        return new UftpOutbox(outbox.directory(), outbox.toOutboxSettings());
+    }
+
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "shapeshifter.sending.outbox", name = "enabled", havingValue = "true")
+    @Bean
+    public UftpOutboxReplayer uftpOutboxReplayer(UftpSendMessageService uftpSendMessageService) {
+        var interval = Optional.ofNullable(properties.sending().outbox().replayInterval()).orElse(UftpOutboxReplayer.DEFAULT_INTERVAL);
+        return new UftpOutboxReplayer(uftpSendMessageService, interval);
+    }
+
+    /**
+     * Sends the messages that were not delivered before the application stopped, and keeps sending the ones that stay pending after a temporary failure.
+     */
+    @ConditionalOnProperty(prefix = "shapeshifter.sending.outbox", name = "enabled", havingValue = "true")
+    @Bean
+    public ApplicationRunner shapeshifterOutboxReplayRunner(UftpOutboxReplayer uftpOutboxReplayer) {
+        return args -> uftpOutboxReplayer.start();
+    }
+
     @ConditionalOnMissingBean
     @Bean
     public UftpCryptoService uftpCryptoService(ParticipantResolutionService participantService,
                                                LazySodiumFactory factory,
-                                               LazySodiumBase64Pool lazySodiumInstancePool) {
-        return new UftpCryptoService(participantService, factory, lazySodiumInstancePool);
+                                               UftpSignatureProvider signatureProvider,
+                                               ObjectProvider<UftpVerificationKeyCache> verificationKeyCache) {
+        return new UftpCryptoService(participantService, factory, signatureProvider, verificationKeyCache.getIfAvailable());
+    }
+
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "shapeshifter.crypto.verification-key-cache", name = "enabled", havingValue = "true")
+    @Bean
+    public UftpVerificationKeyCache uftpVerificationKeyCache(ParticipantResolutionService participantService,
+                                                             LazySodiumFactory factory) {
+        var settings = properties.crypto().verificationKeyCache().toCacheSettings(UftpVerificationKeyCache.DEFAULT_SETTINGS);
+        return new UftpVerificationKeyCache(participantService, factory, settings);
+    }
+
+    @ConditionalOnMissingBean
+    @Bean
+    public UftpSignatureProvider uftpSignatureProvider(ObjectProvider<LazySodiumBase64Pool> lazySodiumInstancePool) {
+        var signatureProvider = Optional.ofNullable(properties.crypto())
+                .map(ShapeshifterProperties.CryptoProperties::signatureProvider)
+                .orElse(ShapeshifterProperties.CryptoProperties.SignatureProvider.LIBSODIUM);
+
+        return switch (signatureProvider) {
+            case LIBSODIUM -> new LazySodiumSignatureProvider(lazySodiumInstancePool.getObject());
+            case JDK -> new JdkSignatureProvider();
+        };
     }
 
     @ConditionalOnMissingBean
@@ -99,16 +172,46 @@ public class ShapeshifterConfiguration {
         return new ReceivedMessageProcessor(payloadHandler, duplicateDetection, errorProcessor);
     }
 
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "shapeshifter.receiving.verified-message-cache", name = "enabled", havingValue = "true")
+    @Bean
+    public VerifiedMessageCache verifiedMessageCache() {
+        var settings = properties.receiving().verifiedMessageCache().toCacheSettings(VerifiedMessageCache.DEFAULT_SETTINGS);
+        return new VerifiedMessageCache(settings);
+    }
+
+    @ConditionalOnMissingBean
+    @Bean
+    public UftpSerializer uftpSerializer(XmlSerializer xmlSerializer, XsdValidator xsdValidator) {
+        var singlePassValidation = Optional.ofNullable(properties.xml())
+                .map(ShapeshifterProperties.XmlProperties::singlePassValidation)
+                .orElse(false);
+        var schemaRouting = Optional.ofNullable(properties.xml())
+                .map(ShapeshifterProperties.XmlProperties::schemaRouting)
+                .orElse(false);
+
+        return new UftpSerializer(xmlSerializer, xsdValidator, singlePassValidation, schemaRouting);
+    }
+
     @ConditionalOnMissingBean
     @Bean
-    public UftpSerializer uftpSerializer(XsdValidator xsdValidator) {
-        return new UftpSerializer(new XmlSerializer(), xsdValidator);
+    public XmlSerializer xmlSerializer() {
+        var maxPooledInstances = Optional.ofNullable(properties.xml())
+                .map(ShapeshifterProperties.XmlProperties::maxPooledInstances)
+                .orElse(JAXBTools.DEFAULT_MAX_POOLED_INSTANCES);
+
+        return new XmlSerializer(new JAXBTools(maxPooledInstances));
     }
 
     @ConditionalOnMissingBean
     @Bean
     public ParticipantResolutionService participantResolutionService(UftpParticipantService uftpParticipantService) {
-        return new ParticipantResolutionService(uftpParticipantService);
+        return Optional.ofNullable(properties.participant())
+                .map(ShapeshifterProperties.ParticipantProperties::resolutionCache)
+                .filter(cache -> Boolean.TRUE.equals(cache.enabled()))
+                .<ParticipantResolutionService>map(cache -> new CachingParticipantResolutionService(
+                        uftpParticipantService, cache.toCacheSettings(CachingParticipantResolutionService.DEFAULT_SETTINGS)))
+                .orElseGet(() -> new ParticipantResolutionService(uftpParticipantService));
     }
 
     @ConditionalOnMissingBean
@@ -122,6 +225,19 @@ public class ShapeshifterConfiguration {
         };
     }
 
+    /**
+     * Caches the Authorization headers of the application's {@link ParticipantAuthorizationProvider}. As the primary provider, it is used to send messages,
+     * and it can be injected to read its statistics or to discard all cached headers.
+     */
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "shapeshifter.sending.authorization-cache", name = "enabled", havingValue = "true")
+    @Primary
+    @Bean
+    public CachingParticipantAuthorizationProvider cachingParticipantAuthorizationProvider(ParticipantAuthorizationProvider participantAuthorizationProvider) {
+        var settings = properties.sending().authorizationCache().toCacheSettings(CachingParticipantAuthorizationProvider.DEFAULT_SETTINGS);
+        return new CachingParticipantAuthorizationProvider(participantAuthorizationProvider, settings);
+    }
+
     @ConditionalOnMissingBean
     @Bean
     public UftpValidationService uftpValidationService(ParticipantSupport participantSupport,
@@ -177,8 +293,8 @@ public class ShapeshifterConfiguration {
 
     @ConditionalOnMissingBean
     @Bean
-    public DuplicateMessageDetection duplicateMessageDetection(UftpMessageSupport uftpMessageSupport) {
-        return new DuplicateMessageDetection(uftpMessageSupport, new XmlSerializer());
+    public DuplicateMessageDetection duplicateMessageDetection(UftpMessageSupport uftpMessageSupport, XmlSerializer xmlSerializer) {
+        return new DuplicateMessageDetection(uftpMessageSupport, xmlSerializer);
     }
 
     @ConditionalOnMissingBean
@@ -215,7 +331,46 @@ public class ShapeshifterConfiguration {
     @ConditionalOnMissingBean
     @Bean
     public XsdSchemaProvider xsdSchemaProvider(XsdFactory xsdFactory) {
-        return new XsdSchemaProvider(xsdFactory);
+        var maxPooledInstances = Optional.ofNullable(properties.xml())
+                .map(ShapeshifterProperties.XmlProperties::maxPooledInstances)
+                .orElse(XsdSchemaProvider.DEFAULT_MAX_POOLED_VALIDATORS);
+        var precompileSchemas = Optional.ofNullable(properties.xml())
+                .map(ShapeshifterProperties.XmlProperties::precompileSchemas)
+                .orElse(false);
+
+        var xsdSchemaProvider = new XsdSchemaProvider(xsdFactory, maxPooledInstances);
+        if (precompileSchemas) {
+            log.info("Precompiling UFTP XSD schemas");
+            xsdSchemaProvider.precompile(Arrays.stream(UftpXsds.values()).map(UftpXsds::getUrl).toArray(URL[]::new));
+        }
+        return xsdSchemaProvider;
+    }
+
+    @ConditionalOnMissingBean
+    @Bean
+    public UftpWarmUpService uftpWarmUpService(XmlSerializer xmlSerializer,
+                                               XsdSchemaProvider xsdSchemaProvider,
+                                               ObjectProvider<LazySodiumBase64Pool> lazySodiumBase64Pool,
+                                               UftpSerializer uftpSerializer,
+                                               UftpCryptoService uftpCryptoService,
+                                               UftpSignatureProvider uftpSignatureProvider) {
+        var poolSize = Optional.ofNullable(properties.warmUp())
+                .map(ShapeshifterProperties.WarmUpProperties::poolSize)
+                .orElse(UftpWarmUpService.DEFAULT_POOL_SIZE);
+        // Only warm up libsodium when messages are signed with it, so the JDK provider never loads the native library
+        var lazySodiumInstancePool = uftpSignatureProvider instanceof LazySodiumSignatureProvider ? lazySodiumBase64Pool.getObject() : null;
+
+        return new UftpWarmUpService(xmlSerializer, xsdSchemaProvider, lazySodiumInstancePool, uftpSerializer, uftpCryptoService, poolSize,
+                                     ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the warm-up before the application reports itself ready, so no traffic is accepted while the library is still cold.
+     */
+    @ConditionalOnProperty(prefix = "shapeshifter.warm-up", name = "enabled", havingValue = "true")
+    @Bean
+    public ApplicationRunner shapeshifterWarmUpRunner(UftpWarmUpService uftpWarmUpService) {
+        return args -> uftpWarmUpService.warmUp();
     }
 
     /**
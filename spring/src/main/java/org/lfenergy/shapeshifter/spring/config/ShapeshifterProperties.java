@@ -5,16 +5,27 @@
 package org.lfenergy.shapeshifter.spring.config;
 
 import lombok.extern.apachecommons.CommonsLog;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.service.sending.OutboxSettings;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Optional;
 
 @ConfigurationProperties(prefix = "shapeshifter")
 public record ShapeshifterProperties(
         ValidationProperties validation,
         TlsProperties tls,
-        HttpProperties http
+        HttpProperties http,
+        XmlProperties xml,
+        WarmUpProperties warmUp,
+        CryptoProperties crypto,
+        ReceivingProperties receiving,
+        SendingProperties sending,
+        ParticipantProperties participant
 ) {
     public record ValidationProperties(
             boolean enabled
@@ -39,4 +50,111 @@ public record ShapeshifterProperties(
             Duration connectTimeout,
             Duration readTimeout
     ) { }
+
+    /**
+     * @param maxPooledInstances   maximum number of idle JAXB (un)marshallers kept per message type and XSD validators kept per XSD, 0 disables pooling
+     * @param singlePassValidation validate incoming XML while unmarshalling it instead of in a separate pass
+     * @param schemaRouting        validate payload messages against the smallest XSD that declares their root element
+     * @param precompileSchemas    compile all UFTP XSDs at startup instead of on first use
+     */
+    public record XmlProperties(
+            Integer maxPooledInstances,
+            Boolean singlePassValidation,
+            Boolean schemaRouting,
+            Boolean precompileSchemas
+    ) { }
+
+    /**
+     * @param enabled  warm up JAXB, the XSD schemas, libsodium and a synthetic message round trip when the application starts
+     * @param poolSize number of idle libsodium instances and XSD validators per schema to create during warm-up
+     */
+    public record WarmUpProperties(
+            Boolean enabled,
+            Integer poolSize
+    ) { }
+
+    /**
+     * @param signatureProvider     the implementation that signs and verifies messages, {@code libsodium} (default) or {@code jdk}
+     * @param verificationKeyCache  caching of the public keys of senders
+     */
+    public record CryptoProperties(
+            SignatureProvider signatureProvider,
+            CacheProperties verificationKeyCache
+    ) {
+
+        public enum SignatureProvider {
+            LIBSODIUM,
+            JDK
+        }
+    }
+
+    /**
+     * @param verifiedMessageCache caching of received messages whose signature was verified, so the signatures of redeliveries are not verified again
+     */
+    public record ReceivingProperties(
+            CacheProperties verifiedMessageCache
+    ) { }
+
+    /**
+     * @param authorizationCache caching of the Authorization headers of recipients; the TTL applies to headers whose token expiry is not known
+     * @param outbox             durable log of sent messages, so messages that were not delivered are sent again periodically and when the application
+     *                           restarts
+     */
+    public record SendingProperties(
+            CacheProperties authorizationCache,
+            OutboxProperties outbox
+    ) { }
+
+    /**
+     * @param enabled        write messages to the outbox before they are sent
+     * @param directory      the directory of the segment files on the local filesystem; required when the outbox is enabled
+     * @param segmentSize    the size of a segment file, 16MB by default
+     * @param fsync          force messages to disk before they are sent, {@code true} by default
+     * @param replayInterval how long to wait after sending the pending messages before sending the ones still pending again, 1 minute by default
+     */
+    public record OutboxProperties(
+            Boolean enabled,
+            Path directory,
+            DataSize segmentSize,
+            Boolean fsync,
+            Duration replayInterval
+    ) {
+
+        public OutboxSettings toOutboxSettings() {
+            return new OutboxSettings(
+                    Optional.ofNullable(segmentSize).map(size -> Math.toIntExact(size.toBytes())).orElse(OutboxSettings.DEFAULT.segmentSize()),
+                    Optional.ofNullable(fsync).orElse(OutboxSettings.DEFAULT.fsync()));
+        }
+    }
+
+    /**
+     * @param resolutionCache caching of the participant information of the application's UftpParticipantService, used to look up endpoints and public keys
+     */
+    public record ParticipantProperties(
+            CacheProperties resolutionCache
+    ) { }
+
+    /**
+     * @param enabled      use the cache
+     * @param maxSize      maximum number of cached entries
+     * @param ttl          how long a cached value is used
+     * @param refreshAhead how long before a value expires it is reloaded in the background on use
+     * @param negativeTtl  how long an unknown key is remembered
+     */
+    public record CacheProperties(
+            Boolean enabled,
+            Integer maxSize,
+            Duration ttl,
+            Duration refreshAhead,
+            Duration negativeTtl
+    ) {
+
+        public CacheSettings toCacheSettings(CacheSettings defaults) {
+            return new CacheSettings(
+                    Optional.ofNullable(maxSize).orElse(defaults.maxSize()),
+                    Optional.ofNullable(ttl).orElse(defaults.ttl()),
+                    Optional.ofNullable(refreshAhead).orElse(defaults.refreshAhead()),
+                    Optional.ofNullable(negativeTtl).orElse(defaults.negativeTtl()));
+        }
+    }
 }
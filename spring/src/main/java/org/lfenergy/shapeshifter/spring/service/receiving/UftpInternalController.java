@@ -10,8 +10,10 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.nio.charset.StandardCharsets;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
+import org.lfenergy.shapeshifter.api.PayloadMessageType;
 import org.lfenergy.shapeshifter.api.SignedMessage;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.model.IncomingUftpMessage;
@@ -21,9 +23,11 @@ import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
 import org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageException;
 import org.lfenergy.shapeshifter.core.service.receiving.ReceivedMessageProcessor;
 import org.lfenergy.shapeshifter.core.service.receiving.UftpReceiveException;
+import org.lfenergy.shapeshifter.core.service.receiving.VerifiedMessageCache;
 import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -46,11 +50,14 @@ public class UftpInternalController {
   private final UftpCryptoService uftpCryptoService;
   private final ReceivedMessageProcessor processor;
   private final UftpErrorProcessor errorProcessor;
+  // Optional; when present, redeliveries of verified messages skip signature verification
+  @Nullable
+  private final VerifiedMessageCache verifiedMessageCache;
 
   /**
    * Receives a signed UFTP message which will be sent to the receiving counterparty
    *
-   * @param transportXml the signed UFTP message in XML format
+   * @param transportXml the signed UFTP message in XML format, as received (UTF-8 unless declared otherwise)
    */
   @PostMapping(value = "/message", consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE})
   @Operation(summary = "Send an UFTP message", description = "Send an UFTP message in a signed XML document",
@@ -67,17 +74,13 @@ public class UftpInternalController {
           description = "UFTP message in a signed XML document format",
           content = @Content(schema = @Schema(implementation = SignedMessage.class), examples = @ExampleObject(value = UFTP_MESSAGE_XML_EXAMPLE_STRING)
           ))
-      String transportXml) {
+      byte[] transportXml) {
     try {
       log.debug("Received UFTP message.");
-      var signedMessage = deserializer.fromSignedXml(transportXml);
+      var signedMessage = deserializer.fromSignedXmlStreaming(transportXml);
       log.info(String.format("Received UFTP message from %s", signedMessage.getSenderDomain()));
 
-      var payloadXml = uftpCryptoService.verifySignedMessage(signedMessage);
-      log.debug("Received UFTP message unsealed.");
-      var payloadMessage = deserializer.fromPayloadXml(payloadXml);
-
-      processor.onReceivedMessage(IncomingUftpMessage.create(new UftpParticipant(signedMessage), payloadMessage, transportXml, payloadXml));
+      processor.onReceivedMessage(verifiedMessage(signedMessage, transportXml));
 
       return ResponseEntity.ok(null);
     } catch (DuplicateMessageException e) {
@@ -89,9 +92,35 @@ public class UftpInternalController {
     }
   }
 
-  private ResponseEntity<String> handleException(String transportXml, UftpConnectorException cause) {
+  private IncomingUftpMessage<? extends PayloadMessageType> verifiedMessage(SignedMessage signedMessage, byte[] transportXml) {
+    var payloadXml = verifiedPayloadXml(signedMessage);
+    log.debug("Received UFTP message unsealed.");
+    // Parsed for every delivery, so handlers never share a payload message
+    var payloadMessage = deserializer.fromPayloadXml(payloadXml);
+    return IncomingUftpMessage.createFromBytes(new UftpParticipant(signedMessage), payloadMessage, transportXml, payloadXml);
+  }
+
+  private byte[] verifiedPayloadXml(SignedMessage signedMessage) {
+    if (verifiedMessageCache == null) {
+      return uftpCryptoService.verifySignedMessageAsBytes(signedMessage);
+    }
+
+    // The current public key is resolved for every message, so a message verified with a key that was since revoked is verified again
+    var publicKey = uftpCryptoService.getPublicKey(new UftpParticipant(signedMessage));
+    var cached = verifiedMessageCache.find(signedMessage, publicKey);
+    if (cached.isPresent()) {
+      log.debug("Received UFTP message was verified before.");
+      return cached.get();
+    }
+
+    var payloadXml = uftpCryptoService.verifySignedMessageAsBytes(signedMessage, publicKey);
+    verifiedMessageCache.put(signedMessage, publicKey, payloadXml);
+    return payloadXml;
+  }
+
+  private ResponseEntity<String> handleException(byte[] transportXml, UftpConnectorException cause) {
     String error = "Failed to process received UFTP message. Error: " + cause.getMessage();
-    errorProcessor.onErrorDuringReceivedMessageReading(transportXml, cause);
+    errorProcessor.onErrorDuringReceivedMessageReading(new String(transportXml, StandardCharsets.UTF_8), cause);
     return ResponseEntity.status(cause.getHttpStatusCode().getValue()).body(error);
   }
-}
\ No newline at end of file
+}
@@ -3,17 +3,32 @@ package org.lfenergy.shapeshifter.spring.config;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.lfenergy.shapeshifter.core.service.CachingParticipantAuthorizationProvider;
 import org.lfenergy.shapeshifter.core.service.ParticipantAuthorizationProvider;
 import org.lfenergy.shapeshifter.core.service.UftpErrorProcessor;
+import org.lfenergy.shapeshifter.core.service.UftpParticipantService;
+import org.lfenergy.shapeshifter.core.service.crypto.JdkSignatureProvider;
+import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumBase64Pool;
+import org.lfenergy.shapeshifter.core.service.crypto.LazySodiumSignatureProvider;
 import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpSignatureProvider;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpVerificationKeyCache;
+import org.lfenergy.shapeshifter.core.service.participant.CachingParticipantResolutionService;
 import org.lfenergy.shapeshifter.core.service.participant.ParticipantResolutionService;
+import org.lfenergy.shapeshifter.core.service.receiving.VerifiedMessageCache;
 import org.lfenergy.shapeshifter.core.service.sending.RequestInterceptor;
+import org.lfenergy.shapeshifter.core.service.sending.UftpOutbox;
+import org.lfenergy.shapeshifter.core.service.sending.UftpOutboxReplayer;
 import org.lfenergy.shapeshifter.core.service.sending.UftpSendMessageService;
 import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
 import org.lfenergy.shapeshifter.core.service.validation.UftpMessageSupport;
 import org.lfenergy.shapeshifter.core.service.validation.UftpValidationService;
+import org.lfenergy.shapeshifter.core.service.warmup.UftpWarmUpService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
@@ -24,6 +39,7 @@ import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 
 @SpringBootTest(classes = ShapeshifterConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.MOCK)
@@ -32,7 +48,8 @@ class ShapeshifterConfigurationTest {
     @MockitoBean UftpSerializer uftpSerializer;
     @MockitoBean UftpCryptoService uftpCryptoService;
     @MockitoBean ParticipantResolutionService participantResolutionService;
-    @MockitoBean ParticipantAuthorizationProvider participantAuthorizationProvider;
+    // By name, as the authorization cache is a ParticipantAuthorizationProvider too
+    @MockitoBean(name = "participantOAuth2TokenProvider") ParticipantAuthorizationProvider participantAuthorizationProvider;
     @MockitoBean UftpValidationService uftpValidationService;
     @MockitoBean UftpMessageSupport uftpMessageSupport;
     @MockitoBean UftpErrorProcessor uftpErrorProcessor;
@@ -49,7 +66,7 @@ class ShapeshifterConfigurationTest {
         void shouldConfigureConnectTimeout() throws Exception {
             var service = new ShapeshifterConfiguration(properties).uftpSendMessageService(
                     uftpSerializer, uftpCryptoService, participantResolutionService,
-                    participantAuthorizationProvider, uftpValidationService);
+                    participantAuthorizationProvider, uftpValidationService, mock(ObjectProvider.class));
 
             var httpClientField = UftpSendMessageService.class.getDeclaredField("httpClient");
             httpClientField.setAccessible(true);
@@ -70,7 +87,7 @@ class ShapeshifterConfigurationTest {
         void shouldRegisterReadTimeoutInterceptor() throws Exception {
             var service = new ShapeshifterConfiguration(properties).uftpSendMessageService(
                     uftpSerializer, uftpCryptoService, participantResolutionService,
-                    participantAuthorizationProvider, uftpValidationService);
+                    participantAuthorizationProvider, uftpValidationService, mock(ObjectProvider.class));
 
             var requestBuilder = HttpRequest.newBuilder().uri(new URI("http://localhost"));
             var interceptorsField = UftpSendMessageService.class.getDeclaredField("requestInterceptors");
@@ -93,7 +110,7 @@ class ShapeshifterConfigurationTest {
         void shouldNotConfigureConnectTimeoutByDefault() throws Exception {
             var service = new ShapeshifterConfiguration(properties).uftpSendMessageService(
                     uftpSerializer, uftpCryptoService, participantResolutionService,
-                    participantAuthorizationProvider, uftpValidationService);
+                    participantAuthorizationProvider, uftpValidationService, mock(ObjectProvider.class));
 
             var httpClientField = UftpSendMessageService.class.getDeclaredField("httpClient");
             httpClientField.setAccessible(true);
@@ -106,7 +123,7 @@ class ShapeshifterConfigurationTest {
         void shouldNotRegisterReadTimeoutInterceptorByDefault() throws Exception {
             var service = new ShapeshifterConfiguration(properties).uftpSendMessageService(
                     uftpSerializer, uftpCryptoService, participantResolutionService,
-                    participantAuthorizationProvider, uftpValidationService);
+                    participantAuthorizationProvider, uftpValidationService, mock(ObjectProvider.class));
 
             var interceptorsField = UftpSendMessageService.class.getDeclaredField("requestInterceptors");
             interceptorsField.setAccessible(true);
@@ -114,6 +131,158 @@ class ShapeshifterConfigurationTest {
 
             assertThat(interceptors).isEmpty();
         }
+
+        @Test
+        void shouldNotRegisterWarmUpRunnerByDefault(@Autowired ApplicationContext context) {
+            assertThat(context.containsBean("shapeshifterWarmUpRunner")).isFalse();
+        }
+
+        @Test
+        void shouldUseLibsodiumSignatureProviderByDefault(@Autowired UftpSignatureProvider signatureProvider) {
+            assertThat(signatureProvider).isInstanceOf(LazySodiumSignatureProvider.class);
+        }
+
+        @Test
+        void shouldNotRegisterVerificationKeyCacheByDefault(@Autowired ApplicationContext context) {
+            assertThat(context.getBeanNamesForType(UftpVerificationKeyCache.class)).isEmpty();
+        }
+
+        @Test
+        void shouldNotRegisterVerifiedMessageCacheByDefault(@Autowired ApplicationContext context) {
+            assertThat(context.getBeanNamesForType(VerifiedMessageCache.class)).isEmpty();
+        }
+
+        @Test
+        void shouldNotCacheAuthorizationHeadersByDefault(@Autowired ApplicationContext context) {
+            assertThat(context.getBeansOfType(CachingParticipantAuthorizationProvider.class)).isEmpty();
+        }
+
+        @Test
+        void shouldNotRegisterOutboxByDefault(@Autowired ApplicationContext context) {
+            assertThat(context.getBeanNamesForType(UftpOutbox.class)).isEmpty();
+            assertThat(context.getBeanNamesForType(UftpOutboxReplayer.class)).isEmpty();
+            assertThat(context.containsBean("shapeshifterOutboxReplayRunner")).isFalse();
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"shapeshifter.warm-up.enabled=true", "shapeshifter.warm-up.pool-size=1"})
+    class WarmUpPropertiesSet {
+
+        @Autowired
+        private ApplicationContext context;
+
+        @Test
+        void shouldRegisterWarmUpRunner() throws Exception {
+            assertThat(context.getBean("shapeshifterWarmUpRunner")).isInstanceOf(ApplicationRunner.class);
+
+            var poolField = UftpWarmUpService.class.getDeclaredField("lazySodiumInstancePool");
+            poolField.setAccessible(true);
+
+            assertThat(poolField.get(context.getBean(UftpWarmUpService.class))).isInstanceOf(LazySodiumBase64Pool.class);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shapeshifter.crypto.signature-provider=jdk")
+    class SignatureProviderPropertiesSet {
+
+        @Test
+        void shouldUseJdkSignatureProvider(@Autowired UftpSignatureProvider signatureProvider) {
+            assertThat(signatureProvider).isInstanceOf(JdkSignatureProvider.class);
+        }
+
+        @Test
+        void shouldNotWarmUpLibsodium(@Autowired UftpWarmUpService warmUpService) throws Exception {
+            var poolField = UftpWarmUpService.class.getDeclaredField("lazySodiumInstancePool");
+            poolField.setAccessible(true);
+
+            assertThat(poolField.get(warmUpService)).isNull();
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"shapeshifter.crypto.verification-key-cache.enabled=true", "shapeshifter.crypto.verification-key-cache.ttl=5m"})
+    class VerificationKeyCachePropertiesSet {
+
+        @Test
+        void shouldRegisterVerificationKeyCache(@Autowired ApplicationContext context) {
+            assertThat(context.getBean(UftpVerificationKeyCache.class)).isNotNull();
+        }
     }
 
-}
\ No newline at end of file
+    @Nested
+    @TestPropertySource(properties = "shapeshifter.participant.resolution-cache.enabled=true")
+    class ParticipantResolutionCachePropertiesSet {
+
+        @Autowired
+        private ShapeshifterProperties properties;
+
+        @Test
+        void shouldCacheParticipantInformation() {
+            var service = new ShapeshifterConfiguration(properties).participantResolutionService(mock(UftpParticipantService.class));
+
+            assertThat(service).isInstanceOf(CachingParticipantResolutionService.class);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shapeshifter.sending.authorization-cache.enabled=true")
+    class AuthorizationCachePropertiesSet {
+
+        @Test
+        void shouldCacheAuthorizationHeaders(@Autowired CachingParticipantAuthorizationProvider cachingProvider,
+                                             @Autowired UftpSendMessageService sendMessageService) throws Exception {
+            var providerField = UftpSendMessageService.class.getDeclaredField("participantAuthorizationProvider");
+            providerField.setAccessible(true);
+
+            assertThat(providerField.get(sendMessageService)).isSameAs(cachingProvider);
+        }
+
+        @Test
+        void shouldDecorateApplicationProvider(@Autowired CachingParticipantAuthorizationProvider cachingProvider) throws Exception {
+            var delegateField = CachingParticipantAuthorizationProvider.class.getDeclaredField("delegate");
+            delegateField.setAccessible(true);
+
+            assertThat(delegateField.get(cachingProvider)).isSameAs(participantAuthorizationProvider);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shapeshifter.receiving.verified-message-cache.enabled=true")
+    class VerifiedMessageCachePropertiesSet {
+
+        @Test
+        void shouldRegisterVerifiedMessageCache(@Autowired ApplicationContext context) {
+            assertThat(context.getBean(VerifiedMessageCache.class).stats().hitRate()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {
+            "shapeshifter.sending.outbox.enabled=true",
+            "shapeshifter.sending.outbox.directory=${java.io.tmpdir}/shapeshifter-outbox-test",
+            "shapeshifter.sending.outbox.replay-interval=30s"
+    })
+    class OutboxPropertiesSet {
+
+        @Test
+        void shouldWriteSentMessagesToOutbox(@Autowired ApplicationContext context) throws Exception {
+            var outbox = context.getBean(UftpOutbox.class);
+            var service = context.getBean(UftpSendMessageService.class);
+
+            var outboxField = UftpSendMessageService.class.getDeclaredField("outbox");
+            outboxField.setAccessible(true);
+
+            assertThat(outboxField.get(service)).isSameAs(outbox);
+            assertThat(context.getBean("shapeshifterOutboxReplayRunner")).isInstanceOf(ApplicationRunner.class);
+        }
+
+        @Test
+        void shouldReplayOutboxPeriodically(@Autowired ApplicationContext context) {
+            var replayer = context.getBean(UftpOutboxReplayer.class);
+
+            assertThat(replayer.getInterval()).isEqualTo(Duration.ofSeconds(30));
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package org.lfenergy.shapeshifter.spring.config;
 
 import org.junit.jupiter.api.Test;
+import org.lfenergy.shapeshifter.core.common.cache.CacheSettings;
+import org.lfenergy.shapeshifter.core.service.CachingParticipantAuthorizationProvider;
+import org.lfenergy.shapeshifter.core.service.crypto.UftpVerificationKeyCache;
+import org.lfenergy.shapeshifter.core.service.participant.CachingParticipantResolutionService;
+import org.lfenergy.shapeshifter.core.service.receiving.VerifiedMessageCache;
+import org.lfenergy.shapeshifter.core.service.sending.OutboxSettings;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
+import java.nio.file.Path;
 import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,4 +48,118 @@ class ShapeshifterPropertiesTest {
             assertThat(properties.http()).isNull();
         });
     }
+
+    @Test
+    void shouldBindXmlProperties() {
+        contextRunner.withPropertyValues(
+                "shapeshifter.xml.max-pooled-instances=8",
+                "shapeshifter.xml.single-pass-validation=true",
+                "shapeshifter.xml.schema-routing=true",
+                "shapeshifter.xml.precompile-schemas=true"
+        ).run(context -> {
+            var properties = context.getBean(ShapeshifterProperties.class);
+
+            assertThat(properties.xml()).isNotNull();
+            assertThat(properties.xml().maxPooledInstances()).isEqualTo(8);
+            assertThat(properties.xml().singlePassValidation()).isTrue();
+            assertThat(properties.xml().schemaRouting()).isTrue();
+            assertThat(properties.xml().precompileSchemas()).isTrue();
+        });
+    }
+
+    @Test
+    void shouldBindWarmUpProperties() {
+        contextRunner.withPropertyValues(
+                "shapeshifter.warm-up.enabled=true",
+                "shapeshifter.warm-up.pool-size=2"
+        ).run(context -> {
+            var properties = context.getBean(ShapeshifterProperties.class);
+
+            assertThat(properties.warmUp()).isNotNull();
+            assertThat(properties.warmUp().enabled()).isTrue();
+            assertThat(properties.warmUp().poolSize()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void shouldBindCryptoProperties() {
+        contextRunner.withPropertyValues(
+                "shapeshifter.crypto.signature-provider=jdk",
+                "shapeshifter.crypto.verification-key-cache.enabled=true",
+                "shapeshifter.crypto.verification-key-cache.max-size=100",
+                "shapeshifter.crypto.verification-key-cache.ttl=5m"
+        ).run(context -> {
+            var properties = context.getBean(ShapeshifterProperties.class);
+
+            assertThat(properties.crypto()).isNotNull();
+            assertThat(properties.crypto().signatureProvider()).isEqualTo(ShapeshifterProperties.CryptoProperties.SignatureProvider.JDK);
+            assertThat(properties.crypto().verificationKeyCache().enabled()).isTrue();
+            assertThat(properties.crypto().verificationKeyCache().toCacheSettings(UftpVerificationKeyCache.DEFAULT_SETTINGS))
+                    .isEqualTo(new CacheSettings(100, Duration.ofMinutes(5), UftpVerificationKeyCache.DEFAULT_SETTINGS.refreshAhead(),
+                                                 UftpVerificationKeyCache.DEFAULT_SETTINGS.negativeTtl()));
+        });
+    }
+
+    @Test
+    void shouldBindReceivingProperties() {
+        contextRunner.withPropertyValues(
+                "shapeshifter.receiving.verified-message-cache.enabled=true",
+                "shapeshifter.receiving.verified-message-cache.max-size=500"
+        ).run(context -> {
+            var properties = context.getBean(ShapeshifterProperties.class);
+
+            assertThat(properties.receiving().verifiedMessageCache().enabled()).isTrue();
+            assertThat(properties.receiving().verifiedMessageCache().toCacheSettings(VerifiedMessageCache.DEFAULT_SETTINGS))
+                    .isEqualTo(new CacheSettings(500, VerifiedMessageCache.DEFAULT_SETTINGS.ttl(), Duration.ZERO, Duration.ZERO));
+        });
+    }
+
+    @Test
+    void shouldBindParticipantProperties() {
+        contextRunner.withPropertyValues(
+                "shapeshifter.participant.resolution-cache.enabled=true",
+                "shapeshifter.participant.resolution-cache.max-size=50",
+                "shapeshifter.participant.resolution-cache.negative-ttl=5s"
+        ).run(context -> {
+            var properties = context.getBean(ShapeshifterProperties.class);
+
+            assertThat(properties.participant().resolutionCache().enabled()).isTrue();
+            assertThat(properties.participant().resolutionCache().toCacheSettings(CachingParticipantResolutionService.DEFAULT_SETTINGS))
+                    .isEqualTo(new CacheSettings(50, CachingParticipantResolutionService.DEFAULT_SETTINGS.ttl(),
+                                                 CachingParticipantResolutionService.DEFAULT_SETTINGS.refreshAhead(), Duration.ofSeconds(5)));
+        });
+    }
+
+    @Test
+    void shouldBindSendingProperties() {
+        contextRunner.withPropertyValues(
+                "shapeshifter.sending.authorization-cache.enabled=true",
+                "shapeshifter.sending.authorization-cache.ttl=2m",
+                "shapeshifter.sending.authorization-cache.refresh-ahead=10s"
+        ).run(context -> {
+            var properties = context.getBean(ShapeshifterProperties.class);
+
+            assertThat(properties.sending().authorizationCache().enabled()).isTrue();
+            assertThat(properties.sending().authorizationCache().toCacheSettings(CachingParticipantAuthorizationProvider.DEFAULT_SETTINGS))
+                    .isEqualTo(new CacheSettings(CachingParticipantAuthorizationProvider.DEFAULT_SETTINGS.maxSize(), Duration.ofMinutes(2),
+                                                 Duration.ofSeconds(10), Duration.ZERO));
+        });
+    }
+
+    @Test
+    void shouldBindOutboxProperties() {
+        contextRunner.withPropertyValues(
+                "shapeshifter.sending.outbox.enabled=true",
+                "shapeshifter.sending.outbox.directory=/var/lib/shapeshifter/outbox",
+                "shapeshifter.sending.outbox.segment-size=1MB",
+                "shapeshifter.sending.outbox.replay-interval=30s"
+        ).run(context -> {
+            var properties = context.getBean(ShapeshifterProperties.class);
+
+            assertThat(properties.sending().outbox().enabled()).isTrue();
+            assertThat(properties.sending().outbox().directory()).isEqualTo(Path.of("/var/lib/shapeshifter/outbox"));
+            assertThat(properties.sending().outbox().toOutboxSettings()).isEqualTo(new OutboxSettings(1024 * 1024, true));
+            assertThat(properties.sending().outbox().replayInterval()).isEqualTo(Duration.ofSeconds(30));
+        });
+    }
 }
@@ -7,9 +7,13 @@ package org.lfenergy.shapeshifter.spring.service.receiving;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,9 +23,12 @@ import org.lfenergy.shapeshifter.api.USEFRoleType;
 import org.lfenergy.shapeshifter.core.common.HttpStatusCode;
 import org.lfenergy.shapeshifter.core.common.exception.UftpConnectorException;
 import org.lfenergy.shapeshifter.core.model.IncomingUftpMessage;
+import org.lfenergy.shapeshifter.core.model.UftpParticipant;
 import org.lfenergy.shapeshifter.core.service.UftpErrorProcessor;
 import org.lfenergy.shapeshifter.core.service.crypto.UftpCryptoService;
+import org.lfenergy.shapeshifter.core.service.receiving.DuplicateMessageException;
 import org.lfenergy.shapeshifter.core.service.receiving.ReceivedMessageProcessor;
+import org.lfenergy.shapeshifter.core.service.receiving.VerifiedMessageCache;
 import org.lfenergy.shapeshifter.core.service.serialization.UftpSerializer;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -34,7 +41,10 @@ import org.springframework.http.HttpStatus;
 class UftpInternalControllerTest {
 
   private static final String TRANSPORT_XML = "TRANSPORT_XML";
+  private static final byte[] TRANSPORT_XML_BYTES = TRANSPORT_XML.getBytes(StandardCharsets.UTF_8);
   private static final String PAYLOAD_XML = "PAYLOAD_XML";
+  private static final byte[] PAYLOAD_XML_BYTES = PAYLOAD_XML.getBytes(StandardCharsets.UTF_8);
+  private static final byte[] PUBLIC_KEY_BYTES = "PUBLIC_KEY".getBytes(StandardCharsets.UTF_8);
   private static final String SENDER_DOMAIN = "SENDER_DOMAIN";
   private static final String ERROR_MESSAGE = "ERROR_MESSAGE";
 
@@ -79,11 +89,11 @@ class UftpInternalControllerTest {
 
   @Test
   void receiveUftpMessageUftpConnectorException() {
-    given(deserializer.fromSignedXml(TRANSPORT_XML)).willThrow(uftpException);
+    given(deserializer.fromSignedXmlStreaming(TRANSPORT_XML_BYTES)).willThrow(uftpException);
     given(uftpException.getMessage()).willReturn(ERROR_MESSAGE);
     given(uftpException.getHttpStatusCode()).willReturn(HttpStatusCode.CONFLICT);
 
-    var result = testSubject.postUftpMessage(TRANSPORT_XML);
+    var result = testSubject.postUftpMessage(TRANSPORT_XML_BYTES);
 
     assertThat(result.getStatusCode().value()).isEqualTo(409);
     assertThat(result.getBody()).isEqualTo("Failed to process received UFTP message. Error: ERROR_MESSAGE");
@@ -92,10 +102,10 @@ class UftpInternalControllerTest {
 
   @Test
   void receiveUftpMessageOtherException() {
-    given(deserializer.fromSignedXml(TRANSPORT_XML)).willThrow(runtimeException);
+    given(deserializer.fromSignedXmlStreaming(TRANSPORT_XML_BYTES)).willThrow(runtimeException);
     given(runtimeException.getMessage()).willReturn(ERROR_MESSAGE);
 
-    var result = testSubject.postUftpMessage(TRANSPORT_XML);
+    var result = testSubject.postUftpMessage(TRANSPORT_XML_BYTES);
 
     assertThat(result.getStatusCode().value()).isEqualTo(500);
     assertThat(result.getBody()).isEqualTo("Failed to process received UFTP message. Error: ERROR_MESSAGE");
@@ -110,13 +120,13 @@ class UftpInternalControllerTest {
 
   @Test
   void receiveUftpMessageOk() {
-    given(deserializer.fromSignedXml(TRANSPORT_XML)).willReturn(signedMessage);
+    given(deserializer.fromSignedXmlStreaming(TRANSPORT_XML_BYTES)).willReturn(signedMessage);
     given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
     given(signedMessage.getSenderRole()).willReturn(USEFRoleType.DSO);
-    given(uftpCryptoService.verifySignedMessage(signedMessage)).willReturn(PAYLOAD_XML);
-    given(deserializer.fromPayloadXml(PAYLOAD_XML)).willReturn(payloadMessage);
+    given(uftpCryptoService.verifySignedMessageAsBytes(signedMessage)).willReturn(PAYLOAD_XML_BYTES);
+    given(deserializer.fromPayloadXml(PAYLOAD_XML_BYTES)).willReturn(payloadMessage);
 
-    var result = testSubject.postUftpMessage(TRANSPORT_XML);
+    var result = testSubject.postUftpMessage(TRANSPORT_XML_BYTES);
 
     assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
     assertThat(result.getBody()).isNull();
@@ -128,5 +138,52 @@ class UftpInternalControllerTest {
     assertThat(incomingUftpMessage.payloadMessage()).isSameAs(payloadMessage);
     assertThat(incomingUftpMessage.signedMessageXml()).isEqualTo(TRANSPORT_XML);
     assertThat(incomingUftpMessage.payloadMessageXml()).isEqualTo(PAYLOAD_XML);
+    assertThat(incomingUftpMessage.signedMessageXmlBytes()).isSameAs(TRANSPORT_XML_BYTES);
+    assertThat(incomingUftpMessage.payloadMessageXmlBytes()).isSameAs(PAYLOAD_XML_BYTES);
   }
-}
\ No newline at end of file
+
+  @Test
+  void receiveUftpMessage_verifiedBefore_skipsVerification() {
+    var verifiedMessageCache = mock(VerifiedMessageCache.class);
+    var cachedPayloadXml = PAYLOAD_XML.getBytes(StandardCharsets.UTF_8);
+    given(deserializer.fromSignedXmlStreaming(TRANSPORT_XML_BYTES)).willReturn(signedMessage);
+    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
+    given(signedMessage.getSenderRole()).willReturn(USEFRoleType.DSO);
+    given(uftpCryptoService.getPublicKey(new UftpParticipant(SENDER_DOMAIN, USEFRoleType.DSO))).willReturn(PUBLIC_KEY_BYTES);
+    given(verifiedMessageCache.find(signedMessage, PUBLIC_KEY_BYTES)).willReturn(Optional.of(cachedPayloadXml));
+    given(deserializer.fromPayloadXml(cachedPayloadXml)).willReturn(payloadMessage);
+    willThrow(DuplicateMessageException.class).given(processor).onReceivedMessage(incomingUftpMessageCaptor.capture());
+    testSubject = new UftpInternalController(deserializer, uftpCryptoService, processor, errorProcessor, verifiedMessageCache);
+
+    var result = testSubject.postUftpMessage(TRANSPORT_XML_BYTES);
+
+    assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(result.getBody()).isEqualTo("Duplicate message");
+    // The payload is parsed again, so the redelivery does not share a payload message with the first delivery
+    assertThat(incomingUftpMessageCaptor.getValue().payloadMessage()).isSameAs(payloadMessage);
+    assertThat(incomingUftpMessageCaptor.getValue().payloadMessageXmlBytes()).isSameAs(cachedPayloadXml);
+    assertThat(incomingUftpMessageCaptor.getValue().signedMessageXmlBytes()).isSameAs(TRANSPORT_XML_BYTES);
+    verifyNoMoreInteractions(verifiedMessageCache);
+  }
+
+  @Test
+  void receiveUftpMessage_notVerifiedBefore_remembersVerifiedMessage() {
+    var verifiedMessageCache = mock(VerifiedMessageCache.class);
+    given(deserializer.fromSignedXmlStreaming(TRANSPORT_XML_BYTES)).willReturn(signedMessage);
+    given(signedMessage.getSenderDomain()).willReturn(SENDER_DOMAIN);
+    given(signedMessage.getSenderRole()).willReturn(USEFRoleType.DSO);
+    given(uftpCryptoService.getPublicKey(new UftpParticipant(SENDER_DOMAIN, USEFRoleType.DSO))).willReturn(PUBLIC_KEY_BYTES);
+    given(verifiedMessageCache.find(signedMessage, PUBLIC_KEY_BYTES)).willReturn(Optional.empty());
+    given(uftpCryptoService.verifySignedMessageAsBytes(signedMessage, PUBLIC_KEY_BYTES)).willReturn(PAYLOAD_XML_BYTES);
+    given(deserializer.fromPayloadXml(PAYLOAD_XML_BYTES)).willReturn(payloadMessage);
+    testSubject = new UftpInternalController(deserializer, uftpCryptoService, processor, errorProcessor, verifiedMessageCache);
+
+    var result = testSubject.postUftpMessage(TRANSPORT_XML_BYTES);
+
+    assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+    verify(processor).onReceivedMessage(incomingUftpMessageCaptor.capture());
+    verify(verifiedMessageCache).put(signedMessage, PUBLIC_KEY_BYTES, PAYLOAD_XML_BYTES);
+    assertThat(incomingUftpMessageCaptor.getValue().payloadMessage()).isSameAs(payloadMessage);
+    verifyNoMoreInteractions(verifiedMessageCache);
+  }
+}